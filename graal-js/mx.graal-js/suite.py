@@ -441,6 +441,8 @@ suite = {
       "dependencies" : [
         "sdk:GRAAL_SDK",
         "GRAALJS",
+        "com.oracle.truffle.js.scriptengine",
+        "com.oracle.truffle.js.snapshot",
         "mx:JMH_1_21"
       ],
       "checkstyle" : "com.oracle.truffle.js",
@@ -649,7 +651,8 @@ suite = {
       ],
       "distDependencies" : [
         "sdk:GRAAL_SDK",
-        "GRAALJS"
+        "GRAALJS",
+        "GRAALJS_SCRIPTENGINE"
       ]
     }
   }
@@ -41,6 +41,7 @@
 package com.oracle.truffle.js.jmh;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -63,11 +64,24 @@ public class JMHArrayInteropBenchmark {
 
         Context context;
         Source preSizedArraySource;
+        int[] javaArray;
+        Value jsIntArray;
+        Value javaFrom;
+        Value javaTo;
+        Value int32ArrayConstructor;
 
         @Setup(Level.Trial)
         public void doSetup() {
-            context = Context.create("js");
+            context = Context.newBuilder("js").allowHostAccess(HostAccess.ALL).allowHostClassLookup(className -> false).build();
             preSizedArraySource = Source.create("js", "new Array(" + ARRAY_SIZE + ")");
+            javaArray = new int[ARRAY_SIZE];
+            for (int i = 0; i < ARRAY_SIZE; i++) {
+                javaArray[i] = i;
+            }
+            jsIntArray = context.eval("js", "Array.from({length: " + ARRAY_SIZE + "}, (v, i) => i)");
+            javaFrom = context.eval("js", "Java.from");
+            javaTo = context.eval("js", "(function(array, type) { return Java.to(array, type); })");
+            int32ArrayConstructor = context.eval("js", "(function(array) { return new Int32Array(array); })");
         }
 
         @TearDown(Level.Trial)
@@ -84,4 +98,28 @@ public class JMHArrayInteropBenchmark {
         }
         return array;
     }
+
+    @Benchmark
+    public Value testJavaFromIntArray(MyState state) {
+        return state.javaFrom.execute(state.javaArray);
+    }
+
+    @Benchmark
+    public Value testInt32ArrayFromIntArray(MyState state) {
+        return state.int32ArrayConstructor.execute(state.javaArray);
+    }
+
+    @Benchmark
+    public int[] testCopyJSArrayToJava(MyState state) {
+        int[] result = new int[MyState.ARRAY_SIZE];
+        for (int i = 0; i < MyState.ARRAY_SIZE; i++) {
+            result[i] = state.jsIntArray.getArrayElement(i).asInt();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] testJavaToIntArray(MyState state) {
+        return state.javaTo.execute(state.jsIntArray, int[].class).asHostObject();
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Element reads, writes and appends for the array storage strategies: packed int, double and
+ * object arrays, arrays with holes, and sparse arrays.
+ */
+public class JMHArrayStrategyBenchmark extends JMHLanguageBenchmark {
+
+    @Param({"int", "double", "object", "holes", "sparse"}) public String strategy;
+
+    private Value read;
+    private Value write;
+    private Value push;
+
+    @Override
+    protected void setup() {
+        Value create = function("create", "function create(kind) {" +
+                        "  var a = [];" +
+                        "  if (kind === 'sparse') { a[1 << 24] = 0; }" +
+                        "  for (var i = 0; i < 1024; i++) {" +
+                        "    if (kind === 'holes' && (i & 7) === 0) { continue; }" +
+                        "    a[i] = kind === 'double' ? i + 0.5 : kind === 'object' ? {v: i} : i;" +
+                        "  }" +
+                        "  return a;" +
+                        "}");
+        context.getBindings("js").putMember("kind", strategy);
+        context.getBindings("js").putMember("array", create.execute(strategy));
+        read = function("read", "function read(n) { var r = 0; for (var i = 0; i < n; i++) { if (array[i & 1023] !== undefined) { r++; } } return r; }");
+        write = function("write", "function write(n) { for (var i = 0; i < n; i++) { var j = (i & 1023) | 1; array[j] = array[j - 1]; } return n; }");
+        push = function("push", "function push(n) { var a = create(kind); for (var i = 0; i < n; i++) { a.push(a[i]); } return a.length; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testRead() {
+        return read.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testWrite() {
+        return write.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testCreateAndPush() {
+        return push.execute(OPS);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import java.io.OutputStream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@code console.log} from several contexts sharing one engine and one output
+ * stream, with and without {@code js.async-output}.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+@Threads(4)
+public class JMHConsoleLogBenchmark {
+
+    /**
+     * Discards the output, but serializes writers like a real console stream would.
+     */
+    static final class SinkOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public synchronized void write(int b) {
+            count++;
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public synchronized void flush() {
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class EngineState {
+        @Param({"false", "true"}) public boolean asyncOutput;
+
+        Engine engine;
+        SinkOutputStream out;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            out = new SinkOutputStream();
+            engine = Engine.newBuilder().allowExperimentalOptions(true).option("js.async-output", String.valueOf(asyncOutput)).out(out).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            engine.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ContextState {
+        Context context;
+        Source logSource;
+
+        @Setup(Level.Trial)
+        public void doSetup(EngineState engineState) {
+            context = Context.newBuilder("js").engine(engineState.engine).out(engineState.out).build();
+            logSource = Source.create("js", "for (let i = 0; i < 100; i++) { console.log('line', i, 'of the benchmark output'); }");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testConsoleLog(ContextState state) {
+        return state.context.eval(state.logSource);
+    }
+}
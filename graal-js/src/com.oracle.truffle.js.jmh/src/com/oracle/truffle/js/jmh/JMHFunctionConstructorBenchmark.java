@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The {@code Function} constructor with a repeated source, which is served from the parsing cache
+ * ({@code js.function-constructor-cache-size}), and with a small set of rotating sources.
+ */
+public class JMHFunctionConstructorBenchmark extends JMHLanguageBenchmark {
+
+    private static final int FUNCTION_OPS = 100;
+
+    @Param({"0", "32"}) public int cacheSize;
+
+    private Value sameSource;
+    private Value rotatingSources;
+
+    @Override
+    protected Context createContext() {
+        return Context.newBuilder("js").allowExperimentalOptions(true).option("js.function-constructor-cache-size", String.valueOf(cacheSize)).build();
+    }
+
+    @Override
+    protected void setup() {
+        sameSource = function("sameSource", "function sameSource(n) { var r = 0; for (var i = 0; i < n; i++) { r += new Function('a', 'b', 'return a + b;')(i, 1); } return r; }");
+        rotatingSources = function("rotatingSources",
+                        "function rotatingSources(n) { var r = 0; for (var i = 0; i < n; i++) { r += new Function('a', 'return a + ' + (i & 15) + ';')(i); } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FUNCTION_OPS)
+    public Value testSameSource() {
+        return sameSource.execute(FUNCTION_OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FUNCTION_OPS)
+    public Value testRotatingSources() {
+        return rotatingSources.execute(FUNCTION_OPS);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+/**
+ * Generators consumed by {@code for-of}: a lazy map/filter/take pipeline and a tokenizer written as
+ * a generator with yields nested in loops and branches.
+ */
+public class JMHGeneratorBenchmark extends JMHLanguageBenchmark {
+
+    private Value pipeline;
+    private Value tokenize;
+
+    @Override
+    protected void setup() {
+        context.eval("js", "function* naturals() { for (var i = 0;; i++) { yield i; } }" +
+                        "function* map(it, f) { for (var x of it) { yield f(x); } }" +
+                        "function* filter(it, p) { for (var x of it) { if (p(x)) { yield x; } } }" +
+                        "function* take(it, n) { if (n <= 0) { return; } for (var x of it) { yield x; if (--n === 0) { return; } } }");
+        context.eval("js", "function* tokens(s) { var i = 0; while (i < s.length) { var c = s.charCodeAt(i);" +
+                        " if (c === 32) { i++; continue; }" +
+                        " try { if (c >= 48 && c <= 57) { var j = i; while (j < s.length && s.charCodeAt(j) >= 48 && s.charCodeAt(j) <= 57) { j++; } yield +s.substring(i, j); i = j; }" +
+                        " else { yield s[i]; i++; } } finally { } } }" +
+                        "var input = ''; for (var k = 0; k < 100; k++) { input += '(' + k + ' + 12) * 345 - '; } input += '0';");
+        pipeline = function("pipeline", "function pipeline(n) { var r = 0; for (var x of take(filter(map(naturals(), (x) => x * 3), (x) => (x & 1) === 0), n)) { r += x; } return r; }");
+        tokenize = function("tokenize", "function tokenize(n) { var r = 0; for (var i = 0; i < n; i++) { for (var t of tokens(input)) { r += typeof t === 'number' ? t : 1; } } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testLazyPipeline() {
+        return pipeline.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testTokenizer() {
+        return tokenize.execute(OPS);
+    }
+}
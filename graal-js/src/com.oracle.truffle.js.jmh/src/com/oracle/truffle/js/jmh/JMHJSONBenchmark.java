@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code JSON.parse} and {@code JSON.stringify} of a record with {@code fields} fields of mixed
+ * types, including a nested array.
+ */
+public class JMHJSONBenchmark extends JMHLanguageBenchmark {
+
+    private static final int JSON_OPS = 100;
+
+    @Param({"4", "32"}) public int fields;
+
+    private Value parse;
+    private Value stringify;
+
+    @Override
+    protected void setup() {
+        context.eval("js", "var record = {};" +
+                        "for (var i = 0; i < " + fields + "; i++) {" +
+                        "  record['field' + i] = i % 4 === 0 ? 'value ' + i : i % 4 === 1 ? i * 1.5 : i % 4 === 2 ? (i & 1) === 0 : [i, i + 1, 'x'];" +
+                        "}" +
+                        "var text = JSON.stringify(record);");
+        parse = function("parse", "function parse(n) { var r = 0; for (var i = 0; i < n; i++) { r += JSON.parse(text).field1; } return r; }");
+        stringify = function("stringify", "function stringify(n) { var r = 0; for (var i = 0; i < n; i++) { r += JSON.stringify(record).length; } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(JSON_OPS)
+    public Value testParse() {
+        return parse.execute(JSON_OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(JSON_OPS)
+    public Value testStringify() {
+        return stringify.execute(JSON_OPS);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+/**
+ * Throughput of promise reactions and of {@code await}. Pending promise jobs are run when the
+ * benchmark function returns to the host, so each invocation includes the whole chain.
+ */
+public class JMHPromiseBenchmark extends JMHLanguageBenchmark {
+
+    private Value thenChain;
+    private Value asyncAwait;
+    private Value promiseAll;
+
+    @Override
+    protected void setup() {
+        context.eval("js", "var result = 0;");
+        thenChain = function("thenChain", "function thenChain(n) { var p = Promise.resolve(0); for (var i = 0; i < n; i++) { p = p.then(function(v) { return v + 1; }); } p.then(function(v) { result = v; }); }");
+        asyncAwait = function("asyncAwait", "async function step(v) { return v + 1; }" +
+                        "async function asyncAwait(n) { var v = 0; for (var i = 0; i < n; i++) { v = await step(v); } result = v; }");
+        promiseAll = function("promiseAll", "function promiseAll(n) { var ps = []; for (var i = 0; i < n; i++) { ps.push(new Promise(function(resolve) { resolve(1); })); }" +
+                        " Promise.all(ps).then(function(values) { result = values.length; }); }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testThenChain() {
+        return thenChain.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testAsyncAwait() {
+        return asyncAwait.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testPromiseAll() {
+        return promiseAll.execute(OPS);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Property reads and writes at monomorphic, polymorphic and megamorphic sites. The objects at
+ * the site have {@code shapes} different shapes.
+ */
+public class JMHPropertyAccessBenchmark extends JMHLanguageBenchmark {
+
+    @Param({"1", "4", "16"}) public int shapes;
+
+    private Value read;
+    private Value write;
+    private Value readMissing;
+
+    @Override
+    protected void setup() {
+        context.eval("js", "var objects = [];" +
+                        "for (var i = 0; i < 64; i++) { var o = {}; o['p' + (i % " + shapes + ")] = i; o.x = i; objects.push(o); }");
+        read = function("read", "function read(n) { var r = 0; for (var i = 0; i < n; i++) { r += objects[i & 63].x; } return r; }");
+        write = function("write", "function write(n) { for (var i = 0; i < n; i++) { objects[i & 63].x = i; } return n; }");
+        readMissing = function("readMissing", "function readMissing(n) { var r = 0; for (var i = 0; i < n; i++) { if (objects[i & 63].y === undefined) { r++; } } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testRead() {
+        return read.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testWrite() {
+        return write.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testReadMissing() {
+        return readMissing.execute(OPS);
+    }
+}
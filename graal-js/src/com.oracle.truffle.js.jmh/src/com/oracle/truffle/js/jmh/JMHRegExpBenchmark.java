@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+/**
+ * Regular expression {@code exec}, {@code test} and {@code replace} with a string and with a
+ * function as replacement.
+ */
+public class JMHRegExpBenchmark extends JMHLanguageBenchmark {
+
+    private static final int REGEXP_OPS = 100;
+
+    private Value exec;
+    private Value test;
+    private Value replace;
+    private Value replaceFunction;
+
+    @Override
+    protected void setup() {
+        context.eval("js", "var input = 'GET /index.html HTTP/1.1, Host: www.example.com, Accept: text/html; q=0.9, */*; q=0.8';" +
+                        "var header = /(\\w+): ([^,]+)/g;");
+        exec = function("exec", "function exec(n) { var r = 0; for (var i = 0; i < n; i++) { header.lastIndex = 0; var m; while ((m = header.exec(input)) !== null) { r += m[2].length; } } return r; }");
+        test = function("test", "function test(n) { var r = 0; for (var i = 0; i < n; i++) { if (/q=0\\.[0-9]/.test(input)) { r++; } } return r; }");
+        replace = function("replace", "function replace(n) { var r = 0; for (var i = 0; i < n; i++) { r += input.replace(/[aeiou]/g, '_').length; } return r; }");
+        replaceFunction = function("replaceFunction",
+                        "function replaceFunction(n) { var r = 0; for (var i = 0; i < n; i++) { r += input.replace(header, function(m, k, v) { return k.toUpperCase(); }).length; } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGEXP_OPS)
+    public Value testExec() {
+        return exec.execute(REGEXP_OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGEXP_OPS)
+    public Value testTest() {
+        return test.execute(REGEXP_OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGEXP_OPS)
+    public Value testReplace() {
+        return replace.execute(REGEXP_OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGEXP_OPS)
+    public Value testReplaceFunction() {
+        return replaceFunction.execute(REGEXP_OPS);
+    }
+}
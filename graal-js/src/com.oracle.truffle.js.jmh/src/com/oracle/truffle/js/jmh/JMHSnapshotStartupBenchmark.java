@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.js.snapshot.SnapshotTool;
+
+/**
+ * Time to first output of a script that loads a library, in a fresh JVM, with and without a
+ * snapshot bundle of both scripts. The bundle is built by running the {@link SnapshotTool} in a
+ * separate process before the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class JMHSnapshotStartupBenchmark {
+
+    private static final int LIBRARY_FUNCTIONS = 500;
+
+    @Param({"false", "true"}) public boolean snapshotBundle;
+
+    private File mainFile;
+    private File bundleFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("snapshot-startup");
+        dir.toFile().deleteOnExit();
+        File libraryFile = dir.resolve("library.js").toFile();
+        mainFile = dir.resolve("main.js").toFile();
+        bundleFile = dir.resolve("main.bundle").toFile();
+        write(libraryFile, createLibrary());
+        write(mainFile, "load(" + quote(libraryFile.getPath()) + ");\nconsole.log('ready ' + f0(1));\n");
+
+        if (snapshotBundle) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            Process tool = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), SnapshotTool.class.getName(),
+                            "--bundle=" + bundleFile.getPath(), "--main=" + mainFile.getPath()).inheritIO().start();
+            if (tool.waitFor() != 0 || !bundleFile.isFile()) {
+                throw new IllegalStateException("Snapshot tool failed");
+            }
+            bundleFile.deleteOnExit();
+        }
+    }
+
+    private static String createLibrary() {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < LIBRARY_FUNCTIONS; i++) {
+            code.append("function f").append(i).append("(x) {\n");
+            code.append("    var o = {a: x, b: [x, x + 1, x + 2], c: 'f").append(i).append("'};\n");
+            code.append("    for (var k in o) { if (typeof o[k] === 'number') { o[k] += ").append(i).append("; } }\n");
+            code.append("    return x > 0 ? o.a + o.b.length : (function() { throw new Error(o.c); })();\n");
+            code.append("}\n");
+        }
+        return code.toString();
+    }
+
+    private static String quote(String path) {
+        return "'" + path.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        file.deleteOnExit();
+    }
+
+    @Benchmark
+    public String testFirstOutput() throws IOException {
+        OutputStream out = new ByteArrayOutputStream();
+        Context.Builder builder = Context.newBuilder("js").allowIO(true).out(out);
+        if (snapshotBundle) {
+            builder.allowExperimentalOptions(true).option("js.snapshot-bundle", bundleFile.getPath());
+        }
+        try (Context context = builder.build()) {
+            context.eval(Source.newBuilder("js", mainFile).build());
+            return out.toString();
+        }
+    }
+}
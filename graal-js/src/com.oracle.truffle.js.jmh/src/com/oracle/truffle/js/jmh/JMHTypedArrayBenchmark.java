@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Element access on typed arrays backed by heap or direct array buffers, and {@code DataView}
+ * getters and setters.
+ */
+public class JMHTypedArrayBenchmark extends JMHLanguageBenchmark {
+
+    @Param({"Uint8Array", "Int32Array", "Float64Array"}) public String type;
+    @Param({"false", "true"}) public boolean directByteBuffer;
+
+    private Value sum;
+    private Value fill;
+    private Value dataView;
+
+    @Override
+    protected Context createContext() {
+        return Context.newBuilder("js").allowExperimentalOptions(true).option("js.direct-byte-buffer", String.valueOf(directByteBuffer)).build();
+    }
+
+    @Override
+    protected void setup() {
+        context.eval("js", "var array = new " + type + "(1024); for (var i = 0; i < 1024; i++) { array[i] = i & 127; }" +
+                        "var view = new DataView(new ArrayBuffer(8192));");
+        sum = function("sum", "function sum(n) { var r = 0; for (var i = 0; i < n; i++) { r += array[i & 1023]; } return r; }");
+        fill = function("fill", "function fill(n) { for (var i = 0; i < n; i++) { array[i & 1023] = i & 127; } return n; }");
+        dataView = function("dataView", "function dataView(n) { var r = 0; for (var i = 0; i < n; i++) { var o = (i & 1023) << 3; view.setFloat64(o, i, true); r += view.getInt32(o, true); } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testRead() {
+        return sum.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testWrite() {
+        return fill.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testDataView() {
+        return dataView.execute(OPS);
+    }
+}
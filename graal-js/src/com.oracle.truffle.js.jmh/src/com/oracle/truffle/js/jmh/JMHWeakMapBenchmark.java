@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code WeakMap} and {@code WeakSet} operations on keys that are contained in several weak
+ * collections, as with WeakMap-based private fields. {@link #testPrivateState} allocates objects
+ * with such fields; run it with {@code -prof gc} to compare the allocated bytes per object.
+ */
+public class JMHWeakMapBenchmark extends JMHLanguageBenchmark {
+
+    @Param({"1", "3", "16"}) public int mapsPerKey;
+
+    private Value get;
+    private Value set;
+    private Value setHas;
+    private Value privateState;
+
+    @Override
+    protected void setup() {
+        context.eval("js", "var maps = [], brand = new WeakSet(), keys = [];" +
+                        "for (var m = 0; m < " + mapsPerKey + "; m++) { maps.push(new WeakMap()); }" +
+                        "for (var i = 0; i < 1024; i++) { var key = {id: i}; keys.push(key); brand.add(key); maps.forEach(function(map) { map.set(key, i); }); }" +
+                        "function PrivateState(x) { brand.add(this); for (var m = 0; m < maps.length; m++) { maps[m].set(this, x + m); } }");
+        get = function("get", "function get(n) { var r = 0; for (var i = 0; i < n; i++) { r += maps[i % maps.length].get(keys[i & 1023]); } return r; }");
+        set = function("set", "function set(n) { for (var i = 0; i < n; i++) { maps[i % maps.length].set(keys[i & 1023], i); } return n; }");
+        setHas = function("setHas", "function setHas(n) { var r = 0; for (var i = 0; i < n; i++) { if (brand.has(keys[i & 1023])) { r++; } } return r; }");
+        privateState = function("privateState", "function privateState(n) { var r = 0; for (var i = 0; i < n; i++) { r += maps[0].get(new PrivateState(i)); } return r; }");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testGet() {
+        return get.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testSet() {
+        return set.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testWeakSetHas() {
+        return setHas.execute(OPS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Value testPrivateState() {
+        return privateState.execute(OPS);
+    }
+}
@@ -109,6 +109,7 @@ import com.oracle.truffle.js.runtime.objects.JSModuleRecord.Status;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.Pair;
+import com.oracle.truffle.js.runtime.util.SnapshotBundle;
 
 /**
  * This is the main external entry into the GraalJS parser.
@@ -258,6 +259,12 @@ public final class GraalJSEvaluator implements JSParser {
         if (MODULE_MIME_TYPE.equals(source.getMimeType()) || source.getName().endsWith(MODULE_SOURCE_NAME_SUFFIX)) {
             return fakeScriptForModule(context, source);
         }
+        if (!context.getContextOptions().getSnapshotBundle().isEmpty()) {
+            ScriptNode script = parseFromSnapshotBundle(context, source);
+            if (script != null) {
+                return script;
+            }
+        }
         try {
             return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, context.getParserOptions().isStrict());
         } catch (com.oracle.js.parser.ParserException e) {
@@ -265,6 +272,28 @@ public final class GraalJSEvaluator implements JSParser {
         }
     }
 
+    /**
+     * Decodes the script from the configured snapshot bundle, if it has an entry matching the
+     * source. Returns {@code null} to fall back to parsing if there is no such entry or the
+     * snapshot was produced by a different version of the engine.
+     */
+    @TruffleBoundary
+    private ScriptNode parseFromSnapshotBundle(JSContext context, Source source) {
+        SnapshotBundle bundle = context.getSnapshotBundle(context.getRealm());
+        if (bundle == null) {
+            return null;
+        }
+        ByteBuffer snapshot = bundle.find(source, context.getParserOptions());
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return parseScriptNode(context, source, snapshot);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private ScriptNode fakeScriptForModule(JSContext context, Source source) {
         RootNode rootNode = new JavaScriptRootNode(context.getLanguage(), JSBuiltin.createSourceSection(), null) {
             @Override
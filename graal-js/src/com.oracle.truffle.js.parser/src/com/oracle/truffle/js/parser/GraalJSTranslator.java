@@ -1802,7 +1802,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         VarRef iteratorVar = environment.createTempVar();
         JavaScriptNode iteratorInit = iteratorVar.createWriteNode(iterator);
         VarRef nextResultVar = environment.createTempVar();
-        JavaScriptNode iteratorNext = factory.createIteratorNext(iteratorVar.createReadNode());
+        JavaScriptNode iteratorNext = factory.createIteratorNext(context, iteratorVar.createReadNode());
         // nextResult = IteratorNext(iterator)
         // while(!(done = IteratorComplete(nextResult)))
         JavaScriptNode condition = factory.createDual(context,
@@ -55,6 +55,7 @@ import com.oracle.truffle.js.parser.env.EvalEnvironment;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 
 public final class JavaScriptTranslator extends GraalJSTranslator {
 
@@ -85,13 +86,26 @@ public final class JavaScriptTranslator extends GraalJSTranslator {
     private static ScriptNode translateScript(NodeFactory nodeFactory, JSContext context, Environment env, Source source, boolean isParentStrict,
                     boolean isEval, boolean evalInFunction, DirectEvalContext directEval) {
         Scope parentScope = directEval == null ? null : directEval.scope;
+        JSMetrics metrics = context.getMetrics();
+        long startTime = metrics != null ? System.nanoTime() : 0L;
         FunctionNode parserFunctionNode = GraalJSParserHelper.parseScript(context, source, context.getParserOptions().putStrict(isParentStrict), isEval, evalInFunction, parentScope);
+        long parsedTime = metrics != null ? System.nanoTime() : 0L;
         Source src = applyExplicitSourceURL(source, parserFunctionNode);
         LexicalContext lc = new LexicalContext();
         if (directEval != null && directEval.enclosingClass != null) {
             lc.push(directEval.enclosingClass);
         }
-        return new JavaScriptTranslator(lc, nodeFactory, context, src, env, isParentStrict).translateScript(parserFunctionNode);
+        ScriptNode script = new JavaScriptTranslator(lc, nodeFactory, context, src, env, isParentStrict).translateScript(parserFunctionNode);
+        if (metrics != null) {
+            recordParseMetrics(metrics, startTime, parsedTime);
+        }
+        return script;
+    }
+
+    private static void recordParseMetrics(JSMetrics metrics, long startTime, long parsedTime) {
+        metrics.increment(JSMetrics.Counter.SOURCES_PARSED);
+        metrics.add(JSMetrics.Counter.PARSE_TIME_NANOS, parsedTime - startTime);
+        metrics.add(JSMetrics.Counter.TRANSLATE_TIME_NANOS, System.nanoTime() - parsedTime);
     }
 
     private static Source applyExplicitSourceURL(Source source, FunctionNode parserFunctionNode) {
@@ -111,9 +125,15 @@ public final class JavaScriptTranslator extends GraalJSTranslator {
     }
 
     public static JSModuleRecord translateModule(NodeFactory factory, JSContext context, Source source, JSModuleLoader moduleLoader) {
+        JSMetrics metrics = context.getMetrics();
+        long startTime = metrics != null ? System.nanoTime() : 0L;
         FunctionNode parsed = GraalJSParserHelper.parseModule(context, source, context.getParserOptions().putStrict(true));
+        long parsedTime = metrics != null ? System.nanoTime() : 0L;
         JavaScriptTranslator translator = new JavaScriptTranslator(factory, context, source, null, true);
         FunctionRootNode functionRoot = translator.translateModule(parsed);
+        if (metrics != null) {
+            recordParseMetrics(metrics, startTime, parsedTime);
+        }
         JSModuleRecord moduleRecord = new JSModuleRecord(parsed.getModule(), context, moduleLoader, source);
         moduleRecord.setFunctionData(functionRoot.getFunctionData());
         moduleRecord.setFrameDescriptor(functionRoot.getFrameDescriptor());
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import javax.script.SimpleScriptContext;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.junit.Test;
+
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+public class TestContextPool {
+
+    private static ScriptContext newScriptContext(Bindings bindings, StringWriter out) {
+        ScriptContext scriptContext = new SimpleScriptContext();
+        scriptContext.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+        scriptContext.setWriter(out);
+        return scriptContext;
+    }
+
+    @Test
+    public void testGlobalsAreReset() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            Bindings bindings = new SimpleBindings();
+            bindings.put("x", 20);
+            StringWriter out = new StringWriter();
+            assertEquals(42, ((Number) engine.eval("var y = x + 22; leaked = 'yes'; print(y); y", newScriptContext(bindings, out))).intValue());
+            assertEquals("42", out.toString().trim());
+
+            // the next evaluation reuses the context, but none of the globals of the previous one
+            bindings = new SimpleBindings();
+            assertEquals("undefined,undefined,undefined", engine.eval("[typeof x, typeof y, typeof leaked].join()", newScriptContext(bindings, new StringWriter())));
+        }
+    }
+
+    @Test
+    public void testLexicalDeclarations() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i, ((Number) engine.eval("const c = " + i + "; c", newScriptContext(new SimpleBindings(), new StringWriter()))).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentEvaluations() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 4)) {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Bindings bindings = new SimpleBindings();
+                bindings.put("n", i);
+                results.add(executor.submit(() -> engine.eval("var sum = 0; for (var i = 1; i <= n; i++) { sum += i; } sum", newScriptContext(bindings, new StringWriter()))));
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i * (i + 1) / 2, ((Number) results.get(i).get()).intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentCompiledScript() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 4)) {
+            CompiledScript script = engine.compile("var result = []; for (var i = 0; i < n; i++) { result.push(i * 2); } result.length + ':' + result[n - 1]");
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                Bindings bindings = new SimpleBindings();
+                bindings.put("n", i);
+                results.add(executor.submit(() -> script.eval(bindings)));
+            }
+            for (int i = 1; i <= 100; i++) {
+                assertEquals(i + ":" + (i - 1) * 2, results.get(i - 1).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentCompiledScriptResults() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 4)) {
+            // declares a global constant, modifies a built-in and returns an object of the context
+            CompiledScript script = engine.compile("const base = n * 10; Array.prototype.first = function() { return this[0]; }; ({value: [base, n].first(), typeofFirst: typeof [].first})");
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                Bindings bindings = new SimpleBindings();
+                bindings.put("n", i);
+                results.add(executor.submit(() -> script.eval(bindings)));
+            }
+            for (int i = 1; i <= 100; i++) {
+                Map<?, ?> result = (Map<?, ?>) results.get(i - 1).get();
+                assertEquals(i * 10, ((Number) result.get("value")).intValue());
+                assertEquals("function", result.get("typeofFirst"));
+            }
+            CompiledScript check = engine.compile("typeof [].first");
+            assertEquals("undefined", check.eval(new SimpleBindings()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = ScriptException.class)
+    public void testCompileSyntaxError() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            engine.compile("var = ;");
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPoolSize() {
+        GraalJSScriptEngine.create(null, null, 0);
+    }
+
+    @Test
+    public void testObjectResultIsUsable() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            Object result = engine.eval("({a: 1, nested: {b: 2}, inc: function(x) { return x + 1; }})", newScriptContext(new SimpleBindings(), new StringWriter()));
+            for (int i = 0; i < 3; i++) {
+                engine.eval("var a = 2", newScriptContext(new SimpleBindings(), new StringWriter()));
+            }
+            assertTrue(result instanceof Map);
+            Map<?, ?> map = (Map<?, ?>) result;
+            assertEquals(1, ((Number) map.get("a")).intValue());
+            assertEquals(2, ((Number) ((Map<?, ?>) map.get("nested")).get("b")).intValue());
+            assertEquals(42, ((Number) ((Function<Object, Object>) map.get("inc")).apply(new Object[]{41})).intValue());
+        }
+    }
+
+    @Test
+    public void testBuiltinsAreReset() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            engine.eval("JSON = 1; delete Math.PI; Math.max = Math.min; Array.prototype.push = null; Object.prototype.leaked = 1;" +
+                            "Object.setPrototypeOf(Map.prototype, null); Object.getPrototypeOf([][Symbol.iterator]()).next = null;" +
+                            "Reflect.ownKeys = null; Object.getOwnPropertyNames = null; Set.prototype.has = null; 0", newScriptContext(new SimpleBindings(), new StringWriter()));
+            assertEquals("object,3.14,3,1,,true,3,function,function",
+                            engine.eval("[typeof JSON, Math.PI.toFixed(2), Math.max(1, 3), [].push(0), ({}).leaked, Object.getPrototypeOf(Map.prototype) === Object.prototype," +
+                                            "[...[1, 2, 3]].length, typeof Reflect.ownKeys, typeof Set.prototype.has].join()", newScriptContext(new SimpleBindings(), new StringWriter())));
+
+            // engine-scope bindings that shadow built-ins
+            Bindings bindings = new SimpleBindings();
+            bindings.put("JSON", 5);
+            assertEquals(5, ((Number) engine.eval("JSON", newScriptContext(bindings, new StringWriter()))).intValue());
+            assertEquals("object", engine.eval("typeof JSON", newScriptContext(new SimpleBindings(), new StringWriter())));
+        }
+    }
+
+    @Test
+    public void testLexicalKeywordsDoNotPreventReuse() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            engine.eval("var marker = 'let const class'; // class\n({let: 1}).let", newScriptContext(new SimpleBindings(), new StringWriter()));
+            // the reused context still has the global var binding, set to undefined
+            assertEquals("true,undefined", engine.eval("['marker' in this, typeof marker].join()", newScriptContext(new SimpleBindings(), new StringWriter())));
+            // a context with global lexical declarations is not reused
+            engine.eval("let l = 1; 0", newScriptContext(new SimpleBindings(), new StringWriter()));
+            assertEquals("undefined,false", engine.eval("[typeof l, 'marker' in this].join()", newScriptContext(new SimpleBindings(), new StringWriter())));
+        }
+    }
+
+    @Test
+    public void testRegExpStaticsAreReset() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            assertEquals("bb", engine.eval("/(b+)/.exec('abbc'); RegExp.$1", newScriptContext(new SimpleBindings(), new StringWriter())));
+            assertEquals(",", engine.eval("[RegExp.$1, RegExp.lastMatch].join()", newScriptContext(new SimpleBindings(), new StringWriter())));
+        }
+    }
+
+    @Test
+    public void testSymbolRegistryIsNotReset() throws Exception {
+        Context.Builder contextConfig = Context.newBuilder("js").allowHostAccess(HostAccess.ALL);
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, contextConfig, 1)) {
+            List<Object> symbols = new ArrayList<>();
+            Bindings bindings = new SimpleBindings();
+            bindings.put("symbols", symbols);
+            engine.eval("symbols.add(Symbol.for('pool')); 0", newScriptContext(bindings, new StringWriter()));
+            // the registry belongs to the engine rather than to the context
+            bindings = new SimpleBindings();
+            bindings.put("symbols", symbols);
+            assertEquals(true, engine.eval("symbols.get(0) === Symbol.for('pool')", newScriptContext(bindings, new StringWriter())));
+        }
+    }
+
+    @Test
+    public void testLazyGlobalsAreReset() throws Exception {
+        try (Engine polyglotEngine = Engine.create(); GraalJSScriptEngine engine = GraalJSScriptEngine.create(polyglotEngine, null, 1)) {
+            engine.eval("Graal.leaked = 1; SharedArrayBuffer = null; 0", newScriptContext(new SimpleBindings(), new StringWriter()));
+            assertEquals("undefined,function", engine.eval("[typeof Graal.leaked, typeof SharedArrayBuffer].join()", newScriptContext(new SimpleBindings(), new StringWriter())));
+        }
+    }
+}
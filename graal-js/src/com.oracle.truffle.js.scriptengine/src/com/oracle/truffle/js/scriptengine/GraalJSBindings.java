@@ -59,6 +59,7 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     };
 
     private Context context;
+    private GraalJSScriptEngine.ContextStreams streams;
     private Map<String, Object> global;
     private Value deleteProperty;
     private Value clear;
@@ -73,6 +74,11 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
         initGlobal();
     }
 
+    GraalJSBindings(Context context, GraalJSScriptEngine.ContextStreams streams) {
+        this(context);
+        this.streams = streams;
+    }
+
     private void requireContext() {
         if (context == null) {
             initContext();
@@ -80,7 +86,8 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     }
 
     private void initContext() {
-        context = GraalJSScriptEngine.createDefaultContext(contextBuilder);
+        streams = new GraalJSScriptEngine.ContextStreams();
+        context = GraalJSScriptEngine.createDefaultContext(contextBuilder, streams);
         initGlobal();
     }
 
@@ -156,6 +163,14 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
         return context;
     }
 
+    GraalJSScriptEngine.ContextStreams getStreams() {
+        requireContext();
+        if (streams == null) {
+            streams = GraalJSScriptEngine.ContextStreams.lookup(context);
+        }
+        return streams;
+    }
+
     @Override
     public Set<Entry<String, Object>> entrySet() {
         requireContext();
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.scriptengine;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.script.Bindings;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+/**
+ * Bounded pool of polyglot contexts of a {@link GraalJSScriptEngine}, used to evaluate scripts
+ * with engine-scope bindings that are not {@link GraalJSBindings}. Contexts are created on demand;
+ * at most {@code maxIdle} of them are kept when they are released.
+ */
+final class GraalJSContextPool implements AutoCloseable {
+
+    /** Functions of the script engine import scope, see {@code GlobalBuiltins}. */
+    private static final String HAS_GLOBAL_LEXICAL_DECLARATIONS_FUNCTION_NAME = "hasGlobalLexicalDeclarations";
+    private static final String TAKE_STATE_SNAPSHOT_FUNCTION_NAME = "takeStateSnapshot";
+    private static final String RESTORE_STATE_SNAPSHOT_FUNCTION_NAME = "restoreStateSnapshot";
+
+    private final Context.Builder contextConfig;
+    private final BlockingQueue<PooledContext> idle;
+    /** Contexts kept open for evaluation results that refer to their objects. */
+    private final Set<RetainedContext> retained = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Object> unreachableResults = new ReferenceQueue<>();
+    private volatile boolean closed;
+
+    GraalJSContextPool(Context.Builder contextConfig, int maxIdle) {
+        this.contextConfig = contextConfig;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * Whether evaluations with these engine-scope bindings may use a pooled context, i.e., they
+     * neither have a context of their own nor configure one.
+     */
+    static boolean isPoolable(Bindings engineBindings) {
+        if (engineBindings instanceof GraalJSBindings || engineBindings.containsKey(GraalJSScriptEngine.POLYGLOT_CONTEXT)) {
+            return false;
+        }
+        for (String key : engineBindings.keySet()) {
+            if (key.startsWith(GraalJSScriptEngine.MAGIC_OPTION_PREFIX)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the value does not refer to an object of its context, so that the context may be
+     * used by others while the value is still in use.
+     */
+    static boolean isDetached(Value value) {
+        return value.isNull() || value.isBoolean() || value.isNumber() || value.isString() || value.isHostObject() || value.isProxyObject();
+    }
+
+    PooledContext acquire() {
+        if (closed) {
+            throw new IllegalStateException("Context already closed.");
+        }
+        closeUnreachable();
+        PooledContext pooled = idle.poll();
+        if (pooled == null) {
+            pooled = new PooledContext(contextConfig);
+        }
+        return pooled;
+    }
+
+    void release(PooledContext pooled) {
+        if (closed || !pooled.reset() || !idle.offer(pooled)) {
+            pooled.close();
+        } else if (closed && idle.remove(pooled)) {
+            // closed concurrently
+            pooled.close();
+        }
+    }
+
+    /**
+     * Keeps the context open (and out of the pool) as long as the host value of an evaluation
+     * result that refers to one of its objects is reachable.
+     */
+    void retain(PooledContext pooled, Object result) {
+        retained.add(new RetainedContext(result, unreachableResults, pooled));
+    }
+
+    private void closeUnreachable() {
+        Reference<?> ref;
+        while ((ref = unreachableResults.poll()) != null) {
+            RetainedContext unreachable = (RetainedContext) ref;
+            if (retained.remove(unreachable)) {
+                unreachable.pooled.tryClose();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledContext pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.close();
+        }
+        for (RetainedContext context : retained) {
+            if (retained.remove(context)) {
+                context.pooled.tryClose();
+            }
+        }
+    }
+
+    private static final class RetainedContext extends PhantomReference<Object> {
+        final PooledContext pooled;
+
+        RetainedContext(Object result, ReferenceQueue<Object> queue, PooledContext pooled) {
+            super(result, queue);
+            this.pooled = pooled;
+        }
+    }
+
+    static final class PooledContext {
+        private final GraalJSScriptEngine.ContextStreams streams;
+        private final GraalJSBindings bindings;
+        private final Value hasGlobalLexicalDeclarations;
+        private final Value restoreStateSnapshot;
+        /** Sources of compiled scripts parsed in this context. */
+        private final Map<Source, Value> parsedSources = new WeakHashMap<>();
+
+        PooledContext(Context.Builder contextConfig) {
+            this.streams = new GraalJSScriptEngine.ContextStreams();
+            Context context = GraalJSScriptEngine.createDefaultContext(contextConfig, streams);
+            this.bindings = new GraalJSBindings(context, streams);
+            Value globalBindings = context.getBindings(GraalJSScriptEngine.ID);
+            this.hasGlobalLexicalDeclarations = globalBindings.getMember(HAS_GLOBAL_LEXICAL_DECLARATIONS_FUNCTION_NAME);
+            this.restoreStateSnapshot = globalBindings.getMember(RESTORE_STATE_SNAPSHOT_FUNCTION_NAME);
+            globalBindings.getMember(TAKE_STATE_SNAPSHOT_FUNCTION_NAME).executeVoid();
+        }
+
+        GraalJSBindings getBindings() {
+            return bindings;
+        }
+
+        GraalJSScriptEngine.ContextStreams getStreams() {
+            return streams;
+        }
+
+        /**
+         * Returns the source parsed in this context. The code is shared with the other contexts of
+         * the engine.
+         */
+        Value parse(Source source) {
+            Value parsed = parsedSources.get(source);
+            if (parsed == null) {
+                parsed = bindings.getContext().parse(source);
+                parsedSources.put(source, parsed);
+            }
+            return parsed;
+        }
+
+        /**
+         * Restores the initial state of the context, or returns false if that is not possible,
+         * e.g. because global lexical declarations have been made, which cannot be removed, or a
+         * built-in object other than the global object has been modified. The {@code Symbol.for}
+         * registry is not reset; it is shared by all contexts of the engine.
+         */
+        boolean reset() {
+            try {
+                if (hasGlobalLexicalDeclarations.execute().asBoolean()) {
+                    return false;
+                }
+                return restoreStateSnapshot.execute().asBoolean();
+            } catch (PolyglotException e) {
+                return false;
+            }
+        }
+
+        void close() {
+            bindings.close();
+        }
+
+        /** Closes the context unless it is still in use. */
+        void tryClose() {
+            try {
+                close();
+            } catch (IllegalStateException e) {
+                // still in use, e.g. by a callback of another thread; it stays open
+            }
+        }
+    }
+}
@@ -73,8 +73,8 @@ import org.graalvm.polyglot.proxy.Proxy;
  */
 public final class GraalJSScriptEngine extends AbstractScriptEngine implements Compilable, Invocable, AutoCloseable {
 
-    private static final String ID = "js";
-    private static final String POLYGLOT_CONTEXT = "polyglot.context";
+    static final String ID = "js";
+    static final String POLYGLOT_CONTEXT = "polyglot.context";
     private static final String OUT_SYMBOL = "$$internal.out$$";
     private static final String IN_SYMBOL = "$$internal.in$$";
     private static final String ERR_SYMBOL = "$$internal.err$$";
@@ -85,6 +85,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     private static final String JS_GLOBAL_ARGUMENTS_OPTION = "js.global-arguments";
     private static final String SCRIPT_CONTEXT_GLOBAL_BINDINGS_IMPORT_FUNCTION_NAME = "importScriptEngineGlobalBindings";
     private static final String NASHORN_COMPATIBILITY_MODE_SYSTEM_PROPERTY = "polyglot.js.nashorn-compat";
+    private static final String CONTEXT_POOL_SIZE_SYSTEM_PROPERTY = "polyglot.js.script-engine-context-pool-size";
     static final String MAGIC_OPTION_PREFIX = "polyglot.js.";
 
     interface MagicBindingsOptionSetter {
@@ -225,6 +226,8 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
 
     private final GraalJSEngineFactory factory;
     private final Context.Builder contextConfig;
+    /** Contexts for evaluations with engine-scope bindings of other types, or null. */
+    private final GraalJSContextPool contextPool;
 
     private volatile boolean closed;
     private boolean evalCalled;
@@ -234,6 +237,10 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     GraalJSScriptEngine(GraalJSEngineFactory factory, Engine engine, Context.Builder contextConfig) {
+        this(factory, engine, contextConfig, Integer.getInteger(CONTEXT_POOL_SIZE_SYSTEM_PROPERTY, 0));
+    }
+
+    GraalJSScriptEngine(GraalJSEngineFactory factory, Engine engine, Context.Builder contextConfig, int contextPoolSize) {
         Engine engineToUse = engine;
         if (engineToUse == null) {
             engineToUse = Engine.newBuilder().allowExperimentalOptions(true).build();
@@ -253,17 +260,22 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         this.factory = (factory == null) ? new GraalJSEngineFactory(engineToUse) : factory;
         this.contextConfig = contextConfigToUse.option(JS_SCRIPT_ENGINE_GLOBAL_SCOPE_IMPORT_OPTION, "true").engine(engineToUse);
         this.context.setBindings(new GraalJSBindings(this.contextConfig), ScriptContext.ENGINE_SCOPE);
+        this.contextPool = contextPoolSize > 0 ? new GraalJSContextPool(this.contextConfig, contextPoolSize) : null;
     }
 
     static Context createDefaultContext(Context.Builder builder) {
-        DelegatingInputStream in = new DelegatingInputStream();
-        DelegatingOutputStream out = new DelegatingOutputStream();
-        DelegatingOutputStream err = new DelegatingOutputStream();
-        builder.in(in).out(out).err(err);
-        Context ctx = builder.build();
-        ctx.getPolyglotBindings().putMember(OUT_SYMBOL, out);
-        ctx.getPolyglotBindings().putMember(ERR_SYMBOL, err);
-        ctx.getPolyglotBindings().putMember(IN_SYMBOL, in);
+        return createDefaultContext(builder, new ContextStreams());
+    }
+
+    static Context createDefaultContext(Context.Builder builder, ContextStreams streams) {
+        Context ctx;
+        synchronized (builder) {
+            builder.in(streams.in).out(streams.out).err(streams.err);
+            ctx = builder.build();
+        }
+        ctx.getPolyglotBindings().putMember(OUT_SYMBOL, streams.out);
+        ctx.getPolyglotBindings().putMember(ERR_SYMBOL, streams.err);
+        ctx.getPolyglotBindings().putMember(IN_SYMBOL, streams.in);
         return ctx;
     }
 
@@ -274,6 +286,9 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     @Override
     public void close() {
         getPolyglotContext().close();
+        if (contextPool != null) {
+            contextPool.close();
+        }
         closed = true;
     }
 
@@ -340,11 +355,12 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private Object eval(Source source, ScriptContext scriptContext) throws ScriptException {
+        if (contextPool != null && GraalJSContextPool.isPoolable(scriptContext.getBindings(ScriptContext.ENGINE_SCOPE))) {
+            return evalPooled(source, scriptContext, null);
+        }
         GraalJSBindings engineBindings = getOrCreateGraalJSBindings(scriptContext);
         Context polyglotContext = engineBindings.getContext();
-        ((DelegatingOutputStream) polyglotContext.getPolyglotBindings().getMember(OUT_SYMBOL).asProxyObject()).setWriter(scriptContext.getWriter());
-        ((DelegatingOutputStream) polyglotContext.getPolyglotBindings().getMember(ERR_SYMBOL).asProxyObject()).setWriter(scriptContext.getErrorWriter());
-        ((DelegatingInputStream) polyglotContext.getPolyglotBindings().getMember(IN_SYMBOL).asProxyObject()).setReader(scriptContext.getReader());
+        engineBindings.getStreams().connect(scriptContext);
         try {
             if (!evalCalled) {
                 jrunscriptInitWorkaround(source, polyglotContext);
@@ -358,6 +374,43 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         }
     }
 
+    /**
+     * Evaluates the source in a context of the pool, with the engine-scope bindings of the script
+     * context imported as globals. If the result refers to an object of the context, the context
+     * is kept open until the result is no longer reachable. Otherwise, it is reset and returned to
+     * the pool. A compiled script is run by executing its parsed source, which the pooled context
+     * keeps.
+     */
+    private Object evalPooled(Source source, ScriptContext scriptContext, GraalJSCompiledScript compiledScript) throws ScriptException {
+        GraalJSContextPool.PooledContext pooled = contextPool.acquire();
+        boolean retained = false;
+        try {
+            GraalJSBindings poolBindings = pooled.getBindings();
+            poolBindings.putAll(scriptContext.getBindings(ScriptContext.ENGINE_SCOPE));
+            importGlobalBindings(scriptContext, poolBindings);
+            pooled.getStreams().connect(scriptContext);
+            Value result;
+            if (compiledScript != null) {
+                result = pooled.parse(source).execute();
+            } else {
+                result = poolBindings.getContext().eval(source);
+            }
+            Object hostResult = result.as(Object.class);
+            if (!GraalJSContextPool.isDetached(result)) {
+                contextPool.retain(pooled, hostResult);
+                retained = true;
+            }
+            return hostResult;
+        } catch (PolyglotException e) {
+            throw new ScriptException(e);
+        } finally {
+            pooled.getStreams().disconnect();
+            if (!retained) {
+                contextPool.release(pooled);
+            }
+        }
+    }
+
     private static void importGlobalBindings(ScriptContext scriptContext, GraalJSBindings graalJSBindings) {
         Bindings globalBindings = scriptContext.getBindings(ScriptContext.GLOBAL_SCOPE);
         if (globalBindings != null && !globalBindings.isEmpty() && graalJSBindings != globalBindings) {
@@ -473,18 +526,7 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         if (closed) {
             throw new IllegalStateException("Context already closed.");
         }
-        Source source = createSource(script, getContext());
-        return new CompiledScript() {
-            @Override
-            public ScriptEngine getEngine() {
-                return GraalJSScriptEngine.this;
-            }
-
-            @Override
-            public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
-            }
-        };
+        return compile(createSource(script, getContext()));
     }
 
     @Override
@@ -492,18 +534,89 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         if (closed) {
             throw new IllegalStateException("Context already closed.");
         }
-        Source source = createSource(reader, getContext());
-        return new CompiledScript() {
-            @Override
-            public ScriptEngine getEngine() {
-                return GraalJSScriptEngine.this;
+        return compile(createSource(reader, getContext()));
+    }
+
+    private CompiledScript compile(Source source) throws ScriptException {
+        GraalJSCompiledScript compiledScript = new GraalJSCompiledScript(source);
+        if (contextPool != null) {
+            // parse on the shared engine now, to report syntax errors and to warm up a context
+            GraalJSContextPool.PooledContext pooled = contextPool.acquire();
+            try {
+                pooled.parse(source);
+            } catch (PolyglotException e) {
+                throw new ScriptException(e);
+            } finally {
+                contextPool.release(pooled);
             }
+        }
+        return compiledScript;
+    }
+
+    /**
+     * A compiled script. With a context pool, evaluations with engine-scope bindings not created
+     * by this engine may run concurrently: each of them runs the script in a context of its own
+     * from the pool, where it has been parsed once. All pooled contexts share the engine, and with
+     * it the code of the script.
+     */
+    private final class GraalJSCompiledScript extends CompiledScript {
+        private final Source source;
 
-            @Override
-            public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
+        GraalJSCompiledScript(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return GraalJSScriptEngine.this;
+        }
+
+        @Override
+        public Object eval(ScriptContext ctx) throws ScriptException {
+            if (contextPool != null && GraalJSContextPool.isPoolable(ctx.getBindings(ScriptContext.ENGINE_SCOPE))) {
+                return evalPooled(source, ctx, this);
             }
-        };
+            return GraalJSScriptEngine.this.eval(source, ctx);
+        }
+    }
+
+    /**
+     * The streams of a context created by {@link #createDefaultContext}, which delegate to the
+     * reader and writers of the script context of the current evaluation.
+     */
+    static final class ContextStreams {
+        final DelegatingInputStream in;
+        final DelegatingOutputStream out;
+        final DelegatingOutputStream err;
+
+        ContextStreams() {
+            this(new DelegatingInputStream(), new DelegatingOutputStream(), new DelegatingOutputStream());
+        }
+
+        private ContextStreams(DelegatingInputStream in, DelegatingOutputStream out, DelegatingOutputStream err) {
+            this.in = in;
+            this.out = out;
+            this.err = err;
+        }
+
+        static ContextStreams lookup(Context context) {
+            Value polyglotBindings = context.getPolyglotBindings();
+            return new ContextStreams((DelegatingInputStream) polyglotBindings.getMember(IN_SYMBOL).asProxyObject(),
+                            (DelegatingOutputStream) polyglotBindings.getMember(OUT_SYMBOL).asProxyObject(),
+                            (DelegatingOutputStream) polyglotBindings.getMember(ERR_SYMBOL).asProxyObject());
+        }
+
+        void connect(ScriptContext scriptContext) {
+            out.setWriter(scriptContext.getWriter());
+            err.setWriter(scriptContext.getErrorWriter());
+            in.setReader(scriptContext.getReader());
+        }
+
+        void disconnect() {
+            out.setWriter(null);
+            err.setWriter(null);
+            in.setReader(null);
+        }
     }
 
     private static class DelegatingInputStream extends InputStream implements Proxy {
@@ -575,6 +688,32 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
         return new GraalJSScriptEngine(null, engine, newContextConfig);
     }
 
+    /**
+     * Creates a new GraalJS script engine like {@link #create(Engine, Context.Builder)} that keeps
+     * a pool of up to {@code contextPoolSize} polyglot contexts. The pool is used to evaluate
+     * scripts with a {@link ScriptContext} whose {@link ScriptContext#ENGINE_SCOPE engine-scope}
+     * bindings were not created by this engine: instead of a new context per script context, a
+     * pooled context is used, with the engine-scope bindings imported as global properties.
+     * Properties that the script adds to the global object are not reflected in the bindings. When
+     * the context is returned to the pool, the properties of the global object and the RegExp
+     * legacy static properties are restored to their initial state. A context is not returned to
+     * the pool if the script declared global {@code let}, {@code const} or {@code class} bindings,
+     * which cannot be removed, or modified another built-in object. The {@code Symbol.for}
+     * registry is shared by all contexts of the engine and is not reset. If the result of the script refers to an object of the context,
+     * the context is kept open until the result is no longer reachable, and then closed.
+     * <p>
+     * The pool size of engines created by {@link #create()} and the {@link GraalJSEngineFactory}
+     * can be set with the {@code polyglot.js.script-engine-context-pool-size} system property.
+     *
+     * @param contextPoolSize the maximum number of idle contexts kept in the pool
+     */
+    public static GraalJSScriptEngine create(Engine engine, Context.Builder newContextConfig, int contextPoolSize) {
+        if (contextPoolSize <= 0) {
+            throw new IllegalArgumentException("context pool size must be positive");
+        }
+        return new GraalJSScriptEngine(null, engine, newContextConfig, contextPoolSize);
+    }
+
     /**
      * Detects jrunscript "init.js" and installs a JSAdapter polyfill if needed.
      */
@@ -75,6 +75,7 @@ public class JSLauncher extends AbstractLanguageLauncher {
     boolean printResult = false;
     boolean fuzzilliREPRL = false;
     String[] programArgs;
+    String snapshotBundle;
     final List<UnparsedSource> unparsedSources = new LinkedList<>();
     private VersionAction versionAction = VersionAction.None;
 
@@ -208,6 +209,12 @@ public class JSLauncher extends AbstractLanguageLauncher {
                 }
                 addStrictFile(value);
                 return Consumed;
+            case "snapshot-bundle":
+                if (value == null) {
+                    return MissingValue;
+                }
+                snapshotBundle = value;
+                return Consumed;
         }
         return Unhandled;
     }
@@ -275,6 +282,7 @@ public class JSLauncher extends AbstractLanguageLauncher {
         printOption("-e, --eval CODE",      "evaluate the code");
         printOption("-f, --file FILE",      "load script file");
         printOption("--module FILE",        "load module file");
+        printOption("--snapshot-bundle FILE", "load pre-parsed scripts from a snapshot bundle (experimental, requires --experimental-options)");
         printOption("--syntax-extensions",  "enable non-spec syntax extensions");
         printOption("--print-result",       "print the return value of each FILE");
         printOption("--scripting",          "enable scripting features (Nashorn compatibility option)");
@@ -291,6 +299,7 @@ public class JSLauncher extends AbstractLanguageLauncher {
                         "-f", "--file",
                         "--syntax-extensions",
                         "--print-result",
+                        "--snapshot-bundle",
                         "--version",
                         "--show-version",
                         "--scripting",
@@ -312,6 +321,10 @@ public class JSLauncher extends AbstractLanguageLauncher {
         int status;
         contextBuilder.arguments("js", programArgs);
         contextBuilder.option("js.shell", "true");
+        if (snapshotBundle != null) {
+            // experimental: requires --experimental-options
+            contextBuilder.option("js.snapshot-bundle", snapshotBundle);
+        }
         try (Context context = contextBuilder.build()) {
             runVersionAction(versionAction, context.getEngine());
             preEval(context);
@@ -40,26 +40,36 @@
  */
 package com.oracle.truffle.js.snapshot;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Paths;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
 
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.builtins.GlobalBuiltins;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.NodeFactory;
 import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.parser.JavaScriptTranslator;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.JSParserOptions;
 import com.oracle.truffle.js.runtime.JSRealm;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
+import com.oracle.truffle.js.runtime.util.SnapshotBundle;
 
 public class SnapshotTool {
     static {
@@ -77,6 +87,8 @@ public class SnapshotTool {
         boolean binary = true;
         String outDir = null;
         String inDir = null;
+        String bundleFile = null;
+        String mainFile = null;
         List<String> srcFiles = new ArrayList<>();
         for (String arg : args) {
             if (arg.startsWith("--")) {
@@ -90,12 +102,35 @@ public class SnapshotTool {
                     outDir = requireDirectory(arg.substring(arg.indexOf('=') + 1));
                 } else if (arg.startsWith("--indir=")) {
                     inDir = requireDirectory(arg.substring(arg.indexOf('=') + 1));
+                } else if (arg.startsWith("--bundle=")) {
+                    bundleFile = arg.substring(arg.indexOf('=') + 1);
+                } else if (arg.startsWith("--main=")) {
+                    mainFile = arg.substring(arg.indexOf('=') + 1);
                 }
             }
         }
 
         SnapshotTool snapshotTool = new SnapshotTool();
-        if (!srcFiles.isEmpty() && outDir != null) {
+        if (bundleFile != null && (!srcFiles.isEmpty() || mainFile != null)) {
+            try (Context polyglotContext = Context.newBuilder(JavaScriptLanguage.ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.CLASS_FIELDS_NAME, "true").build()) {
+                polyglotContext.initialize(JavaScriptLanguage.ID);
+                polyglotContext.enter();
+                List<TruffleFile> sourceFiles = new ArrayList<>();
+                for (String srcFile : srcFiles) {
+                    File sourceFile = inDir == null ? new File(srcFile) : Paths.get(inDir, srcFile).toFile();
+                    if (!sourceFile.isFile()) {
+                        throw new IllegalArgumentException("Not a file: " + sourceFile);
+                    }
+                    sourceFiles.add(getTruffleFile(sourceFile.getPath()));
+                }
+                if (mainFile != null) {
+                    sourceFiles.addAll(snapshotTool.collectLoadedFiles(polyglotContext, mainFile));
+                }
+                snapshotTool.snapshotScriptFilesToBundle(sourceFiles, new File(bundleFile));
+                snapshotTool.timeStats.print();
+                polyglotContext.leave();
+            }
+        } else if (!srcFiles.isEmpty() && outDir != null) {
             try (Context polyglotContext = Context.newBuilder(JavaScriptLanguage.ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.CLASS_FIELDS_NAME, "true").build()) {
                 polyglotContext.initialize(JavaScriptLanguage.ID);
                 polyglotContext.enter();
@@ -112,6 +147,7 @@ public class SnapshotTool {
             }
         } else {
             System.out.println("Usage: [--java|--binary] --outdir=DIR [--indir=DIR] --file=FILE [--file=FILE ...]");
+            System.out.println("       --bundle=FILE [--main=FILE] [--indir=DIR] [--file=FILE ...]");
         }
     }
 
@@ -122,20 +158,76 @@ public class SnapshotTool {
         return dir;
     }
 
+    private static TruffleFile getTruffleFile(String path) {
+        return JavaScriptLanguage.getCurrentJSRealm().getEnv().getPublicTruffleFile(path);
+    }
+
+    /**
+     * Runs the main script and returns it together with all script files it loaded via
+     * {@code load()}, in load order. Only the loads performed during this run are recorded.
+     */
+    private List<TruffleFile> collectLoadedFiles(Context polyglotContext, String mainFile) throws IOException {
+        JSRealm realm = JavaScriptLanguage.getCurrentJSRealm();
+        Set<TruffleFile> loadedFiles = new LinkedHashSet<>();
+        TruffleFile main = getTruffleFile(mainFile).getCanonicalFile();
+        loadedFiles.add(main);
+
+        Value bindings = polyglotContext.getBindings(JavaScriptLanguage.ID);
+        Value load = bindings.getMember("load");
+        bindings.putMember("load", (ProxyExecutable) (arguments) -> {
+            if (arguments.length > 0 && arguments[0].isString()) {
+                try {
+                    TruffleFile file = GlobalBuiltins.resolveRelativeFilePath(arguments[0].asString(), realm.getEnv());
+                    if (file.isRegularFile()) {
+                        loadedFiles.add(file.getCanonicalFile());
+                    }
+                } catch (IOException e) {
+                    // not a file; load() reports the error
+                }
+            }
+            return load.execute((Object[]) arguments);
+        });
+
+        Recording.logv("running %s", mainFile);
+        polyglotContext.eval(org.graalvm.polyglot.Source.newBuilder(JavaScriptLanguage.ID, new File(main.getPath())).build());
+        return new ArrayList<>(loadedFiles);
+    }
+
+    private void snapshotScriptFilesToBundle(List<TruffleFile> sourceFiles, File bundleFile) throws IOException {
+        SnapshotBundle.Writer bundle = new SnapshotBundle.Writer();
+        // recordSnapshot translates in sloppy mode
+        JSParserOptions parserOptions = JavaScriptLanguage.getCurrentJSRealm().getContext().getParserOptions().putStrict(false);
+        for (TruffleFile sourceFile : sourceFiles) {
+            // Named like the sources created by the launcher and load().
+            Source source = Source.newBuilder(JavaScriptLanguage.ID, sourceFile).build();
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            recordSnapshot(source.getName(), source, snapshot, true);
+            bundle.add(source.getName(), parserOptions, source.getCharacters(), snapshot.toByteArray());
+        }
+        File parent = bundleFile.getAbsoluteFile().getParentFile();
+        parent.mkdirs();
+        try (FileOutputStream outs = new FileOutputStream(bundleFile)) {
+            bundle.writeTo(outs);
+        }
+    }
+
     private void snapshotScriptFileTo(String fileName, File sourceFile, File outputFile, boolean binary) throws IOException {
         JSRealm realm = JavaScriptLanguage.getCurrentJSRealm();
-        JSContext context = realm.getContext();
-        Recording.logv("recording snapshot of %s", fileName);
         Source source = Source.newBuilder(JavaScriptLanguage.ID, realm.getEnv().getPublicTruffleFile(sourceFile.getPath())).name(fileName).build();
-        final Recording rec;
+        outputFile.getParentFile().mkdirs();
+        try (FileOutputStream outs = new FileOutputStream(outputFile)) {
+            recordSnapshot(fileName, source, outs, binary);
+        }
+    }
+
+    private void recordSnapshot(String fileName, Source source, OutputStream outs, boolean binary) {
+        JSContext context = JavaScriptLanguage.getCurrentJSRealm().getContext();
+        Recording.logv("recording snapshot of %s", fileName);
         try (TimerCloseable timer = timeStats.file(fileName)) {
-            rec = new Recording();
+            Recording rec = new Recording();
             ScriptNode program = JavaScriptTranslator.translateScript(RecordingProxy.createRecordingNodeFactory(rec, NodeFactory.getInstance(context)), context, source, false);
             rec.finish(program.getRootNode());
-            outputFile.getParentFile().mkdirs();
-            try (FileOutputStream outs = new FileOutputStream(outputFile)) {
-                rec.saveToStream(fileName, outs, binary);
-            }
+            rec.saveToStream(fileName, outs, binary);
         } catch (RuntimeException e) {
             throw new RuntimeException(fileName, e);
         }
@@ -49,6 +49,7 @@ import org.graalvm.polyglot.Value;
 import org.junit.Test;
 
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
 
 public class ArrayBufferViewTest {
 
@@ -83,4 +84,46 @@ public class ArrayBufferViewTest {
         }
     }
 
+    private static void assertTrueForHeapAndDirect(String source) {
+        for (String direct : new String[]{"false", "true"}) {
+            try (Context context = Context.newBuilder(JavaScriptLanguage.ID).option(JSContextOptions.DIRECT_BYTE_BUFFER_NAME, direct).build()) {
+                Value value = context.eval(JavaScriptLanguage.ID, source);
+                assertTrue(source + " (direct: " + direct + ")", value.asBoolean());
+            }
+        }
+    }
+
+    @Test
+    public void testFill() {
+        assertTrueForHeapAndDirect("var a = new Int16Array(new ArrayBuffer(22), 2, 9).fill(-3, 1, 8); a.join() === '0,-3,-3,-3,-3,-3,-3,-3,0'");
+        assertTrueForHeapAndDirect("var a = new Uint8ClampedArray(5).fill(300.7, 2); a.join() === '0,0,255,255,255'");
+        assertTrueForHeapAndDirect("var a = new Float64Array(7).fill(NaN, -3); a.slice(0, 4).join() === '0,0,0,0' && a.slice(4).every(Number.isNaN)");
+        assertTrueForHeapAndDirect("var a = new BigInt64Array(3).fill(-5n); a[0] === -5n && a[2] === -5n");
+    }
+
+    @Test
+    public void testReverse() {
+        assertTrueForHeapAndDirect("var a = new Uint8Array([1, 2, 3, 4, 5]).reverse(); a.join() === '5,4,3,2,1'");
+        assertTrueForHeapAndDirect("var a = new Int32Array(new ArrayBuffer(24), 4, 4); a.set([1, -2, 3, -4]); a.reverse(); a.join() === '-4,3,-2,1' && new Int32Array(a.buffer)[0] === 0");
+        assertTrueForHeapAndDirect("var a = new Float32Array([0.5, 1.5, 2.5]).reverse(); a.join() === '2.5,1.5,0.5'");
+        assertTrueForHeapAndDirect("var a = new BigUint64Array([1n, 2n]).reverse(); a[0] === 2n && a[1] === 1n");
+    }
+
+    @Test
+    public void testSetWithConversion() {
+        assertTrueForHeapAndDirect("var a = new Uint8ClampedArray(4); a.set(new Int8Array([-1, 1, 127, -128])); a.join() === '0,1,127,0'");
+        assertTrueForHeapAndDirect("var a = new Uint8Array(3); a.set(new Int8Array([-1, 1, -128])); a.join() === '255,1,128'");
+        assertTrueForHeapAndDirect("var a = new Float64Array(2); a.set(new Uint32Array([4294967295, 7])); a.join() === '4294967295,7'");
+        assertTrueForHeapAndDirect("var a = new Uint8ClampedArray(4); a.set(new Float32Array([-1, 1.5, 2.5, 1000])); a.join() === '0,2,2,255'");
+        assertTrueForHeapAndDirect("var a = new Int16Array(3); a.set(new Float64Array([NaN, 65537.9, -32769])); a.join() === '0,1,32767'");
+    }
+
+    @Test
+    public void testIndexOfAndIncludes() {
+        assertTrueForHeapAndDirect("var a = new Int8Array([1, -1, 2, -1]); a.indexOf(-1) === 1 && a.lastIndexOf(-1) === 3 && a.indexOf(255) === -1 && a.indexOf(-1, 2) === 3 && a.indexOf(1.5) === -1");
+        assertTrueForHeapAndDirect("var a = new Uint32Array([4294967295, 0]); a.indexOf(4294967295) === 0 && a.indexOf(-1) === -1 && a.includes(-0) && !a.includes('0')");
+        assertTrueForHeapAndDirect("var a = new Float64Array([1, NaN, -0]); a.indexOf(NaN) === -1 && a.includes(NaN) && a.indexOf(0) === 2 && a.lastIndexOf(1, -3) === 0");
+        assertTrueForHeapAndDirect("var a = new BigInt64Array([1n, -2n]); a.indexOf(-2n) === 1 && a.indexOf(-2) === -1 && a.includes(1n)");
+    }
+
 }
@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.js.test.builtins;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -126,6 +127,19 @@ public class JavaBuiltinsTest extends JSTest {
         test("Java.extend(1);", "needs Java types");
     }
 
+    @Test
+    public void testJavaExtendCached() {
+        String result = test("var R = Java.type('java.lang.Runnable'); var C = Java.type('java.util.Comparator');" +
+                        "'' + (Java.extend(R) === Java.extend(R)) + (Java.extend(R, C) === Java.extend(R, C)) + (Java.extend(R) === Java.extend(R, C));");
+        assertEquals("truetruefalse", result);
+
+        // adapters with class-level overrides get a class of their own
+        result = test("var R = Java.type('java.lang.Runnable'); var log = [];" +
+                        "var A = Java.extend(R, {run: function() { log.push('a'); }}); var B = Java.extend(R, {run: function() { log.push('b'); }});" +
+                        "new A().run(); new B().run(); '' + (A === B) + log.join();");
+        assertEquals("falsea,b", result);
+    }
+
     @Test
     public void testJavaFrom() {
         String result = test("var t = Java.from(arg); ''+t;", null, true, new Object[]{1, 2, 3});
@@ -155,6 +169,43 @@ public class JavaBuiltinsTest extends JSTest {
         test("var t = Java.to(1, 'int[]'); ''+t;", "is not an Object");
     }
 
+    @Test
+    public void testJavaArrayBulkTransfer() {
+        assertEquals("1,2,3,5", test("var t = Java.from(arg); t.push(5); ''+t;", null, true, new int[]{1, 2, 3}));
+        assertEquals("0.5,1.5", test("''+Java.from(arg);", null, true, new double[]{0.5, 1.5}));
+        assertEquals("1,4294967296", test("''+Java.from(arg);", null, true, new long[]{1, 4294967296L}));
+        assertEquals("-1,127", test("''+Java.from(arg);", null, true, new byte[]{-1, 127}));
+        assertEquals("a,,1", test("''+Java.from(arg);", null, true, new Object[]{"a", null, 1}));
+
+        assertEquals("1,2,3", test("''+new Int32Array(arg);", null, true, new int[]{1, 2, 3}));
+        assertEquals("255,128", test("''+new Uint8Array(arg);", null, true, new byte[]{-1, -128}));
+        assertEquals("0,255,2", test("''+new Uint8ClampedArray(arg);", null, true, new double[]{-5, 300, 1.5}));
+        assertEquals("0.5,2", test("''+new Float64Array(arg);", null, true, new double[]{0.5, 2}));
+        assertEquals("1,-2", test("''+new BigInt64Array(arg);", null, true, new long[]{1, -2}));
+
+        try (Context context = Context.newBuilder(JavaScriptLanguage.ID).allowAllAccess(true).build()) {
+            assertArrayEquals(new int[]{1, 2, 3}, context.eval(JavaScriptLanguage.ID, "Java.to([1, 2, 3], 'int[]')").asHostObject());
+            assertArrayEquals(new int[]{1, 2, 1}, context.eval(JavaScriptLanguage.ID, "var a = [1, 2]; a.push(1.0); Java.to(a, 'int[]')").asHostObject());
+            assertArrayEquals(new double[]{1, 2.5}, context.eval(JavaScriptLanguage.ID, "Java.to([1, 2.5], 'double[]')").asHostObject(), 0);
+            assertArrayEquals(new long[]{1, 3}, context.eval(JavaScriptLanguage.ID, "Java.to([1, 3], 'long[]')").asHostObject());
+
+            Value from = context.getBindings(JavaScriptLanguage.ID).getMember("Java").getMember("from");
+            int[] ints = {1, 2, 3};
+            Value shared = from.execute(ints, true);
+            Value copied = from.execute(ints, false);
+            shared.setArrayElement(0, 42);
+            ints[2] = 7;
+            assertArrayEquals(new int[]{42, 2, 7}, ints);
+            assertEquals(7, shared.getArrayElement(2).asInt());
+            assertEquals(1, copied.getArrayElement(0).asInt());
+
+            double[] doubles = {0.5, 1.5};
+            Value sharedDoubles = from.execute(doubles, true);
+            sharedDoubles.setArrayElement(1, 2.5);
+            assertArrayEquals(new double[]{0.5, 2.5}, doubles, 0);
+        }
+    }
+
     @Test
     public void testJavaSuper() {
         test("var t = Java.super({a:'foo'}); ''+t;");
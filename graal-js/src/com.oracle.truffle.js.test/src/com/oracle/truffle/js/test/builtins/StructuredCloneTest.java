@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.util.StructuredClone;
+
+/**
+ * Tests for the structuredClone builtin and the cross-realm value transfer.
+ */
+public class StructuredCloneTest {
+
+    private static Context newContext(Engine engine) {
+        return Context.newBuilder(ID).engine(engine).allowExperimentalOptions(true).option(JSContextOptions.STRUCTURED_CLONE_NAME, "true").build();
+    }
+
+    private static boolean evalBoolean(Context context, String source) {
+        return context.eval(ID, source).asBoolean();
+    }
+
+    @Test
+    public void testNotAvailableByDefault() {
+        try (Context context = Context.create(ID)) {
+            assertEquals("undefined", context.eval(ID, "typeof structuredClone").asString());
+        }
+    }
+
+    @Test
+    public void testClone() {
+        try (Engine engine = Engine.create(); Context context = newContext(engine)) {
+            assertTrue(evalBoolean(context, "var o = {a: 1, b: 'x', c: [1, 2.5, , 'y'], d: new Date(42), e: /ab+c/gi, f: 10n};" +
+                            "var c = structuredClone(o);" +
+                            "c !== o && c.a === 1 && c.b === 'x' && c.c !== o.c && c.c.length === 4 && !(2 in c.c) && c.c[3] === 'y' &&" +
+                            "c.d.getTime() === 42 && c.e.source === 'ab+c' && c.e.flags === 'gi' && c.f === 10n"));
+            assertTrue(evalBoolean(context, "var m = new Map([[1, {x: 1}]]); var s = new Set(['a', m]);" +
+                            "var c = structuredClone(s); var cm = [...c][1];" +
+                            "c.has('a') && cm instanceof Map && cm !== m && cm.get(1).x === 1"));
+            assertTrue(evalBoolean(context, "var o = {}; o.self = o; o.arr = [o]; var c = structuredClone(o); c.self === c && c.arr[0] === c"));
+            assertTrue(evalBoolean(context, "var e = structuredClone(new RangeError('oops')); e instanceof RangeError && e.message === 'oops'"));
+            assertTrue(evalBoolean(context, "var t = new Int16Array([1, -2, 3]).subarray(1); var c = structuredClone(t);" +
+                            "c instanceof Int16Array && c.length === 2 && c[0] === -2 && c.buffer !== t.buffer && c.buffer.byteLength === 6"));
+        }
+    }
+
+    @Test
+    public void testNotCloneable() {
+        try (Engine engine = Engine.create(); Context context = newContext(engine)) {
+            assertTrue(evalBoolean(context, "try { structuredClone(function() {}); false; } catch (e) { e instanceof TypeError }"));
+            assertTrue(evalBoolean(context, "try { structuredClone(Symbol()); false; } catch (e) { e instanceof TypeError }"));
+            assertTrue(evalBoolean(context, "try { structuredClone(new Proxy({}, {})); false; } catch (e) { e instanceof TypeError }"));
+        }
+    }
+
+    @Test
+    public void testTransfer() {
+        try (Engine engine = Engine.create(); Context context = newContext(engine)) {
+            assertTrue(evalBoolean(context, "var buf = new Uint8Array([1, 2, 3]).buffer; var c = structuredClone(buf, {transfer: [buf]});" +
+                            "buf.byteLength === 0 && c.byteLength === 3 && new Uint8Array(c)[2] === 3"));
+            assertTrue(evalBoolean(context, "var buf = new ArrayBuffer(4);" +
+                            "try { structuredClone(buf, {transfer: [buf, buf]}); false; } catch (e) { e instanceof TypeError && buf.byteLength === 4 }"));
+        }
+    }
+
+    @Test
+    public void testCloneToRealmOfOtherContext() {
+        try (Engine engine = Engine.create(); Context source = newContext(engine); Context target = newContext(engine)) {
+            source.eval(ID, "var buf = new Float64Array([0.5, 1.5]).buffer; var value = {list: [1, 2, 3], map: new Map([['k', 'v']]), buf: buf};");
+            JSRealm sourceRealm = JavaScriptLanguage.getJSRealm(source);
+            JSRealm targetRealm = JavaScriptLanguage.getJSRealm(target);
+            source.enter();
+            try {
+                Object value = JSObject.get(sourceRealm.getGlobalObject(), "value");
+                Object buf = JSObject.get(sourceRealm.getGlobalObject(), "buf");
+                Object copy = StructuredClone.cloneToRealm(sourceRealm, value, Collections.singletonList(buf), targetRealm);
+                JSObject.set(targetRealm.getGlobalObject(), "copy", copy);
+            } finally {
+                source.leave();
+            }
+            assertTrue(evalBoolean(source, "buf.byteLength === 0"));
+            assertTrue(evalBoolean(target, "copy.list.join() === '1,2,3' && copy.map.get('k') === 'v' && new Float64Array(copy.buf)[1] === 1.5"));
+            assertTrue(evalBoolean(target, "Object.getPrototypeOf(copy) === Object.prototype && copy.list instanceof Array"));
+            assertFalse(evalBoolean(source, "typeof copy !== 'undefined'"));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for the non-standard Worker constructor (js.worker).
+ */
+public class WorkerTest {
+
+    private static Context newContext() {
+        return Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.WORKER_NAME, "true").build();
+    }
+
+    @Test
+    public void testNotAvailableByDefault() {
+        try (Context context = Context.create(ID)) {
+            assertEquals("undefined", context.eval(ID, "typeof Worker").asString());
+        }
+    }
+
+    @Test
+    public void testPostMessage() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var result = [];" +
+                            "var w = new Worker('onmessage = function(e) { postMessage({value: e.data.value * 2}); close(); }', {eval: true});" +
+                            "w.onmessage = function(e) { result.push(e.data.value); };" +
+                            "w.postMessage({value: 21});");
+            // the evaluation returns once the worker has exited
+            assertEquals(42, context.eval(ID, "result[0]").asInt());
+        }
+    }
+
+    @Test
+    public void testWorkersRunInParallel() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var results = [];" +
+                            "for (var i = 0; i < 4; i++) {" +
+                            "  var w = new Worker('onmessage = function(e) { var s = 0; for (var j = 0; j <= e.data; j++) s += j; postMessage(s); close(); }', {eval: true});" +
+                            "  w.onmessage = function(e) { results.push(e.data); };" +
+                            "  w.postMessage(1000 * (i + 1));" +
+                            "}");
+            assertTrue(context.eval(ID, "results.sort((a, b) => a - b).join() === '500500,2001000,4501500,8002000'").asBoolean());
+        }
+    }
+
+    @Test
+    public void testSharedArrayBuffer() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var sab = new SharedArrayBuffer(8); var ia = new Int32Array(sab);" +
+                            "var w = new Worker('onmessage = function(e) { Atomics.store(new Int32Array(e.data), 1, 7); postMessage(null); close(); }', {eval: true});" +
+                            "w.onmessage = function() {};" +
+                            "w.postMessage(sab);");
+            assertEquals(7, context.eval(ID, "Atomics.load(ia, 1)").asInt());
+        }
+    }
+
+    @Test
+    public void testAtomicsNotifyWakesWorker() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var ia = new Int32Array(new SharedArrayBuffer(8)); var result;" +
+                            "var w = new Worker('onmessage = function(e) { var ia = new Int32Array(e.data); postMessage(\\'waiting\\');" +
+                            "  postMessage(Atomics.wait(ia, 0, 0, 60000)); close(); }', {eval: true});" +
+                            "w.onmessage = function(e) { if (e.data === 'waiting') { while (Atomics.notify(ia, 0, 1) === 0) {} } else { result = e.data; } };" +
+                            "w.postMessage(ia.buffer);");
+            assertEquals("ok", context.eval(ID, "result").asString());
+        }
+    }
+
+    @Test
+    public void testAtomicsWaitTimesOutInWorker() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var result;" +
+                            "var w = new Worker('postMessage(Atomics.wait(new Int32Array(new SharedArrayBuffer(8)), 0, 0, 10)); close();', {eval: true});" +
+                            "w.onmessage = function(e) { result = e.data; };");
+            assertEquals("timed-out", context.eval(ID, "result").asString());
+        }
+    }
+
+    @Test
+    public void testTransfer() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var length;" +
+                            "var buf = new Uint8Array([1, 2, 3]).buffer;" +
+                            "var w = new Worker('onmessage = function(e) { postMessage(e.data.byteLength); close(); }', {eval: true});" +
+                            "w.onmessage = function(e) { length = e.data; };" +
+                            "w.postMessage(buf, [buf]);" +
+                            "var detached = buf.byteLength === 0;");
+            assertTrue(context.eval(ID, "detached && length === 3").asBoolean());
+        }
+    }
+
+    @Test
+    public void testTerminate() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var w = new Worker('onmessage = function(e) {};', {eval: true}); w.terminate();");
+            assertTrue(context.eval(ID, "true").asBoolean());
+        }
+    }
+
+    @Test
+    public void testError() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var error; var w = new Worker('throw new Error(\"boom\")', {eval: true}); w.onerror = function(e) { error = e; };");
+            assertTrue(context.eval(ID, "String(error).indexOf('boom') >= 0").asBoolean());
+        }
+    }
+
+    @Test
+    public void testExecutorShutDownOnClose() {
+        ExecutorService executor;
+        try (Context context = newContext()) {
+            context.eval(ID, "var w = new Worker('postMessage(1); close();', {eval: true});");
+            executor = JavaScriptLanguage.getJSContext(context).getWorkerExecutor();
+            assertFalse(executor.isShutdown());
+        }
+        assertTrue(executor.isShutdown());
+    }
+}
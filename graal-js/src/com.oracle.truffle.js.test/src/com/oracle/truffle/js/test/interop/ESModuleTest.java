@@ -318,6 +318,26 @@ public class ESModuleTest {
         }
     }
 
+    /**
+     * Test that repeated reads of a module namespace property observe updates of the exported
+     * binding.
+     */
+    @Test
+    public void testNamespaceLiveBinding() throws IOException {
+        File[] allFilesArray = null;
+        try (Context context = Context.newBuilder(ID).allowIO(true).build()) {
+            allFilesArray = prepareTestFileAndModules("resources/namespacereadtest.js", "resources/namespacereadmodule.js");
+            Source mainSource = Source.newBuilder(ID, allFilesArray[0]).mimeType("application/javascript+module").build();
+            Value v = context.eval(mainSource);
+            assertTrue(v.hasArrayElements());
+            assertEquals(1000, v.getArrayElement(0).asInt());
+            assertEquals(499500, v.getArrayElement(1).asInt());
+            assertEquals(11, v.getArrayElement(2).asInt());
+        } finally {
+            deleteFiles(allFilesArray);
+        }
+    }
+
     /**
      * Test that module file extensions do not have to be specified for import when custom file
      * system is used that adds the necessary extension when looking up the module file.
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for the buffered, asynchronous output mode (js.async-output).
+ */
+public class AsyncOutputTest {
+
+    private static Context newContext(Engine engine, ByteArrayOutputStream out, ByteArrayOutputStream err, String bufferSize) {
+        return Context.newBuilder(ID).engine(engine).out(out).err(err).allowExperimentalOptions(true).option(JSContextOptions.ASYNC_OUTPUT_NAME, "true").option(
+                        JSContextOptions.ASYNC_OUTPUT_BUFFER_SIZE_NAME, bufferSize).option(JSContextOptions.CONSOLE_NAME, "true").build();
+    }
+
+    private static String toString(ByteArrayOutputStream out) {
+        return new String(out.toByteArray(), Charset.defaultCharset());
+    }
+
+    @Test
+    public void testOutputFlushedOnClose() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        try (Engine engine = Engine.create()) {
+            try (Context context = newContext(engine, out, err, "8192")) {
+                context.eval(ID, "print('a'); console.log('b', 1); console.error('c');");
+            }
+        }
+        assertEquals("a\nb 1\n", toString(out));
+        assertEquals("c\n", toString(err));
+    }
+
+    @Test
+    public void testOrderPreserved() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            expected.append("line ").append(i).append('\n');
+        }
+        try (Engine engine = Engine.create()) {
+            // small buffer: output is handed over while the script runs
+            try (Context context = newContext(engine, out, err, "16")) {
+                context.eval(ID, "for (var i = 0; i < 1000; i++) { print('line ' + i); }");
+            }
+        }
+        assertEquals(expected.toString(), toString(out));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for objects with many properties that are stored in dictionary mode.
+ */
+public class DictionaryObjectTest {
+
+    private static final String CREATE = "var o = {}; for (var i = 0; i < 2000; i++) { o['k' + i] = i; }" +
+                    "if (Debug.shape(o).indexOf('%hashMap') < 0) { throw new Error('not a dictionary object'); }";
+
+    private static Context newContext() {
+        return Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").build();
+    }
+
+    @Test
+    public void testGetSetDelete() {
+        try (Context context = newContext()) {
+            context.eval(ID, CREATE);
+            assertEquals(1999000, context.eval(ID, "var sum = 0; for (var i = 0; i < 2000; i++) { sum += o['k' + i]; } sum").asInt());
+            assertTrue(context.eval(ID, "o.k5 = 'five'; o.k5 === 'five' && o.hasOwnProperty('k5')").asBoolean());
+            // delete every other property, then re-add some; order of the remaining keys is kept
+            assertTrue(context.eval(ID, "for (var i = 0; i < 2000; i += 2) { delete o['k' + i]; }" +
+                            "o.k0 = 0; o.extra = 1;" +
+                            "var keys = Object.keys(o); keys.length === 1002 && keys[0] === 'k1' && keys[999] === 'k1999' && keys[1000] === 'k0' && keys[1001] === 'extra' &&" +
+                            "!('k2' in o) && o.k3 === 3").asBoolean());
+        }
+    }
+
+    @Test
+    public void testAttributes() {
+        try (Context context = newContext()) {
+            context.eval(ID, CREATE);
+            assertTrue(context.eval(ID, "var d = Object.getOwnPropertyDescriptor(o, 'k7');" +
+                            "d.value === 7 && d.writable && d.enumerable && d.configurable").asBoolean());
+            assertTrue(context.eval(ID, "Object.defineProperty(o, 'ro', {value: 1, enumerable: true});" +
+                            "var d = Object.getOwnPropertyDescriptor(o, 'ro');" +
+                            "o.ro = 2;" +
+                            "o.ro === 1 && !d.writable && d.enumerable && !d.configurable && !(delete o.ro)").asBoolean());
+            assertTrue(context.eval(ID, "var log = [];" +
+                            "Object.defineProperty(o, 'acc', {get: function() { return 'got'; }, set: function(v) { log.push(v); }, configurable: true});" +
+                            "o.acc = 'x'; var d = Object.getOwnPropertyDescriptor(o, 'acc');" +
+                            "o.acc === 'got' && log[0] === 'x' && typeof d.get === 'function' && !d.enumerable && d.configurable && (delete o.acc) && !('acc' in o)").asBoolean());
+        }
+    }
+
+    @Test
+    public void testSymbolsAndFreeze() {
+        try (Context context = newContext()) {
+            context.eval(ID, CREATE);
+            assertTrue(context.eval(ID, "var s = Symbol('s'); o[s] = 's';" +
+                            "o[s] === 's' && Object.getOwnPropertySymbols(o)[0] === s && Object.keys(o).indexOf(s) < 0").asBoolean());
+            assertTrue(context.eval(ID, "Object.freeze(o); o.k1 = 'changed';" +
+                            "o.k1 === 1 && Object.isFrozen(o) && !Object.getOwnPropertyDescriptor(o, 'k1').writable").asBoolean());
+        }
+    }
+
+    @Test
+    public void testReshapeWhenStable() {
+        try (Context context = newContext()) {
+            // an index key added to an empty object makes it a dictionary object
+            context.eval(ID, "var p = {}; p[1] = 'one'; p.a = 'a'; Object.defineProperty(p, 'ro', {value: 'ro', enumerable: true});" +
+                            "Object.defineProperty(p, 'acc', {get: function() { return 'acc'; }, configurable: true});" +
+                            "function isDictionary(o) { return Debug.shape(o).indexOf('%hashMap') >= 0; }" +
+                            "function access(o, n) { for (var i = 0; i < n; i++) { o.a = o.a; } }");
+            assertTrue(context.eval(ID, "isDictionary(p)").asBoolean());
+            assertTrue(context.eval(ID, "access(p, 100); p.b = 'b'; access(p, 400); isDictionary(p)").asBoolean());
+            assertTrue(context.eval(ID, "access(p, 400); !isDictionary(p)").asBoolean());
+            assertTrue(context.eval(ID, "var d = Object.getOwnPropertyDescriptor(p, 'ro');" +
+                            "Object.keys(p).join() === '1,a,ro,b' && p[1] === 'one' && p.acc === 'acc' && p.b === 'b' && d.value === 'ro' && !d.writable && !d.configurable").asBoolean());
+        }
+    }
+
+    @Test
+    public void testReshapePrototype() {
+        try (Context context = newContext()) {
+            context.eval(ID, "var proto = {}; proto[0] = 0; proto.greet = function() { return 'hello'; };" +
+                            "var child = Object.create(proto);" +
+                            "function isDictionary(o) { return Debug.shape(o).indexOf('%hashMap') >= 0; }");
+            assertTrue(context.eval(ID, "isDictionary(proto)").asBoolean());
+            assertEquals("hello", context.eval(ID, "child.greet()").asString());
+            assertTrue(context.eval(ID, "!isDictionary(proto) && child[0] === 0 && Object.keys(proto).join() === '0,greet'").asBoolean());
+        }
+    }
+}
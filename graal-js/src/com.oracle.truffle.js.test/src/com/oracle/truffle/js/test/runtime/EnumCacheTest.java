@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+/**
+ * Tests for the per-shape enumeration cache used by for-in and Object.keys.
+ */
+public class EnumCacheTest {
+
+    private static final String SETUP = "function P() {} function make(i) { var o = new P(); o.a = i; o.b = i; o.c = i; return o; }" +
+                    "function forInKeys(o) { var keys = []; for (var k in o) { keys.push(k); } return keys.join(); }";
+
+    @Test
+    public void testSameShape() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, SETUP);
+            assertTrue(context.eval(ID, "var ok = true; for (var i = 0; i < 1000; i++) { var o = make(i); ok = ok && forInKeys(o) === 'a,b,c' && Object.keys(o).join() === 'a,b,c'; } ok").asBoolean());
+            // Object.keys returns a fresh array each time
+            assertTrue(context.eval(ID, "var o = make(0); var k1 = Object.keys(o); k1.push('x'); var k2 = Object.keys(o); k1 !== k2 && k2.join() === 'a,b,c'").asBoolean());
+            assertEquals("1,2,a", context.eval(ID, "var n = {a: 0, 2: 0, 1: 0}; forInKeys(n)").asString());
+        }
+    }
+
+    @Test
+    public void testPrototypeChanges() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, SETUP);
+            assertEquals("a,b,c", context.eval(ID, "for (var i = 0; i < 100; i++) { forInKeys(make(i)); } forInKeys(make(0))").asString());
+            // enumerable properties added to the prototype chain must be visited
+            assertEquals("a,b,c,p", context.eval(ID, "P.prototype.p = 1; forInKeys(make(0))").asString());
+            assertEquals("a,b,c,p,q", context.eval(ID, "Object.prototype.q = 1; forInKeys(make(0))").asString());
+            assertEquals("a,b,c", context.eval(ID, "delete P.prototype.p; delete Object.prototype.q; forInKeys(make(0))").asString());
+            // shadowed prototype properties are only visited once
+            assertEquals("a,b,c", context.eval(ID, "P.prototype.a = 1; forInKeys(make(0))").asString());
+            assertEquals("a,b,c,0", context.eval(ID, "delete P.prototype.a; Object.prototype[0] = 0; forInKeys(make(0))").asString());
+            assertEquals("a,b,c", context.eval(ID, "delete Object.prototype[0]; forInKeys(make(0))").asString());
+            assertEquals("a,b,c,z", context.eval(ID, "Object.setPrototypeOf(P.prototype, {z: 1}); forInKeys(make(0))").asString());
+        }
+    }
+
+    @Test
+    public void testModifiedDuringIteration() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, SETUP);
+            // deleted properties that have not been visited yet must not be visited
+            assertEquals("a,c", context.eval(ID, "var o = make(0); var keys = []; for (var k in o) { keys.push(k); delete o.b; } keys.join()").asString());
+            assertEquals("a", context.eval(ID, "var o = make(0); var keys = []; for (var k in o) { keys.push(k); Object.defineProperty(o, 'b', {enumerable: false}); delete o.c; } keys.join()").asString());
+            assertEquals("a,b,c", context.eval(ID, "var o = make(0); var keys = []; for (var k in o) { keys.push(k); P.prototype.a = 1; } keys.join()").asString());
+        }
+    }
+}
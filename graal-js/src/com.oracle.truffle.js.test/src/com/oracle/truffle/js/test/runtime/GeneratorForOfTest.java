@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+/**
+ * Tests for generators consumed by for-of, which resumes generators without going through the
+ * %GeneratorPrototype%.next built-in.
+ */
+public class GeneratorForOfTest {
+
+    private static final String SETUP = "function* range(n) { for (var i = 0; i < n; i++) { try { if (i % 2) { yield i; } else { yield -i; } } finally { log.push(i); } } return 'done'; }" +
+                    "function sum(it) { var s = 0; for (var x of it) { s += x; } return s; }" +
+                    "var log = [];";
+
+    @Test
+    public void testNestedYields() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, SETUP);
+            assertTrue(context.eval(ID, "var ok = true; for (var i = 0; i < 1000; i++) { log = []; ok = ok && sum(range(10)) === 5 && log.join() === '0,1,2,3,4,5,6,7,8,9'; } ok").asBoolean());
+            // break closes the generator and runs the pending finally block
+            assertEquals("0,1", context.eval(ID, "log = []; for (var x of range(10)) { if (x === 1) break; } log.join()").asString());
+            // several generator functions at the same iteration site
+            assertEquals(15, context.eval(ID, "function* a() { yield 1; yield 2; } function* b() { yield* a(); yield 3; } sum(a()) + sum(b()) + sum(range(3)) + sum([7])").asInt());
+        }
+    }
+
+    @Test
+    public void testModifiedNext() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, SETUP);
+            context.eval(ID, "for (var i = 0; i < 100; i++) { sum(range(4)); }");
+            // an own next method takes precedence over the intrinsic one
+            assertEquals(42, context.eval(ID, "var g = range(4); var n = 0; g.next = function() { return n++ < 2 ? {value: 21, done: false} : {done: true}; }; sum(g)").asInt());
+            // as does a replaced %GeneratorPrototype%.next
+            assertEquals(3, context.eval(ID, "var GP = Object.getPrototypeOf(range.prototype); var next = GP.next;" +
+                            "GP.next = function() { var r = next.call(this); if (!r.done) { r.value = 1; } return r; }; var s = sum(range(3)); GP.next = next; s").asInt());
+            assertEquals(-1, context.eval(ID, "sum(range(3))").asInt());
+        }
+    }
+
+    @Test
+    public void testErrors() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, SETUP);
+            context.eval(ID, "for (var i = 0; i < 100; i++) { sum(range(4)); }");
+            // the intrinsic next method called on an object that is not a generator
+            assertTrue(context.eval(ID, "var GP = Object.getPrototypeOf(range.prototype);" +
+                            "try { sum({[Symbol.iterator]() { return {next: GP.next}; }}); false; } catch (e) { e instanceof TypeError; }").asBoolean());
+            // a generator that resumes itself
+            assertTrue(context.eval(ID, "function* self() { yield 1; for (var x of g) {} } var g = self();" +
+                            "try { sum(g); false; } catch (e) { e instanceof TypeError && /already executing/.test(e.message); }").asBoolean());
+            // exceptions thrown by the generator body propagate to the loop
+            assertEquals("boom", context.eval(ID, "function* fail() { yield 1; throw 'boom'; } try { sum(fail()); } catch (e) { e; }").asString());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler.ShapeEntry;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler.SiteEntry;
+
+/**
+ * Tests for the allocation profiler (js.allocation-profiler).
+ */
+public class JSAllocationProfilerTest {
+
+    private static Context newContext() {
+        return Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.ALLOCATION_PROFILER_NAME, "true").option(
+                        JSContextOptions.ALLOCATION_PROFILER_SAMPLE_INTERVAL_NAME, "1").option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").build();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        try (Context context = Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").build()) {
+            assertNull(JSAllocationProfiler.get(context));
+            assertTrue(context.eval(ID, "Debug.allocationProfile()").isNull());
+        }
+    }
+
+    @Test
+    public void testShapesAndSites() {
+        try (Context context = newContext()) {
+            JSAllocationProfiler profiler = JSAllocationProfiler.get(context);
+            assertNotNull(profiler);
+            assertEquals(1, profiler.getSampleInterval());
+            context.eval(ID, "var points = [], doubles = [];" +
+                            "function makePoint(i) { return {x: i, y: i}; }" +
+                            "function makeDoubles(n) { var a = []; for (var i = 0; i < n; i++) { a.push(i + 0.5); } return a; }" +
+                            "for (var i = 0; i < 100; i++) { points.push(makePoint(i)); }" +
+                            "for (var i = 0; i < 10; i++) { doubles.push(makeDoubles(100)); }");
+
+            List<ShapeEntry> shapes = profiler.getShapeEntries();
+            assertFalse(shapes.isEmpty());
+            ShapeEntry point = find(shapes, "{x,y}");
+            assertNotNull(point);
+            assertTrue(point.getInstances() >= 100);
+            assertTrue(point.getEstimatedBytes() > 0);
+            assertTrue(point.getTopSite(), point.getTopSite().contains("makePoint"));
+
+            boolean doubleArray = false;
+            for (ShapeEntry entry : shapes) {
+                if (entry.getArrayStrategy() != null && entry.getArrayStrategy().contains("Double")) {
+                    doubleArray = true;
+                    assertTrue(entry.getEstimatedBytes() >= 10 * 100 * 8);
+                }
+            }
+            assertTrue(doubleArray);
+
+            List<SiteEntry> sites = profiler.getSiteEntries();
+            assertFalse(sites.isEmpty());
+
+            Value report = context.eval(ID, "Debug.allocationProfile()");
+            assertTrue(report.isString());
+            assertTrue(report.asString().contains("makeDoubles"));
+
+            profiler.reset();
+            assertTrue(profiler.getSiteEntries().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSiteIsAllocatingNode() {
+        try (Context context = newContext()) {
+            JSAllocationProfiler profiler = JSAllocationProfiler.get(context);
+            context.eval(Source.create(ID, "var kept = [];\n" +
+                            "function make(i) {\n" +
+                            "  kept.push({a: i});\n" +
+                            "  kept.push({b: i});\n" +
+                            "}\n" +
+                            "for (var i = 0; i < 10; i++) { make(i); }"));
+            List<ShapeEntry> shapes = profiler.getShapeEntries();
+            String siteA = find(shapes, "{a}").getTopSite();
+            String siteB = find(shapes, "{b}").getTopSite();
+            assertTrue(siteA, siteA.startsWith("make (") && siteA.contains(":3)"));
+            assertTrue(siteB, siteB.startsWith("make (") && siteB.contains(":4)"));
+        }
+    }
+
+    private static ShapeEntry find(List<ShapeEntry> shapes, String keys) {
+        for (ShapeEntry entry : shapes) {
+            if (entry.getShape().endsWith(keys)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.runtime.util.JSMetrics.Counter;
+
+/**
+ * Tests for the engine metrics (js.metrics).
+ */
+public class JSMetricsTest {
+
+    private static Context newContext() {
+        return Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.METRICS_NAME, "true").build();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        try (Context context = Context.create(ID)) {
+            assertNull(JSMetrics.get(context));
+        }
+    }
+
+    @Test
+    public void testCounters() {
+        try (Context context = newContext()) {
+            JSMetrics metrics = JSMetrics.get(context);
+            assertNotNull(metrics);
+            context.eval(ID, "function getX(o) { return o.x; }" +
+                            "var objects = [];" +
+                            "for (var i = 0; i < 20; i++) { var o = {}; o['p' + i] = i; o.x = i; objects.push(o); }" +
+                            "for (var i = 0; i < 20; i++) { getX(objects[i]); }" +
+                            "var a = [1, 2, 3]; a.push(1.5); a.push('str');" +
+                            "new RegExp('a+b', 'g').test('aab');" +
+                            "Promise.resolve(1).then(function(v) { return v + 1; }).then(function(v) { return v + 1; });");
+            assertTrue(metrics.get(Counter.POLYMORPHIC_PROPERTY_CACHES) > 0);
+            assertTrue(metrics.get(Counter.MEGAMORPHIC_PROPERTY_CACHES) > 0);
+            assertTrue(metrics.get(Counter.ARRAY_STRATEGY_TRANSITIONS) >= 2);
+            assertTrue(metrics.get(Counter.REGEX_COMPILES) > 0);
+            assertTrue(metrics.get(Counter.SOURCES_PARSED) > 0);
+            assertTrue(metrics.get(Counter.PARSE_TIME_NANOS) > 0);
+            assertTrue(metrics.get(Counter.PROMISE_JOBS) >= 2);
+
+            assertEquals(Counter.values().length, metrics.getCounters().size());
+            metrics.reset();
+            assertEquals(0, metrics.get(Counter.PROMISE_JOBS));
+        }
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("com.oracle.truffle.js:type=Metrics,*");
+        Set<ObjectName> before = server.queryNames(pattern, null);
+        ObjectName name;
+        try (Context context = newContext()) {
+            context.eval(ID, "Promise.resolve().then(function() {});");
+            Set<ObjectName> registered = server.queryNames(pattern, null);
+            registered.removeAll(before);
+            assertEquals(1, registered.size());
+            name = registered.iterator().next();
+            TabularData counters = (TabularData) server.getAttribute(name, "Counters");
+            assertEquals(1L, counters.get(new Object[]{Counter.PROMISE_JOBS.getKey()}).get("value"));
+        }
+        assertTrue(!server.isRegistered(name));
+    }
+
+    @Test
+    public void testMBeanRegisteredOncePerJSContext() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("com.oracle.truffle.js:type=Metrics,*");
+        Set<ObjectName> before = server.queryNames(pattern, null);
+        Context.Builder builder = Context.newBuilder(ID).allowExperimentalOptions(true);
+        builder.option(JSContextOptions.METRICS_NAME, "true").option(JSContextOptions.V8_REALM_BUILTIN_NAME, "true");
+        try (Context context = builder.build()) {
+            context.eval(ID, "Realm.create(); Realm.create();");
+            Set<ObjectName> registered = server.queryNames(pattern, null);
+            registered.removeAll(before);
+            assertEquals(1, registered.size());
+        }
+        assertEquals(before, server.queryNames(pattern, null));
+
+        try (Engine engine = Engine.newBuilder().allowExperimentalOptions(true).option(JSContextOptions.METRICS_NAME, "true").build()) {
+            Context context1 = Context.newBuilder(ID).engine(engine).build();
+            Context context2 = Context.newBuilder(ID).engine(engine).build();
+            context1.eval(ID, "1");
+            context2.eval(ID, "2");
+            boolean shared = JSMetrics.get(context1) == JSMetrics.get(context2);
+            Set<ObjectName> registered = server.queryNames(pattern, null);
+            registered.removeAll(before);
+            assertEquals(shared ? 1 : 2, registered.size());
+
+            context1.close();
+            registered = server.queryNames(pattern, null);
+            registered.removeAll(before);
+            assertEquals(1, registered.size());
+            context2.close();
+        }
+        assertEquals(before, server.queryNames(pattern, null));
+    }
+}
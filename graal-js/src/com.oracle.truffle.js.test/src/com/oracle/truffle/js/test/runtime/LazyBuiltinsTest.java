@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for builtin functions that are created on first access (js.lazy-builtins).
+ */
+public class LazyBuiltinsTest {
+
+    private static final String DESCRIPTORS = "[Array.prototype, String.prototype, Math, Object, JSON, Set.prototype, Map.prototype, Object.getPrototypeOf(Int8Array.prototype)].map(function(holder) {" +
+                    "  var ds = Object.getOwnPropertyDescriptors(holder);" +
+                    "  return Reflect.ownKeys(ds).map(function(key) {" +
+                    "    var d = ds[key];" +
+                    "    return String(key) + ':' + typeof d.value + ':' + (typeof d.value === 'function' ? d.value.name + d.value.length : '') + d.writable + d.enumerable + d.configurable;" +
+                    "  }).join();" +
+                    "}).join('|')";
+
+    private static Context newContext(boolean lazy) {
+        return Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.LAZY_BUILTINS_NAME, String.valueOf(lazy)).build();
+    }
+
+    @Test
+    public void testSameDescriptors() {
+        String expected;
+        try (Context context = newContext(false)) {
+            expected = context.eval(ID, DESCRIPTORS).asString();
+        }
+        try (Context context = newContext(true)) {
+            assertEquals(expected, context.eval(ID, DESCRIPTORS).asString());
+        }
+    }
+
+    @Test
+    public void testIdentityAndAssignment() {
+        try (Context context = newContext(true)) {
+            assertTrue(context.eval(ID, "Array.prototype.map === [].map && Math.max === Math.max").asBoolean());
+            assertEquals(6, context.eval(ID, "[1, 2, 3].map(function(x) { return x * 2; })[2]").asInt());
+            assertEquals(42, context.eval(ID, "Math.floor = function() { return 42; }; Math.floor(1.5)").asInt());
+            assertTrue(context.eval(ID, "delete String.prototype.trim; !('trim' in String.prototype)").asBoolean());
+            assertTrue(context.eval(ID, "Object.defineProperty(Math, 'abs', {enumerable: true}); Object.keys(Math).indexOf('abs') >= 0 && Math.abs(-1) === 1").asBoolean());
+        }
+    }
+
+    @Test
+    public void testIteration() {
+        try (Context context = newContext(true)) {
+            // @@iterator (and Set.prototype.keys) are aliases of the values or entries functions
+            assertTrue(context.eval(ID, "Set.prototype.keys === Set.prototype.values && Set.prototype[Symbol.iterator] === Set.prototype.values &&" +
+                            "Map.prototype[Symbol.iterator] === Map.prototype.entries && Int8Array.prototype[Symbol.iterator] === Int8Array.prototype.values").asBoolean());
+            assertEquals("1,2|a:1,b:2|3,4|5,6", context.eval(ID, "var r = []; for (var x of new Set([1, 2])) { r.push(x); }" +
+                            "[r.join(), [...new Map([['a', 1], ['b', 2]])].map(function(e) { return e.join(':'); }).join(), [...new Int8Array([3, 4])].join()," +
+                            "Array.from(new Set([5, 6]).keys()).join()].join('|')").asString());
+        }
+    }
+
+    @Test
+    public void testFunctionRealm() {
+        try (Context context = Context.newBuilder(ID).allowExperimentalOptions(true).option(JSContextOptions.LAZY_BUILTINS_NAME, "true").option(
+                        JSContextOptions.V8_REALM_BUILTIN_NAME, "true").build()) {
+            // a builtin first read from another realm still belongs to its own realm
+            assertTrue(context.eval(ID, "var other = Realm.global(Realm.create());" +
+                            "var otherMap = other.Array.prototype.map;" +
+                            "Object.getPrototypeOf(otherMap) === other.Function.prototype && otherMap !== Array.prototype.map").asBoolean());
+        }
+    }
+}
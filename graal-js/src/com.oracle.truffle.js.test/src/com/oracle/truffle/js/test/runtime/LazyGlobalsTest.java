@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotAccess;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.JSContextOptions;
+
+/**
+ * Tests for global objects that are created on first access (js.lazy-globals).
+ */
+public class LazyGlobalsTest {
+
+    private static final String DESCRIPTORS = "['console', 'Intl', 'Atomics', 'Polyglot', 'Graal'].map(function(key) {" +
+                    "  var d = Object.getOwnPropertyDescriptor(globalThis, key);" +
+                    "  return d === undefined ? key + ':-' : key + ':' + typeof d.value + ':' + d.writable + d.enumerable + d.configurable;" +
+                    "}).join()";
+
+    private static Context.Builder newContextBuilder(boolean lazy) {
+        return Context.newBuilder(ID).allowExperimentalOptions(true).allowPolyglotAccess(PolyglotAccess.ALL).option(JSContextOptions.INTL_402_NAME,
+                        "true").option(JSContextOptions.LAZY_GLOBALS_NAME, String.valueOf(lazy));
+    }
+
+    @Test
+    public void testSameDescriptors() {
+        String expected;
+        try (Context context = newContextBuilder(false).build()) {
+            expected = context.eval(ID, DESCRIPTORS).asString();
+        }
+        try (Context context = newContextBuilder(true).build()) {
+            assertEquals(expected, context.eval(ID, DESCRIPTORS).asString());
+            assertEquals("object:true", context.eval(ID, "typeof console + ':' + (console === globalThis.console)").asString());
+        }
+    }
+
+    @Test
+    public void testAssignBeforeRead() {
+        try (Context context = newContextBuilder(true).build()) {
+            assertEquals(42, context.eval(ID, "console = 42; console").asInt());
+            assertEquals(true, context.eval(ID, "delete globalThis.Atomics; typeof Atomics === 'undefined'").asBoolean());
+            assertEquals("object:false", context.eval(ID, "Object.defineProperty(globalThis, 'Intl', {writable: false});" +
+                            "typeof Intl + ':' + Object.getOwnPropertyDescriptor(globalThis, 'Intl').writable").asString());
+        }
+    }
+
+    @Test
+    public void testIntl() {
+        try (Context context = newContextBuilder(true).build()) {
+            assertEquals("1,234.5", context.eval(ID, "new Intl.NumberFormat('en-US').format(1234.5)").asString());
+            assertTrue(context.eval(ID, "Object.getPrototypeOf(new Intl.Collator()) === Intl.Collator.prototype").asBoolean());
+        }
+    }
+
+    @Test
+    public void testSharedEngine() {
+        try (Engine engine = Engine.create()) {
+            for (int i = 0; i < 3; i++) {
+                try (Context context = newContextBuilder(true).engine(engine).build()) {
+                    assertEquals(i % 2 == 0 ? "object" : "number", context.eval(ID, (i % 2 == 0 ? "" : "console = 1; ") + "typeof console").asString());
+                    assertTrue(context.eval(ID, "typeof Intl.DateTimeFormat === 'function'").asBoolean());
+                }
+            }
+        }
+    }
+}
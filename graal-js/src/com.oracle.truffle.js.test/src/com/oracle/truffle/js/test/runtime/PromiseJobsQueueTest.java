@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.util.PromiseJobsQueue;
+
+public class PromiseJobsQueueTest {
+
+    @Test
+    public void testFifoWithWrapAroundAndGrow() {
+        PromiseJobsQueue queue = new PromiseJobsQueue();
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 10; round++) {
+            // enqueue more than are removed, so that the ring buffer wraps around and grows
+            for (int i = 0; i < 7; i++) {
+                queue.enqueue(null, next, next * 2);
+                next++;
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected, queue.headJob());
+                assertEquals(expected * 2, queue.headArgument());
+                queue.removeHead();
+                expected++;
+            }
+        }
+        assertEquals(next - expected, queue.size());
+        while (!queue.isEmpty()) {
+            assertEquals(expected++, queue.headJob());
+            queue.removeHead();
+        }
+        assertEquals(next, expected);
+        queue.enqueue(null, "job", null);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testJobOrder() {
+        try (Context context = Context.create(JavaScriptLanguage.ID)) {
+            context.eval(JavaScriptLanguage.ID, "var log = [];" +
+                            "Promise.resolve().then(() => log.push(1)).then(() => log.push(3));" +
+                            "Promise.reject().catch(() => log.push(2)).then(() => log.push(4));" +
+                            "var chain = Promise.resolve(0); for (var i = 0; i < 1000; i++) { chain = chain.then(x => x + 1); }" +
+                            "chain.then(x => log.push(x));");
+            assertEquals("1,2,3,4,1000", context.eval(JavaScriptLanguage.ID, "log.join()").asString());
+        }
+    }
+}
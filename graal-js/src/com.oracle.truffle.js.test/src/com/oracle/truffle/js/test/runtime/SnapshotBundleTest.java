@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.JSParserOptions;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.util.SnapshotBundle;
+
+/**
+ * Tests for the snapshot bundle file format and the js.snapshot-bundle option.
+ */
+public class SnapshotBundleTest {
+
+    private static final String CODE = "var x = 20; x + 22;";
+    private static final JSParserOptions OPTIONS = new JSParserOptions();
+
+    private static SnapshotBundle createBundle() throws IOException {
+        SnapshotBundle.Writer writer = new SnapshotBundle.Writer();
+        writer.add("a.js", OPTIONS, CODE, new byte[]{1, 2, 3});
+        writer.add("b.js", OPTIONS, "b", new byte[]{4, 5});
+        writer.add("a.js", OPTIONS, "another a", new byte[]{6});
+        writer.add("a.js", OPTIONS.putStrict(true), CODE, new byte[]{7});
+        return SnapshotBundle.read(ByteBuffer.wrap(writer.toByteArray()));
+    }
+
+    private static Source source(String code, String name) {
+        return Source.newBuilder(ID, code, name).build();
+    }
+
+    @Test
+    public void testFind() throws IOException {
+        SnapshotBundle bundle = createBundle();
+        assertEquals(4, bundle.size());
+
+        ByteBuffer a = bundle.find(source(CODE, "a.js"), OPTIONS);
+        assertNotNull(a);
+        assertEquals(3, a.remaining());
+        assertEquals(1, a.get(0));
+
+        ByteBuffer anotherA = bundle.find(source("another a", "a.js"), OPTIONS);
+        assertNotNull(anotherA);
+        assertEquals(1, anotherA.remaining());
+        assertEquals(6, anotherA.get(0));
+
+        ByteBuffer strictA = bundle.find(source(CODE, "a.js"), OPTIONS.putStrict(true));
+        assertNotNull(strictA);
+        assertEquals(7, strictA.get(0));
+
+        assertNull(bundle.find(source(CODE, "b.js"), OPTIONS));
+        assertNull(bundle.find(source(CODE + " ", "a.js"), OPTIONS));
+        assertNull(bundle.find(source("var x = 20; x + 23;", "a.js"), OPTIONS));
+        assertNull(bundle.find(source(CODE, "a.js"), OPTIONS.putEcmaScriptVersion(5)));
+        assertNull(bundle.find(source(CODE, "a.js"), OPTIONS.putScripting(true)));
+    }
+
+    @Test
+    public void testCorrupt() {
+        try {
+            SnapshotBundle.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("snapshot bundle"));
+        }
+        byte[] bytes = new SnapshotBundle.Writer().toByteArray();
+        try {
+            SnapshotBundle.read(ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice());
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("snapshot bundle"));
+        }
+    }
+
+    @Test
+    public void testInvalidSnapshotFallsBackToParsing() throws IOException {
+        File script = File.createTempFile("snapshot", ".js");
+        File bundle = File.createTempFile("snapshot", ".bundle");
+        try {
+            Files.write(script.toPath(), CODE.getBytes("UTF-8"));
+            JSParserOptions parserOptions;
+            try (Context context = Context.create(ID)) {
+                parserOptions = JavaScriptLanguage.getJSContext(context).getParserOptions();
+            }
+            SnapshotBundle.Writer writer = new SnapshotBundle.Writer();
+            writer.add(script.getName(), parserOptions, CODE, new byte[16]);
+            Files.write(bundle.toPath(), writer.toByteArray());
+
+            try (Context context = Context.newBuilder(ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.SNAPSHOT_BUNDLE_NAME, bundle.getPath()).build()) {
+                JSRealm realm = JavaScriptLanguage.getJSRealm(context);
+                assertEquals(1, SnapshotBundle.open(realm.getEnv().getPublicTruffleFile(bundle.getPath())).size());
+
+                assertEquals(42, context.eval(org.graalvm.polyglot.Source.newBuilder(ID, script).build()).asInt());
+            }
+        } finally {
+            script.delete();
+            bundle.delete();
+        }
+    }
+
+    @Test
+    public void testMissingBundle() {
+        try (Context context = Context.newBuilder(ID).allowIO(true).allowExperimentalOptions(true).option(JSContextOptions.SNAPSHOT_BUNDLE_NAME, "does-not-exist.bundle").build()) {
+            // the error is reported on every evaluation, not only on the first one
+            for (int i = 0; i < 2; i++) {
+                try {
+                    context.eval(ID, CODE);
+                    fail("expected error");
+                } catch (PolyglotException e) {
+                    assertTrue(e.getMessage(), e.getMessage().contains("snapshot bundle"));
+                }
+            }
+        }
+    }
+}
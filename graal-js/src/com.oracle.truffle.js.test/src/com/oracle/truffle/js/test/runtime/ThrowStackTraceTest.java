@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.Test;
+
+/**
+ * Tests for the stack traces of thrown values, including values that are not Error objects.
+ */
+public class ThrowStackTraceTest {
+
+    private static int countGuestFrames(PolyglotException e) {
+        int count = 0;
+        for (PolyglotException.StackFrame frame : e.getPolyglotStackTrace()) {
+            if (frame.isGuestFrame()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testThrowNonError() {
+        try (Context context = Context.create(ID)) {
+            assertEquals(20000, context.eval(ID, "var caught = 0; function f(i) { if (i & 1) { throw i; } throw {code: 'ENOENT'}; }" +
+                            "for (var i = 0; i < 10000; i++) { try { f(i); } catch (e) { caught += (typeof e === 'number' ? e === i : e.code === 'ENOENT') ? 1 : 0; } }" +
+                            "for (var i = 0; i < 10000; i++) { try { throw 'x' + i; } catch (e) { caught += e === 'x' + i ? 1 : 0; } } caught").asInt());
+            try {
+                context.eval(ID, "function rec(n) { if (n === 0) { throw 42; } rec(n - 1); } rec(100);");
+                fail();
+            } catch (PolyglotException e) {
+                assertTrue(e.isGuestException());
+                assertEquals("42", e.getMessage());
+                assertEquals(42, e.getGuestObject().asInt());
+                // the host stack trace is not cut at Error.stackTraceLimit
+                int frames = countGuestFrames(e);
+                assertTrue(String.valueOf(frames), frames > 100);
+            }
+            try {
+                context.eval(ID, "class MyError { constructor() { this.message = 'oops'; } }; throw new MyError();");
+                fail();
+            } catch (PolyglotException e) {
+                assertEquals("MyError: oops", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testThrowNonErrorFromBuiltinCallback() {
+        try (Context context = Context.create(ID)) {
+            try {
+                context.eval(ID, "function thrower(x) { throw x; } function rec(n) { if (n === 0) { [1].forEach(thrower); } rec(n - 1); } rec(20);");
+                fail();
+            } catch (PolyglotException e) {
+                assertEquals(1, e.getGuestObject().asInt());
+                // thrower, 21 calls of rec and the script, besides the frame of forEach
+                int frames = countGuestFrames(e);
+                assertTrue(String.valueOf(frames), frames >= 23);
+            }
+        }
+    }
+
+    @Test
+    public void testErrorStackTraceLimit() {
+        try (Context context = Context.create(ID)) {
+            context.eval(ID, "function rec(n, f) { return n === 0 ? f() : rec(n - 1, f); }" +
+                            "function frames(stack) { return stack.split('\\n').length - 1; }");
+            assertEquals(10, context.eval(ID, "frames(rec(50, function() { return new Error().stack; }))").asInt());
+            assertEquals(3, context.eval(ID, "Error.stackTraceLimit = 3; frames(rec(50, function() { return new Error().stack; }))").asInt());
+            assertEquals(2, context.eval(ID, "function inner() { var o = {}; Error.captureStackTrace(o, inner); return o.stack; }" +
+                            "function outer() { return inner(); } Error.stackTraceLimit = 2; frames(rec(5, outer))").asInt());
+            assertTrue(context.eval(ID, "function outer2() { return inner(); } Error.stackTraceLimit = 10; rec(0, outer2).indexOf('at inner') < 0 && rec(0, outer2).indexOf('at outer2') >= 0").asBoolean());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.util.WeakMap;
+import com.oracle.truffle.js.runtime.util.WeakMap.InvertedWeakMap;
+
+/**
+ * Tests for the key-side storage of WeakMap and WeakSet entries.
+ */
+public class WeakMapTest {
+
+    @Test
+    public void testInvertedWeakMap() {
+        InvertedWeakMap inverted = new InvertedWeakMap();
+        WeakMap[] maps = new WeakMap[10];
+        for (int i = 0; i < maps.length; i++) {
+            maps[i] = new WeakMap();
+            assertNull(inverted.put(maps[i], i));
+        }
+        assertEquals(maps.length, inverted.size());
+        for (int i = 0; i < maps.length; i++) {
+            assertEquals(i, inverted.get(maps[i]));
+        }
+        assertEquals(3, inverted.put(maps[3], "three"));
+        assertEquals("three", inverted.remove(maps[3]));
+        assertFalse(inverted.containsKey(maps[3]));
+        assertNull(inverted.remove(maps[3]));
+        assertEquals(maps.length - 1, inverted.size());
+        for (int i = 0; i < maps.length; i++) {
+            if (i != 3) {
+                assertEquals(i, inverted.get(maps[i]));
+            }
+        }
+        assertNull(inverted.get(new WeakMap()));
+    }
+
+    @Test
+    public void testManyCollectionsPerKey() {
+        try (Context context = Context.create(ID)) {
+            assertTrue(context.eval(ID, "var key = {};" +
+                            "var maps = [], sets = [];" +
+                            "for (var i = 0; i < 20; i++) { maps.push(new WeakMap().set(key, i)); sets.push(new WeakSet().add(key)); }" +
+                            "maps.every(function(m, i) { return m.get(key) === i && m.has(key); }) && sets.every(function(s) { return s.has(key); }) &&" +
+                            "maps[5].delete(key) && !maps[5].has(key) && maps[6].get(key) === 6 &&" +
+                            "sets[5].delete(key) && !sets[5].has(key) && sets[6].has(key) && !maps[5].delete(key)").asBoolean());
+        }
+    }
+
+    @Test
+    public void testNonExtensibleKeys() {
+        try (Context context = Context.create(ID)) {
+            assertTrue(context.eval(ID, "var frozen = Object.freeze({}), sealed = Object.seal({}), closed = Object.preventExtensions({});" +
+                            "var map = new WeakMap([[frozen, 1], [sealed, 2], [closed, 3]]), set = new WeakSet([frozen, sealed]);" +
+                            "map.get(frozen) === 1 && map.get(sealed) === 2 && map.get(closed) === 3 && set.has(frozen) && set.has(sealed) && !set.has(closed) &&" +
+                            "Object.isFrozen(frozen) && Object.isSealed(sealed) && !Object.isExtensible(closed) &&" +
+                            "Reflect.ownKeys(frozen).length === 0").asBoolean());
+        }
+    }
+}
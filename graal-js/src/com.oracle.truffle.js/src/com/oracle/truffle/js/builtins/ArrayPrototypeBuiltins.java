@@ -367,6 +367,21 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
+        /**
+         * Returns the (profiled) array type of a typed array with an attached buffer if this is a
+         * %TypedArray%.prototype implementation, or {@code null}. Used to call bulk element
+         * kernels instead of reading elements one at a time.
+         */
+        protected final TypedArray getTypedArrayForBulkAccess(Object thisObject) {
+            if (isTypedArrayImplementation && JSArrayBufferView.isJSArrayBufferView(thisObject)) {
+                DynamicObject dynObj = (DynamicObject) thisObject;
+                if (!JSArrayBufferView.hasDetachedBuffer(dynObj, getContext())) {
+                    return typedArrayTypeProfile.profile(JSArrayBufferView.typedArrayGetArrayType(dynObj));
+                }
+            }
+            return null;
+        }
+
         protected final boolean isCallable(Object callback) {
             if (isCallableNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -1425,6 +1440,11 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             if (fromIndexValue < 0) {
                 return -1;
             }
+            TypedArray typedArray = getTypedArrayForBulkAccess(thisJSObject);
+            if (typedArray != null) {
+                DynamicObject view = (DynamicObject) thisJSObject;
+                return typedArray.indexOfElement(view, searchElement, (int) fromIndexValue, isForward(), false, JSArrayBufferView.isJSArrayBufferView(view));
+            }
             return forEachIndexCall(thisJSObject, Undefined.instance, searchElement, fromIndexValue, len, -1);
         }
 
@@ -2867,6 +2887,15 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 }
             }
 
+            TypedArray typedArray = getTypedArrayForBulkAccess(thisObj);
+            if (typedArray != null) {
+                if (k >= len) {
+                    return false;
+                }
+                DynamicObject view = (DynamicObject) thisObj;
+                return typedArray.indexOfElement(view, searchElement, (int) k, true, true, JSArrayBufferView.isJSArrayBufferView(view)) >= 0;
+            }
+
             if (!identicalNode.executeBoolean(searchElement, searchElement)) {
                 return true;
             }
@@ -43,12 +43,12 @@ package com.oracle.truffle.js.builtins;
 import static com.oracle.truffle.js.runtime.JSTruffleOptions.ECMAScript2017;
 import static com.oracle.truffle.js.runtime.JSTruffleOptions.ECMAScript2018;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
-import java.util.WeakHashMap;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -56,6 +56,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -67,6 +68,7 @@ import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.CallBigIntNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.CallBooleanNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.CallCollatorNodeGen;
@@ -106,8 +108,10 @@ import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructSymbol
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructWeakMapNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructWeakRefNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructWeakSetNodeGen;
+import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructWorkerNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.CreateDynamicFunctionNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.PromiseConstructorNodeGen;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.CompileRegexNode;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -168,6 +172,7 @@ import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.LargeInteger;
 import com.oracle.truffle.js.runtime.PromiseHook;
 import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.WorkerAgent;
 import com.oracle.truffle.js.runtime.array.ArrayAllocationSite;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractWritableArray;
@@ -197,6 +202,7 @@ import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.builtins.JSWeakRef;
+import com.oracle.truffle.js.runtime.builtins.JSWorker;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.IteratorRecord;
@@ -278,7 +284,8 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
 
         // non-standard (Nashorn) extensions
         JSAdapter(1),
-        JavaImporter(1);
+        JavaImporter(1),
+        Worker(1);
 
         private final int length;
 
@@ -527,6 +534,12 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
                 return ConstructJSAdapterNodeGen.create(context, builtin, args().fixedArgs(3).createArgumentNodes(context));
             case JavaImporter:
                 return ConstructJavaImporterNodeGen.create(context, builtin, args().varArgs().createArgumentNodes(context));
+            case Worker:
+                if (construct) {
+                    return ConstructWorkerNodeGen.create(context, builtin, false, args().function().fixedArgs(2).createArgumentNodes(context));
+                } else {
+                    return createCallRequiresNew(context, builtin);
+                }
         }
         return null;
 
@@ -1098,6 +1111,56 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
         }
     }
 
+    /**
+     * Non-standard {@code new Worker(path, options)} (js.worker). Runs the script (or, with
+     * {@code type: "module"}, the module) at {@code path} in a new agent. With {@code eval: true},
+     * the first argument is the source code itself.
+     */
+    public abstract static class ConstructWorkerNode extends ConstructWithNewTargetNode {
+        public ConstructWorkerNode(JSContext context, JSBuiltin builtin, boolean newTargetCase) {
+            super(context, builtin, newTargetCase);
+        }
+
+        @Specialization
+        protected DynamicObject constructWorker(DynamicObject newTarget, Object script, Object options,
+                        @Cached("create()") JSToStringNode toStringNode) {
+            String code = toStringNode.executeString(script);
+            Source source = createWorkerSource(code, options);
+            WorkerAgent agent = new WorkerAgent(getContext().getRealm(), source);
+            DynamicObject worker = swapPrototype(JSWorker.create(getContext(), agent), newTarget);
+            agent.start(worker);
+            return worker;
+        }
+
+        @TruffleBoundary
+        private Source createWorkerSource(String code, Object options) {
+            boolean eval = false;
+            boolean module = false;
+            if (JSRuntime.isObject(options)) {
+                DynamicObject optionsObj = (DynamicObject) options;
+                eval = JSRuntime.toBoolean(JSObject.get(optionsObj, "eval"));
+                module = "module".equals(JSRuntime.toString(JSObject.get(optionsObj, "type")));
+            } else if (options != Undefined.instance) {
+                throw Errors.createTypeErrorNotAnObject(options);
+            }
+            String mimeType = module ? JavaScriptLanguage.MODULE_MIME_TYPE : JavaScriptLanguage.APPLICATION_MIME_TYPE;
+            if (eval) {
+                return Source.newBuilder(JavaScriptLanguage.ID, code, "worker").mimeType(mimeType).build();
+            }
+            try {
+                TruffleFile file = GlobalBuiltins.resolveRelativeFilePath(code, getContext().getRealm().getEnv());
+                return Source.newBuilder(JavaScriptLanguage.ID, file).mimeType(mimeType).build();
+            } catch (IOException | SecurityException e) {
+                throw Errors.createErrorFromException(e);
+            }
+        }
+
+        @Override
+        protected DynamicObject getIntrinsicDefaultProto(JSRealm realm) {
+            return realm.getWorkerPrototype();
+        }
+    }
+
     public abstract static class CallCollatorNode extends JSBuiltinNode {
 
         @Child InitializeCollatorNode initializeCollatorNode;
@@ -2091,15 +2154,15 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
         }
 
         @TruffleBoundary
-        protected static Map<DynamicObject, Object> constructWeakHashMap() {
-            return new WeakHashMap<>();
+        protected static Map<DynamicObject, Object> constructWeakSet() {
+            return new WeakMap();
         }
 
         @Override
         @Specialization
         protected DynamicObject constructSet(DynamicObject newTarget, Object iterable) {
             JSContext context = getContext();
-            DynamicObject setObj = JSObject.create(context, context.getWeakSetFactory(), constructWeakHashMap());
+            DynamicObject setObj = JSObject.create(context, context.getWeakSetFactory(), constructWeakSet());
             fillWithIterable(setObj, iterable);
             return swapPrototype(setObj, newTarget);
         }
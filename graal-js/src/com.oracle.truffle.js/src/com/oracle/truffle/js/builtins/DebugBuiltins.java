@@ -60,6 +60,7 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugAllocationProfileNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugArrayTypeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugAssertIntNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugClassNameNodeGen;
@@ -117,6 +118,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler;
 import com.oracle.truffle.object.DynamicObjectImpl;
 
 /**
@@ -156,7 +158,8 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         systemProperty(1),
         systemProperties(0),
         neverPartOfCompilation(0),
-        dumpHeap(2);
+        dumpHeap(2),
+        allocationProfile(0);
 
         private final int length;
 
@@ -228,6 +231,8 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
 
             case dumpHeap:
                 return DebugHeapDumpNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
+            case allocationProfile:
+                return DebugAllocationProfileNodeGen.create(context, builtin, args().createArgumentNodes(context));
         }
         return null;
     }
@@ -550,6 +555,22 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         }
     }
 
+    public abstract static class DebugAllocationProfileNode extends JSBuiltinNode {
+        public DebugAllocationProfileNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object allocationProfile() {
+            JSAllocationProfiler profiler = getContext().getAllocationProfiler();
+            if (profiler == null) {
+                return Undefined.instance;
+            }
+            return profiler.report();
+        }
+    }
+
     /**
      * Used by testV8!
      */
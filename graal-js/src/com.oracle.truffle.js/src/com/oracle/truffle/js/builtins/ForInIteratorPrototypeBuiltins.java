@@ -57,6 +57,7 @@ import com.oracle.truffle.js.builtins.ForInIteratorPrototypeBuiltinsFactory.HasO
 import com.oracle.truffle.js.builtins.helper.ListGetNode;
 import com.oracle.truffle.js.builtins.helper.ListSizeNode;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.nodes.access.EnumCacheNode;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.access.PropertyGetNode;
 import com.oracle.truffle.js.nodes.access.PropertySetNode;
@@ -78,6 +79,7 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.ForInIterator;
+import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 
 /**
  * Functions of the %ForInIteratorPrototype% object.
@@ -120,12 +122,14 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
         @Child private PropertyGetNode getIteratorNode;
         @Child private GetPrototypeNode getPrototypeNode;
         @Child private HasOnlyShapePropertiesNode hasOnlyShapePropertiesNode;
+        @Child private EnumCacheNode enumCacheNode;
         @Child private ListGetNode listGet;
         @Child private ListSizeNode listSize;
         private final BranchProfile errorBranch = BranchProfile.create();
         private final BranchProfile growProfile = BranchProfile.create();
         private final ConditionProfile fastOwnKeysProfile = ConditionProfile.createBinaryProfile();
         private final ConditionProfile sameShapeProfile = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile enumCacheProfile = ConditionProfile.createBinaryProfile();
 
         private static final Object DONE = null;
         private static final int MAX_PROTO_DEPTH = 1000;
@@ -137,6 +141,7 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
             this.getIteratorNode = PropertyGetNode.createGetHidden(JSRuntime.FOR_IN_ITERATOR_ID, context);
             this.getPrototypeNode = GetPrototypeNode.create();
             this.hasOnlyShapePropertiesNode = HasOnlyShapePropertiesNode.create();
+            this.enumCacheNode = JSTruffleOptions.FastOwnKeys ? EnumCacheNode.createForIn() : null;
             this.listGet = ListGetNode.create();
             this.listSize = ListSizeNode.create();
         }
@@ -173,7 +178,16 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
                     boolean fastOwnKeys;
                     List<?> list;
                     int size;
-                    if (fastOwnKeysProfile.profile(JSTruffleOptions.FastOwnKeys && hasOnlyShapePropertiesNode.execute(object, jsclass))) {
+                    UnmodifiableArrayList<String> enumCache = null;
+                    if (enumCacheNode != null && state.protoDepth == 0 && state.visitedShapesSize == 0 && state.visitedKeys == null) {
+                        enumCache = enumCacheNode.execute(object);
+                    }
+                    if (enumCacheProfile.profile(enumCache != null)) {
+                        // no enumerable properties on the prototype chain, only own keys to visit
+                        fastOwnKeys = false;
+                        list = enumCache;
+                        size = enumCache.size();
+                    } else if (fastOwnKeysProfile.profile(JSTruffleOptions.FastOwnKeys && hasOnlyShapePropertiesNode.execute(object, jsclass))) {
                         fastOwnKeys = true;
                         // if the object does not have enumerable properties, no need to enumerate
                         list = JSShape.getPropertiesIfHasEnumerablePropertyNames(objectShape);
@@ -188,12 +202,24 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
                     state.remainingKeysSize = size;
                     state.remainingKeysIndex = 0;
                     state.fastOwnKeys = fastOwnKeys;
+                    state.useEnumCache = enumCache != null;
                     state.objectWasVisited = true;
                 }
 
                 assert state.remainingKeysSize == state.remainingKeys.size();
                 while (state.remainingKeysIndex < state.remainingKeysSize) {
                     final Object next = listGet.execute(state.remainingKeys, state.remainingKeysIndex++);
+                    if (enumCacheProfile.profile(state.useEnumCache)) {
+                        if (sameShapeProfile.profile(state.objectShape == object.getShape())) {
+                            // same shape => all keys are still present and enumerable
+                            return next;
+                        } else {
+                            // shape has changed => must perform GetOwnProperty
+                            addPreviouslyVisitedKeys(state);
+                            state.useEnumCache = false;
+                            // fall through
+                        }
+                    }
                     final Object key = getKey(next);
                     if (!(key instanceof String)) {
                         continue;
@@ -232,6 +258,9 @@ public final class ForInIteratorPrototypeBuiltins extends JSBuiltinsContainer.Sw
                     }
                 }
 
+                if (enumCacheProfile.profile(state.useEnumCache)) {
+                    return DONE;
+                }
                 DynamicObject proto = getPrototypeNode.executeJSObject(object);
                 if (tryFastForwardImmutablePrototype(proto)) {
                     proto = Null.instance;
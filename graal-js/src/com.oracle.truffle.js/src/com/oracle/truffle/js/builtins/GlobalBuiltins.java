@@ -55,7 +55,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 
@@ -87,6 +90,7 @@ import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.GlobalScriptingEXECN
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalDecodeURINodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalEncodeURINodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalExitNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalHasGlobalLexicalDeclarationsNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalImportScriptEngineGlobalBindingsNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalIndirectEvalNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalIsFiniteNodeGen;
@@ -99,7 +103,12 @@ import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalPrintNodeGen
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalReadBufferNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalReadFullyNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalReadLineNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalRestoreStateSnapshotNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalStructuredCloneNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalTakeStateSnapshotNodeGen;
 import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalUnEscapeNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalWorkerCloseNodeGen;
+import com.oracle.truffle.js.builtins.GlobalBuiltinsFactory.JSGlobalWorkerPostMessageNodeGen;
 import com.oracle.truffle.js.builtins.commonjs.GlobalCommonJSRequireBuiltins;
 import com.oracle.truffle.js.builtins.helper.FloatParser;
 import com.oracle.truffle.js.builtins.helper.StringEscape;
@@ -131,7 +140,9 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.LargeInteger;
 import com.oracle.truffle.js.runtime.Symbol;
+import com.oracle.truffle.js.runtime.WorkerAgent;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
 import com.oracle.truffle.js.runtime.builtins.JSArgumentsObject;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
@@ -144,6 +155,8 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
+import com.oracle.truffle.js.runtime.util.RealmStateSnapshot;
+import com.oracle.truffle.js.runtime.util.StructuredClone;
 
 /**
  * Contains builtins for the global object.
@@ -155,6 +168,8 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
     public static final JSBuiltinsContainer GLOBAL_PRINT = new GlobalPrintBuiltins();
     public static final JSBuiltinsContainer GLOBAL_LOAD = new GlobalLoadBuiltins();
     public static final JSBuiltinsContainer GLOBAL_COMMONJS_REQUIRE_EXTENSIONS = new GlobalCommonJSRequireBuiltins();
+    public static final JSBuiltinsContainer GLOBAL_STRUCTURED_CLONE = new GlobalStructuredCloneBuiltins();
+    public static final JSBuiltinsContainer GLOBAL_WORKER_SCOPE = new GlobalWorkerScopeBuiltins();
 
     protected GlobalBuiltins() {
         super(Global.class);
@@ -335,6 +350,75 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
         }
     }
 
+    /**
+     * Built-ins for structuredClone.
+     */
+    public static final class GlobalStructuredCloneBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalStructuredCloneBuiltins.GlobalStructuredClone> {
+        protected GlobalStructuredCloneBuiltins() {
+            super(GlobalStructuredClone.class);
+        }
+
+        public enum GlobalStructuredClone implements BuiltinEnum<GlobalStructuredClone> {
+            structuredClone(1);
+
+            private final int length;
+
+            GlobalStructuredClone(int length) {
+                this.length = length;
+            }
+
+            @Override
+            public int getLength() {
+                return length;
+            }
+        }
+
+        @Override
+        protected Object createNode(JSContext context, JSBuiltin builtin, boolean construct, boolean newTarget, GlobalStructuredClone builtinEnum) {
+            switch (builtinEnum) {
+                case structuredClone:
+                    return JSGlobalStructuredCloneNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Built-ins of the global scope of a worker (js.worker).
+     */
+    public static final class GlobalWorkerScopeBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalWorkerScopeBuiltins.GlobalWorkerScope> {
+        protected GlobalWorkerScopeBuiltins() {
+            super(GlobalWorkerScope.class);
+        }
+
+        public enum GlobalWorkerScope implements BuiltinEnum<GlobalWorkerScope> {
+            postMessage(1),
+            close(0);
+
+            private final int length;
+
+            GlobalWorkerScope(int length) {
+                this.length = length;
+            }
+
+            @Override
+            public int getLength() {
+                return length;
+            }
+        }
+
+        @Override
+        protected Object createNode(JSContext context, JSBuiltin builtin, boolean construct, boolean newTarget, GlobalWorkerScope builtinEnum) {
+            switch (builtinEnum) {
+                case postMessage:
+                    return JSGlobalWorkerPostMessageNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
+                case close:
+                    return JSGlobalWorkerCloseNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            }
+            return null;
+        }
+    }
+
     public static final class GlobalNashornScriptingBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalNashornScriptingBuiltins.GlobalNashornScripting> {
         protected GlobalNashornScriptingBuiltins() {
             super(GlobalNashornScripting.class);
@@ -352,7 +436,10 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
             readFully(1),
             exec(1), // $EXEC
             parseToJSON(3),
-            importScriptEngineGlobalBindings(1);
+            importScriptEngineGlobalBindings(1),
+            hasGlobalLexicalDeclarations(0),
+            takeStateSnapshot(0),
+            restoreStateSnapshot(0);
 
             private final int length;
 
@@ -382,6 +469,12 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
                     return GlobalScriptingEXECNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
                 case importScriptEngineGlobalBindings:
                     return JSGlobalImportScriptEngineGlobalBindingsNodeGen.create(context, builtin, args().fixedArgs(1).varArgs().createArgumentNodes(context));
+                case hasGlobalLexicalDeclarations:
+                    return JSGlobalHasGlobalLexicalDeclarationsNodeGen.create(context, builtin, args().createArgumentNodes(context));
+                case takeStateSnapshot:
+                    return JSGlobalTakeStateSnapshotNodeGen.create(context, builtin, args().createArgumentNodes(context));
+                case restoreStateSnapshot:
+                    return JSGlobalRestoreStateSnapshotNodeGen.create(context, builtin, args().createArgumentNodes(context));
             }
             return null;
         }
@@ -1291,6 +1384,107 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
         }
     }
 
+    /**
+     * Non-standard structuredClone(value, {transfer}) function (HTML structured clone algorithm).
+     */
+    public abstract static class JSGlobalStructuredCloneNode extends JSBuiltinNode {
+
+        public JSGlobalStructuredCloneNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        protected Object structuredClone(Object value, Object options) {
+            return cloneIntl(value, options);
+        }
+
+        @TruffleBoundary
+        private Object cloneIntl(Object value, Object options) {
+            List<Object> transferList = Collections.emptyList();
+            if (options != Undefined.instance) {
+                if (!JSRuntime.isObject(options)) {
+                    throw Errors.createTypeErrorNotAnObject(options);
+                }
+                Object transfer = JSObject.get((DynamicObject) options, "transfer");
+                if (transfer != Undefined.instance) {
+                    transferList = toTransferList(transfer);
+                }
+            }
+            return StructuredClone.clone(getContext().getRealm(), value, transferList);
+        }
+
+        static List<Object> toTransferList(Object transfer) {
+            if (!JSRuntime.isObject(transfer)) {
+                throw Errors.createTypeErrorNotAnObject(transfer);
+            }
+            DynamicObject transferObj = (DynamicObject) transfer;
+            long length = JSRuntime.toLength(JSObject.get(transferObj, JSAbstractArray.LENGTH));
+            List<Object> transferList = new ArrayList<>();
+            for (long i = 0; i < length; i++) {
+                transferList.add(JSObject.get(transferObj, i));
+            }
+            return transferList;
+        }
+    }
+
+    /**
+     * Returns the transfer list of a {@code postMessage(message, transfer)} call: either an array
+     * or an options object with a {@code transfer} property.
+     */
+    @TruffleBoundary
+    static List<Object> toPostMessageTransferList(Object transfer) {
+        if (transfer == Undefined.instance) {
+            return Collections.emptyList();
+        }
+        if (!JSRuntime.isObject(transfer)) {
+            throw Errors.createTypeErrorNotAnObject(transfer);
+        }
+        if (JSRuntime.isArray(transfer)) {
+            return JSGlobalStructuredCloneNode.toTransferList(transfer);
+        }
+        Object transferList = JSObject.get((DynamicObject) transfer, "transfer");
+        return transferList == Undefined.instance ? Collections.emptyList() : JSGlobalStructuredCloneNode.toTransferList(transferList);
+    }
+
+    /**
+     * postMessage(message, transfer) in a worker: sends a message to the parent's Worker object.
+     */
+    public abstract static class JSGlobalWorkerPostMessageNode extends JSBuiltinNode {
+
+        public JSGlobalWorkerPostMessageNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        protected Object postMessage(Object message, Object transfer) {
+            postMessageIntl(message, transfer);
+            return Undefined.instance;
+        }
+
+        @TruffleBoundary
+        private void postMessageIntl(Object message, Object transfer) {
+            JSRealm realm = getContext().getRealm();
+            StructuredClone.Serialized serialized = StructuredClone.serialize(realm, message, toPostMessageTransferList(transfer));
+            ((WorkerAgent) realm.getAgent()).postMessageToParent(serialized);
+        }
+    }
+
+    /**
+     * close() in a worker: stops the worker once the current task has completed.
+     */
+    public abstract static class JSGlobalWorkerCloseNode extends JSBuiltinNode {
+
+        public JSGlobalWorkerCloseNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        protected Object close() {
+            ((WorkerAgent) getContext().getRealm().getAgent()).close();
+            return Undefined.instance;
+        }
+    }
+
     @ImportStatic(value = JSInteropUtil.class)
     public abstract static class JSGlobalLoadNode extends JSLoadOperation {
 
@@ -1538,6 +1732,59 @@ public class GlobalBuiltins extends JSBuiltinsContainer.SwitchEnum<GlobalBuiltin
         }
     }
 
+    /**
+     * Whether global {@code let}, {@code const} or {@code class} declarations have been made in
+     * the realm. These cannot be removed, so the script engine does not reuse such a context.
+     */
+    abstract static class JSGlobalHasGlobalLexicalDeclarationsNode extends JSBuiltinNode {
+
+        JSGlobalHasGlobalLexicalDeclarationsNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        final boolean hasGlobalLexicalDeclarations() {
+            return getContext().getRealm().getGlobalScope().getShape().getPropertyCount() != 0;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the global object and the built-in objects of the realm, which the script
+     * engine restores before it reuses the context.
+     *
+     * @see RealmStateSnapshot
+     */
+    abstract static class JSGlobalTakeStateSnapshotNode extends JSBuiltinNode {
+
+        JSGlobalTakeStateSnapshotNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        final Object takeStateSnapshot() {
+            JSRealm realm = getContext().getRealm();
+            realm.setStateSnapshot(RealmStateSnapshot.create(realm));
+            return Undefined.instance;
+        }
+    }
+
+    /**
+     * Restores the snapshot taken by {@code takeStateSnapshot}; returns false if that is not
+     * possible.
+     */
+    abstract static class JSGlobalRestoreStateSnapshotNode extends JSBuiltinNode {
+
+        JSGlobalRestoreStateSnapshotNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization
+        final boolean restoreStateSnapshot() {
+            RealmStateSnapshot snapshot = getContext().getRealm().getStateSnapshot();
+            return snapshot != null && snapshot.restore();
+        }
+    }
+
     /**
      * Non-standard import helper function for support of global scope bindings in
      * GraalJSScriptEngine.
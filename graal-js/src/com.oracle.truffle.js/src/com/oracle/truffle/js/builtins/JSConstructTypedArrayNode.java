@@ -45,6 +45,7 @@ import java.util.NoSuchElementException;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -85,6 +86,7 @@ import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSObjectFactory;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
+import com.oracle.truffle.js.runtime.java.JavaArrayTransfer;
 import com.oracle.truffle.js.runtime.objects.IteratorRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
@@ -426,6 +428,10 @@ public abstract class JSConstructTypedArrayNode extends JSBuiltinNode {
         }
         DynamicObject obj = createTypedArrayWithLength(length, newTarget);
         assert length <= Integer.MAX_VALUE;
+        TruffleLanguage.Env env = getContext().getRealm().getEnv();
+        if (env.isHostObject(object) && JavaArrayTransfer.copyToTypedArray(env.asHostObject(object), obj)) {
+            return obj;
+        }
         for (int k = 0; k < length; k++) {
             Object kValue = JSInteropUtil.readArrayElementOrDefault(object, k, 0, interop, importValue, this);
             writeOwnNode.executeWithTargetAndIndexAndValue(obj, k, kValue);
@@ -96,6 +96,7 @@ import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.java.JavaAccess;
+import com.oracle.truffle.js.runtime.java.JavaArrayTransfer;
 import com.oracle.truffle.js.runtime.java.adapter.JavaAdapterFactory;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Undefined;
@@ -151,7 +152,7 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
             case typeName:
                 return JavaTypeNameNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
             case from:
-                return JavaFromNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
+                return JavaFromNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
             case to:
                 return JavaToNodeGen.create(context, builtin, args().fixedArgs(2).createArgumentNodes(context));
             case isType:
@@ -410,9 +411,13 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
         }
 
         @Specialization
-        protected DynamicObject from(Object javaArray) {
+        protected DynamicObject from(Object javaArray, Object share) {
             TruffleLanguage.Env env = getContext().getRealm().getEnv();
             if (env.isHostObject(javaArray)) {
+                DynamicObject bulkArray = JavaArrayTransfer.toJSArray(getContext(), env.asHostObject(javaArray), JSRuntime.toBoolean(share), env);
+                if (bulkArray != null) {
+                    return bulkArray;
+                }
                 try {
                     long size = interop.getArraySize(javaArray);
                     if (size < 0 || size >= Integer.MAX_VALUE) {
@@ -515,6 +520,12 @@ public final class JavaBuiltins extends JSBuiltinsContainer.SwitchEnum<JavaBuilt
         private Object toArray(Object jsObj, Object arrayType, TruffleLanguage.Env env) {
             assert isJavaArrayClass(arrayType, env);
 
+            if (JSArray.isJSArray(jsObj)) {
+                Object bulkArray = JavaArrayTransfer.toJavaArray((DynamicObject) jsObj, ((Class<?>) env.asHostObject(arrayType)).getComponentType());
+                if (bulkArray != null) {
+                    return env.asGuestValue(bulkArray);
+                }
+            }
             Object[] arr = toObjectArrayNode.executeObjectArray(jsObj);
             try {
                 Object result = newArray.instantiate(arrayType, arr.length);
@@ -123,9 +123,6 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
     }
 
     public abstract static class JSSetOperation extends JSBuiltinNode {
-        /** Dummy value to associate with a key in the backing map. */
-        protected static final Object PRESENT = new Object();
-
         @Child private JSCollectionsNormalizeNode normalizeNode;
 
         public JSSetOperation(JSContext context, JSBuiltin builtin) {
@@ -196,7 +193,7 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
         @Specialization(guards = "isJSSet(thisObj)")
         protected DynamicObject add(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
-            JSSet.getInternalSet(thisObj).put(normalizedKey, PRESENT);
+            JSSet.getInternalSet(thisObj).put(normalizedKey, JSSet.PRESENT);
             return thisObj;
         }
 
@@ -89,7 +89,6 @@ import com.oracle.truffle.js.nodes.access.ForEachIndexCallNode.MaybeResultNode;
 import com.oracle.truffle.js.nodes.array.JSGetLengthNode;
 import com.oracle.truffle.js.nodes.cast.JSToBigIntNode;
 import com.oracle.truffle.js.nodes.cast.JSToNumberNode;
-import com.oracle.truffle.js.nodes.control.DeletePropertyNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.BigInt;
@@ -323,6 +322,8 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
         private final ConditionProfile isDirectProf = ConditionProfile.createBinaryProfile();
         private final BranchProfile intToIntBranch = BranchProfile.create();
         private final BranchProfile floatToFloatBranch = BranchProfile.create();
+        private final BranchProfile intToFloatBranch = BranchProfile.create();
+        private final BranchProfile floatToIntBranch = BranchProfile.create();
         private final BranchProfile bigIntToBigIntBranch = BranchProfile.create();
         private final BranchProfile objectToObjectBranch = BranchProfile.create();
 
@@ -448,8 +449,8 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
             int targetElementSize = targetType.bytesPerElement();
             int sourceElementSize = sourceType.bytesPerElement();
             int targetByteIndex = targetByteOffset + targetOffset * targetElementSize;
-            if (sourceType == targetType) {
-                // same element type => bulk copy
+            if (targetType.isBitwiseCopyCompatible(sourceType)) {
+                // same element representation => bulk copy
                 int sourceByteLength = sourceLength * sourceElementSize;
                 if (isDirectProf.profile(targetType.isDirect())) {
                     ((ByteBuffer) asBaseBuffer(((ByteBuffer) targetBackingBuffer).duplicate()).position(targetByteIndex)).put(
@@ -469,6 +470,22 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
                     double value = ((TypedArray.TypedFloatArray<Object>) sourceType).getDoubleImpl(sourceBackingBuffer, sourceByteIndex, i);
                     ((TypedArray.TypedFloatArray<Object>) targetType).setDoubleImpl(targetBackingBuffer, targetByteOffset, i + targetOffset, value);
                 }
+            } else if (sourceType instanceof TypedArray.TypedIntArray && targetType instanceof TypedArray.TypedFloatArray) {
+                intToFloatBranch.enter();
+                boolean unsigned = sourceType instanceof TypedArray.AbstractUint32Array;
+                for (int i = 0; i < sourceLength; i++) {
+                    int value = ((TypedArray.TypedIntArray<Object>) sourceType).getIntImpl(sourceBackingBuffer, sourceByteIndex, i);
+                    double doubleValue = unsigned ? (double) (value & 0xFFFFFFFFL) : (double) value;
+                    ((TypedArray.TypedFloatArray<Object>) targetType).setDoubleImpl(targetBackingBuffer, targetByteOffset, i + targetOffset, doubleValue);
+                }
+            } else if (sourceType instanceof TypedArray.TypedFloatArray && targetType instanceof TypedArray.TypedIntArray) {
+                floatToIntBranch.enter();
+                boolean clamped = targetType instanceof TypedArray.AbstractUint8ClampedArray;
+                for (int i = 0; i < sourceLength; i++) {
+                    double value = ((TypedArray.TypedFloatArray<Object>) sourceType).getDoubleImpl(sourceBackingBuffer, sourceByteIndex, i);
+                    int intValue = clamped ? TypedArray.AbstractUint8ClampedArray.toInt(value) : JSRuntime.toInt32(value);
+                    ((TypedArray.TypedIntArray<Object>) targetType).setIntImpl(targetBackingBuffer, targetByteOffset, i + targetOffset, intValue);
+                }
             } else if (sourceType instanceof TypedArray.TypedBigIntArray && targetType instanceof TypedArray.TypedBigIntArray) {
                 bigIntToBigIntBranch.enter();
                 for (int i = 0; i < sourceLength; i++) {
@@ -562,45 +579,10 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
         }
 
         @Specialization(guards = "isJSArrayBufferView(thisObj)")
-        protected DynamicObject reverse(DynamicObject thisObj,
-                        @Cached("create(THROW_ERROR, getContext())") DeletePropertyNode deletePropertyNode) {
+        protected DynamicObject reverse(DynamicObject thisObj) {
             checkHasDetachedBuffer(thisObj);
-            long len = getLength(thisObj);
-            long middle = (long) JSRuntime.mathFloor(len / 2);
-            long lower = 0;
-
-            while (lower != middle) {
-                long upper = len - lower - 1;
-                Object lowerValue = null;
-                Object upperValue = null;
-                boolean lowerExists = hasProperty(thisObj, lower);
-                if (lowerExists) {
-                    lowerValue = read(thisObj, lower);
-                }
-                boolean upperExists = hasProperty(thisObj, upper);
-                if (upperExists) {
-                    upperValue = read(thisObj, upper);
-                }
-
-                if (lowerExists && upperExists) {
-                    write(thisObj, lower, upperValue);
-                    write(thisObj, upper, lowerValue);
-                } else if (upperExists) {
-                    write(thisObj, lower, upperValue);
-                    deletePropertyNode.executeEvaluated(thisObj, upper);
-                } else if (lowerExists) {
-                    deletePropertyNode.executeEvaluated(thisObj, lower);
-                    write(thisObj, upper, lowerValue);
-                }
-
-                long nextLower = nextElementIndex(thisObj, lower, len);
-                long nextUpper = previousElementIndex(thisObj, upper);
-                if ((len - nextLower - 1) >= nextUpper) {
-                    lower = nextLower;
-                } else {
-                    lower = len - nextUpper - 1;
-                }
-            }
+            TypedArray typedArray = getTypedArrayForBulkAccess(thisObj);
+            typedArray.reverse(thisObj, JSArrayBufferView.isJSArrayBufferView(thisObj));
             return thisObj;
         }
 
@@ -630,9 +612,8 @@ public final class TypedArrayPrototypeBuiltins extends JSBuiltinsContainer.Switc
             long lStart = JSRuntime.getOffset(toIntegerSpecial(start), len, offsetProfile1);
             long lEnd = end == Undefined.instance ? len : JSRuntime.getOffset(toIntegerSpecial(end), len, offsetProfile2);
             checkHasDetachedBuffer(thisJSObj);
-            for (long idx = lStart; idx < lEnd; idx++) {
-                write(thisJSObj, idx, convValue);
-            }
+            TypedArray typedArray = getTypedArrayForBulkAccess(thisJSObj);
+            typedArray.fillRange(thisJSObj, (int) lStart, (int) lEnd, convValue, JSArrayBufferView.isJSArrayBufferView(thisJSObj));
             return thisJSObj;
         }
 
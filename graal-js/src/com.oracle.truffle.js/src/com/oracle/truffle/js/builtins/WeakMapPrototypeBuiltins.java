@@ -60,8 +60,7 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.WeakMap;
-
-import java.util.WeakHashMap;
+import com.oracle.truffle.js.runtime.util.WeakMap.InvertedWeakMap;
 
 /**
  * Contains builtins for {@linkplain JSWeakMap}.prototype.
@@ -176,13 +175,10 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
                         @Cached("createInvertedGet()") PropertyGetNode invertedGetter,
                         @Cached("createInvertedHas()") HasHiddenKeyCacheNode invertedHas,
                         @Cached("createClassProfile()") ValueProfile weakMapKlassProfile,
-                        @Cached("createClassProfile()") ValueProfile invertedKlassProfile,
                         @Cached("createBinaryProfile()") ConditionProfile hasInvertedProfile) {
             WeakMap map = (WeakMap) weakMapKlassProfile.profile(storageGetter.getValue(thisObj));
             if (hasInvertedProfile.profile(invertedHas.executeHasHiddenKey(key))) {
-                Object inverted = invertedKlassProfile.profile(invertedGetter.getValue(key));
-                @SuppressWarnings("unchecked")
-                WeakHashMap<WeakMap, Object> invertedMap = (WeakHashMap<WeakMap, Object>) inverted;
+                InvertedWeakMap invertedMap = (InvertedWeakMap) invertedGetter.getValue(key);
                 Object value = mapGet(map, invertedMap);
                 if (value != null) {
                     return value;
@@ -214,7 +210,7 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static Object mapGet(WeakMap map, WeakHashMap<WeakMap, Object> invertedMap) {
+        private static Object mapGet(WeakMap map, InvertedWeakMap invertedMap) {
             return invertedMap.get(map);
         }
     }
@@ -234,13 +230,10 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
                         @Cached("createInvertedGet()") PropertyGetNode invertedGetter,
                         @Cached("createInvertedHas()") HasHiddenKeyCacheNode invertedHas,
                         @Cached("createClassProfile()") ValueProfile weakMapKlassProfile,
-                        @Cached("createClassProfile()") ValueProfile invertedKlassProfile,
                         @Cached("createBinaryProfile()") ConditionProfile hasInvertedProfile) {
             WeakMap map = (WeakMap) weakMapKlassProfile.profile(storageGetter.getValue(thisObj));
             if (hasInvertedProfile.profile(invertedHas.executeHasHiddenKey(key))) {
-                Object inverted = invertedKlassProfile.profile(invertedGetter.getValue(key));
-                @SuppressWarnings("unchecked")
-                WeakHashMap<WeakMap, Object> invertedMap = (WeakHashMap<WeakMap, Object>) inverted;
+                InvertedWeakMap invertedMap = (InvertedWeakMap) invertedGetter.getValue(key);
                 mapPut(map, invertedMap, value);
             } else {
                 Boundaries.mapPut(JSWeakMap.getInternalWeakMap(thisObj), key, value);
@@ -267,7 +260,7 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static Object mapPut(WeakMap map, WeakHashMap<WeakMap, Object> invertedMap, Object value) {
+        private static Object mapPut(WeakMap map, InvertedWeakMap invertedMap, Object value) {
             return invertedMap.put(map, value);
         }
     }
@@ -287,20 +280,17 @@ public final class WeakMapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEn
                         @Cached("createInvertedGet()") PropertyGetNode invertedGetter,
                         @Cached("createInvertedHas()") HasHiddenKeyCacheNode invertedHas,
                         @Cached("createClassProfile()") ValueProfile weakMapKlassProfile,
-                        @Cached("createClassProfile()") ValueProfile invertedKlassProfile,
                         @Cached("createBinaryProfile()") ConditionProfile hasInvertedProfile) {
             WeakMap map = (WeakMap) weakMapKlassProfile.profile(storageGetter.getValue(thisObj));
             if (hasInvertedProfile.profile(invertedHas.executeHasHiddenKey(key))) {
-                Object inverted = invertedKlassProfile.profile(invertedGetter.getValue(key));
-                @SuppressWarnings("unchecked")
-                WeakHashMap<WeakMap, Object> invertedMap = (WeakHashMap<WeakMap, Object>) inverted;
+                InvertedWeakMap invertedMap = (InvertedWeakMap) invertedGetter.getValue(key);
                 return mapHas(map, invertedMap);
             }
             return false;
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static boolean mapHas(WeakMap map, WeakHashMap<WeakMap, Object> invertedMap) {
+        private static boolean mapHas(WeakMap map, InvertedWeakMap invertedMap) {
             return invertedMap.containsKey(map);
         }
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.builtins.WorkerPrototypeBuiltinsFactory.JSWorkerPostMessageNodeGen;
+import com.oracle.truffle.js.builtins.WorkerPrototypeBuiltinsFactory.JSWorkerTerminateNodeGen;
+import com.oracle.truffle.js.nodes.function.JSBuiltin;
+import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
+import com.oracle.truffle.js.runtime.builtins.JSWorker;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.StructuredClone;
+
+/**
+ * Contains builtins for {@linkplain JSWorker}.prototype.
+ */
+public final class WorkerPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<WorkerPrototypeBuiltins.WorkerPrototype> {
+    public static final JSBuiltinsContainer BUILTINS = new WorkerPrototypeBuiltins();
+
+    protected WorkerPrototypeBuiltins() {
+        super(JSWorker.PROTOTYPE_NAME, WorkerPrototype.class);
+    }
+
+    public enum WorkerPrototype implements BuiltinEnum<WorkerPrototype> {
+        postMessage(1),
+        terminate(0);
+
+        private final int length;
+
+        WorkerPrototype(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+    }
+
+    @Override
+    protected Object createNode(JSContext context, JSBuiltin builtin, boolean construct, boolean newTarget, WorkerPrototype builtinEnum) {
+        switch (builtinEnum) {
+            case postMessage:
+                return JSWorkerPostMessageNodeGen.create(context, builtin, args().withThis().fixedArgs(2).createArgumentNodes(context));
+            case terminate:
+                return JSWorkerTerminateNodeGen.create(context, builtin, args().withThis().createArgumentNodes(context));
+        }
+        return null;
+    }
+
+    /**
+     * Worker.prototype.postMessage(message, transfer): sends a message to the worker.
+     */
+    public abstract static class JSWorkerPostMessageNode extends JSBuiltinNode {
+
+        public JSWorkerPostMessageNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization(guards = "isJSWorker(thisObj)")
+        protected Object postMessage(DynamicObject thisObj, Object message, Object transfer) {
+            postMessageIntl(thisObj, message, transfer);
+            return Undefined.instance;
+        }
+
+        @TruffleBoundary
+        private void postMessageIntl(DynamicObject worker, Object message, Object transfer) {
+            StructuredClone.Serialized serialized = StructuredClone.serialize(getContext().getRealm(), message, GlobalBuiltins.toPostMessageTransferList(transfer));
+            JSWorker.getWorkerAgent(worker).postMessageToWorker(serialized);
+        }
+
+        @Specialization(guards = "!isJSWorker(thisObj)")
+        protected Object postMessageNotWorker(@SuppressWarnings("unused") Object thisObj, @SuppressWarnings("unused") Object message, @SuppressWarnings("unused") Object transfer) {
+            throw Errors.createTypeError("Worker expected");
+        }
+    }
+
+    /**
+     * Worker.prototype.terminate(): stops the worker.
+     */
+    public abstract static class JSWorkerTerminateNode extends JSBuiltinNode {
+
+        public JSWorkerTerminateNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @Specialization(guards = "isJSWorker(thisObj)")
+        protected Object terminate(DynamicObject thisObj) {
+            JSWorker.getWorkerAgent(thisObj).terminateFromParent();
+            return Undefined.instance;
+        }
+
+        @Specialization(guards = "!isJSWorker(thisObj)")
+        protected Object terminateNotWorker(@SuppressWarnings("unused") Object thisObj) {
+            throw Errors.createTypeError("Worker expected");
+        }
+    }
+}
@@ -45,6 +45,7 @@ import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArra
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
+import com.oracle.truffle.js.runtime.JSAgent;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
 import com.oracle.truffle.js.runtime.JSContext;
@@ -241,6 +242,7 @@ public final class SharedMemorySync {
     public static void addWaiter(JSContext cx, JSAgentWaiterListEntry wl, int id) {
         assert cx.getJSAgent().inCriticalSection();
         assert !wl.contains(id);
+        cx.getJSAgent().prepareSuspend();
         wl.add(id);
     }
 
@@ -258,15 +260,12 @@ public final class SharedMemorySync {
         assert wl.contains(w);
         assert cx.getJSAgent().getSignifier() == w;
         assert cx.getJSAgent().canBlock();
-        cx.getJSAgent().criticalSectionLeave(wl);
-        boolean interrupt = false;
-        try {
-            Thread.sleep(timeout);
-        } catch (InterruptedException e) {
-            interrupt = true;
-        }
-        cx.getJSAgent().criticalSectionEnter(wl);
-        return interrupt;
+        JSAgent agent = cx.getJSAgent();
+        agent.criticalSectionLeave(wl);
+        agent.suspend(timeout);
+        agent.criticalSectionEnter(wl);
+        // the waking agent removes this agent from the list before waking it
+        return !wl.contains(w);
     }
 
     /* ECMA2017 24.4.1.10 - Wake up another agent */
@@ -176,6 +176,7 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
     private volatile boolean multiContext;
 
     private final Assumption promiseJobsQueueEmptyAssumption;
+    private final Assumption noWorkerAgentsAssumption;
 
     public static final OptionDescriptors OPTION_DESCRIPTORS;
     static {
@@ -187,6 +188,7 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
 
     public JavaScriptLanguage() {
         this.promiseJobsQueueEmptyAssumption = Truffle.getRuntime().createAssumption("PromiseJobsQueueEmpty");
+        this.noWorkerAgentsAssumption = Truffle.getRuntime().createAssumption("NoWorkerAgents");
     }
 
     @Override
@@ -427,6 +429,14 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
                     JSContextOptions.PRINT,
                     JSContextOptions.CONSOLE,
                     JSContextOptions.PERFORMANCE,
+                    JSContextOptions.STRUCTURED_CLONE,
+                    JSContextOptions.WORKER,
+                    JSContextOptions.WORKER_POOL_SIZE,
+                    JSContextOptions.ASYNC_OUTPUT,
+                    JSContextOptions.ASYNC_OUTPUT_FLUSH_ON_NEWLINE,
+                    JSContextOptions.ASYNC_OUTPUT_BUFFER_SIZE,
+                    JSContextOptions.ASYNC_OUTPUT_FLUSH_INTERVAL,
+                    JSContextOptions.ASYNC_OUTPUT_QUEUE_SIZE,
                     JSContextOptions.CLASS_FIELDS,
     };
 
@@ -462,7 +472,10 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
     @Override
     protected void disposeContext(JSRealm realm) {
         CompilerAsserts.neverPartOfCompilation();
+        realm.closeAsyncOutput();
+        realm.unregisterMetricsMBean();
         realm.setGlobalObject(Undefined.instance);
+        realm.getContext().realmDisposed();
     }
 
     @Override
@@ -592,6 +605,9 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
             if (!promiseJobsQueueEmptyAssumption.isValid()) {
                 agent.processAllPromises();
             }
+            if (!noWorkerAgentsAssumption.isValid()) {
+                agent.runEventLoop();
+            }
         }
     }
 
@@ -599,6 +615,10 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
         return promiseJobsQueueEmptyAssumption;
     }
 
+    public Assumption getNoWorkerAgentsAssumption() {
+        return noWorkerAgentsAssumption;
+    }
+
     public JSContext getJSContext() {
         return languageContext;
     }
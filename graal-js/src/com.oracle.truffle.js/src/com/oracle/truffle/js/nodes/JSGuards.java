@@ -82,6 +82,7 @@ import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.builtins.JSWeakRef;
 import com.oracle.truffle.js.runtime.builtins.JSWeakSet;
+import com.oracle.truffle.js.runtime.builtins.JSWorker;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
@@ -432,6 +433,14 @@ public final class JSGuards {
         return JSWeakRef.isJSWeakRef(value);
     }
 
+    public static boolean isJSWorker(DynamicObject value) {
+        return JSWorker.isJSWorker(value);
+    }
+
+    public static boolean isJSWorker(Object value) {
+        return JSWorker.isJSWorker(value);
+    }
+
     public static boolean isJSWeakMap(DynamicObject value) {
         return JSWeakMap.isJSWeakMap(value);
     }
@@ -911,8 +911,8 @@ public class NodeFactory {
         return EnumerateNode.create(context, iteratedObject, values);
     }
 
-    public JavaScriptNode createIteratorNext(JavaScriptNode iterator) {
-        return IteratorNextUnaryNode.create(iterator);
+    public JavaScriptNode createIteratorNext(JSContext context, JavaScriptNode iterator) {
+        return IteratorNextUnaryNode.create(context, iterator);
     }
 
     public JavaScriptNode createIteratorComplete(JSContext context, JavaScriptNode iterResult) {
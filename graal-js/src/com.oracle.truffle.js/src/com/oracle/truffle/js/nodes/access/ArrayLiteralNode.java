@@ -70,6 +70,7 @@ import com.oracle.truffle.js.runtime.array.dyn.ConstantObjectArray;
 import com.oracle.truffle.js.runtime.array.dyn.HolesIntArray;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.objects.IteratorRecord;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
 @GenerateWrapper
@@ -87,6 +88,14 @@ public abstract class ArrayLiteralNode extends JavaScriptNode {
 
     @Override
     public final Object execute(VirtualFrame frame) {
+        if (context.getAllocationProfiler() != null) {
+            Node previousSite = JSAllocationProfiler.enterSite(this);
+            try {
+                return executeDynamicObject(frame);
+            } finally {
+                JSAllocationProfiler.exitSite(previousSite);
+            }
+        }
         return executeDynamicObject(frame);
     }
 
@@ -44,6 +44,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Executed;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -57,6 +58,7 @@ import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler;
 
 public abstract class CreateObjectNode extends JavaScriptBaseNode {
     protected final JSContext context;
@@ -82,6 +84,14 @@ public abstract class CreateObjectNode extends JavaScriptBaseNode {
     }
 
     public final DynamicObject execute(VirtualFrame frame) {
+        if (context.getAllocationProfiler() != null) {
+            Node previousSite = JSAllocationProfiler.enterSite(this);
+            try {
+                return executeDynamicObject(frame);
+            } finally {
+                JSAllocationProfiler.exitSite(previousSite);
+            }
+        }
         return executeDynamicObject(frame);
     }
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.access;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
+import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
+
+/**
+ * Returns the enumeration cache of an object, i.e. the ordered list of its enumerable own string
+ * keys, which is computed once per shape and shared by all objects of that shape. Returns
+ * {@code null} if the object has properties that are not described by its shape.
+ *
+ * In for-in mode, the enumeration cache is only returned if no object on the prototype chain has
+ * enumerable properties, so that the own keys are all that needs to be visited. The result is cached
+ * by the shapes of the object and its prototypes.
+ */
+@ImportStatic(JSTruffleOptions.class)
+public abstract class EnumCacheNode extends JavaScriptBaseNode {
+    static final int MAX_PROTOTYPE_DEPTH = 8;
+    private static final DynamicObject[] EMPTY_OBJECT_ARRAY = new DynamicObject[0];
+    private static final Shape[] EMPTY_SHAPE_ARRAY = new Shape[0];
+
+    protected final boolean forIn;
+
+    protected EnumCacheNode(boolean forIn) {
+        this.forIn = forIn;
+    }
+
+    public static EnumCacheNode create() {
+        return EnumCacheNodeGen.create(false);
+    }
+
+    public static EnumCacheNode createForIn() {
+        return EnumCacheNodeGen.create(true);
+    }
+
+    public abstract UnmodifiableArrayList<String> execute(DynamicObject object);
+
+    @Specialization(guards = {"cachedShape.check(object)", "prototypeShapesUnchanged(cachedPrototypes, cachedPrototypeShapes)"}, assumptions = {"cachedShape.getValidAssumption()",
+                    "noElementsAssumption"}, limit = "PropertyCacheLimit")
+    protected UnmodifiableArrayList<String> doCached(@SuppressWarnings("unused") DynamicObject object,
+                    @SuppressWarnings("unused") @Cached("object.getShape()") Shape cachedShape,
+                    @Cached(value = "getPrototypes(object)", dimensions = 1) DynamicObject[] cachedPrototypes,
+                    @Cached(value = "getShapes(cachedPrototypes)", dimensions = 1) Shape[] cachedPrototypeShapes,
+                    @SuppressWarnings("unused") @Cached("getNoElementsAssumption(cachedShape)") Assumption noElementsAssumption,
+                    @Cached("lookup(object, cachedPrototypes)") UnmodifiableArrayList<String> cachedKeys) {
+        return cachedKeys;
+    }
+
+    @Specialization(replaces = "doCached")
+    protected final UnmodifiableArrayList<String> doUncached(DynamicObject object) {
+        return lookup(object, getPrototypes(object));
+    }
+
+    @ExplodeLoop
+    static boolean prototypeShapesUnchanged(DynamicObject[] prototypes, Shape[] prototypeShapes) {
+        for (int i = 0; i < prototypes.length; i++) {
+            if (prototypes[i].getShape() != prototypeShapes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Shape[] getShapes(DynamicObject[] prototypes) {
+        if (prototypes.length == 0) {
+            return EMPTY_SHAPE_ARRAY;
+        }
+        Shape[] shapes = new Shape[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            shapes[i] = prototypes[i].getShape();
+        }
+        return shapes;
+    }
+
+    static Assumption getNoElementsAssumption(Shape shape) {
+        // Object.prototype only has shape properties as long as it has no elements.
+        return JSShape.getJSContext(shape).getArrayPrototypeNoElementsAssumption();
+    }
+
+    private static boolean hasOnlyShapeProperties(DynamicObject object) {
+        return JSObject.getJSClass(object).hasOnlyShapeProperties(object);
+    }
+
+    /**
+     * Collects the prototype chain of the object if it is determined by the object's shape and
+     * consists only of objects without properties outside of their shapes, so that the shapes of
+     * the prototypes can serve as a guard for their enumerable properties. Returns an empty array if
+     * the prototype chain is not cacheable or not needed.
+     */
+    @TruffleBoundary
+    protected final DynamicObject[] getPrototypes(DynamicObject object) {
+        if (!forIn) {
+            return EMPTY_OBJECT_ARRAY;
+        }
+        List<DynamicObject> prototypes = new ArrayList<>();
+        DynamicObject current = object;
+        while (hasOnlyShapeProperties(current) && JSShape.isPrototypeInShape(current.getShape())) {
+            DynamicObject proto = JSObject.getPrototype(current);
+            if (proto == Null.instance) {
+                return prototypes.toArray(EMPTY_OBJECT_ARRAY);
+            } else if (prototypes.size() >= MAX_PROTOTYPE_DEPTH) {
+                break;
+            }
+            prototypes.add(proto);
+            current = proto;
+        }
+        return EMPTY_OBJECT_ARRAY;
+    }
+
+    @TruffleBoundary
+    protected final UnmodifiableArrayList<String> lookup(DynamicObject object, DynamicObject[] prototypes) {
+        JSClass jsclass = JSObject.getJSClass(object);
+        if (!JSTruffleOptions.FastOwnKeys || !jsclass.hasOnlyShapeProperties(object)) {
+            return null;
+        }
+        if (forIn) {
+            if (prototypes.length == 0 && JSObject.getPrototype(object) != Null.instance) {
+                // prototype chain is not cacheable
+                return null;
+            }
+            for (DynamicObject proto : prototypes) {
+                if (!JSShape.getEnumerablePropertyNames(proto.getShape()).isEmpty()) {
+                    return null;
+                }
+            }
+        }
+        return JSShape.getEnumerablePropertyNames(object.getShape());
+    }
+}
@@ -55,7 +55,6 @@ import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.objects.JSObject;
-import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
@@ -69,6 +68,7 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
     private final boolean values;
     private final JSContext context;
     @Child private JSGetOwnPropertyNode getOwnPropertyNode;
+    @Child private EnumCacheNode enumCacheNode;
     private final ConditionProfile hasFastShapesProfile = ConditionProfile.createBinaryProfile();
     private final BranchProfile growProfile = BranchProfile.create();
 
@@ -76,6 +76,9 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
         this.context = context;
         this.keys = keys;
         this.values = values;
+        if (keys && !values && JSTruffleOptions.FastOwnKeys) {
+            this.enumCacheNode = EnumCacheNode.create();
+        }
     }
 
     public static EnumerableOwnPropertyNamesNode createKeys(JSContext context) {
@@ -94,10 +97,11 @@ public abstract class EnumerableOwnPropertyNamesNode extends JavaScriptBaseNode
 
     @Specialization
     protected UnmodifiableArrayList<? extends Object> enumerableOwnPropertyNames(DynamicObject thisObj) {
-        JSClass jsclass = JSObject.getJSClass(thisObj);
-        if (hasFastShapesProfile.profile(keys && !values && JSTruffleOptions.FastOwnKeys && jsclass.hasOnlyShapeProperties(thisObj))) {
-            return JSShape.getEnumerablePropertyNames(thisObj.getShape());
+        UnmodifiableArrayList<String> enumCache = enumCacheNode != null ? enumCacheNode.execute(thisObj) : null;
+        if (hasFastShapesProfile.profile(enumCache != null)) {
+            return enumCache;
         } else {
+            JSClass jsclass = JSObject.getJSClass(thisObj);
             boolean isProxy = JSProxy.isProxy(thisObj);
             List<Object> ownKeys = jsclass.ownPropertyKeys(thisObj);
             int ownKeysSize = Boundaries.listSize(ownKeys);
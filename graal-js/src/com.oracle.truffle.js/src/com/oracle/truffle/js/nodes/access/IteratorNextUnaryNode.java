@@ -40,32 +40,55 @@
  */
 package com.oracle.truffle.js.nodes.access;
 
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.builtins.GeneratorPrototypeBuiltins;
+import com.oracle.truffle.js.builtins.GeneratorPrototypeBuiltins.GeneratorPrototype;
 import com.oracle.truffle.js.nodes.JavaScriptNode;
+import com.oracle.truffle.js.nodes.function.InternalCallNode;
 import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
+import com.oracle.truffle.js.runtime.objects.Completion;
 import com.oracle.truffle.js.runtime.objects.IteratorRecord;
+import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
  * IteratorNext(iterator) unary expression.
+ *
+ * If the next method is the intrinsic %GeneratorPrototype%.next, the generator is resumed directly
+ * from this node, so that the call to the generator body is cached per iteration site (and can be
+ * inlined) rather than in the shared {@code next} built-in.
  */
 public class IteratorNextUnaryNode extends JavaScriptNode {
     @Child private JSFunctionCallNode methodCallNode;
     @Child private IsJSObjectNode isObjectNode;
     @Child private JavaScriptNode iteratorNode;
+    @Child private PropertyGetNode getGeneratorTarget;
+    @Child private PropertyGetNode getGeneratorContext;
+    @Child private InternalCallNode resumeGeneratorNode;
+    private final JSContext context;
+    @CompilationFinal private JSFunctionData generatorNextFunctionData;
+    private final ConditionProfile generatorNextProfile = ConditionProfile.createBinaryProfile();
     private final BranchProfile errorBranch = BranchProfile.create();
 
-    protected IteratorNextUnaryNode(JavaScriptNode iteratorNode) {
+    protected IteratorNextUnaryNode(JSContext context, JavaScriptNode iteratorNode) {
+        this.context = context;
         this.iteratorNode = iteratorNode;
         this.methodCallNode = JSFunctionCallNode.createCall();
         this.isObjectNode = IsJSObjectNode.create();
     }
 
-    public static JavaScriptNode create(JavaScriptNode iteratorNode) {
-        return new IteratorNextUnaryNode(iteratorNode);
+    public static JavaScriptNode create(JSContext context, JavaScriptNode iteratorNode) {
+        return new IteratorNextUnaryNode(context, iteratorNode);
     }
 
     @Override
@@ -77,7 +100,13 @@ public class IteratorNextUnaryNode extends JavaScriptNode {
     public Object execute(IteratorRecord iteratorRecord) {
         DynamicObject iterator = iteratorRecord.getIterator();
         Object next = iteratorRecord.getNextMethod();
-        Object nextResult = methodCallNode.executeCall(JSArguments.createZeroArg(iterator, next));
+        Object nextResult = null;
+        if (generatorNextProfile.profile(isGeneratorNext(next))) {
+            nextResult = resumeGenerator(iterator);
+        }
+        if (nextResult == null) {
+            nextResult = methodCallNode.executeCall(JSArguments.createZeroArg(iterator, next));
+        }
         if (!isObjectNode.executeBoolean(nextResult)) {
             errorBranch.enter();
             throw Errors.createTypeErrorIteratorResultNotObject(nextResult, this);
@@ -85,8 +114,35 @@ public class IteratorNextUnaryNode extends JavaScriptNode {
         return nextResult;
     }
 
+    private boolean isGeneratorNext(Object next) {
+        if (generatorNextFunctionData == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            generatorNextFunctionData = GeneratorPrototypeBuiltins.BUILTINS.lookupByName(GeneratorPrototype.next.name()).createFunctionData(context);
+        }
+        return JSFunction.isJSFunction(next) && JSFunction.getFunctionData((DynamicObject) next) == generatorNextFunctionData;
+    }
+
+    /**
+     * Same as %GeneratorPrototype%.next(undefined), or {@code null} if the iterator is not a
+     * generator object, in which case the call goes through the built-in and throws.
+     */
+    private Object resumeGenerator(DynamicObject generator) {
+        if (resumeGeneratorNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            getGeneratorTarget = insert(PropertyGetNode.createGetHidden(JSFunction.GENERATOR_TARGET_ID, context));
+            getGeneratorContext = insert(PropertyGetNode.createGetHidden(JSFunction.GENERATOR_CONTEXT_ID, context));
+            resumeGeneratorNode = insert(InternalCallNode.create());
+        }
+        Object generatorTarget = getGeneratorTarget.getValue(generator);
+        if (generatorTarget == Undefined.instance) {
+            return null;
+        }
+        Object generatorContext = getGeneratorContext.getValue(generator);
+        return resumeGeneratorNode.execute((CallTarget) generatorTarget, new Object[]{generatorContext, generator, Undefined.instance, Completion.Type.Normal});
+    }
+
     @Override
     protected JavaScriptNode copyUninitialized() {
-        return create(cloneUninitialized(iteratorNode));
+        return create(context, cloneUninitialized(iteratorNode));
     }
 }
@@ -71,17 +71,20 @@ import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSDictionaryObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
+import com.oracle.truffle.js.runtime.builtins.JSModuleNamespace;
 import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.builtins.JSRegExp;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.builtins.PrototypeSupplier;
 import com.oracle.truffle.js.runtime.java.adapter.JavaSuperAdapter;
 import com.oracle.truffle.js.runtime.objects.JSLazyString;
+import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 
 /**
  * Common base class for property cache nodes. Unifies the cache handling and receiver checks.
@@ -1023,6 +1026,27 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
         }
     }
 
+    /**
+     * Checks that the object is the namespace object of a particular module.
+     */
+    protected static final class ModuleNamespaceCheckNode extends ReceiverCheckNode {
+        private final JSModuleRecord module;
+
+        protected ModuleNamespaceCheckNode(JSModuleRecord module) {
+            this.module = module;
+        }
+
+        @Override
+        public boolean accept(Object thisObj) {
+            return JSModuleNamespace.isJSModuleNamespace(thisObj) && JSModuleNamespace.getModule((DynamicObject) thisObj) == module;
+        }
+
+        @Override
+        public DynamicObject getStore(Object thisObj) {
+            return (DynamicObject) thisObj;
+        }
+    }
+
     protected static final class ForeignLanguageCheckNode extends ReceiverCheckNode {
 
         @Override
@@ -1215,6 +1239,9 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
             Shape cacheShape = store.getShape();
 
             if (JSTruffleOptions.DictionaryObject && JSDictionaryObject.isJSDictionaryObject(store)) {
+                if (depth > 0 && JSDictionaryObject.makePrototypeFast(store)) {
+                    return retryCache();
+                }
                 // TODO: could probably specialize on shape as well.
                 return rewriteToGeneric(currentHead, "dictionary object");
             }
@@ -1302,6 +1329,9 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
         if (cachedCount > 0) {
             reportPolymorphicSpecialize();
             polymorphicCount.inc();
+            if (cachedCount == 1 && context.getMetrics() != null) {
+                context.getMetrics().increment(JSMetrics.Counter.POLYMORPHIC_PROPERTY_CACHES);
+            }
         }
 
         assert currentHead == this.cacheNode;
@@ -1319,6 +1349,9 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
 
     protected T rewriteToGeneric(T currentHead, String reason) {
         megamorphicCount.inc();
+        if (context.getMetrics() != null) {
+            context.getMetrics().increment(JSMetrics.Counter.MEGAMORPHIC_PROPERTY_CACHES);
+        }
         if (JSTruffleOptions.TraceMegamorphicPropertyAccess) {
             System.out.printf("MEGAMORPHIC PROPERTY ACCESS key='%s' %s\n%s\n---\n", key, getEncapsulatingSourceSection(), currentHead.debugString());
         }
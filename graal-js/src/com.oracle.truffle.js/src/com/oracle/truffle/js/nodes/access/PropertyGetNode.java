@@ -106,6 +106,8 @@ import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.ExportResolution;
+import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
@@ -892,6 +894,34 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    /**
+     * Reads an export of a module namespace object directly from the environment of the module
+     * that provides the binding, instead of resolving the export name on every access.
+     */
+    public static final class ModuleNamespacePropertyGetNode extends LinkedPropertyGetNode {
+        private final JSModuleRecord targetModule;
+        private final Assumption environmentUnchangedAssumption;
+        @Child private JSReadFrameSlotNode readFrameSlot;
+
+        public ModuleNamespacePropertyGetNode(ExportResolution binding, ReceiverCheckNode receiverCheck) {
+            super(receiverCheck);
+            this.targetModule = binding.getModule();
+            this.environmentUnchangedAssumption = targetModule.getEnvironmentUnchangedAssumption();
+            this.readFrameSlot = JSReadFrameSlotNode.create(targetModule.getFrameDescriptor().findFrameSlot(binding.getBindingName()));
+        }
+
+        @Override
+        protected Object getValue(Object thisObj, Object receiver, PropertyGetNode root, boolean guard) {
+            // throws a ReferenceError if the binding is not initialized yet
+            return readFrameSlot.execute(targetModule.getEnvironment());
+        }
+
+        @Override
+        protected boolean isValid() {
+            return super.isValid() && environmentUnchangedAssumption.isValid();
+        }
+    }
+
     public static final class ForeignPropertyGetNode extends LinkedPropertyGetNode {
 
         @Child private JSForeignToJSTypeNode toJSTypeNode;
@@ -1292,6 +1322,31 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    /**
+     * Proxy property that usually holds a {@link JSFunction.LazyBuiltinFunctionProxyProperty};
+     * avoids the interface call for it.
+     */
+    public static final class LazyBuiltinFunctionPropertyGetNode extends LinkedPropertyGetNode {
+
+        private final Property property;
+
+        public LazyBuiltinFunctionPropertyGetNode(Property property, ReceiverCheckNode receiverCheck) {
+            super(receiverCheck);
+            assert JSProperty.isData(property) && JSProperty.isProxy(property);
+            this.property = property;
+        }
+
+        @Override
+        protected Object getValue(Object thisObj, Object receiver, PropertyGetNode root, boolean guard) {
+            DynamicObject store = receiverCheck.getStore(thisObj);
+            Object proxy = property.get(store, guard);
+            if (proxy instanceof JSFunction.LazyBuiltinFunctionProxyProperty) {
+                return ((JSFunction.LazyBuiltinFunctionProxyProperty) proxy).get(store);
+            }
+            return JSProperty.getValue(property, store, receiver, guard);
+        }
+    }
+
     public static final class ClassPrototypePropertyGetNode extends LinkedPropertyGetNode {
 
         @CompilationFinal private DynamicObject constantFunction;
@@ -1584,6 +1639,8 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
             } else if (isLazyNamedCaptureGroupProperty(property)) {
                 int groupIndex = ((JSRegExp.LazyNamedCaptureGroupProperty) JSProperty.getConstantProxy(property)).getGroupIndex();
                 return new LazyNamedCaptureGroupPropertyGetNode(dataProperty, receiverCheck, context, groupIndex);
+            } else if (JSProperty.isProxy(property) && context.getContextOptions().isLazyBuiltins()) {
+                return new LazyBuiltinFunctionPropertyGetNode(dataProperty, receiverCheck);
             } else {
                 return new ObjectPropertyGetNode(dataProperty, receiverCheck);
             }
@@ -1659,7 +1716,7 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
                     return new JSProxyDispatcherPropertyGetNode(context, key, receiverCheck, isMethod());
                 }
             } else if (JSModuleNamespace.isJSModuleNamespace(store)) {
-                return new UnspecializedPropertyGetNode(receiverCheck);
+                return createModuleNamespacePropertyNode(jsobject, depth, receiverCheck);
             } else if (JSArrayBufferView.isJSArrayBufferView(store) && isNonIntegerIndex(key)) {
                 return new ArrayBufferViewNonIntegerIndexGetNode(shapeCheck);
             } else {
@@ -1678,6 +1735,16 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    private GetCacheNode createModuleNamespacePropertyNode(DynamicObject namespace, int depth, ReceiverCheckNode receiverCheck) {
+        if (depth == 0 && key instanceof String && !context.isMultiContext()) {
+            ExportResolution binding = JSModuleNamespace.getExports(namespace).get(key);
+            if (binding != null && !binding.isNull() && !binding.isAmbiguous() && binding.getModule().getEnvironment() != null) {
+                return new ModuleNamespacePropertyGetNode(binding, new ModuleNamespaceCheckNode(JSModuleNamespace.getModule(namespace)));
+            }
+        }
+        return new UnspecializedPropertyGetNode(receiverCheck);
+    }
+
     private GetCacheNode createUndefinedJSObjectPropertyNode(DynamicObject jsobject, int depth) {
         AbstractShapeCheckNode shapeCheck = createShapeCheckNode(jsobject.getShape(), jsobject, depth, false, false);
         if (JSRuntime.isObject(jsobject)) {
@@ -58,7 +58,10 @@ public abstract class AbstractGeneratorBlockNode extends AbstractBlockNode {
     protected final int getStateAndReset(VirtualFrame frame) {
         Object value = readStateNode.execute(frame);
         int index = (value instanceof Integer) ? (int) value : 0;
-        setState(frame, 0);
+        // only resuming executions need to reset the state; others just read it
+        if (index != 0) {
+            setState(frame, 0);
+        }
         return index;
     }
 
@@ -70,19 +70,19 @@ public interface ResumableNode {
     }
 
     default Object getStateAndReset(VirtualFrame frame) {
-        try {
-            return getState(frame);
-        } finally {
+        Object state = getState(frame);
+        if (state != Undefined.instance) {
             resetState(frame);
         }
+        return state;
     }
 
     default int getStateAsIntAndReset(VirtualFrame frame) {
-        try {
-            return getStateAsInt(frame);
-        } finally {
+        Object state = getState(frame);
+        if (state != Undefined.instance) {
             resetState(frame);
         }
+        return (state instanceof Integer) ? (int) state : 0;
     }
 
     default void resetState(VirtualFrame frame) {
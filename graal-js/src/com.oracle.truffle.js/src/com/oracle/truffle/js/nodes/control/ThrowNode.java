@@ -107,7 +107,8 @@ public class ThrowNode extends StatementNode {
         } else {
             tryRethrowInterop(exceptionObject);
         }
-        throw UserScriptException.create(exceptionObject, this);
+        // not an Error object, so the stack trace is not observable by the script
+        throw UserScriptException.createLightweight(exceptionObject, this);
     }
 
     private void tryRethrowInterop(Object exceptionObject) {
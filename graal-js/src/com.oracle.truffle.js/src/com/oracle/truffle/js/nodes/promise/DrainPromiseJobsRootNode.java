@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.promise;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.nodes.promise.PromiseReactionJobNode.PerformPromiseReactionJobNode;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.runtime.util.PromiseJobsQueue;
+
+/**
+ * Runs the jobs at the head of a {@link PromiseJobsQueue} as long as they belong to the given
+ * realm, whose context has already been entered by the caller. Arguments: the queue and the realm.
+ */
+public final class DrainPromiseJobsRootNode extends JavaScriptRootNode {
+
+    @Child private PerformPromiseReactionJobNode performReactionJob;
+    @Child private JSFunctionCallNode callJobNode;
+    private final ConditionProfile reactionProfile = ConditionProfile.createBinaryProfile();
+    private final JSMetrics metrics;
+
+    public DrainPromiseJobsRootNode(JavaScriptLanguage language, JSContext context) {
+        super(language, null, null);
+        this.metrics = context.getMetrics();
+        this.performReactionJob = PerformPromiseReactionJobNode.create(context);
+        this.callJobNode = JSFunctionCallNode.createCall();
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        Object[] arguments = frame.getArguments();
+        PromiseJobsQueue queue = (PromiseJobsQueue) arguments[0];
+        JSRealm realm = (JSRealm) arguments[1];
+        long jobs = 0;
+        while (!queue.isEmpty() && queue.headRealm() == realm) {
+            Object job = queue.headJob();
+            Object argument = queue.headArgument();
+            queue.removeHead();
+            if (reactionProfile.profile(job instanceof PromiseReactionRecord)) {
+                performReactionJob.execute((PromiseReactionRecord) job, argument);
+            } else {
+                callJobNode.executeCall(JSArguments.createZeroArg(Undefined.instance, job));
+            }
+            jobs++;
+        }
+        if (metrics != null) {
+            metrics.add(JSMetrics.Counter.PROMISE_JOBS, jobs);
+        }
+        return Undefined.instance;
+    }
+}
@@ -67,7 +67,6 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
     @Child private PropertyGetNode getPromiseResultNode;
     @Child private PropertyGetNode getPromiseIsHandledNode;
     @Child private PropertySetNode setPromiseIsHandledNode;
-    @Child private PromiseReactionJobNode promiseReactionJobNode;
     private final ConditionProfile pendingProf = ConditionProfile.createBinaryProfile();
     private final ConditionProfile fulfilledProf = ConditionProfile.createBinaryProfile();
     private final ConditionProfile unhandledProf = ConditionProfile.createBinaryProfile();
@@ -100,16 +99,14 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
             ((SimpleArrayList<? super PromiseReactionRecord>) getPromiseRejectReactionsNode.getValue(promise)).add(rejectReaction, growProfile);
         } else if (fulfilledProf.profile(promiseState == JSPromise.FULFILLED)) {
             Object value = getPromiseResult(promise);
-            DynamicObject job = getPromiseReactionJob(fulfillReaction, value);
-            context.promiseEnqueueJob(context.getRealm(), job);
+            context.promiseEnqueueReactionJob(context.getRealm(), fulfillReaction, value);
         } else {
             assert promiseState == JSPromise.REJECTED;
             Object reason = getPromiseResult(promise);
             if (unhandledProf.profile(!getPromiseIsHandled(promise))) {
                 context.notifyPromiseRejectionTracker(promise, JSPromise.REJECTION_TRACKER_OPERATION_HANDLE, Undefined.instance);
             }
-            DynamicObject job = getPromiseReactionJob(rejectReaction, reason);
-            context.promiseEnqueueJob(context.getRealm(), job);
+            context.promiseEnqueueReactionJob(context.getRealm(), rejectReaction, reason);
         }
         setPromiseIsHandledNode.setValueBoolean(promise, true);
         if (resultCapability == null) {
@@ -118,14 +115,6 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
         return resultCapability.getPromise();
     }
 
-    private DynamicObject getPromiseReactionJob(PromiseReactionRecord reaction, Object value) {
-        if (promiseReactionJobNode == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            promiseReactionJobNode = insert(PromiseReactionJobNode.create(context));
-        }
-        return promiseReactionJobNode.execute(reaction, value);
-    }
-
     private Object getPromiseResult(DynamicObject promise) {
         if (getPromiseResultNode == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
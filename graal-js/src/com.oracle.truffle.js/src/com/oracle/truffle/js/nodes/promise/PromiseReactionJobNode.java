@@ -94,93 +94,114 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
         class PromiseReactionJob extends JavaScriptRootNode {
             @Child private PropertyGetNode getReaction = PropertyGetNode.createGetHidden(REACTION_KEY, context);
             @Child private PropertyGetNode getArgument = PropertyGetNode.createGetHidden(ARGUMENT_KEY, context);
-            @Child private JSFunctionCallNode callResolveNode;
-            @Child private JSFunctionCallNode callRejectNode;
-            @Child private JSFunctionCallNode callHandlerNode;
-            @Child private TryCatchNode.GetErrorObjectNode getErrorObjectNode;
-            private final ConditionProfile handlerProf = ConditionProfile.createBinaryProfile();
-            private final ValueProfile typeProfile = ValueProfile.createClassProfile();
+            @Child private PerformPromiseReactionJobNode performReactionJob = PerformPromiseReactionJobNode.create(context);
 
             @Override
             public Object execute(VirtualFrame frame) {
                 DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
                 PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
                 Object argument = getArgument.getValue(functionObject);
+                return performReactionJob.execute(reaction, argument);
+            }
+        }
+        CallTarget callTarget = Truffle.getRuntime().createCallTarget(new PromiseReactionJob());
+        return JSFunctionData.createCallOnly(context, callTarget, 0, "");
+    }
 
-                PromiseCapabilityRecord promiseCapability = reaction.getCapability();
-                Object handler = reaction.getHandler();
-                assert promiseCapability != null || handler != Undefined.instance;
+    /**
+     * The steps of a PromiseReactionJob for a given reaction and argument. Also used to run
+     * reactions enqueued without a job function (see
+     * {@link JSContext#promiseEnqueueReactionJob}).
+     */
+    public static final class PerformPromiseReactionJobNode extends JavaScriptBaseNode {
+        private final JSContext context;
+        @Child private JSFunctionCallNode callResolveNode;
+        @Child private JSFunctionCallNode callRejectNode;
+        @Child private JSFunctionCallNode callHandlerNode;
+        @Child private TryCatchNode.GetErrorObjectNode getErrorObjectNode;
+        private final ConditionProfile handlerProf = ConditionProfile.createBinaryProfile();
+        private final ValueProfile typeProfile = ValueProfile.createClassProfile();
+
+        private PerformPromiseReactionJobNode(JSContext context) {
+            this.context = context;
+        }
 
-                if (promiseCapability != null) {
-                    context.notifyPromiseHook(PromiseHook.TYPE_BEFORE, promiseCapability.getPromise());
-                }
+        public static PerformPromiseReactionJobNode create(JSContext context) {
+            return new PerformPromiseReactionJobNode(context);
+        }
 
-                Object handlerResult;
-                boolean fulfill;
-                if (handlerProf.profile(handler == Undefined.instance)) {
-                    handlerResult = argument;
-                    fulfill = reaction.isFulfill();
-                } else {
-                    try {
-                        handlerResult = callHandler().executeCall(JSArguments.createOneArg(Undefined.instance, handler, argument));
-                        // If promiseCapability is undefined, return NormalCompletion(empty).
-                        if (promiseCapability == null) {
-                            return Undefined.instance;
-                        }
-                        fulfill = true;
-                    } catch (Throwable ex) {
-                        if (shouldCatch(ex)) {
-                            handlerResult = getErrorObjectNode.execute(ex);
-                            fulfill = false;
-                        } else {
-                            throw ex;
-                        }
-                    }
-                }
-                Object status;
-                if (fulfill) {
-                    status = callResolve().executeCall(JSArguments.createOneArg(Undefined.instance, promiseCapability.getResolve(), handlerResult));
-                } else {
-                    status = callReject().executeCall(JSArguments.createOneArg(Undefined.instance, promiseCapability.getReject(), handlerResult));
-                }
+        public Object execute(PromiseReactionRecord reaction, Object argument) {
+            PromiseCapabilityRecord promiseCapability = reaction.getCapability();
+            Object handler = reaction.getHandler();
+            assert promiseCapability != null || handler != Undefined.instance;
 
-                context.notifyPromiseHook(PromiseHook.TYPE_AFTER, promiseCapability.getPromise());
-                return status;
+            if (promiseCapability != null) {
+                context.notifyPromiseHook(PromiseHook.TYPE_BEFORE, promiseCapability.getPromise());
             }
 
-            private boolean shouldCatch(Throwable exception) {
-                if (getErrorObjectNode == null) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    getErrorObjectNode = insert(TryCatchNode.GetErrorObjectNode.create(context));
+            Object handlerResult;
+            boolean fulfill;
+            if (handlerProf.profile(handler == Undefined.instance)) {
+                handlerResult = argument;
+                fulfill = reaction.isFulfill();
+            } else {
+                try {
+                    handlerResult = callHandler().executeCall(JSArguments.createOneArg(Undefined.instance, handler, argument));
+                    // If promiseCapability is undefined, return NormalCompletion(empty).
+                    if (promiseCapability == null) {
+                        return Undefined.instance;
+                    }
+                    fulfill = true;
+                } catch (Throwable ex) {
+                    if (shouldCatch(ex)) {
+                        handlerResult = getErrorObjectNode.execute(ex);
+                        fulfill = false;
+                    } else {
+                        throw ex;
+                    }
                 }
-                return TryCatchNode.shouldCatch(exception, typeProfile);
+            }
+            Object status;
+            if (fulfill) {
+                status = callResolve().executeCall(JSArguments.createOneArg(Undefined.instance, promiseCapability.getResolve(), handlerResult));
+            } else {
+                status = callReject().executeCall(JSArguments.createOneArg(Undefined.instance, promiseCapability.getReject(), handlerResult));
             }
 
-            private JSFunctionCallNode callResolve() {
-                if (callResolveNode == null) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    callResolveNode = insert(JSFunctionCallNode.createCall());
-                }
-                return callResolveNode;
+            context.notifyPromiseHook(PromiseHook.TYPE_AFTER, promiseCapability.getPromise());
+            return status;
+        }
+
+        private boolean shouldCatch(Throwable exception) {
+            if (getErrorObjectNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getErrorObjectNode = insert(TryCatchNode.GetErrorObjectNode.create(context));
             }
+            return TryCatchNode.shouldCatch(exception, typeProfile);
+        }
 
-            private JSFunctionCallNode callReject() {
-                if (callRejectNode == null) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    callRejectNode = insert(JSFunctionCallNode.createCall());
-                }
-                return callRejectNode;
+        private JSFunctionCallNode callResolve() {
+            if (callResolveNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                callResolveNode = insert(JSFunctionCallNode.createCall());
             }
+            return callResolveNode;
+        }
 
-            private JSFunctionCallNode callHandler() {
-                if (callHandlerNode == null) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    callHandlerNode = insert(JSFunctionCallNode.createCall());
-                }
-                return callHandlerNode;
+        private JSFunctionCallNode callReject() {
+            if (callRejectNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                callRejectNode = insert(JSFunctionCallNode.createCall());
             }
+            return callRejectNode;
+        }
+
+        private JSFunctionCallNode callHandler() {
+            if (callHandlerNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                callHandlerNode = insert(JSFunctionCallNode.createCall());
+            }
+            return callHandlerNode;
         }
-        CallTarget callTarget = Truffle.getRuntime().createCallTarget(new PromiseReactionJob());
-        return JSFunctionData.createCallOnly(context, callTarget, 0, "");
     }
 }
@@ -47,10 +47,12 @@ import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleException;
 import com.oracle.truffle.api.TruffleStackTrace;
 import com.oracle.truffle.api.TruffleStackTraceElement;
 import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameInstance;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -89,6 +91,18 @@ public abstract class GraalJSException extends RuntimeException implements Truff
         this.jsStackTrace = stackTraceLimit == 0 ? EMPTY_STACK_TRACE : null;
     }
 
+    /**
+     * Constructor for exceptions whose JavaScript stack trace cannot be observed from JavaScript
+     * code, e.g. for thrown values that are not Error objects. These exceptions do not capture a
+     * Java stack trace.
+     */
+    protected GraalJSException(String message, Node node, int stackTraceLimit, boolean lightweight) {
+        super(message, null, true, !lightweight && JSTruffleOptions.FillExceptionStack);
+        this.location = node;
+        this.stackTraceLimit = stackTraceLimit;
+        this.jsStackTrace = stackTraceLimit == 0 ? EMPTY_STACK_TRACE : null;
+    }
+
     protected GraalJSException(String message, SourceSection location, int stackTraceLimit) {
         super(message);
         this.location = location;
@@ -107,7 +121,7 @@ public abstract class GraalJSException extends RuntimeException implements Truff
         assert jsStackTrace == (stackTraceLimit == 0 ? EMPTY_STACK_TRACE : null);
         if (capture || JSTruffleOptions.EagerStackTrace) {
             if (stackTraceLimit > 0) {
-                this.jsStackTrace = getJSStackTrace(skipFramesUpTo);
+                this.jsStackTrace = captureJSStackTrace(skipFramesUpTo);
             }
         }
         return this;
@@ -180,22 +194,43 @@ public abstract class GraalJSException extends RuntimeException implements Truff
     @TruffleBoundary
     private JSStackTraceElement[] getJSStackTrace(DynamicObject skipUpTo) {
         assert stackTraceLimit > 0;
-        boolean nashornMode = JavaScriptLanguage.getCurrentJSRealm().getContext().isOptionNashornCompatibilityMode();
-        // Nashorn does not support skipping of frames
-        DynamicObject skipFramesUpTo = nashornMode ? Undefined.instance : skipUpTo;
         List<TruffleStackTraceElement> stackTrace = TruffleStackTrace.getStackTrace(this);
         if (stackTrace == null) {
             return EMPTY_STACK_TRACE;
         }
-        FrameVisitorImpl visitor = new FrameVisitorImpl(getLocation(), stackTraceLimit, skipFramesUpTo, nashornMode);
+        FrameVisitorImpl visitor = createFrameVisitor(skipUpTo);
         for (TruffleStackTraceElement element : stackTrace) {
-            if (!visitor.visitFrame(element)) {
+            if (!visitor.visitFrame(element.getLocation(), element.getTarget(), element.getFrame())) {
                 break;
             }
         }
         return visitor.getStackTrace().toArray(EMPTY_STACK_TRACE);
     }
 
+    /**
+     * Captures the stack trace eagerly from the current stack. Stops walking the stack as soon as
+     * the stack trace limit is reached, instead of filling in the whole Truffle stack trace first.
+     */
+    @TruffleBoundary
+    private JSStackTraceElement[] captureJSStackTrace(DynamicObject skipUpTo) {
+        assert stackTraceLimit > 0;
+        FrameVisitorImpl visitor = createFrameVisitor(skipUpTo);
+        Truffle.getRuntime().iterateFrames(frameInstance -> {
+            if (visitor.visitFrame(frameInstance.getCallNode(), frameInstance.getCallTarget(), frameInstance.getFrame(FrameInstance.FrameAccess.READ_ONLY))) {
+                return null;
+            }
+            return frameInstance;
+        });
+        return visitor.getStackTrace().toArray(EMPTY_STACK_TRACE);
+    }
+
+    private FrameVisitorImpl createFrameVisitor(DynamicObject skipUpTo) {
+        boolean nashornMode = JavaScriptLanguage.getCurrentJSRealm().getContext().isOptionNashornCompatibilityMode();
+        // Nashorn does not support skipping of frames
+        DynamicObject skipFramesUpTo = nashornMode ? Undefined.instance : skipUpTo;
+        return new FrameVisitorImpl(getLocation(), stackTraceLimit, skipFramesUpTo, nashornMode);
+    }
+
     public void setJSStackTrace(JSStackTraceElement[] jsStackTrace) {
         this.jsStackTrace = jsStackTrace;
     }
@@ -249,21 +284,20 @@ public abstract class GraalJSException extends RuntimeException implements Truff
             }
         }
 
-        private static RootNode rootNode(TruffleStackTraceElement element) {
-            CallTarget callTarget = element.getTarget();
+        private static RootNode rootNode(CallTarget callTarget) {
             return (callTarget instanceof RootCallTarget) ? ((RootCallTarget) callTarget).getRootNode() : null;
         }
 
-        public boolean visitFrame(TruffleStackTraceElement element) {
-            Node callNode = element.getLocation();
+        public boolean visitFrame(Node location, CallTarget target, Frame frame) {
+            Node callNode = location;
             if (first) {
                 first = false;
-                if (JSRuntime.isJSRootNode(rootNode(element))) {
+                if (JSRuntime.isJSRootNode(rootNode(target))) {
                     callNode = originatingNode;
                 }
             }
             if (callNode == null) {
-                callNode = rootNode(element);
+                callNode = rootNode(target);
             }
 
             // this check for code style analyzers
@@ -274,11 +308,11 @@ public abstract class GraalJSException extends RuntimeException implements Truff
                         assert JSRuntime.isJSRootNode(rootNode);
                         final Object[] arguments;
                         if (JSRuntime.isJSFunctionRootNode(rootNode)) {
-                            arguments = element.getFrame().getArguments();
+                            arguments = frame.getArguments();
                         } else if (((JavaScriptRootNode) rootNode).isResumption()) {
                             // first argument is the context frame
-                            Frame frame = (Frame) element.getFrame().getArguments()[0];
-                            arguments = frame.getArguments();
+                            Frame contextFrame = (Frame) frame.getArguments()[0];
+                            arguments = contextFrame.getArguments();
                         } else {
                             break;
                         }
@@ -40,8 +40,11 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.collections.EconomicSet;
@@ -54,7 +57,8 @@ import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
-import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
+import com.oracle.truffle.js.runtime.util.PromiseJobsQueue;
 
 /**
  * Base class for ECMA2017 8.7 Agents.
@@ -73,7 +77,7 @@ public abstract class JSAgent implements EcmaAgent {
     /**
      * ECMA 8.4 "PromiseJobs" job queue.
      */
-    private final Deque<DynamicObject> promiseJobsQueue;
+    private final PromiseJobsQueue promiseJobsQueue;
 
     /**
      * According to ECMA2017 8.4 the queue of pending jobs (promises reactions) must be processed
@@ -90,10 +94,38 @@ public abstract class JSAgent implements EcmaAgent {
      */
     private EconomicSet<Object> weakRefTargets;
 
+    /**
+     * Tasks posted by other agents (e.g. messages from and to workers), run on this agent's thread
+     * by {@link #runEventLoop()}.
+     */
+    private final BlockingQueue<Runnable> incomingTasks;
+
+    /** Number of workers spawned by this agent that have not exited yet. */
+    private int liveWorkers;
+    private boolean inEventLoop;
+
+    /**
+     * Running agents of this agent's cluster (the main agent and the workers spawned from it,
+     * directly or transitively) by signifier, for waking them in Atomics.notify.
+     */
+    private final Map<Integer, JSAgent> agentCluster;
+
+    /** Set by {@link #wake()}, reset before the agent is added to a waiter list. */
+    private boolean woken; // guarded by this
+
     public JSAgent(boolean canBlock) {
+        this(canBlock, null);
+    }
+
+    /**
+     * Creates an agent in the cluster of {@code parent}, or in a new cluster if it is null.
+     */
+    protected JSAgent(boolean canBlock, JSAgent parent) {
         this.signifier = signifierGenerator.incrementAndGet();
         this.canBlock = canBlock;
-        this.promiseJobsQueue = new ArrayDeque<>(4);
+        this.promiseJobsQueue = new PromiseJobsQueue();
+        this.incomingTasks = new LinkedBlockingQueue<>();
+        this.agentCluster = parent == null ? new ConcurrentHashMap<>() : parent.agentCluster;
     }
 
     public abstract void wakeAgent(int w);
@@ -122,6 +154,61 @@ public abstract class JSAgent implements EcmaAgent {
         wl.unlock();
     }
 
+    /**
+     * Makes this agent wakeable by the other agents of its cluster. Called on the agent's thread.
+     */
+    protected final void joinCluster() {
+        agentCluster.put(signifier, this);
+    }
+
+    protected final void leaveCluster() {
+        agentCluster.remove(signifier);
+    }
+
+    /**
+     * Wakes the agent with the given signifier if it is a running agent of this agent's cluster.
+     */
+    protected final void wakeAgentInCluster(int w) {
+        JSAgent agent = agentCluster.get(w);
+        if (agent != null) {
+            agent.wake();
+        }
+    }
+
+    /**
+     * Called in the critical section before this agent is added to a waiter list, so that a
+     * {@link #wake()} from an earlier wait is not taken for the upcoming one.
+     */
+    public final synchronized void prepareSuspend() {
+        woken = false;
+    }
+
+    /**
+     * Blocks until this agent is {@linkplain #wake() woken}, the timeout (in milliseconds)
+     * elapses, or the thread is interrupted.
+     */
+    @TruffleBoundary
+    public final synchronized void suspend(long timeout) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        try {
+            while (!woken && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wakes this agent if it is {@linkplain #suspend suspended}. May be called from any thread.
+     */
+    public final synchronized void wake() {
+        woken = true;
+        notifyAll();
+    }
+
     public void atomicSectionEnter(DynamicObject target) {
         assert !inAtomicSection;
         assert JSArrayBufferView.isJSArrayBufferView(target);
@@ -142,22 +229,30 @@ public abstract class JSAgent implements EcmaAgent {
 
     @TruffleBoundary
     public final void enqueuePromiseJob(DynamicObject job) {
-        promiseJobsQueue.push(job);
+        if (JSFunction.isJSFunction(job)) {
+            promiseJobsQueue.enqueue(JSFunction.getRealm(job), job, null);
+        }
     }
 
+    public final void enqueuePromiseReactionJob(JSRealm realm, PromiseReactionRecord reaction, Object argument) {
+        promiseJobsQueue.enqueue(realm, reaction, argument);
+    }
+
+    /**
+     * Runs the pending promise jobs in FIFO order. Consecutive jobs of the same realm are run in
+     * one batch, by a single call of the {@linkplain JSContext#getDrainPromiseJobsCallTarget()
+     * drain loop}, under one enter of the realm's context.
+     */
     @TruffleBoundary
     public final void processAllPromises() {
         try {
             while (!promiseJobsQueue.isEmpty()) {
-                DynamicObject nextJob = promiseJobsQueue.pollLast();
-                if (JSFunction.isJSFunction(nextJob)) {
-                    JSRealm functionRealm = JSFunction.getRealm(nextJob);
-                    Object prev = functionRealm.getTruffleContext().enter();
-                    try {
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    } finally {
-                        functionRealm.getTruffleContext().leave(prev);
-                    }
+                JSRealm realm = promiseJobsQueue.headRealm();
+                Object prev = realm.getTruffleContext().enter();
+                try {
+                    realm.getContext().getDrainPromiseJobsCallTarget().call(promiseJobsQueue, realm);
+                } finally {
+                    realm.getTruffleContext().leave(prev);
                 }
             }
         } finally {
@@ -185,4 +280,60 @@ public abstract class JSAgent implements EcmaAgent {
         }
         return weakRefTargets.add(target);
     }
+
+    /**
+     * Posts a task to be run on this agent's thread. May be called from any thread.
+     */
+    public final void postTask(Runnable task) {
+        incomingTasks.add(task);
+    }
+
+    public final void workerStarted() {
+        liveWorkers++;
+    }
+
+    public final void workerExited() {
+        assert liveWorkers > 0;
+        liveWorkers--;
+    }
+
+    /**
+     * Whether the event loop should wait for more tasks once the pending ones have been run.
+     */
+    protected boolean keepAlive() {
+        return liveWorkers > 0;
+    }
+
+    /**
+     * Runs posted tasks (and the promise jobs they enqueue) until there are none left and
+     * {@link #keepAlive()} returns false. Called when the JS stack becomes empty.
+     */
+    @TruffleBoundary
+    public final void runEventLoop() {
+        if (inEventLoop) {
+            return;
+        }
+        inEventLoop = true;
+        try {
+            while (true) {
+                Runnable task = incomingTasks.poll();
+                if (task == null) {
+                    if (!keepAlive()) {
+                        break;
+                    }
+                    try {
+                        task = incomingTasks.take();
+                    } catch (InterruptedException e) {
+                        // the executor is shutting down
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                task.run();
+                processAllPromises();
+            }
+        } finally {
+            inEventLoop = false;
+        }
+    }
 }
@@ -40,11 +40,13 @@
  */
 package com.oracle.truffle.js.runtime;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
@@ -56,6 +58,7 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -72,6 +75,7 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
+import com.oracle.truffle.js.nodes.promise.DrainPromiseJobsRootNode;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
 import com.oracle.truffle.js.runtime.builtins.Builtin;
@@ -114,6 +118,7 @@ import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.builtins.JSWeakRef;
 import com.oracle.truffle.js.runtime.builtins.JSWeakSet;
+import com.oracle.truffle.js.runtime.builtins.JSWorker;
 import com.oracle.truffle.js.runtime.builtins.PrototypeSupplier;
 import com.oracle.truffle.js.runtime.builtins.SIMDType;
 import com.oracle.truffle.js.runtime.builtins.SIMDType.SIMDTypeFactory;
@@ -127,11 +132,16 @@ import com.oracle.truffle.js.runtime.objects.JSPrototypeData;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.JSShapeData;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.AsyncOutputDispatcher;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
 import com.oracle.truffle.js.runtime.util.CompilableFunction;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
+import com.oracle.truffle.js.runtime.util.SnapshotBundle;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
 public class JSContext {
@@ -182,6 +192,24 @@ public class JSContext {
 
     private final TimeProfiler timeProfiler;
 
+    /** Engine metrics, or {@code null} if the metrics option is disabled. */
+    private final JSMetrics metrics;
+
+    /** Allocation profiler, or {@code null} if the allocation-profiler option is disabled. */
+    private final JSAllocationProfiler allocationProfiler;
+
+    /** Shared by all realms of this context that use asynchronous output; created lazily. */
+    private AsyncOutputDispatcher asyncOutputDispatcher;
+
+    /** Runs the worker agents of all realms of this context; created lazily. */
+    private ExecutorService workerExecutor;
+    /** Number of realms of this context that have not been disposed yet. */
+    private int liveRealmCount;
+
+    /** Pre-parsed scripts from the snapshot-bundle option; opened lazily. */
+    private SnapshotBundle snapshotBundle;
+    private boolean snapshotBundleOpened;
+
     private final JSObjectFactory.BoundProto moduleNamespaceFactory;
 
     /** The RegExp engine in use, may be JoniRegexEngine or the TRegex engine. */
@@ -211,6 +239,7 @@ public class JSContext {
     private volatile CallTarget boundFunctionCallTargetCache;
     private volatile CallTarget boundFunctionConstructTargetCache;
     private volatile CallTarget boundFunctionConstructNewTargetCache;
+    private volatile CallTarget drainPromiseJobsCallTargetCache;
 
     public enum BuiltinFunctionKey {
         ArrayFlattenIntoArray,
@@ -347,6 +376,7 @@ public class JSContext {
     private final JSObjectFactory mapFactory;
     private final JSObjectFactory setFactory;
     private final JSObjectFactory weakRefFactory;
+    private final JSObjectFactory workerFactory;
     private final JSObjectFactory weakMapFactory;
     private final JSObjectFactory weakSetFactory;
     private final JSObjectFactory proxyFactory;
@@ -426,6 +456,8 @@ public class JSContext {
         this.builtinFunctionData = new JSFunctionData[BuiltinFunctionKey.values().length];
 
         this.timeProfiler = JSTruffleOptions.ProfileTime ? new TimeProfiler() : null;
+        this.metrics = contextOptions.isMetrics() ? new JSMetrics() : null;
+        this.allocationProfiler = contextOptions.isAllocationProfiler() ? new JSAllocationProfiler(contextOptions.getAllocationProfilerSampleInterval()) : null;
 
         this.singleRealmAssumption = Truffle.getRuntime().createAssumption("single realm");
         this.noChildRealmsAssumption = Truffle.getRuntime().createAssumption("no child realms");
@@ -467,6 +499,7 @@ public class JSContext {
         this.mapFactory = builder.create(JSMap.INSTANCE);
         this.setFactory = builder.create(JSSet.INSTANCE);
         this.weakRefFactory = builder.create(JSWeakRef.INSTANCE);
+        this.workerFactory = builder.create(JSWorker.INSTANCE);
         this.weakMapFactory = builder.create(JSWeakMap.INSTANCE);
         this.weakSetFactory = builder.create(JSWeakSet.INSTANCE);
         this.proxyFactory = builder.create(JSProxy.INSTANCE);
@@ -591,6 +624,7 @@ public class JSContext {
         }
         JSRealm newRealm = new JSRealm(this, env);
         newRealm.setupGlobals();
+        realmCreated();
 
         if (isTop) {
             if (contextOptions.isTest262Mode() || contextOptions.isTestV8Mode()) {
@@ -662,6 +696,15 @@ public class JSContext {
         realm.getAgent().enqueuePromiseJob(job);
     }
 
+    /**
+     * ECMA 8.4.1 EnqueueJob for a PromiseReactionJob. Enqueues the reaction and its argument
+     * directly, without creating a job function.
+     */
+    public final void promiseEnqueueReactionJob(JSRealm realm, PromiseReactionRecord reaction, Object argument) {
+        invalidatePromiseQueueNotUsedAssumption();
+        realm.getAgent().enqueuePromiseReactionJob(realm, reaction, argument);
+    }
+
     private void invalidatePromiseQueueNotUsedAssumption() {
         Assumption promiseJobsQueueEmptyAssumption = language.getPromiseJobsQueueEmptyAssumption();
         if (promiseJobsQueueEmptyAssumption.isValid()) {
@@ -680,6 +723,73 @@ public class JSContext {
         return timeProfiler;
     }
 
+    public JSMetrics getMetrics() {
+        return metrics;
+    }
+
+    public JSAllocationProfiler getAllocationProfiler() {
+        return allocationProfiler;
+    }
+
+    @TruffleBoundary
+    public synchronized AsyncOutputDispatcher getAsyncOutputDispatcher() {
+        if (asyncOutputDispatcher == null) {
+            asyncOutputDispatcher = new AsyncOutputDispatcher(getContextOptions().getAsyncOutputQueueSize(), getContextOptions().getAsyncOutputFlushInterval());
+        }
+        return asyncOutputDispatcher;
+    }
+
+    @TruffleBoundary
+    public synchronized ExecutorService getWorkerExecutor() {
+        if (workerExecutor == null) {
+            workerExecutor = WorkerAgent.createExecutor(getContextOptions().getWorkerPoolSize());
+        }
+        return workerExecutor;
+    }
+
+    private synchronized void realmCreated() {
+        liveRealmCount++;
+    }
+
+    /**
+     * Called when a realm of this context is disposed. Once no realm is left, the worker executor
+     * is shut down, so that its threads do not outlive the contexts that use it. A realm created
+     * later gets a new executor.
+     */
+    @TruffleBoundary
+    public synchronized void realmDisposed() {
+        assert liveRealmCount > 0;
+        if (--liveRealmCount == 0 && workerExecutor != null) {
+            workerExecutor.shutdownNow();
+            workerExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the snapshot bundle configured with the {@link JSContextOptions#SNAPSHOT_BUNDLE
+     * snapshot-bundle} option, or {@code null} if there is none.
+     */
+    @TruffleBoundary
+    public synchronized SnapshotBundle getSnapshotBundle(JSRealm realm) {
+        if (!snapshotBundleOpened) {
+            String path = getContextOptions().getSnapshotBundle();
+            if (!path.isEmpty()) {
+                try {
+                    TruffleFile file = realm.getEnv().getPublicTruffleFile(path);
+                    if (!file.isReadable()) {
+                        throw Errors.createError("Cannot read snapshot bundle: " + path);
+                    }
+                    snapshotBundle = SnapshotBundle.open(file);
+                } catch (IOException | SecurityException e) {
+                    throw Errors.createError("Cannot open snapshot bundle: " + path, e);
+                }
+            }
+            // not before the bundle is open, so that a failure is reported to every caller
+            snapshotBundleOpened = true;
+        }
+        return snapshotBundle;
+    }
+
     /**
      * Get the current Realm using {@link ContextReference}.
      */
@@ -778,6 +888,10 @@ public class JSContext {
         return weakRefFactory;
     }
 
+    public final JSObjectFactory getWorkerFactory() {
+        return workerFactory;
+    }
+
     public final JSObjectFactory getWeakMapFactory() {
         return weakMapFactory;
     }
@@ -1013,6 +1127,23 @@ public class JSContext {
         });
     }
 
+    /**
+     * CallTarget that runs the jobs of a promise jobs queue belonging to one realm.
+     */
+    @TruffleBoundary
+    public CallTarget getDrainPromiseJobsCallTarget() {
+        CallTarget result = drainPromiseJobsCallTargetCache;
+        if (result == null) {
+            synchronized (this) {
+                result = drainPromiseJobsCallTargetCache;
+                if (result == null) {
+                    result = drainPromiseJobsCallTargetCache = Truffle.getRuntime().createCallTarget(new DrainPromiseJobsRootNode(getLanguage(), this));
+                }
+            }
+        }
+        return result;
+    }
+
     @TruffleBoundary
     public CallTarget getNotConstructibleCallTarget() {
         CallTarget result = notConstructibleCallTargetCache;
@@ -1137,15 +1268,6 @@ public class JSContext {
         return allocationReporter;
     }
 
-    public final <T> T trackAllocation(T object) {
-        AllocationReporter reporter = getAllocationReporter();
-        if (reporter != null) {
-            reporter.onEnter(null, 0, AllocationReporter.SIZE_UNKNOWN);
-            reporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
-        }
-        return object;
-    }
-
     public boolean isOptionAnnexB() {
         return contextOptions.isAnnexB();
     }
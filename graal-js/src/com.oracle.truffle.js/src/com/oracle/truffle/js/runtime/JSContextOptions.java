@@ -232,6 +232,18 @@ public final class JSContextOptions {
     @Option(name = PERFORMANCE_NAME, category = OptionCategory.USER, help = "Provide 'performance' global property.") //
     public static final OptionKey<Boolean> PERFORMANCE = new OptionKey<>(false);
 
+    public static final String STRUCTURED_CLONE_NAME = JS_OPTION_PREFIX + "structured-clone";
+    @Option(name = STRUCTURED_CLONE_NAME, category = OptionCategory.USER, help = "Provide 'structuredClone' global function.") //
+    public static final OptionKey<Boolean> STRUCTURED_CLONE = new OptionKey<>(false);
+
+    public static final String WORKER_NAME = JS_OPTION_PREFIX + "worker";
+    @Option(name = WORKER_NAME, category = OptionCategory.USER, help = "Provide 'Worker' global constructor for running modules in parallel agents.") //
+    public static final OptionKey<Boolean> WORKER = new OptionKey<>(false);
+
+    public static final String WORKER_POOL_SIZE_NAME = JS_OPTION_PREFIX + "worker-pool-size";
+    @Option(name = WORKER_POOL_SIZE_NAME, category = OptionCategory.USER, help = "Maximum number of workers running in parallel (0 for no limit). Additional workers start when a running one exits.") //
+    public static final OptionKey<Integer> WORKER_POOL_SIZE = new OptionKey<>(0);
+
     public static final String SHELL_NAME = JS_OPTION_PREFIX + "shell";
     @Option(name = SHELL_NAME, category = OptionCategory.USER, help = "Provide global functions for js shell.") //
     public static final OptionKey<Boolean> SHELL = new OptionKey<>(false);
@@ -240,6 +252,26 @@ public final class JSContextOptions {
     @Option(name = PRINT_NAME, category = OptionCategory.USER, help = "Provide 'print' global function.") //
     public static final OptionKey<Boolean> PRINT = new OptionKey<>(true);
 
+    public static final String ASYNC_OUTPUT_NAME = JS_OPTION_PREFIX + "async-output";
+    @Option(name = ASYNC_OUTPUT_NAME, category = OptionCategory.EXPERT, help = "Buffer 'print' and 'console' output and write it to the output streams on a background thread.") //
+    public static final OptionKey<Boolean> ASYNC_OUTPUT = new OptionKey<>(false);
+
+    public static final String ASYNC_OUTPUT_FLUSH_ON_NEWLINE_NAME = JS_OPTION_PREFIX + "async-output-flush-on-newline";
+    @Option(name = ASYNC_OUTPUT_FLUSH_ON_NEWLINE_NAME, category = OptionCategory.EXPERT, help = "Hand over every completed line of asynchronous output immediately.") //
+    public static final OptionKey<Boolean> ASYNC_OUTPUT_FLUSH_ON_NEWLINE = new OptionKey<>(false);
+
+    public static final String ASYNC_OUTPUT_BUFFER_SIZE_NAME = JS_OPTION_PREFIX + "async-output-buffer-size";
+    @Option(name = ASYNC_OUTPUT_BUFFER_SIZE_NAME, category = OptionCategory.EXPERT, help = "Size (in characters) of the per-context asynchronous output buffer.") //
+    public static final OptionKey<Integer> ASYNC_OUTPUT_BUFFER_SIZE = new OptionKey<>(8192);
+
+    public static final String ASYNC_OUTPUT_FLUSH_INTERVAL_NAME = JS_OPTION_PREFIX + "async-output-flush-interval";
+    @Option(name = ASYNC_OUTPUT_FLUSH_INTERVAL_NAME, category = OptionCategory.EXPERT, help = "Maximum time (in milliseconds) asynchronous output stays buffered.") //
+    public static final OptionKey<Integer> ASYNC_OUTPUT_FLUSH_INTERVAL = new OptionKey<>(100);
+
+    public static final String ASYNC_OUTPUT_QUEUE_SIZE_NAME = JS_OPTION_PREFIX + "async-output-queue-size";
+    @Option(name = ASYNC_OUTPUT_QUEUE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of pending asynchronous output chunks before writers block.") //
+    public static final OptionKey<Integer> ASYNC_OUTPUT_QUEUE_SIZE = new OptionKey<>(1024);
+
     public static final String LOAD_NAME = JS_OPTION_PREFIX + "load";
     @Option(name = LOAD_NAME, category = OptionCategory.USER, help = "Provide 'load' global function.") //
     public static final OptionKey<Boolean> LOAD = new OptionKey<>(true);
@@ -398,6 +430,36 @@ public final class JSContextOptions {
     public static final OptionKey<Boolean> BIND_MEMBER_FUNCTIONS = new OptionKey<>(true);
     @CompilationFinal private boolean bindMemberFunctions;
 
+    public static final String METRICS_NAME = JS_OPTION_PREFIX + "metrics";
+    @Option(name = METRICS_NAME, category = OptionCategory.EXPERT, help = "Collect engine metrics (inline cache, object layout, array, regex, parser, and promise job counters) and register them as a JMX MBean.") //
+    public static final OptionKey<Boolean> METRICS = new OptionKey<>(false);
+    @CompilationFinal private boolean metrics;
+
+    public static final String ALLOCATION_PROFILER_NAME = JS_OPTION_PREFIX + "allocation-profiler";
+    @Option(name = ALLOCATION_PROFILER_NAME, category = OptionCategory.EXPERT, help = "Sample object allocations and report live objects by shape and allocation site.") //
+    public static final OptionKey<Boolean> ALLOCATION_PROFILER = new OptionKey<>(false);
+    @CompilationFinal private boolean allocationProfiler;
+
+    public static final String ALLOCATION_PROFILER_SAMPLE_INTERVAL_NAME = JS_OPTION_PREFIX + "allocation-profiler-sample-interval";
+    @Option(name = ALLOCATION_PROFILER_SAMPLE_INTERVAL_NAME, category = OptionCategory.EXPERT, help = "Record every n-th object allocation in the allocation profiler.") //
+    public static final OptionKey<Integer> ALLOCATION_PROFILER_SAMPLE_INTERVAL = new OptionKey<>(64);
+    @CompilationFinal private int allocationProfilerSampleInterval;
+
+    public static final String LAZY_GLOBALS_NAME = JS_OPTION_PREFIX + "lazy-globals";
+    @Option(name = LAZY_GLOBALS_NAME, category = OptionCategory.EXPERT, help = "Create rarely used global objects like Intl, console, or Polyglot on first access.") //
+    public static final OptionKey<Boolean> LAZY_GLOBALS = new OptionKey<>(true);
+    @CompilationFinal private boolean lazyGlobals;
+
+    public static final String LAZY_BUILTINS_NAME = JS_OPTION_PREFIX + "lazy-builtins";
+    @Option(name = LAZY_BUILTINS_NAME, category = OptionCategory.EXPERT, help = "Create builtin function objects on first access.") //
+    public static final OptionKey<Boolean> LAZY_BUILTINS = new OptionKey<>(false);
+    @CompilationFinal private boolean lazyBuiltins;
+
+    public static final String SNAPSHOT_BUNDLE_NAME = JS_OPTION_PREFIX + "snapshot-bundle";
+    @Option(name = SNAPSHOT_BUNDLE_NAME, category = OptionCategory.EXPERT, help = "Load scripts from a pre-parsed snapshot bundle file if their source matches.") //
+    public static final OptionKey<String> SNAPSHOT_BUNDLE = new OptionKey<>("");
+    @CompilationFinal private String snapshotBundle;
+
     JSContextOptions(JSParserOptions parserOptions, OptionValues optionValues) {
         this.parserOptions = parserOptions;
         this.optionValues = optionValues;
@@ -467,6 +529,12 @@ public final class JSContextOptions {
         this.functionConstructorCacheSize = readIntegerOption(FUNCTION_CONSTRUCTOR_CACHE_SIZE);
         this.stringLengthLimit = readIntegerOption(STRING_LENGTH_LIMIT);
         this.bindMemberFunctions = readBooleanOption(BIND_MEMBER_FUNCTIONS);
+        this.metrics = readBooleanOption(METRICS);
+        this.allocationProfiler = readBooleanOption(ALLOCATION_PROFILER);
+        this.allocationProfilerSampleInterval = readIntegerOption(ALLOCATION_PROFILER_SAMPLE_INTERVAL);
+        this.lazyGlobals = readBooleanOption(LAZY_GLOBALS);
+        this.lazyBuiltins = readBooleanOption(LAZY_BUILTINS);
+        this.snapshotBundle = readStringOption(SNAPSHOT_BUNDLE);
         this.commonJSRequire = readBooleanOption(COMMONJS_REQUIRE);
     }
 
@@ -498,6 +566,10 @@ public final class JSContextOptions {
         return key.getValue(optionValues);
     }
 
+    private String readStringOption(OptionKey<String> key) {
+        return key.getValue(optionValues);
+    }
+
     public static String helpWithDefault(String helpMessage, OptionKey<? extends Object> key) {
         return helpMessage + " (default:" + key.getDefaultValue() + ")";
     }
@@ -655,6 +727,31 @@ public final class JSContextOptions {
         return PRINT.getValue(optionValues) || (!PRINT.hasBeenSet(optionValues) && (isShell() || isNashornCompatibilityMode()));
     }
 
+    public boolean isAsyncOutput() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option async-output was assumed not to be accessed in compiled code.");
+        return ASYNC_OUTPUT.getValue(optionValues);
+    }
+
+    public boolean isAsyncOutputFlushOnNewline() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option async-output-flush-on-newline was assumed not to be accessed in compiled code.");
+        return ASYNC_OUTPUT_FLUSH_ON_NEWLINE.getValue(optionValues);
+    }
+
+    public int getAsyncOutputBufferSize() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option async-output-buffer-size was assumed not to be accessed in compiled code.");
+        return ASYNC_OUTPUT_BUFFER_SIZE.getValue(optionValues);
+    }
+
+    public int getAsyncOutputFlushInterval() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option async-output-flush-interval was assumed not to be accessed in compiled code.");
+        return ASYNC_OUTPUT_FLUSH_INTERVAL.getValue(optionValues);
+    }
+
+    public int getAsyncOutputQueueSize() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option async-output-queue-size was assumed not to be accessed in compiled code.");
+        return ASYNC_OUTPUT_QUEUE_SIZE.getValue(optionValues);
+    }
+
     public boolean isLoad() {
         CompilerAsserts.neverPartOfCompilation("Context patchable option load was assumed not to be accessed in compiled code.");
         return LOAD.getValue(optionValues) || (!LOAD.hasBeenSet(optionValues) && (isShell() || isNashornCompatibilityMode()));
@@ -684,6 +781,21 @@ public final class JSContextOptions {
         return PERFORMANCE.getValue(optionValues) || (!PERFORMANCE.hasBeenSet(optionValues) && isShell());
     }
 
+    public boolean isStructuredClone() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option structured-clone was assumed not to be accessed in compiled code.");
+        return STRUCTURED_CLONE.getValue(optionValues);
+    }
+
+    public boolean isWorker() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option worker was assumed not to be accessed in compiled code.");
+        return WORKER.getValue(optionValues);
+    }
+
+    public int getWorkerPoolSize() {
+        CompilerAsserts.neverPartOfCompilation("Context patchable option worker-pool-size was assumed not to be accessed in compiled code.");
+        return WORKER_POOL_SIZE.getValue(optionValues);
+    }
+
     public boolean isShell() {
         CompilerAsserts.neverPartOfCompilation("Context patchable option shell was assumed not to be accessed in compiled code.");
         return SHELL.getValue(optionValues);
@@ -752,6 +864,30 @@ public final class JSContextOptions {
         return bindMemberFunctions;
     }
 
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    public boolean isAllocationProfiler() {
+        return allocationProfiler;
+    }
+
+    public int getAllocationProfilerSampleInterval() {
+        return allocationProfilerSampleInterval;
+    }
+
+    public boolean isLazyGlobals() {
+        return lazyGlobals;
+    }
+
+    public boolean isLazyBuiltins() {
+        return lazyBuiltins;
+    }
+
+    public String getSnapshotBundle() {
+        return snapshotBundle;
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -786,6 +922,12 @@ public final class JSContextOptions {
         hash = 53 * hash + this.functionConstructorCacheSize;
         hash = 53 * hash + this.stringLengthLimit;
         hash = 53 * hash + (this.bindMemberFunctions ? 1 : 0);
+        hash = 53 * hash + (this.metrics ? 1 : 0);
+        hash = 53 * hash + (this.allocationProfiler ? 1 : 0);
+        hash = 53 * hash + this.allocationProfilerSampleInterval;
+        hash = 53 * hash + (this.lazyGlobals ? 1 : 0);
+        hash = 53 * hash + (this.lazyBuiltins ? 1 : 0);
+        hash = 53 * hash + Objects.hashCode(this.snapshotBundle);
         hash = 53 * hash + (this.commonJSRequire ? 1 : 0);
         return hash;
     }
@@ -892,6 +1034,24 @@ public final class JSContextOptions {
         if (this.bindMemberFunctions != other.bindMemberFunctions) {
             return false;
         }
+        if (this.metrics != other.metrics) {
+            return false;
+        }
+        if (this.allocationProfiler != other.allocationProfiler) {
+            return false;
+        }
+        if (this.allocationProfilerSampleInterval != other.allocationProfilerSampleInterval) {
+            return false;
+        }
+        if (this.lazyGlobals != other.lazyGlobals) {
+            return false;
+        }
+        if (this.lazyBuiltins != other.lazyBuiltins) {
+            return false;
+        }
+        if (!Objects.equals(this.snapshotBundle, other.snapshotBundle)) {
+            return false;
+        }
         if (this.commonJSRequire != other.commonJSRequire) {
             return false;
         }
@@ -53,6 +53,7 @@ import java.util.Objects;
 import java.util.SplittableRandom;
 import java.util.TimeZone;
 import java.util.WeakHashMap;
+import java.util.function.Function;
 
 import com.oracle.truffle.js.builtins.commonjs.CommonJSRequireBuiltin;
 import com.oracle.truffle.js.builtins.commonjs.GlobalCommonJSRequireBuiltins;
@@ -136,6 +137,7 @@ import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.builtins.JSWeakRef;
 import com.oracle.truffle.js.runtime.builtins.JSWeakMap;
 import com.oracle.truffle.js.runtime.builtins.JSWeakSet;
+import com.oracle.truffle.js.runtime.builtins.JSWorker;
 import com.oracle.truffle.js.runtime.builtins.SIMDType;
 import com.oracle.truffle.js.runtime.builtins.SIMDType.SIMDTypeFactory;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
@@ -146,12 +148,16 @@ import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.AsyncOutputWriter;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 import com.oracle.truffle.js.runtime.util.LocalTimeZoneHolder;
 import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
+import com.oracle.truffle.js.runtime.util.RealmStateSnapshot;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 
 /**
@@ -195,20 +201,20 @@ public class JSRealm {
     private final DynamicObject stringPrototype;
     private final DynamicObject regExpConstructor;
     private final DynamicObject regExpPrototype;
-    private final DynamicObject collatorConstructor;
-    private final DynamicObject collatorPrototype;
-    private final DynamicObject numberFormatConstructor;
-    private final DynamicObject numberFormatPrototype;
-    private final DynamicObject pluralRulesConstructor;
-    private final DynamicObject pluralRulesPrototype;
-    private final DynamicObject listFormatConstructor;
-    private final DynamicObject listFormatPrototype;
-    private final DynamicObject dateTimeFormatConstructor;
-    private final DynamicObject dateTimeFormatPrototype;
-    private final DynamicObject relativeTimeFormatConstructor;
-    private final DynamicObject relativeTimeFormatPrototype;
-    private final DynamicObject segmenterConstructor;
-    private final DynamicObject segmenterPrototype;
+    private DynamicObject collatorConstructor;
+    private DynamicObject collatorPrototype;
+    private DynamicObject numberFormatConstructor;
+    private DynamicObject numberFormatPrototype;
+    private DynamicObject pluralRulesConstructor;
+    private DynamicObject pluralRulesPrototype;
+    private DynamicObject listFormatConstructor;
+    private DynamicObject listFormatPrototype;
+    private DynamicObject dateTimeFormatConstructor;
+    private DynamicObject dateTimeFormatPrototype;
+    private DynamicObject relativeTimeFormatConstructor;
+    private DynamicObject relativeTimeFormatPrototype;
+    private DynamicObject segmenterConstructor;
+    private DynamicObject segmenterPrototype;
     private final DynamicObject dateConstructor;
     private final DynamicObject datePrototype;
     @CompilationFinal(dimensions = 1) private final DynamicObject[] errorConstructors;
@@ -264,7 +270,7 @@ public class JSRealm {
     private final DynamicObject arrayIteratorPrototype;
     private final DynamicObject setIteratorPrototype;
     private final DynamicObject mapIteratorPrototype;
-    private final DynamicObject segmentIteratorPrototype;
+    private DynamicObject segmentIteratorPrototype;
     private final DynamicObject stringIteratorPrototype;
     private final DynamicObject regExpStringIteratorPrototype;
     private final DynamicObject enumerateIteratorPrototype;
@@ -304,6 +310,10 @@ public class JSRealm {
     private DynamicObject preinitConsoleBuiltinObject;
     private DynamicObject preinitPerformanceObject;
 
+    /** Non-standard Worker constructor (js.worker), created on demand. */
+    private DynamicObject workerConstructor;
+    private DynamicObject workerPrototype;
+
     private volatile Map<Object, DynamicObject> templateRegistry;
 
     private final DynamicObject globalScope;
@@ -328,6 +338,9 @@ public class JSRealm {
     private String lazyStaticRegexResultInputString = "";
     private long lazyStaticRegexResultFromIndex;
 
+    /** Snapshot restored when the script engine reuses the context. */
+    private RealmStateSnapshot stateSnapshot;
+
     /**
      * Local time zone information. Initialized lazily.
      */
@@ -343,6 +356,12 @@ public class JSRealm {
     private OutputStream errorStream;
     private PrintWriterWrapper outputWriter;
     private PrintWriterWrapper errorWriter;
+    /** Non-null if output is written asynchronously (js.async-output). */
+    private AsyncOutputWriter asyncOutputWriter;
+    private AsyncOutputWriter asyncErrorWriter;
+
+    /** Whether this realm holds a registration of the metrics MBean (js.metrics). */
+    private boolean metricsMBeanAcquired;
 
     private final JSConsoleUtil consoleUtil;
     private JSModuleLoader moduleLoader;
@@ -518,29 +537,6 @@ public class JSRealm {
         this.stringIteratorPrototype = es6 ? createStringIteratorPrototype() : null;
         this.regExpStringIteratorPrototype = JSTruffleOptions.MaxECMAScriptVersion >= JSTruffleOptions.ECMAScript2019 ? createRegExpStringIteratorPrototype() : null;
 
-        ctor = JSCollator.createConstructor(this);
-        this.collatorConstructor = ctor.getFunctionObject();
-        this.collatorPrototype = ctor.getPrototype();
-        ctor = JSNumberFormat.createConstructor(this);
-        this.numberFormatConstructor = ctor.getFunctionObject();
-        this.numberFormatPrototype = ctor.getPrototype();
-        ctor = JSDateTimeFormat.createConstructor(this);
-        this.dateTimeFormatConstructor = ctor.getFunctionObject();
-        this.dateTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSPluralRules.createConstructor(this);
-        this.pluralRulesConstructor = ctor.getFunctionObject();
-        this.pluralRulesPrototype = ctor.getPrototype();
-        ctor = JSListFormat.createConstructor(this);
-        this.listFormatConstructor = ctor.getFunctionObject();
-        this.listFormatPrototype = ctor.getPrototype();
-        ctor = JSRelativeTimeFormat.createConstructor(this);
-        this.relativeTimeFormatConstructor = ctor.getFunctionObject();
-        this.relativeTimeFormatPrototype = ctor.getPrototype();
-        ctor = JSSegmenter.createConstructor(this);
-        this.segmenterConstructor = ctor.getFunctionObject();
-        this.segmenterPrototype = ctor.getPrototype();
-        this.segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
-
         if (es6) {
             ctor = JSFunction.createGeneratorFunctionConstructor(this);
             this.generatorFunctionConstructor = ctor.getFunctionObject();
@@ -553,7 +549,7 @@ public class JSRealm {
         }
         this.enumerateIteratorPrototype = JSFunction.createEnumerateIteratorPrototype(this);
         this.forInIteratorPrototype = JSFunction.createForInIteratorPrototype(this);
-        this.arrayProtoValuesIterator = (DynamicObject) getArrayPrototype().get(Symbol.SYMBOL_ITERATOR, Undefined.instance);
+        this.arrayProtoValuesIterator = (DynamicObject) JSObject.get(getArrayPrototype(), Symbol.SYMBOL_ITERATOR);
 
         if (context.isOptionSharedArrayBuffer()) {
             ctor = JSSharedArrayBuffer.createConstructor(this);
@@ -620,6 +616,44 @@ public class JSRealm {
         }
     }
 
+    /**
+     * The Intl constructors are only needed by {@code Intl} and the locale-sensitive builtins, so
+     * they are created on first use instead of with the realm.
+     */
+    private void ensureIntlConstructors() {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, segmentIteratorPrototype == null)) {
+            initializeIntlConstructors();
+        }
+    }
+
+    @TruffleBoundary
+    private void initializeIntlConstructors() {
+        JSConstructor ctor;
+        ctor = JSCollator.createConstructor(this);
+        this.collatorConstructor = ctor.getFunctionObject();
+        this.collatorPrototype = ctor.getPrototype();
+        ctor = JSNumberFormat.createConstructor(this);
+        this.numberFormatConstructor = ctor.getFunctionObject();
+        this.numberFormatPrototype = ctor.getPrototype();
+        ctor = JSDateTimeFormat.createConstructor(this);
+        this.dateTimeFormatConstructor = ctor.getFunctionObject();
+        this.dateTimeFormatPrototype = ctor.getPrototype();
+        ctor = JSPluralRules.createConstructor(this);
+        this.pluralRulesConstructor = ctor.getFunctionObject();
+        this.pluralRulesPrototype = ctor.getPrototype();
+        ctor = JSListFormat.createConstructor(this);
+        this.listFormatConstructor = ctor.getFunctionObject();
+        this.listFormatPrototype = ctor.getPrototype();
+        ctor = JSRelativeTimeFormat.createConstructor(this);
+        this.relativeTimeFormatConstructor = ctor.getFunctionObject();
+        this.relativeTimeFormatPrototype = ctor.getPrototype();
+        ctor = JSSegmenter.createConstructor(this);
+        this.segmenterConstructor = ctor.getFunctionObject();
+        this.segmenterPrototype = ctor.getPrototype();
+        // assigned last, marks the constructors as initialized
+        this.segmentIteratorPrototype = JSSegmenter.createSegmentIteratorPrototype(context, this);
+    }
+
     private void initializeTypedArrayConstructors() {
         JSConstructor taConst = JSArrayBufferView.createTypedArrayConstructor(this);
         typedArrayConstructor = taConst.getFunctionObject();
@@ -751,50 +785,62 @@ public class JSRealm {
     }
 
     public final DynamicObject getCollatorConstructor() {
+        ensureIntlConstructors();
         return collatorConstructor;
     }
 
     public final DynamicObject getCollatorPrototype() {
+        ensureIntlConstructors();
         return collatorPrototype;
     }
 
     public final DynamicObject getNumberFormatConstructor() {
+        ensureIntlConstructors();
         return numberFormatConstructor;
     }
 
     public final DynamicObject getNumberFormatPrototype() {
+        ensureIntlConstructors();
         return numberFormatPrototype;
     }
 
     public final DynamicObject getPluralRulesConstructor() {
+        ensureIntlConstructors();
         return pluralRulesConstructor;
     }
 
     public final DynamicObject getPluralRulesPrototype() {
+        ensureIntlConstructors();
         return pluralRulesPrototype;
     }
 
     public final DynamicObject getListFormatConstructor() {
+        ensureIntlConstructors();
         return listFormatConstructor;
     }
 
     public final DynamicObject getListFormatPrototype() {
+        ensureIntlConstructors();
         return listFormatPrototype;
     }
 
     public final DynamicObject getRelativeTimeFormatConstructor() {
+        ensureIntlConstructors();
         return relativeTimeFormatConstructor;
     }
 
     public final DynamicObject getRelativeTimeFormatPrototype() {
+        ensureIntlConstructors();
         return relativeTimeFormatPrototype;
     }
 
     public final DynamicObject getDateTimeFormatConstructor() {
+        ensureIntlConstructors();
         return dateTimeFormatConstructor;
     }
 
     public final DynamicObject getDateTimeFormatPrototype() {
+        ensureIntlConstructors();
         return dateTimeFormatPrototype;
     }
 
@@ -807,10 +853,12 @@ public class JSRealm {
     }
 
     public final DynamicObject getSegmenterConstructor() {
+        ensureIntlConstructors();
         return segmenterConstructor;
     }
 
     public final DynamicObject getSegmenterPrototype() {
+        ensureIntlConstructors();
         return segmenterPrototype;
     }
 
@@ -846,6 +894,14 @@ public class JSRealm {
         return weakRefPrototype;
     }
 
+    public final DynamicObject getWorkerConstructor() {
+        return workerConstructor;
+    }
+
+    public final DynamicObject getWorkerPrototype() {
+        return workerPrototype;
+    }
+
     public final DynamicObject getWeakMapConstructor() {
         return weakMapConstructor;
     }
@@ -1067,6 +1123,7 @@ public class JSRealm {
     }
 
     public DynamicObject getSegmentIteratorPrototype() {
+        ensureIntlConstructors();
         return segmentIteratorPrototype;
     }
 
@@ -1136,11 +1193,7 @@ public class JSRealm {
         putGlobalProperty(JSDataView.CLASS_NAME, getDataViewConstructor());
 
         if (context.getContextOptions().isSIMDjs()) {
-            DynamicObject simdObject = JSObject.createInit(this, this.getObjectPrototype(), JSUserObject.INSTANCE);
-            for (SIMDTypeFactory<? extends SIMDType> factory : SIMDType.FACTORIES) {
-                JSObjectUtil.putDataProperty(context, simdObject, factory.getName(), getSIMDTypeConstructor(factory).getFunctionObject(), JSAttributes.getDefaultNotEnumerable());
-            }
-            putGlobalProperty(JSSIMD.SIMD_OBJECT_NAME, simdObject);
+            putLazyGlobalProperty(JSSIMD.SIMD_OBJECT_NAME, JSRealm::createSIMDObject);
         }
         if (context.getContextOptions().isBigInt()) {
             putGlobalProperty(JSBigInt.CLASS_NAME, getBigIntConstructor());
@@ -1153,6 +1206,12 @@ public class JSRealm {
         if (context.getContextOptions().isScriptEngineGlobalScopeImport()) {
             JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), "importScriptEngineGlobalBindings",
                             lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, "importScriptEngineGlobalBindings"), JSAttributes.notConfigurableNotEnumerableNotWritable());
+            JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), "hasGlobalLexicalDeclarations",
+                            lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, "hasGlobalLexicalDeclarations"), JSAttributes.notConfigurableNotEnumerableNotWritable());
+            JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), "takeStateSnapshot",
+                            lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, "takeStateSnapshot"), JSAttributes.notConfigurableNotEnumerableNotWritable());
+            JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), "restoreStateSnapshot",
+                            lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, "restoreStateSnapshot"), JSAttributes.notConfigurableNotEnumerableNotWritable());
         }
         if (context.getContextOptions().isPolyglotBuiltin() && (getEnv().isPolyglotEvalAllowed() || getEnv().isPolyglotBindingsAccessAllowed())) {
             setupPolyglot();
@@ -1195,7 +1254,7 @@ public class JSRealm {
             putGlobalProperty(SHARED_ARRAY_BUFFER_CLASS_NAME, getSharedArrayBufferConstructor());
         }
         if (context.isOptionAtomics()) {
-            putGlobalProperty(ATOMICS_CLASS_NAME, createAtomics());
+            putLazyGlobalProperty(ATOMICS_CLASS_NAME, JSRealm::createAtomics);
         }
         if (context.getEcmaScriptVersion() >= JSTruffleOptions.ECMAScript2019) {
             putGlobalProperty("globalThis", global);
@@ -1289,10 +1348,40 @@ public class JSRealm {
 
     private void addPerformanceGlobal() {
         if (context.getContextOptions().isPerformance()) {
-            putGlobalProperty(PERFORMANCE_CLASS_NAME, preinitPerformanceObject != null ? preinitPerformanceObject : createPerformanceObject());
+            if (preinitPerformanceObject != null) {
+                putGlobalProperty(PERFORMANCE_CLASS_NAME, preinitPerformanceObject);
+            } else {
+                putLazyGlobalProperty(PERFORMANCE_CLASS_NAME, JSRealm::createPerformanceObject);
+            }
+        }
+    }
+
+    private void addStructuredCloneGlobal() {
+        if (context.getContextOptions().isStructuredClone()) {
+            putGlobalProperty("structuredClone", lookupFunction(GlobalBuiltins.GLOBAL_STRUCTURED_CLONE, "structuredClone"));
+        }
+    }
+
+    private void addWorkerGlobal() {
+        if (context.getContextOptions().isWorker()) {
+            if (workerConstructor == null) {
+                JSConstructor ctor = JSWorker.createConstructor(this);
+                workerConstructor = ctor.getFunctionObject();
+                workerPrototype = ctor.getPrototype();
+            }
+            putGlobalProperty(JSWorker.CLASS_NAME, workerConstructor);
         }
     }
 
+    /**
+     * Adds the global functions of a worker's scope ({@code postMessage} and {@code close}). Called
+     * by the {@link WorkerAgent} before the worker's module is run.
+     */
+    public void addWorkerGlobalScope() {
+        putGlobalProperty("postMessage", lookupFunction(GlobalBuiltins.GLOBAL_WORKER_SCOPE, "postMessage"));
+        putGlobalProperty("close", lookupFunction(GlobalBuiltins.GLOBAL_WORKER_SCOPE, "close"));
+    }
+
     /**
      * Add optional global properties. Used by initializeContext and patchContext.
      */
@@ -1307,6 +1396,8 @@ public class JSRealm {
         addConsoleGlobals();
         addPrintGlobals();
         addPerformanceGlobal();
+        addStructuredCloneGlobal();
+        addWorkerGlobal();
         addCommonJSGlobals();
 
         if (isJavaInteropEnabled()) {
@@ -1331,7 +1422,11 @@ public class JSRealm {
 
     private void addIntlGlobal() {
         if (context.isOptionIntl402()) {
-            putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject != null ? preinitIntlObject : createIntlObject());
+            if (preinitIntlObject != null) {
+                putGlobalProperty(JSIntl.CLASS_NAME, preinitIntlObject);
+            } else {
+                putLazyGlobalProperty(JSIntl.CLASS_NAME, JSRealm::createIntlObject);
+            }
         }
     }
 
@@ -1355,6 +1450,10 @@ public class JSRealm {
     }
 
     private void putGraalObject() {
+        putLazyGlobalProperty("Graal", JSRealm::createGraalObject);
+    }
+
+    private DynamicObject createGraalObject() {
         DynamicObject graalObject = JSUserObject.createInit(this);
         int flags = JSAttributes.notConfigurableEnumerableNotWritable();
         JSObjectUtil.putDataProperty(context, graalObject, "language", JavaScriptLanguage.NAME, flags);
@@ -1362,7 +1461,7 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(context, graalObject, "versionGraalVM", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "versionJS", GRAALVM_VERSION, flags);
         JSObjectUtil.putDataProperty(context, graalObject, "isGraalRuntime", JSFunction.create(this, isGraalRuntimeFunction(context)), flags);
-        putGlobalProperty("Graal", graalObject);
+        return graalObject;
     }
 
     private static JSFunctionData isGraalRuntimeFunction(JSContext context) {
@@ -1385,6 +1484,14 @@ public class JSRealm {
         return simdTypeConstructors[factory.getFactoryIndex()];
     }
 
+    private DynamicObject createSIMDObject() {
+        DynamicObject simdObject = JSObject.createInit(this, this.getObjectPrototype(), JSUserObject.INSTANCE);
+        for (SIMDTypeFactory<? extends SIMDType> factory : SIMDType.FACTORIES) {
+            JSObjectUtil.putDataProperty(context, simdObject, factory.getName(), getSIMDTypeConstructor(factory).getFunctionObject(), JSAttributes.getDefaultNotEnumerable());
+        }
+        return simdObject;
+    }
+
     /**
      * Convenience method for defining global data properties with default attributes.
      */
@@ -1396,6 +1503,59 @@ public class JSRealm {
         JSObjectUtil.putDataProperty(getContext(), getGlobalObject(), key, value, attributes);
     }
 
+    /**
+     * Defines a global data property whose value is only created when the property is first read.
+     * Used for global objects that most scripts never touch; unless disabled with
+     * {@link JSContextOptions#LAZY_GLOBALS}.
+     */
+    private void putLazyGlobalProperty(String key, Function<JSRealm, DynamicObject> factory) {
+        if (context.getContextOptions().isLazyGlobals()) {
+            JSObjectUtil.defineProxyProperty(getGlobalObject(), key, new LazyGlobalPropertyProxy(this, key, factory), JSAttributes.getDefaultNotEnumerable());
+        } else {
+            putGlobalProperty(key, factory.apply(this));
+        }
+    }
+
+    /**
+     * Stands in for the value of a lazily created global property until the property is read or
+     * assigned for the first time; then the property is replaced by an ordinary data property with
+     * the same attributes. The proxy is stored in the global object itself (not in the shape), so
+     * global object shapes remain shareable between realms.
+     */
+    private static final class LazyGlobalPropertyProxy implements PropertyProxy {
+        private final JSRealm realm;
+        private final String key;
+        private final Function<JSRealm, DynamicObject> factory;
+
+        LazyGlobalPropertyProxy(JSRealm realm, String key, Function<JSRealm, DynamicObject> factory) {
+            this.realm = realm;
+            this.key = key;
+            this.factory = factory;
+        }
+
+        @TruffleBoundary
+        @Override
+        public Object get(DynamicObject store) {
+            DynamicObject value = factory.apply(realm);
+            replace(store, value);
+            return value;
+        }
+
+        @TruffleBoundary
+        @Override
+        public boolean set(DynamicObject store, Object value) {
+            replace(store, value);
+            return true;
+        }
+
+        private void replace(DynamicObject store, Object value) {
+            Property property = store.getShape().getProperty(key);
+            if (property != null && JSProperty.isProxy(property) && property.get(store, false) == this) {
+                JSObjectUtil.defineDataProperty(realm.getContext(), store, key, value, property.getFlags() & ~JSProperty.PROXY);
+            }
+        }
+    }
+
     private void putProperty(DynamicObject receiver, Object key, Object value) {
         JSObjectUtil.putDataProperty(getContext(), receiver, key, value, JSAttributes.getDefaultNotEnumerable());
     }
@@ -1429,24 +1589,18 @@ public class JSRealm {
 
     private void setupJavaInterop() {
         assert isJavaInteropEnabled();
-        DynamicObject java = JSObject.createInit(this, this.getObjectPrototype(), JSUserObject.INSTANCE);
-        JSObjectUtil.putDataProperty(context, java, Symbol.SYMBOL_TO_STRING_TAG, JAVA_CLASS_NAME, JSAttributes.configurableNotEnumerableNotWritable());
-        JSObjectUtil.putFunctionsFromContainer(this, java, JavaBuiltins.BUILTINS);
-        if (context.isOptionNashornCompatibilityMode()) {
-            JSObjectUtil.putFunctionsFromContainer(this, java, JavaBuiltins.BUILTINS_NASHORN_COMPAT);
-        }
-        putGlobalProperty(JAVA_CLASS_NAME, java);
+        putLazyGlobalProperty(JAVA_CLASS_NAME, JSRealm::createJavaObject);
 
         if (getEnv() != null && getEnv().isHostLookupAllowed()) {
             if (JSContextOptions.JAVA_PACKAGE_GLOBALS.getValue(getEnv().getOptions())) {
                 javaPackageToPrimitiveFunction = JavaPackage.createToPrimitiveFunction(context, this);
-                putGlobalProperty("Packages", JavaPackage.createInit(this, ""));
-                putGlobalProperty("java", JavaPackage.createInit(this, "java"));
-                putGlobalProperty("javafx", JavaPackage.createInit(this, "javafx"));
-                putGlobalProperty("javax", JavaPackage.createInit(this, "javax"));
-                putGlobalProperty("com", JavaPackage.createInit(this, "com"));
-                putGlobalProperty("org", JavaPackage.createInit(this, "org"));
-                putGlobalProperty("edu", JavaPackage.createInit(this, "edu"));
+                putLazyGlobalProperty("Packages", realm -> JavaPackage.createInit(realm, ""));
+                putLazyGlobalProperty("java", realm -> JavaPackage.createInit(realm, "java"));
+                putLazyGlobalProperty("javafx", realm -> JavaPackage.createInit(realm, "javafx"));
+                putLazyGlobalProperty("javax", realm -> JavaPackage.createInit(realm, "javax"));
+                putLazyGlobalProperty("com", realm -> JavaPackage.createInit(realm, "com"));
+                putLazyGlobalProperty("org", realm -> JavaPackage.createInit(realm, "org"));
+                putLazyGlobalProperty("edu", realm -> JavaPackage.createInit(realm, "edu"));
 
                 // JavaImporter can only be used with Package objects.
                 if (context.isOptionNashornCompatibilityMode()) {
@@ -1456,7 +1610,21 @@ public class JSRealm {
         }
     }
 
+    private DynamicObject createJavaObject() {
+        DynamicObject java = JSObject.createInit(this, this.getObjectPrototype(), JSUserObject.INSTANCE);
+        JSObjectUtil.putDataProperty(context, java, Symbol.SYMBOL_TO_STRING_TAG, JAVA_CLASS_NAME, JSAttributes.configurableNotEnumerableNotWritable());
+        JSObjectUtil.putFunctionsFromContainer(this, java, JavaBuiltins.BUILTINS);
+        if (context.isOptionNashornCompatibilityMode()) {
+            JSObjectUtil.putFunctionsFromContainer(this, java, JavaBuiltins.BUILTINS_NASHORN_COMPAT);
+        }
+        return java;
+    }
+
     private void setupPolyglot() {
+        putLazyGlobalProperty(POLYGLOT_CLASS_NAME, JSRealm::createPolyglotObject);
+    }
+
+    private DynamicObject createPolyglotObject() {
         DynamicObject polyglotObject = JSObject.createInit(this, this.getObjectPrototype(), JSUserObject.INSTANCE);
         JSObjectUtil.putFunctionsFromContainer(this, polyglotObject, PolyglotBuiltins.BUILTINS);
 
@@ -1466,12 +1634,16 @@ public class JSRealm {
             // already loaded above when `debug-builtin` is true
             JSObjectUtil.putDataProperty(context, polyglotObject, "evalFile", lookupFunction(PolyglotBuiltins.INTERNAL_BUILTINS, "evalFile"), JSAttributes.getDefaultNotEnumerable());
         }
-        putGlobalProperty(POLYGLOT_CLASS_NAME, polyglotObject);
+        return polyglotObject;
     }
 
     private void addConsoleGlobals() {
         if (context.getContextOptions().isConsole()) {
-            putGlobalProperty("console", preinitConsoleBuiltinObject != null ? preinitConsoleBuiltinObject : createConsoleObject());
+            if (preinitConsoleBuiltinObject != null) {
+                putGlobalProperty("console", preinitConsoleBuiltinObject);
+            } else {
+                putLazyGlobalProperty("console", JSRealm::createConsoleObject);
+            }
         }
     }
 
@@ -1584,6 +1756,14 @@ public class JSRealm {
         return scriptEngineImportScope;
     }
 
+    public RealmStateSnapshot getStateSnapshot() {
+        return stateSnapshot;
+    }
+
+    public void setStateSnapshot(RealmStateSnapshot stateSnapshot) {
+        this.stateSnapshot = stateSnapshot;
+    }
+
     /**
      * Adds several objects to the global object, in case scripting mode is enabled (for Nashorn
      * compatibility). This includes an {@code $OPTIONS} property that exposes several options to
@@ -1703,6 +1883,7 @@ public class JSRealm {
             localTimeZoneHolder = getTimeZoneFromEnv();
         }
         initTimeOffsetAndRandom();
+        registerMetricsMBean();
 
         return true;
     }
@@ -1719,6 +1900,27 @@ public class JSRealm {
         addArgumentsFromEnv(getEnv());
 
         initTimeOffsetAndRandom();
+        registerMetricsMBean();
+    }
+
+    private void registerMetricsMBean() {
+        JSMetrics metrics = context.getMetrics();
+        if (metrics != null && !metricsMBeanAcquired) {
+            metrics.acquireMBean();
+            metricsMBeanAcquired = true;
+        }
+    }
+
+    /**
+     * Releases the registration of the metrics MBean held by this realm, if any. The MBean is
+     * unregistered once no realm of the {@link JSContext} uses it anymore. Called when the context
+     * is disposed.
+     */
+    public void unregisterMetricsMBean() {
+        if (metricsMBeanAcquired) {
+            context.getMetrics().releaseMBean();
+            metricsMBeanAcquired = false;
+        }
     }
 
     private void preinitializeObjects() {
@@ -1825,6 +2027,16 @@ public class JSRealm {
         lazyStaticRegexResultFromIndex = fromIndex;
     }
 
+    /**
+     * Resets the RegExp legacy static properties to their initial state.
+     */
+    public void resetStaticRegexResult() {
+        regexResult = null;
+        lazyStaticRegexResultCompiledRegex = null;
+        lazyStaticRegexResultInputString = "";
+        lazyStaticRegexResultFromIndex = 0;
+    }
+
     public void setStaticRegexResult(JSContext context, Object compiledRegex, String input, long fromIndex, Object result) {
         CompilerAsserts.partialEvaluationConstant(context);
         if (context.getRegExpStaticResultUnusedAssumption().isValid()) {
@@ -1873,7 +2085,14 @@ public class JSRealm {
             this.outputWriter.setFrom((PrintWriterWrapper) writer);
         } else {
             if (stream != null) {
-                this.outputWriter.setDelegate(stream);
+                AsyncOutputWriter async = createAsyncOutputWriter(stream);
+                if (async != null) {
+                    this.outputWriter.setDelegate(async);
+                } else {
+                    this.outputWriter.setDelegate(stream);
+                }
+                closeAsyncOutputWriter(asyncOutputWriter);
+                this.asyncOutputWriter = async;
             } else {
                 this.outputWriter.setDelegate(writer);
             }
@@ -1886,7 +2105,14 @@ public class JSRealm {
             this.errorWriter.setFrom((PrintWriterWrapper) writer);
         } else {
             if (stream != null) {
-                this.errorWriter.setDelegate(stream);
+                AsyncOutputWriter async = createAsyncOutputWriter(stream);
+                if (async != null) {
+                    this.errorWriter.setDelegate(async);
+                } else {
+                    this.errorWriter.setDelegate(stream);
+                }
+                closeAsyncOutputWriter(asyncErrorWriter);
+                this.asyncErrorWriter = async;
             } else {
                 this.errorWriter.setDelegate(writer);
             }
@@ -1894,6 +2120,34 @@ public class JSRealm {
         this.errorStream = stream;
     }
 
+    private AsyncOutputWriter createAsyncOutputWriter(OutputStream stream) {
+        JSContextOptions options = context.getContextOptions();
+        if (!options.isAsyncOutput() || getEnv() == null || getEnv().isPreInitialization()) {
+            return null;
+        }
+        return new AsyncOutputWriter(context.getAsyncOutputDispatcher(), stream, options.isAsyncOutputFlushOnNewline(), options.getAsyncOutputBufferSize());
+    }
+
+    private static void closeAsyncOutputWriter(AsyncOutputWriter writer) {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes out any buffered asynchronous output and waits until it has reached the output
+     * streams. Called when the context is closed.
+     */
+    @TruffleBoundary
+    public void closeAsyncOutput() {
+        outputWriter.flush();
+        errorWriter.flush();
+        closeAsyncOutputWriter(asyncOutputWriter);
+        closeAsyncOutputWriter(asyncErrorWriter);
+        asyncOutputWriter = null;
+        asyncErrorWriter = null;
+    }
+
     public long nanoTime() {
         return nanoTime(nanoToZeroTimeOffset);
     }
@@ -85,6 +85,12 @@ public final class JSTruffleOptions {
     /** Migrate objects to dictionary mode when the number of properties exceeds this threshold. */
     public static final int DictionaryObjectThreshold = integerOption("DictionaryObjectThreshold", 256);
     public static final int DictionaryObjectTransitionThreshold = integerOption("DictionaryObjectThreshold", 1024);
+    /**
+     * Migrate dictionary objects back to a shape-based layout after this many property reads and
+     * writes without adding or removing a property, and when they are found on a prototype chain
+     * by a property cache (0 to disable).
+     */
+    public static final int DictionaryObjectReshapeThreshold = integerOption("DictionaryObjectReshapeThreshold", 1000);
     public static final boolean TraceDictionaryObject = booleanOption("TraceDictionaryObject", false);
     public static final boolean MergeShapes = booleanOption("MergeShapes", true);
 
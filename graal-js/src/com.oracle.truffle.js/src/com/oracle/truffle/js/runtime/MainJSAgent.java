@@ -61,7 +61,8 @@ public final class MainJSAgent extends JSAgent {
 
     @Override
     public void wakeAgent(int w) {
-        // No-op
+        // the main thread cannot block, so only workers may be waiting
+        wakeAgentInCluster(w);
     }
 
 }
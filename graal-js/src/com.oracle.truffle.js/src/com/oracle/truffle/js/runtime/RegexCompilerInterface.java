@@ -46,6 +46,7 @@ import java.util.regex.PatternSyntaxException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleException;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.regex.nashorn.regexp.RegExpScanner;
 
@@ -61,6 +62,9 @@ public final class RegexCompilerInterface {
         // RegexLanguage does its own validation of the flags. This call to validateFlags only
         // serves the purpose of mimicking the error messages of Nashorn and V8.
         validateFlags(flags, context.getEcmaScriptVersion(), context.isOptionNashornCompatibilityMode());
+        if (context.getMetrics() != null) {
+            context.getMetrics().increment(JSMetrics.Counter.REGEX_COMPILES);
+        }
         try {
             return compileRegexNode.execute(context.getRegexEngine(), pattern, flags);
         } catch (RuntimeException e) {
@@ -53,15 +53,27 @@ public final class UserScriptException extends GraalJSException {
 
     private static final long serialVersionUID = -6624166672101791072L;
     private final Object exceptionObject;
+    private String message;
 
     private UserScriptException(Object exceptionObject, Node originatingNode, int stackTraceLimit) {
-        super(getMessage(exceptionObject), originatingNode, stackTraceLimit);
+        this(getMessage(exceptionObject), exceptionObject, originatingNode, stackTraceLimit);
+    }
+
+    private UserScriptException(String message, Object exceptionObject, Node originatingNode, int stackTraceLimit) {
+        super(message, originatingNode, stackTraceLimit);
+        this.exceptionObject = exceptionObject;
+        this.message = message;
+    }
+
+    private UserScriptException(Object exceptionObject, Node originatingNode, int stackTraceLimit, boolean lightweight) {
+        super(null, originatingNode, stackTraceLimit, lightweight);
         this.exceptionObject = exceptionObject;
     }
 
     private UserScriptException(Throwable exception, Node originatingNode, int stackTraceLimit) {
         super(exception.toString(), exception, originatingNode, stackTraceLimit);
         this.exceptionObject = exception;
+        this.message = exception.toString();
     }
 
     @TruffleBoundary
@@ -71,9 +83,25 @@ public final class UserScriptException extends GraalJSException {
 
     @TruffleBoundary
     public static UserScriptException create(Object exceptionObject, Node originatingNode) {
+        if (!JSError.isJSError(exceptionObject)) {
+            return createLightweight(exceptionObject, originatingNode);
+        }
         return fillInStackTrace(new UserScriptException(exceptionObject, originatingNode, JSTruffleOptions.StackTraceLimit), Undefined.instance, false);
     }
 
+    /**
+     * Creates an exception for a thrown value that is not an Error object, e.g. {@code throw 42}.
+     * Its stack trace cannot be observed from JavaScript code, so neither a Java stack trace nor
+     * (unless requested) an eager JavaScript stack trace is captured. The Truffle stack trace is
+     * limited to the stack trace limit and only recorded while the exception unwinds through
+     * function calls, so a throw that is caught in the same function records no frames at all.
+     */
+    @TruffleBoundary
+    public static UserScriptException createLightweight(Object exceptionObject, Node originatingNode) {
+        assert !JSError.isJSError(exceptionObject);
+        return fillInStackTrace(new UserScriptException(exceptionObject, originatingNode, JSTruffleOptions.StackTraceLimit, true), Undefined.instance, false);
+    }
+
     @TruffleBoundary
     public static UserScriptException create(Object exceptionObject) {
         return create(exceptionObject, null);
@@ -99,6 +127,23 @@ public final class UserScriptException extends GraalJSException {
         return exceptionObject;
     }
 
+    /**
+     * The message of a {@linkplain #createLightweight lightweight} exception is computed on first
+     * use since most non-Error values thrown by scripts are caught by scripts and never asked for
+     * their message. Other exceptions capture the message when they are created, before the script
+     * can modify the thrown object.
+     */
+    @TruffleBoundary
+    @Override
+    public String getMessage() {
+        String msg = message;
+        if (msg == null) {
+            msg = getMessage(exceptionObject);
+            message = msg;
+        }
+        return msg;
+    }
+
     /**
      * Best effort method to get the error message without side effects.
      */
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.runtime.builtins.JSUserObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.StructuredClone;
+
+/**
+ * Agent of a {@code Worker}: runs a module in its own (inner) context of the parent's engine on a
+ * thread of the {@linkplain JSContext#getWorkerExecutor() worker executor}. Parent and worker
+ * communicate by posting structured-cloned messages to each other's task queue.
+ *
+ * The fields without synchronization are confined to one thread: {@link #workerObject} and
+ * {@link #terminated} to the parent's, {@link #realm} to the worker's.
+ */
+public final class WorkerAgent extends JSAgent {
+
+    private static final String ONMESSAGE = "onmessage";
+    private static final String ONERROR = "onerror";
+
+    private final JSAgent parent;
+    private final JSRealm parentRealm;
+    private final Source source;
+    private final TruffleContext truffleContext;
+
+    private DynamicObject workerObject;
+    private boolean terminated;
+
+    private JSRealm realm;
+    private volatile boolean closed;
+
+    @TruffleBoundary
+    public WorkerAgent(JSRealm parentRealm, Source source) {
+        super(true, parentRealm.getAgent());
+        this.parent = parentRealm.getAgent();
+        this.parentRealm = parentRealm;
+        this.source = source;
+        this.truffleContext = parentRealm.getEnv().newContextBuilder().build();
+    }
+
+    /**
+     * Starts the worker. {@code worker} is the parent's {@code Worker} object that receives the
+     * messages posted by the worker.
+     */
+    @TruffleBoundary
+    public void start(DynamicObject worker) {
+        this.workerObject = worker;
+        JSContext context = parentRealm.getContext();
+        context.getLanguage().getNoWorkerAgentsAssumption().invalidate();
+        parent.workerStarted();
+        context.getWorkerExecutor().execute(this::run);
+    }
+
+    private void run() {
+        joinCluster();
+        Object prev = truffleContext.enter();
+        try {
+            // the inner context's realm (the parent's language instance is shared)
+            realm = parentRealm.getContext().getRealm();
+            realm.setAgent(this);
+            realm.addWorkerGlobalScope();
+            if (!closed) {
+                CallTarget callTarget = realm.getEnv().parsePublic(source);
+                callTarget.call();
+                // in case the module did not return to an empty stack
+                runEventLoop();
+            }
+        } catch (RuntimeException e) {
+            closed = true;
+            String message = e.getMessage();
+            parent.postTask(() -> reportError(message));
+        } finally {
+            closed = true;
+            leaveCluster();
+            truffleContext.leave(prev);
+            truffleContext.close();
+            parent.postTask(this::exited);
+        }
+    }
+
+    @Override
+    protected boolean keepAlive() {
+        if (closed) {
+            return false;
+        }
+        return super.keepAlive() || JSRuntime.isCallable(JSObject.get(realm.getGlobalObject(), ONMESSAGE));
+    }
+
+    /**
+     * Called on the parent's thread: sends a message to the worker.
+     */
+    @TruffleBoundary
+    public void postMessageToWorker(StructuredClone.Serialized message) {
+        if (!terminated) {
+            postTask(() -> {
+                if (!closed) {
+                    Object data = message.deserialize(realm);
+                    dispatchMessage(realm, realm.getGlobalObject(), Undefined.instance, data);
+                }
+            });
+        }
+    }
+
+    /**
+     * Called on the worker's thread: sends a message to the parent.
+     */
+    @TruffleBoundary
+    public void postMessageToParent(StructuredClone.Serialized message) {
+        if (!closed) {
+            parent.postTask(() -> {
+                if (!terminated) {
+                    Object prev = parentRealm.getTruffleContext().enter();
+                    try {
+                        Object data = message.deserialize(parentRealm);
+                        dispatchMessage(parentRealm, workerObject, workerObject, data);
+                    } finally {
+                        parentRealm.getTruffleContext().leave(prev);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Called on the parent's thread ({@code Worker.prototype.terminate}).
+     */
+    @TruffleBoundary
+    public void terminateFromParent() {
+        if (!terminated) {
+            terminated = true;
+            postTask(() -> closed = true);
+        }
+    }
+
+    /**
+     * Called on the worker's thread ({@code close()} in the worker).
+     */
+    public void close() {
+        closed = true;
+    }
+
+    private static void dispatchMessage(JSRealm targetRealm, DynamicObject handlerHolder, Object thisObj, Object data) {
+        Object handler = JSObject.get(handlerHolder, ONMESSAGE);
+        if (JSRuntime.isCallable(handler)) {
+            JSContext context = targetRealm.getContext();
+            DynamicObject event = JSUserObject.create(context, targetRealm);
+            JSObjectUtil.putDataProperty(context, event, "data", data);
+            JSRuntime.call(handler, thisObj, new Object[]{event});
+        }
+    }
+
+    private void reportError(String message) {
+        if (terminated) {
+            return;
+        }
+        Object prev = parentRealm.getTruffleContext().enter();
+        try {
+            Object handler = JSObject.get(workerObject, ONERROR);
+            if (JSRuntime.isCallable(handler)) {
+                JSRuntime.call(handler, workerObject, new Object[]{message});
+            } else {
+                parentRealm.getErrorWriter().println("Uncaught exception in worker: " + message);
+                parentRealm.getErrorWriter().flush();
+            }
+        } finally {
+            parentRealm.getTruffleContext().leave(prev);
+        }
+    }
+
+    private void exited() {
+        terminated = true;
+        parent.workerExited();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return closed;
+    }
+
+    @Override
+    public void terminate(int timeout) {
+        closed = true;
+    }
+
+    @Override
+    public void wakeAgent(int w) {
+        wakeAgentInCluster(w);
+    }
+
+    /**
+     * Creates the executor for the worker agents of a context. A positive {@code poolSize} caps
+     * the number of workers running in parallel. Otherwise every worker gets its own (virtual,
+     * where the JDK supports it) thread.
+     */
+    public static ExecutorService createExecutor(int poolSize) {
+        ThreadFactory threadFactory = (Runnable r) -> {
+            Thread thread = new Thread(r, "graaljs-worker");
+            thread.setDaemon(true);
+            return thread;
+        };
+        if (poolSize > 0) {
+            return Executors.newFixedThreadPool(poolSize, threadFactory);
+        }
+        try {
+            Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(threadFactory);
+        }
+    }
+}
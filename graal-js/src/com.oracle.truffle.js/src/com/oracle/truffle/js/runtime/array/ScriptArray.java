@@ -68,8 +68,10 @@ import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractConstantArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantEmptyArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantObjectArray;
+import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 
 public abstract class ScriptArray {
 
@@ -376,8 +378,22 @@ public abstract class ScriptArray {
         return sb.toString();
     }
 
+    /**
+     * Records a transition of the array storage strategy of {@code object} in the engine metrics
+     * and traces it if {@link JSTruffleOptions#TraceArrayTransitions} is enabled.
+     */
+    protected static final void reportArrayTransition(DynamicObject object, ScriptArray oldArray, ScriptArray newArray, long index, Object value) {
+        if (JSTruffleOptions.TraceArrayTransitions) {
+            traceArrayTransition(oldArray, newArray, index, value);
+        }
+        JSMetrics metrics = JSObject.getJSContext(object).getMetrics();
+        if (metrics != null) {
+            metrics.increment(JSMetrics.Counter.ARRAY_STRATEGY_TRANSITIONS);
+        }
+    }
+
     @TruffleBoundary
-    protected static final void traceArrayTransition(ScriptArray oldArray, ScriptArray newArray, long index, Object value) {
+    private static void traceArrayTransition(ScriptArray oldArray, ScriptArray newArray, long index, Object value) {
         String access = oldArray.getClass().getSimpleName() + " -> " + newArray.getClass().getSimpleName();
 
         Stream<Node> nodeStream = null;
@@ -45,9 +45,11 @@ import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArra
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetByteBuffer;
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetLength;
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetOffset;
+import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
@@ -250,6 +252,166 @@ public abstract class TypedArray extends ScriptArray {
 
     public abstract void setBufferElement(DynamicObject buffer, int index, boolean littleEndian, boolean condition, Object value);
 
+    /**
+     * Returns the index of the first (or, if not {@code forward}, last) element starting at
+     * {@code fromIndex} that is strictly equal to {@code value} (or SameValueZero, for
+     * {@code includes}), or -1.
+     */
+    public abstract int indexOfElement(DynamicObject object, Object value, int fromIndex, boolean forward, boolean sameValueZero, boolean condition);
+
+    /**
+     * Sets the elements in [start, end) to {@code value}. The value is converted and stored only
+     * once, the remaining elements are filled with copies of its bytes.
+     */
+    public final void fillRange(DynamicObject object, int start, int end, Object value, boolean condition) {
+        if (start >= end) {
+            return;
+        }
+        setElement(object, start, value, false, condition);
+        int elementSize = bytesPerElement();
+        int byteStart = getOffset(object, condition) + start * elementSize;
+        int byteLength = (end - start) * elementSize;
+        if (isDirect()) {
+            fillByDoubling(getByteBuffer(object, condition), byteStart, byteLength, elementSize);
+        } else {
+            byte[] array = getByteArray(object, condition);
+            if (elementSize == 1) {
+                Arrays.fill(array, byteStart + 1, byteStart + byteLength, array[byteStart]);
+            } else {
+                fillByDoubling(array, byteStart, byteLength, elementSize);
+            }
+        }
+    }
+
+    private static void fillByDoubling(byte[] array, int byteStart, int byteLength, int initiallyFilled) {
+        int filled = initiallyFilled;
+        while (filled < byteLength) {
+            int chunk = Math.min(filled, byteLength - filled);
+            System.arraycopy(array, byteStart, array, byteStart + filled, chunk);
+            filled += chunk;
+        }
+    }
+
+    private static void fillByDoubling(ByteBuffer buffer, int byteStart, int byteLength, int initiallyFilled) {
+        ByteBuffer source = buffer.duplicate();
+        ByteBuffer target = buffer.duplicate();
+        int filled = initiallyFilled;
+        while (filled < byteLength) {
+            int chunk = Math.min(filled, byteLength - filled);
+            asBaseBuffer(source).limit(byteStart + chunk).position(byteStart);
+            asBaseBuffer(target).position(byteStart + filled);
+            target.put(source);
+            filled += chunk;
+        }
+    }
+
+    /**
+     * Reverses the order of the elements by swapping whole elements as raw words.
+     */
+    public final void reverse(DynamicObject object, boolean condition) {
+        int length = lengthInt(object, condition);
+        if (length <= 1) {
+            return;
+        }
+        int elementSize = bytesPerElement();
+        int lower = getOffset(object, condition);
+        int upper = lower + (length - 1) * elementSize;
+        if (isDirect()) {
+            reverseWords(getByteBuffer(object, condition).duplicate(), lower, upper, elementSize);
+        } else {
+            reverseWords(getByteArray(object, condition), lower, upper, elementSize);
+        }
+    }
+
+    private static void reverseWords(byte[] array, int lowerByteIndex, int upperByteIndex, int elementSize) {
+        int lower = lowerByteIndex;
+        int upper = upperByteIndex;
+        switch (elementSize) {
+            case 1:
+                for (; lower < upper; lower++, upper--) {
+                    byte tmp = array[lower];
+                    array[lower] = array[upper];
+                    array[upper] = tmp;
+                }
+                break;
+            case 2:
+                for (; lower < upper; lower += 2, upper -= 2) {
+                    int tmp = NATIVE_ORDER.getInt16(array, lower, 0, 2);
+                    NATIVE_ORDER.putInt16(array, lower, 0, 2, NATIVE_ORDER.getInt16(array, upper, 0, 2));
+                    NATIVE_ORDER.putInt16(array, upper, 0, 2, tmp);
+                }
+                break;
+            case 4:
+                for (; lower < upper; lower += 4, upper -= 4) {
+                    int tmp = NATIVE_ORDER.getInt32(array, lower, 0, 4);
+                    NATIVE_ORDER.putInt32(array, lower, 0, 4, NATIVE_ORDER.getInt32(array, upper, 0, 4));
+                    NATIVE_ORDER.putInt32(array, upper, 0, 4, tmp);
+                }
+                break;
+            case 8:
+                for (; lower < upper; lower += 8, upper -= 8) {
+                    long tmp = NATIVE_ORDER.getInt64(array, lower, 0, 8);
+                    NATIVE_ORDER.putInt64(array, lower, 0, 8, NATIVE_ORDER.getInt64(array, upper, 0, 8));
+                    NATIVE_ORDER.putInt64(array, upper, 0, 8, tmp);
+                }
+                break;
+            default:
+                throw Errors.shouldNotReachHere();
+        }
+    }
+
+    private static void reverseWords(ByteBuffer buffer, int lowerByteIndex, int upperByteIndex, int elementSize) {
+        int lower = lowerByteIndex;
+        int upper = upperByteIndex;
+        switch (elementSize) {
+            case 1:
+                for (; lower < upper; lower++, upper--) {
+                    byte tmp = buffer.get(lower);
+                    buffer.put(lower, buffer.get(upper));
+                    buffer.put(upper, tmp);
+                }
+                break;
+            case 2:
+                for (; lower < upper; lower += 2, upper -= 2) {
+                    short tmp = buffer.getShort(lower);
+                    buffer.putShort(lower, buffer.getShort(upper));
+                    buffer.putShort(upper, tmp);
+                }
+                break;
+            case 4:
+                for (; lower < upper; lower += 4, upper -= 4) {
+                    int tmp = buffer.getInt(lower);
+                    buffer.putInt(lower, buffer.getInt(upper));
+                    buffer.putInt(upper, tmp);
+                }
+                break;
+            case 8:
+                for (; lower < upper; lower += 8, upper -= 8) {
+                    long tmp = buffer.getLong(lower);
+                    buffer.putLong(lower, buffer.getLong(upper));
+                    buffer.putLong(upper, tmp);
+                }
+                break;
+            default:
+                throw Errors.shouldNotReachHere();
+        }
+    }
+
+    /**
+     * Whether storing the elements of {@code source} in this array leaves their bytes unchanged,
+     * i.e., whether a bulk copy of the backing buffer is sufficient.
+     */
+    public final boolean isBitwiseCopyCompatible(TypedArray source) {
+        if (this == source) {
+            return true;
+        }
+        if (!(this instanceof TypedIntArray && source instanceof TypedIntArray) || bytesPerElement() != source.bytesPerElement() || isDirect() != source.isDirect()) {
+            return false;
+        }
+        // clamping changes negative Int8 values
+        return !(this instanceof AbstractUint8ClampedArray && (source instanceof Int8Array || source instanceof DirectInt8Array));
+    }
+
     public static TypedArrayFactory[] factories(JSContext context) {
         if (context.getContextOptions().isBigInt()) {
             return TypedArrayFactory.FACTORIES;
@@ -302,6 +464,36 @@ public abstract class TypedArray extends ScriptArray {
         public abstract int getIntImpl(T buffer, int offset, int index);
 
         public abstract void setIntImpl(T buffer, int offset, int index, int value);
+
+        @Override
+        public int indexOfElement(DynamicObject object, Object value, int fromIndex, boolean forward, boolean sameValueZero, boolean condition) {
+            if (!JSRuntime.isNumber(value)) {
+                return -1;
+            }
+            double doubleValue = JSRuntime.doubleValue((Number) value);
+            long longValue = (long) doubleValue;
+            if (longValue != doubleValue || !isRawIntValue(longValue)) {
+                return -1;
+            }
+            int target = (int) longValue;
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int end = forward ? lengthInt(object, condition) : -1;
+            int step = forward ? 1 : -1;
+            for (int i = fromIndex; i != end; i += step) {
+                if (getIntImpl(buffer, offset, i) == target) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Whether the value can be compared with the result of {@link #getIntImpl}.
+         */
+        protected boolean isRawIntValue(long value) {
+            return Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE;
+        }
     }
 
     static final int INT8_BYTES_PER_ELEMENT = 1;
@@ -708,6 +900,11 @@ public abstract class TypedArray extends ScriptArray {
             assert hasElement(object, index, condition);
             return toUint32(getInt(object, (int) index, condition));
         }
+
+        @Override
+        protected boolean isRawIntValue(long value) {
+            return 0 <= value && value <= 0xFFFFFFFFL;
+        }
     }
 
     public static final class Uint32Array extends AbstractUint32Array<byte[]> {
@@ -811,6 +1008,23 @@ public abstract class TypedArray extends ScriptArray {
         public abstract BigInt getBigIntImpl(T buffer, int offset, int index);
 
         public abstract void setBigIntImpl(T buffer, int offset, int index, BigInt value);
+
+        @Override
+        public int indexOfElement(DynamicObject object, Object value, int fromIndex, boolean forward, boolean sameValueZero, boolean condition) {
+            if (!(value instanceof BigInt)) {
+                return -1;
+            }
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int end = forward ? lengthInt(object, condition) : -1;
+            int step = forward ? 1 : -1;
+            for (int i = fromIndex; i != end; i += step) {
+                if (value.equals(getBigIntImpl(buffer, offset, i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
     static final int BIGINT64_BYTES_PER_ELEMENT = 8;
@@ -976,6 +1190,36 @@ public abstract class TypedArray extends ScriptArray {
         public abstract double getDoubleImpl(T buffer, int offset, int index);
 
         public abstract void setDoubleImpl(T buffer, int offset, int index, double value);
+
+        @Override
+        public int indexOfElement(DynamicObject object, Object value, int fromIndex, boolean forward, boolean sameValueZero, boolean condition) {
+            if (!JSRuntime.isNumber(value)) {
+                return -1;
+            }
+            double target = JSRuntime.doubleValue((Number) value);
+            boolean searchNaN = Double.isNaN(target);
+            if (searchNaN && !sameValueZero) {
+                return -1;
+            }
+            T buffer = getBufferFromTypedArrayT(object, condition);
+            int offset = getOffset(object, condition);
+            int end = forward ? lengthInt(object, condition) : -1;
+            int step = forward ? 1 : -1;
+            if (searchNaN) {
+                for (int i = fromIndex; i != end; i += step) {
+                    if (Double.isNaN(getDoubleImpl(buffer, offset, i))) {
+                        return i;
+                    }
+                }
+            } else {
+                for (int i = fromIndex; i != end; i += step) {
+                    if (getDoubleImpl(buffer, offset, i) == target) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
     }
 
     static final int FLOAT32_BYTES_PER_ELEMENT = 4;
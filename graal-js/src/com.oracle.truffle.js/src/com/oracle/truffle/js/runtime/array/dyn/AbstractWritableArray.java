@@ -381,9 +381,7 @@ public abstract class AbstractWritableArray extends DynamicArray {
 
     public final SparseArray toSparse(DynamicObject object, long index, Object value) {
         SparseArray newArray = SparseArray.makeSparseArray(object, this);
-        if (JSTruffleOptions.TraceArrayTransitions) {
-            traceArrayTransition(this, newArray, index, value);
-        }
+        reportArrayTransition(object, this, newArray, index, value);
         return newArray;
     }
 
@@ -724,8 +722,8 @@ public abstract class AbstractWritableArray extends DynamicArray {
 
     private ScriptArray ensureHolesArray(DynamicObject object, int length, Object newArray, long indexOffset, int arrayOffset, int usedLength, int holesCount) {
         AbstractWritableArray newArrayObject = sameTypeHolesArray(object, length, newArray, indexOffset, arrayOffset, usedLength, holesCount);
-        if (newArrayObject != this && JSTruffleOptions.TraceArrayTransitions) {
-            traceArrayTransition(this, newArrayObject, 0, null);
+        if (newArrayObject != this) {
+            reportArrayTransition(object, this, newArrayObject, 0, null);
         }
         return newArrayObject;
     }
@@ -115,9 +115,7 @@ public final class ZeroBasedObjectArray extends AbstractObjectArray {
         int usedLength = getUsedLength(object, condition);
 
         ContiguousObjectArray newArray = ContiguousObjectArray.makeContiguousObjectArray(object, length, array, 0, 0, usedLength, integrityLevel);
-        if (JSTruffleOptions.TraceArrayTransitions) {
-            traceArrayTransition(this, newArray, index, value);
-        }
+        reportArrayTransition(object, this, newArray, index, value);
         return newArray;
     }
 
@@ -128,9 +126,7 @@ public final class ZeroBasedObjectArray extends AbstractObjectArray {
         int usedLength = getUsedLength(object, condition);
 
         HolesObjectArray newArray = HolesObjectArray.makeHolesObjectArray(object, length, array, 0, 0, usedLength, 0, integrityLevel);
-        if (JSTruffleOptions.TraceArrayTransitions) {
-            traceArrayTransition(this, newArray, index, value);
-        }
+        reportArrayTransition(object, this, newArray, index, value);
         return newArray;
     }
 
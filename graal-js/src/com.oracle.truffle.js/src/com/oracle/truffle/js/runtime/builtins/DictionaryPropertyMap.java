@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.builtins;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Property storage of {@link JSDictionaryObject}s: insertion-ordered parallel arrays of keys,
+ * values and {@link JSProperty} flags with an open-addressing index. Accessor properties store an
+ * {@link Accessor} as their value; data properties need no per-property object at all.
+ *
+ * Removed entries are cleared in place and reclaimed when the arrays are full and get rebuilt.
+ */
+final class DictionaryPropertyMap {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Object[] keys;
+    private Object[] values;
+    private byte[] flags;
+    /** Entry index + 1 for each used slot, 0 for a free slot; at most half full. */
+    private int[] index;
+    /** Number of used entries, including removed ones. */
+    private int count;
+    /** Number of live entries. */
+    private int size;
+    /** Number of property accesses since a property was last added or removed. */
+    private int stableAccesses;
+
+    DictionaryPropertyMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    DictionaryPropertyMap(int expectedSize) {
+        int capacity = Math.max(INITIAL_CAPACITY, expectedSize);
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.flags = new byte[capacity];
+        this.index = new int[indexLength(capacity)];
+    }
+
+    private static int indexLength(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 2;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the entry index of the key, or -1 if there is no such property.
+     */
+    int find(Object key) {
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            int entry = index[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            Object k = keys[entry];
+            if (k != null && (k == key || k.equals(key))) {
+                return entry;
+            }
+        }
+    }
+
+    boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Number of entries to iterate over; entries whose {@link #getKey key} is {@code null} have
+     * been removed.
+     */
+    int limit() {
+        return count;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Object getKey(int entry) {
+        return keys[entry];
+    }
+
+    Object getValue(int entry) {
+        return values[entry];
+    }
+
+    int getFlags(int entry) {
+        return flags[entry];
+    }
+
+    /**
+     * Counts a read or write of an existing property. Returns {@code true} once the properties
+     * have been accessed {@code threshold} times without any being added or removed.
+     */
+    boolean countStableAccess(int threshold) {
+        if (stableAccesses < threshold) {
+            return ++stableAccesses == threshold;
+        }
+        return false;
+    }
+
+    void setValue(int entry, Object value) {
+        assert !JSProperty.isAccessor(flags[entry]);
+        values[entry] = value;
+    }
+
+    PropertyDescriptor getDescriptor(int entry) {
+        int f = flags[entry];
+        if (JSProperty.isAccessor(f)) {
+            Accessor accessor = (Accessor) values[entry];
+            return PropertyDescriptor.createAccessor(accessor.getGetter(), accessor.getSetter(), f);
+        } else {
+            return PropertyDescriptor.createData(values[entry], f);
+        }
+    }
+
+    /**
+     * Adds a property or replaces the value and flags of an existing one.
+     */
+    void put(Object key, Object value, int propertyFlags) {
+        assert key != null && value != null && (byte) propertyFlags == propertyFlags;
+        assert !JSProperty.isAccessor(propertyFlags) || value instanceof Accessor;
+        int entry = find(key);
+        if (entry >= 0) {
+            values[entry] = value;
+            flags[entry] = (byte) propertyFlags;
+            return;
+        }
+        if (count == keys.length) {
+            rebuild(size >= keys.length / 2 ? keys.length * 2 : keys.length);
+        }
+        entry = count++;
+        keys[entry] = key;
+        values[entry] = value;
+        flags[entry] = (byte) propertyFlags;
+        insertIndex(key, entry);
+        size++;
+        stableAccesses = 0;
+    }
+
+    void put(Object key, PropertyDescriptor desc) {
+        if (desc.isAccessorDescriptor()) {
+            put(key, new Accessor((DynamicObject) desc.getGet(), (DynamicObject) desc.getSet()), desc.getFlags() | JSProperty.ACCESSOR);
+        } else {
+            put(key, desc.hasValue() ? desc.getValue() : Undefined.instance, desc.getFlags());
+        }
+    }
+
+    boolean remove(Object key) {
+        int entry = find(key);
+        if (entry < 0) {
+            return false;
+        }
+        // the index slot keeps pointing to the cleared entry until the next rebuild
+        keys[entry] = null;
+        values[entry] = null;
+        flags[entry] = 0;
+        size--;
+        stableAccesses = 0;
+        return true;
+    }
+
+    private void insertIndex(Object key, int entry) {
+        int mask = index.length - 1;
+        int slot = hash(key) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry + 1;
+    }
+
+    private void rebuild(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldFlags = flags;
+        int oldCount = count;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        flags = new byte[capacity];
+        if (index.length == indexLength(capacity)) {
+            Arrays.fill(index, 0);
+        } else {
+            index = new int[indexLength(capacity)];
+        }
+        int newCount = 0;
+        for (int i = 0; i < oldCount; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                keys[newCount] = key;
+                values[newCount] = oldValues[i];
+                flags[newCount] = oldFlags[i];
+                insertIndex(key, newCount);
+                newCount++;
+            }
+        }
+        assert newCount == size;
+        count = newCount;
+    }
+}
@@ -207,7 +207,7 @@ public final class JSArray extends JSAbstractArray implements JSConstructorFacto
         if (ctx.getEcmaScriptVersion() >= 6) {
             // The initial value of the @@iterator property is the same function object as the
             // initial value of the Array.prototype.values property.
-            putDataProperty(ctx, arrayPrototype, Symbol.SYMBOL_ITERATOR, arrayPrototype.get("values"), JSAttributes.getDefaultNotEnumerable());
+            putDataProperty(ctx, arrayPrototype, Symbol.SYMBOL_ITERATOR, JSObject.get(arrayPrototype, "values"), JSAttributes.getDefaultNotEnumerable());
             putDataProperty(ctx, arrayPrototype, Symbol.SYMBOL_UNSCOPABLES, createUnscopables(ctx, unscopableNameList(ctx)), JSAttributes.configurableNotEnumerableNotWritable());
         }
         return arrayPrototype;
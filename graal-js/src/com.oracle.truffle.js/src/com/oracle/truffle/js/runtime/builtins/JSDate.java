@@ -164,7 +164,7 @@ public final class JSDate extends JSBuiltinObject implements JSConstructorFactor
         JSObjectUtil.putFunctionsFromContainer(realm, datePrototype, DatePrototypeBuiltins.BUILTINS);
 
         if (ctx.isOptionAnnexB()) {
-            JSObjectUtil.putDataProperty(ctx, datePrototype, "toGMTString", datePrototype.get("toUTCString"), JSAttributes.getDefaultNotEnumerable());
+            JSObjectUtil.putDataProperty(ctx, datePrototype, "toGMTString", JSObject.get(datePrototype, "toUTCString"), JSAttributes.getDefaultNotEnumerable());
         }
         return datePrototype;
     }
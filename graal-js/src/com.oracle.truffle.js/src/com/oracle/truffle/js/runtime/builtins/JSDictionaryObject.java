@@ -43,9 +43,6 @@ package com.oracle.truffle.js.runtime.builtins;
 import java.util.Collections;
 import java.util.List;
 
-import org.graalvm.collections.EconomicMap;
-import org.graalvm.collections.MapCursor;
-
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -60,6 +57,7 @@ import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.JSTruffleOptions;
 import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
@@ -68,10 +66,11 @@ import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DefinePropertyUtil;
+import com.oracle.truffle.js.runtime.util.JSMetrics;
 
 /**
- * This is a variant of {@link JSUserObject} that stores its contents as a HashMap of properties
- * (excepts hidden properties, incl. prototype).
+ * This is a variant of {@link JSUserObject} that stores its contents in a
+ * {@link DictionaryPropertyMap} (except hidden properties, incl. prototype).
  */
 public final class JSDictionaryObject extends JSBuiltinObject {
 
@@ -84,7 +83,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
 
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
-        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(EconomicMap.class));
+        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(DictionaryPropertyMap.class));
     }
 
     private JSDictionaryObject() {
@@ -114,25 +113,58 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public Object getOwnHelper(DynamicObject store, Object thisObj, Object key) {
-        PropertyDescriptor desc = getHashMap(store).get(key);
-        if (desc != null) {
-            return getValue(desc, thisObj);
+        DictionaryPropertyMap map = getHashMap(store);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            Object value = getValue(map, entry, thisObj);
+            countStableAccess(store, map);
+            return value;
         }
 
         return super.getOwnHelper(store, thisObj, key);
     }
 
-    public static Object getValue(PropertyDescriptor property, Object receiver) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject getter = (DynamicObject) property.getGet();
+    /**
+     * Objects that stop adding and removing properties, like prototypes and namespace objects that
+     * have been set up, are migrated back to a shape-based layout so that property accesses on
+     * them can be cached again. Objects with too many properties stay in dictionary mode, as they
+     * would soon transition again.
+     */
+    private static void countStableAccess(DynamicObject obj, DictionaryPropertyMap map) {
+        int threshold = JSTruffleOptions.DictionaryObjectReshapeThreshold;
+        // an accessor called by this access might have made it an ordinary object already
+        if (threshold > 0 && map.countStableAccess(threshold) && map.size() < JSTruffleOptions.DictionaryObjectTransitionThreshold / 2 &&
+                        isJSDictionaryObject(obj) && getHashMap(obj) == map) {
+            makeOrdinaryObject(obj, "no properties added or removed in " + threshold + " accesses");
+        }
+    }
+
+    /**
+     * Migrates a dictionary object that is found on the prototype chain of a property access back
+     * to a shape-based layout, so that the access can be cached. Returns {@code true} if the object
+     * has been migrated.
+     */
+    public static boolean makePrototypeFast(DynamicObject obj) {
+        CompilerAsserts.neverPartOfCompilation();
+        DictionaryPropertyMap map = getHashMap(obj);
+        if (JSTruffleOptions.DictionaryObjectReshapeThreshold > 0 && map.size() > 0 && map.size() < JSTruffleOptions.DictionaryObjectTransitionThreshold / 2) {
+            makeOrdinaryObject(obj, "used as a prototype");
+            return true;
+        }
+        return false;
+    }
+
+    private static Object getValue(DictionaryPropertyMap map, int entry, Object receiver) {
+        Object value = map.getValue(entry);
+        if (JSProperty.isAccessor(map.getFlags(entry))) {
+            DynamicObject getter = ((Accessor) value).getGetter();
             if (getter != Undefined.instance) {
                 return JSRuntime.call(getter, receiver, JSArguments.EMPTY_ARGUMENTS_ARRAY);
             } else {
                 return Undefined.instance;
             }
         } else {
-            assert property.isDataDescriptor();
-            return property.getValue();
+            return value;
         }
     }
 
@@ -141,8 +173,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     public List<Object> getOwnPropertyKeys(DynamicObject thisObj, boolean strings, boolean symbols) {
         assert isJSDictionaryObject(thisObj);
         List<Object> keys = ordinaryOwnPropertyKeysSlow(thisObj, strings, symbols);
-        for (Object key : getHashMap(thisObj).getKeys()) {
-            if ((!symbols && key instanceof Symbol) || (!strings && key instanceof String)) {
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        for (int i = 0; i < map.limit(); i++) {
+            Object key = map.getKey(i);
+            if (key == null || (!symbols && key instanceof Symbol) || (!strings && key instanceof String)) {
                 continue;
             }
             keys.add(key);
@@ -154,16 +188,16 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public boolean delete(DynamicObject thisObj, Object key, boolean isStrict) {
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(thisObj);
-        PropertyDescriptor desc = hashMap.get(key);
-        if (desc != null) {
-            if (!desc.getConfigurable()) {
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            if (!JSAttributes.isConfigurable(map.getFlags(entry))) {
                 if (isStrict) {
                     throw Errors.createTypeErrorNotConfigurableProperty(key);
                 }
                 return false;
             }
-            hashMap.removeKey(key);
+            map.remove(key);
             return true;
         }
         return super.delete(thisObj, key, isStrict);
@@ -200,9 +234,12 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         if (receiver != thisObj) {
             return ordinarySetWithReceiver(thisObj, key, value, receiver, isStrict);
         }
-        PropertyDescriptor property = getHashMap(thisObj).get(key);
-        if (property != null) {
-            return setValue(key, property, thisObj, receiver, value, isStrict);
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        int index = map.find(key);
+        if (index >= 0) {
+            boolean result = setValue(key, map, index, thisObj, receiver, value, isStrict);
+            countStableAccess(thisObj, map);
+            return result;
         }
         Property entry = DefinePropertyUtil.getPropertyByKey(thisObj, key);
         if (entry != null) {
@@ -211,9 +248,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return setPropertySlow(thisObj, key, value, receiver, isStrict, false);
     }
 
-    private static boolean setValue(Object key, PropertyDescriptor property, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject setter = (DynamicObject) property.getSet();
+    private static boolean setValue(Object key, DictionaryPropertyMap map, int entry, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
+        int flags = map.getFlags(entry);
+        if (JSProperty.isAccessor(flags)) {
+            DynamicObject setter = ((Accessor) map.getValue(entry)).getSetter();
             if (setter != Undefined.instance) {
                 JSRuntime.call(setter, thisObj, new Object[]{value});
                 return true;
@@ -223,9 +261,8 @@ public final class JSDictionaryObject extends JSBuiltinObject {
                 return false;
             }
         } else {
-            assert property.isDataDescriptor();
-            if (property.getWritable()) {
-                property.setValue(value);
+            if (JSAttributes.isWritable(flags)) {
+                map.setValue(entry, value);
                 return true;
             } else {
                 if (isStrict) {
@@ -240,9 +277,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public PropertyDescriptor getOwnProperty(DynamicObject thisObj, Object key) {
         assert JSRuntime.isPropertyKey(key);
-        PropertyDescriptor prop = getHashMap(thisObj).get(key);
-        if (prop != null) {
-            return prop;
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            return map.getDescriptor(entry);
         }
         return super.getOwnProperty(thisObj, key);
     }
@@ -261,11 +299,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return super.defineOwnProperty(thisObj, key, desc, doThrow);
     }
 
-    @SuppressWarnings("unchecked")
-    static EconomicMap<Object, PropertyDescriptor> getHashMap(DynamicObject obj) {
+    static DictionaryPropertyMap getHashMap(DynamicObject obj) {
         assert JSDictionaryObject.isJSDictionaryObject(obj);
         Property hashMapProperty = obj.getShape().getProperty(HASHMAP_PROPERTY_NAME);
-        return (EconomicMap<Object, PropertyDescriptor>) hashMapProperty.get(obj, false);
+        return (DictionaryPropertyMap) hashMapProperty.get(obj, false);
     }
 
     public static void makeDictionaryObject(DynamicObject obj, String reason) {
@@ -282,10 +319,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         Shape currentShape = obj.getShape();
         assert !isJSDictionaryObject(obj) && currentShape.getProperty(HASHMAP_PROPERTY_NAME) == null;
         JSContext context = JSObject.getJSContext(obj);
+        if (context.getMetrics() != null) {
+            context.getMetrics().increment(JSMetrics.Counter.DICTIONARY_OBJECT_TRANSITIONS);
+        }
         Shape hashedShape = makeEmptyShapeForNewType(context, currentShape, JSDictionaryObject.INSTANCE);
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = newHashMap();
         List<Property> properties = currentShape.getPropertyListInternal(true);
+        DictionaryPropertyMap hashMap = new DictionaryPropertyMap(properties.size());
         for (Property p : properties) {
             Object key = p.getKey();
             if (JSObject.HIDDEN_PROTO.equals(key)) {
@@ -296,7 +336,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
             } else {
                 // normal properties
                 Object value = p.get(obj, false);
-                hashMap.put(key, toPropertyDescriptor(p, value));
+                hashMap.put(key, value, p.getFlags() & (JSAttributes.ATTRIBUTES_MASK | JSProperty.ACCESSOR));
 
                 // invalidate property assumptions (for final properties)
                 JSShape.invalidatePropertyAssumption(currentShape, key);
@@ -328,28 +368,18 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
     }
 
-    private static PropertyDescriptor toPropertyDescriptor(Property p, Object value) {
-        PropertyDescriptor desc;
-        if (JSProperty.isAccessor(p)) {
-            desc = PropertyDescriptor.createAccessor(((Accessor) value).getGetter(), ((Accessor) value).getSetter());
-            desc.setConfigurable(JSProperty.isConfigurable(p));
-            desc.setEnumerable(JSProperty.isEnumerable(p));
-        } else {
-            assert JSProperty.isData(p);
-            desc = PropertyDescriptor.createData(value, JSProperty.isEnumerable(p), JSProperty.isWritable(p), JSProperty.isConfigurable(p));
-        }
-        return desc;
-    }
-
     private static void makeOrdinaryObject(DynamicObject obj, String reason) {
         CompilerAsserts.neverPartOfCompilation();
         if (JSTruffleOptions.TraceDictionaryObject) {
             System.out.printf("transitioning from dictionary object to ordinary object: %s\n", reason);
         }
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(obj);
+        DictionaryPropertyMap hashMap = getHashMap(obj);
         Shape oldShape = obj.getShape();
         JSContext context = JSObject.getJSContext(obj);
+        if (context.getMetrics() != null) {
+            context.getMetrics().increment(JSMetrics.Counter.ORDINARY_OBJECT_TRANSITIONS);
+        }
         Shape newShape = makeEmptyShapeForNewType(context, oldShape, JSUserObject.INSTANCE);
 
         List<Property> properties = oldShape.getPropertyListInternal(true);
@@ -363,14 +393,16 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
         obj.setShapeAndGrow(oldShape, newShape);
 
-        MapCursor<Object, PropertyDescriptor> cursor = hashMap.getEntries();
-        while (cursor.advance()) {
-            Object key = cursor.getKey();
-            PropertyDescriptor desc = cursor.getValue();
-            if (desc.isDataDescriptor()) {
-                JSObjectUtil.defineDataProperty(obj, key, desc.getValue(), desc.getFlags());
+        for (int i = 0; i < hashMap.limit(); i++) {
+            Object key = hashMap.getKey(i);
+            if (key == null) {
+                continue;
+            }
+            int flags = hashMap.getFlags(i);
+            if (JSProperty.isAccessor(flags)) {
+                JSObjectUtil.defineAccessorProperty(obj, key, (Accessor) hashMap.getValue(i), flags & JSAttributes.ATTRIBUTES_MASK);
             } else {
-                JSObjectUtil.defineAccessorProperty(obj, key, new Accessor((DynamicObject) desc.getGet(), (DynamicObject) desc.getSet()), desc.getFlags());
+                JSObjectUtil.defineDataProperty(obj, key, hashMap.getValue(i), flags);
             }
         }
 
@@ -387,11 +419,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     }
 
     public static DynamicObject create(JSContext context) {
-        return JSObject.create(context, context.getDictionaryObjectFactory(), newHashMap());
-    }
-
-    private static EconomicMap<Object, PropertyDescriptor> newHashMap() {
-        return EconomicMap.create();
+        return JSObject.create(context, context.getDictionaryObjectFactory(), new DictionaryPropertyMap());
     }
 
     @Override
@@ -584,6 +584,52 @@ public final class JSFunction extends JSBuiltinObject {
         }
     }
 
+    /**
+     * Holds a builtin function that is only created when the property is first read (see
+     * {@code js.lazy-builtins}). The property remains a proxy property afterwards, so the shape of
+     * the holder object does not depend on which builtins have been used.
+     */
+    public static final class LazyBuiltinFunctionProxyProperty implements PropertyProxy {
+        private final JSRealm realm;
+        private final JSFunctionData functionData;
+        private Object value;
+
+        public LazyBuiltinFunctionProxyProperty(JSRealm realm, JSFunctionData functionData) {
+            this.realm = realm;
+            this.functionData = functionData;
+        }
+
+        @Override
+        public Object get(DynamicObject store) {
+            Object result = value;
+            if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, result == null)) {
+                result = materialize();
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private Object materialize() {
+            DynamicObject function = JSFunction.create(realm, functionData);
+            value = function;
+            return function;
+        }
+
+        @Override
+        public boolean set(DynamicObject store, Object newValue) {
+            value = newValue;
+            return true;
+        }
+
+        /**
+         * Returns the function or the assigned value without creating the function, or null if
+         * neither exists yet.
+         */
+        public Object getCachedValue() {
+            return value;
+        }
+    }
+
     static class BoundRootNode extends JavaScriptRootNode {
         private static final SourceSection SOURCE_SECTION = createBuiltinSourceSection("bound function");
 
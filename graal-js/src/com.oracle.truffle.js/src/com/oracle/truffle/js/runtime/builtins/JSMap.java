@@ -142,7 +142,7 @@ public final class JSMap extends JSBuiltinObject implements JSConstructorFactory
         JSObjectUtil.putDataProperty(ctx, prototype, Symbol.SYMBOL_TO_STRING_TAG, CLASS_NAME, JSAttributes.configurableNotEnumerableNotWritable());
         // The initial value of the @@iterator property is the same function object as
         // the initial value of the entries property.
-        JSObjectUtil.putDataProperty(ctx, prototype, Symbol.SYMBOL_ITERATOR, prototype.get("entries"), JSAttributes.getDefaultNotEnumerable());
+        JSObjectUtil.putDataProperty(ctx, prototype, Symbol.SYMBOL_ITERATOR, JSObject.get(prototype, "entries"), JSAttributes.getDefaultNotEnumerable());
         return prototype;
     }
 
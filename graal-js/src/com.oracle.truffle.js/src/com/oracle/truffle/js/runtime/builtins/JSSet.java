@@ -85,6 +85,9 @@ public final class JSSet extends JSBuiltinObject implements JSConstructorFactory
 
     public static final HiddenKey SET_ITERATION_KIND_ID = new HiddenKey("SetIterationKind");
 
+    /** Dummy value to associate with a key in the backing map. */
+    public static final Object PRESENT = new Object();
+
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
         SET_PROPERTY = JSObjectUtil.makeHiddenProperty(SET_ID, allocator.locationForType(JSHashMap.class, EnumSet.of(LocationModifier.Final, LocationModifier.NonNull)));
@@ -159,7 +162,7 @@ public final class JSSet extends JSBuiltinObject implements JSConstructorFactory
         JSObjectUtil.putConstantAccessorProperty(ctx, prototype, SIZE, createSizeGetterFunction(realm), Undefined.instance);
         JSObjectUtil.putFunctionsFromContainer(realm, prototype, SetPrototypeBuiltins.BUILTINS);
         JSObjectUtil.putDataProperty(ctx, prototype, Symbol.SYMBOL_TO_STRING_TAG, CLASS_NAME, JSAttributes.configurableNotEnumerableNotWritable());
-        Object values = prototype.get("values");
+        Object values = JSObject.get(prototype, "values");
         // The initial value of the keys and @@iterator properties is the same function object as
         // the initial value of the values property.
         JSObjectUtil.putDataProperty(ctx, prototype, "keys", values, JSAttributes.getDefaultNotEnumerable());
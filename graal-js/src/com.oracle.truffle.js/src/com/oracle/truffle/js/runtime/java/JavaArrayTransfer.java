@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.java;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.BigInt;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.array.TypedArray.AbstractUint8ClampedArray;
+import com.oracle.truffle.js.runtime.array.TypedArray.TypedBigIntArray;
+import com.oracle.truffle.js.runtime.array.TypedArray.TypedFloatArray;
+import com.oracle.truffle.js.runtime.array.TypedArray.TypedIntArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
+import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.objects.Null;
+
+/**
+ * Bulk transfer between Java arrays and JavaScript arrays or typed arrays. Instead of one interop
+ * message per element, the Java array is copied in a single loop directly into (or out of) the
+ * backing store of the JavaScript array. All methods return {@code null} or {@code false} if the
+ * combination of array types is not supported, in which case the caller falls back to
+ * element-wise interop.
+ */
+public final class JavaArrayTransfer {
+
+    private JavaArrayTransfer() {
+    }
+
+    /**
+     * Creates a JavaScript array from a Java array. Integral arrays become
+     * {@code ZeroBasedIntArray}s (or object arrays if a {@code long} does not fit into an int),
+     * floating point arrays become {@code ZeroBasedDoubleArray}s.
+     *
+     * If {@code share} is {@code true}, an {@code int[]} or {@code double[]} is adopted as the
+     * backing store of the JavaScript array instead of being copied, so element writes on either
+     * side are visible on the other one. The sharing ends as soon as the JavaScript array needs a
+     * different backing store, e.g., when it grows or an element of another type is stored. All
+     * other array types are always copied.
+     */
+    @TruffleBoundary
+    public static DynamicObject toJSArray(JSContext context, Object javaArray, boolean share, TruffleLanguage.Env env) {
+        if (javaArray instanceof int[]) {
+            int[] ints = (int[]) javaArray;
+            return JSArray.createZeroBasedIntArray(context, share ? ints : ints.clone());
+        } else if (javaArray instanceof double[]) {
+            double[] doubles = (double[]) javaArray;
+            return JSArray.createZeroBasedDoubleArray(context, share ? doubles : doubles.clone());
+        } else if (javaArray instanceof long[]) {
+            return longsToJSArray(context, (long[]) javaArray);
+        } else if (javaArray instanceof byte[]) {
+            byte[] bytes = (byte[]) javaArray;
+            int[] ints = new int[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                ints[i] = bytes[i];
+            }
+            return JSArray.createZeroBasedIntArray(context, ints);
+        } else if (javaArray instanceof short[]) {
+            short[] shorts = (short[]) javaArray;
+            int[] ints = new int[shorts.length];
+            for (int i = 0; i < shorts.length; i++) {
+                ints[i] = shorts[i];
+            }
+            return JSArray.createZeroBasedIntArray(context, ints);
+        } else if (javaArray instanceof float[]) {
+            float[] floats = (float[]) javaArray;
+            double[] doubles = new double[floats.length];
+            for (int i = 0; i < floats.length; i++) {
+                doubles[i] = floats[i];
+            }
+            return JSArray.createZeroBasedDoubleArray(context, doubles);
+        } else if (javaArray instanceof Object[]) {
+            Object[] objects = (Object[]) javaArray;
+            Object[] elements = new Object[objects.length];
+            for (int i = 0; i < objects.length; i++) {
+                elements[i] = importElement(objects[i], env);
+            }
+            return JSArray.createZeroBasedObjectArray(context, elements);
+        }
+        return null;
+    }
+
+    private static DynamicObject longsToJSArray(JSContext context, long[] longs) {
+        int[] ints = new int[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            long value = longs[i];
+            if (!JSRuntime.longIsRepresentableAsInt(value)) {
+                Object[] elements = new Object[longs.length];
+                for (int j = 0; j < longs.length; j++) {
+                    elements[j] = importLong(longs[j]);
+                }
+                return JSArray.createZeroBasedObjectArray(context, elements);
+            }
+            ints[i] = (int) value;
+        }
+        return JSArray.createZeroBasedIntArray(context, ints);
+    }
+
+    private static Object importLong(long value) {
+        return JSRuntime.longIsRepresentableAsInt(value) ? (Object) (int) value : (Object) value;
+    }
+
+    /**
+     * Converts an element of an {@code Object[]} like reading it through interop would.
+     */
+    private static Object importElement(Object element, TruffleLanguage.Env env) {
+        if (element == null) {
+            return Null.instance;
+        } else if (element instanceof Integer || element instanceof Double || element instanceof String || element instanceof Boolean) {
+            return element;
+        } else if (element instanceof Long) {
+            return importLong((long) element);
+        } else if (element instanceof Byte || element instanceof Short) {
+            return ((Number) element).intValue();
+        } else if (element instanceof Float) {
+            return ((Number) element).doubleValue();
+        } else if (element instanceof Character) {
+            return String.valueOf(element);
+        } else {
+            return env.asGuestValue(element);
+        }
+    }
+
+    /**
+     * Copies a Java primitive array into a freshly created typed array of the same length.
+     *
+     * @return {@code false} if the element types are not supported
+     */
+    @TruffleBoundary
+    public static boolean copyToTypedArray(Object javaArray, DynamicObject typedArrayObject) {
+        boolean condition = JSArrayBufferView.isJSArrayBufferView(typedArrayObject);
+        TypedArray typedArray = JSArrayBufferView.typedArrayGetArrayType(typedArrayObject, condition);
+        int length = JSArrayBufferView.typedArrayGetLength(typedArrayObject, condition);
+        if (typedArray instanceof TypedIntArray) {
+            return copyToTypedIntArray(javaArray, typedArrayObject, (TypedIntArray<?>) typedArray, length, condition);
+        } else if (typedArray instanceof TypedFloatArray) {
+            return copyToTypedFloatArray(javaArray, typedArrayObject, (TypedFloatArray<?>) typedArray, length, condition);
+        } else if (typedArray instanceof TypedBigIntArray && javaArray instanceof long[]) {
+            TypedBigIntArray<?> bigIntArray = (TypedBigIntArray<?>) typedArray;
+            long[] longs = (long[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                bigIntArray.setBigInt(typedArrayObject, i, BigInt.valueOf(longs[i]), condition);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean copyToTypedIntArray(Object javaArray, DynamicObject typedArrayObject, TypedIntArray<?> intArray, int length, boolean condition) {
+        boolean clamped = intArray instanceof AbstractUint8ClampedArray;
+        if (javaArray instanceof int[]) {
+            int[] ints = (int[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                intArray.setInt(typedArrayObject, i, ints[i], condition);
+            }
+        } else if (javaArray instanceof byte[]) {
+            byte[] bytes = (byte[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                intArray.setInt(typedArrayObject, i, bytes[i], condition);
+            }
+        } else if (javaArray instanceof short[]) {
+            short[] shorts = (short[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                intArray.setInt(typedArrayObject, i, shorts[i], condition);
+            }
+        } else if (javaArray instanceof long[]) {
+            long[] longs = (long[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                long value = longs[i];
+                intArray.setInt(typedArrayObject, i, clamped ? (value < 0 ? 0 : (int) Math.min(value, 0xff)) : (int) value, condition);
+            }
+        } else if (javaArray instanceof double[]) {
+            double[] doubles = (double[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                intArray.setInt(typedArrayObject, i, doubleToInt(doubles[i], clamped), condition);
+            }
+        } else if (javaArray instanceof float[]) {
+            float[] floats = (float[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                intArray.setInt(typedArrayObject, i, doubleToInt(floats[i], clamped), condition);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static int doubleToInt(double value, boolean clamped) {
+        return clamped ? AbstractUint8ClampedArray.toInt(value) : JSRuntime.toInt32(value);
+    }
+
+    private static boolean copyToTypedFloatArray(Object javaArray, DynamicObject typedArrayObject, TypedFloatArray<?> floatArray, int length, boolean condition) {
+        if (javaArray instanceof double[]) {
+            double[] doubles = (double[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                floatArray.setDouble(typedArrayObject, i, doubles[i], condition);
+            }
+        } else if (javaArray instanceof float[]) {
+            float[] floats = (float[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                floatArray.setDouble(typedArrayObject, i, floats[i], condition);
+            }
+        } else if (javaArray instanceof int[]) {
+            int[] ints = (int[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                floatArray.setDouble(typedArrayObject, i, ints[i], condition);
+            }
+        } else if (javaArray instanceof long[]) {
+            long[] longs = (long[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                floatArray.setDouble(typedArrayObject, i, longs[i], condition);
+            }
+        } else if (javaArray instanceof short[]) {
+            short[] shorts = (short[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                floatArray.setDouble(typedArrayObject, i, shorts[i], condition);
+            }
+        } else if (javaArray instanceof byte[]) {
+            byte[] bytes = (byte[]) javaArray;
+            for (int i = 0; i < length; i++) {
+                floatArray.setDouble(typedArrayObject, i, bytes[i], condition);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies the elements of a JavaScript array into a new Java {@code int[]}, {@code long[]}, or
+     * {@code double[]}.
+     *
+     * @return the new Java array, or {@code null} if the component type is not supported or an
+     *         element cannot be converted without loss
+     */
+    @TruffleBoundary
+    public static Object toJavaArray(DynamicObject jsArray, Class<?> componentType) {
+        ScriptArray arrayType = JSAbstractArray.arrayGetArrayType(jsArray);
+        long length = arrayType.length(jsArray);
+        if (length > Integer.MAX_VALUE) {
+            return null;
+        }
+        int len = (int) length;
+        boolean dense = len == 0 || (arrayType.isInBoundsFast(jsArray, 0) && arrayType.isInBoundsFast(jsArray, len - 1) && !arrayType.hasHoles(jsArray));
+        if (componentType == int.class) {
+            int[] result = new int[len];
+            if (dense && arrayType instanceof AbstractIntArray) {
+                AbstractIntArray intArray = (AbstractIntArray) arrayType;
+                for (int i = 0; i < len; i++) {
+                    result[i] = intArray.getInBoundsFastInt(jsArray, i, false);
+                }
+                return result;
+            }
+            for (int i = 0; i < len; i++) {
+                Object element = arrayType.getElement(jsArray, i);
+                if (element instanceof Integer) {
+                    result[i] = (int) element;
+                } else if (element instanceof Double && JSRuntime.doubleIsRepresentableAsInt((double) element)) {
+                    result[i] = (int) (double) element;
+                } else {
+                    return null;
+                }
+            }
+            return result;
+        } else if (componentType == double.class) {
+            double[] result = new double[len];
+            if (dense && arrayType instanceof AbstractDoubleArray) {
+                AbstractDoubleArray doubleArray = (AbstractDoubleArray) arrayType;
+                for (int i = 0; i < len; i++) {
+                    result[i] = doubleArray.getInBoundsFastDouble(jsArray, i, false);
+                }
+                return result;
+            } else if (dense && arrayType instanceof AbstractIntArray) {
+                AbstractIntArray intArray = (AbstractIntArray) arrayType;
+                for (int i = 0; i < len; i++) {
+                    result[i] = intArray.getInBoundsFastInt(jsArray, i, false);
+                }
+                return result;
+            }
+            for (int i = 0; i < len; i++) {
+                Object element = arrayType.getElement(jsArray, i);
+                if (element instanceof Integer || element instanceof Double) {
+                    result[i] = ((Number) element).doubleValue();
+                } else {
+                    return null;
+                }
+            }
+            return result;
+        } else if (componentType == long.class) {
+            long[] result = new long[len];
+            if (dense && arrayType instanceof AbstractIntArray) {
+                AbstractIntArray intArray = (AbstractIntArray) arrayType;
+                for (int i = 0; i < len; i++) {
+                    result[i] = intArray.getInBoundsFastInt(jsArray, i, false);
+                }
+                return result;
+            }
+            for (int i = 0; i < len; i++) {
+                Object element = arrayType.getElement(jsArray, i);
+                if (element instanceof Integer || element instanceof Long) {
+                    result[i] = ((Number) element).longValue();
+                } else if (element instanceof Double && JSRuntime.doubleIsRepresentableAsLong((double) element)) {
+                    result[i] = (long) (double) element;
+                } else {
+                    return null;
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+}
@@ -73,11 +73,27 @@ final class JavaAdapterClassLoader {
     private final String className;
     private final byte[] classBytes;
 
+    /** The adapter class without class-level overrides, loaded on first use. */
+    private Class<?> sharedAdapterClass;
+
     JavaAdapterClassLoader(String className, byte[] classBytes) {
         this.className = className.replace('/', '.');
         this.classBytes = classBytes;
     }
 
+    /**
+     * Returns the adapter class without class-level overrides, loading it on the first call. The
+     * class is shared by all callers.
+     *
+     * @param parentLoader the parent class loader for the generated class loader
+     */
+    synchronized Class<?> getSharedAdapterClass(ClassLoader parentLoader) {
+        if (sharedAdapterClass == null) {
+            sharedAdapterClass = generateClass(parentLoader, null);
+        }
+        return sharedAdapterClass;
+    }
+
     /**
      * Loads the generated adapter class into the JVM.
      *
@@ -96,6 +112,8 @@ final class JavaAdapterClassLoader {
         final class CLImpl extends SecureClassLoader implements Supplier<Value> {
             private static final boolean PRINT_CODE = false;
             private final ClassLoader myLoader = getClass().getClassLoader();
+            /* Keeps the bytecode (and its cache entry) alive as long as the class is. */
+            private final JavaAdapterClassLoader bytecode = JavaAdapterClassLoader.this;
 
             private CLImpl() {
                 super(parentLoader);
@@ -124,11 +142,11 @@ final class JavaAdapterClassLoader {
 
             @Override
             protected Class<?> findClass(final String name) throws ClassNotFoundException {
-                if (name.equals(className)) {
+                if (name.equals(bytecode.className)) {
                     if (PRINT_CODE) {
-                        printCode(classBytes);
+                        printCode(bytecode.classBytes);
                     }
-                    return defineClass(name, classBytes, 0, classBytes.length, GENERATED_PROTECTION_DOMAIN);
+                    return defineClass(name, bytecode.classBytes, 0, bytecode.classBytes.length, GENERATED_PROTECTION_DOMAIN);
                 }
                 if (VISIBLE_INTERNAL_CLASS_NAMES.contains(name)) {
                     return loadInternalClass(name);
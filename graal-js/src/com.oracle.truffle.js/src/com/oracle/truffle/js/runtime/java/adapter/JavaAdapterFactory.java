@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.js.runtime.java.adapter;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,6 +48,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Value;
@@ -61,6 +64,21 @@ import com.oracle.truffle.js.runtime.JSRuntime;
  */
 public final class JavaAdapterFactory {
 
+    /**
+     * Cache of generated adapters, attached to a type whose class loader is the common class
+     * loader of the adapter, so that the cache entries do not outlive that loader. Shared by all
+     * contexts. The adapters are held weakly: the anchor is often a long-lived type like
+     * {@link Object}, and the adapter classes and their class loaders would otherwise never be
+     * unloaded (nor, since they reference it, the anchor type's class loader). Every adapter class
+     * references its bytecode, so an entry stays alive as long as a class generated from it is.
+     */
+    private static final ClassValue<Map<AdapterKey, WeakReference<JavaAdapterClassLoader>>> ADAPTER_CACHE = new ClassValue<Map<AdapterKey, WeakReference<JavaAdapterClassLoader>>>() {
+        @Override
+        protected Map<AdapterKey, WeakReference<JavaAdapterClassLoader>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     @TruffleBoundary
     public static Class<?> getAdapterClassFor(Class<?>[] types, DynamicObject classOverrides) {
         return getAdapterClassFor(types, classOverrides, null);
@@ -121,11 +139,92 @@ public final class JavaAdapterFactory {
 
     private static Class<?> getAdapterClassForCommon(Class<?> superClass, List<Class<?>> interfaces, DynamicObject classOverrides, ClassLoader commonLoader) {
         boolean classOverride = classOverrides != null && JSRuntime.isObject(classOverrides);
-        JavaAdapterBytecodeGenerator bytecodeGenerator = new JavaAdapterBytecodeGenerator(superClass, interfaces, commonLoader, classOverride);
-        JavaAdapterClassLoader generatedClassLoader = bytecodeGenerator.createAdapterClassLoader();
+        Class<?> cacheAnchor = getCacheAnchor(superClass, interfaces, commonLoader);
+        JavaAdapterClassLoader adapter;
+        if (cacheAnchor != null) {
+            AdapterKey key = new AdapterKey(superClass, interfaces, classOverride);
+            adapter = getCachedAdapter(ADAPTER_CACHE.get(cacheAnchor), key, superClass, interfaces, commonLoader, classOverride);
+        } else {
+            adapter = generateAdapter(superClass, interfaces, commonLoader, classOverride);
+        }
+
+        if (!classOverride) {
+            return adapter.getSharedAdapterClass(commonLoader);
+        }
+        // adapters with class-level overrides share the bytecode, but need a class of their own
+        Value classOverridesValue = Context.getCurrent().asValue(classOverrides);
+        return adapter.generateClass(commonLoader, classOverridesValue);
+    }
+
+    /**
+     * Looks up the adapter in the cache, generating and installing it if it is missing or has been
+     * collected. The bytecode is generated outside of the map so that it does not block the map
+     * for other keys; if another thread installs an adapter first, that one is used.
+     */
+    private static JavaAdapterClassLoader getCachedAdapter(Map<AdapterKey, WeakReference<JavaAdapterClassLoader>> cache, AdapterKey key,
+                    Class<?> superClass, List<Class<?>> interfaces, ClassLoader commonLoader, boolean classOverride) {
+        JavaAdapterClassLoader generated = null;
+        while (true) {
+            WeakReference<JavaAdapterClassLoader> ref = cache.get(key);
+            JavaAdapterClassLoader cached = ref == null ? null : ref.get();
+            if (cached != null) {
+                return cached;
+            }
+            if (generated == null) {
+                generated = generateAdapter(superClass, interfaces, commonLoader, classOverride);
+            }
+            WeakReference<JavaAdapterClassLoader> newRef = new WeakReference<>(generated);
+            boolean installed = ref == null ? cache.putIfAbsent(key, newRef) == null : cache.replace(key, ref, newRef);
+            if (installed) {
+                return generated;
+            }
+        }
+    }
+
+    private static JavaAdapterClassLoader generateAdapter(Class<?> superClass, List<Class<?>> interfaces, ClassLoader commonLoader, boolean classOverride) {
+        return new JavaAdapterBytecodeGenerator(superClass, interfaces, commonLoader, classOverride).createAdapterClassLoader();
+    }
 
-        Value classOverridesValue = classOverride ? Context.getCurrent().asValue(classOverrides) : null;
-        return generatedClassLoader.generateClass(commonLoader, classOverridesValue);
+    /**
+     * Returns the type that holds the cached adapter, i.e., one of the adapted types defined by the
+     * common class loader, or {@code null} if there is none (then the adapter is not cached).
+     */
+    private static Class<?> getCacheAnchor(Class<?> superClass, List<Class<?>> interfaces, ClassLoader commonLoader) {
+        if (superClass.getClassLoader() == commonLoader) {
+            return superClass;
+        }
+        for (Class<?> type : interfaces) {
+            if (type.getClassLoader() == commonLoader) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static final class AdapterKey {
+        private final Class<?> superClass;
+        private final Class<?>[] interfaces;
+        private final boolean classOverride;
+
+        AdapterKey(Class<?> superClass, List<Class<?>> interfaces, boolean classOverride) {
+            this.superClass = superClass;
+            this.interfaces = interfaces.toArray(new Class<?>[interfaces.size()]);
+            this.classOverride = classOverride;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof AdapterKey)) {
+                return false;
+            }
+            AdapterKey other = (AdapterKey) obj;
+            return superClass == other.superClass && classOverride == other.classOverride && Arrays.equals(interfaces, other.interfaces);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(superClass, Arrays.hashCode(interfaces), classOverride);
+        }
     }
 
     @TruffleBoundary
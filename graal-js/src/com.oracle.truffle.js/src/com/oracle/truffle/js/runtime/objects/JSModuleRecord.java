@@ -40,7 +40,9 @@
  */
 package com.oracle.truffle.js.runtime.objects;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -82,6 +84,8 @@ public final class JSModuleRecord extends ScriptOrModule {
     private MaterializedFrame environment;
     /** Lazily initialized import.meta object ({@code [[ImportMeta]]}). */
     private DynamicObject importMeta;
+    /** Lazily created, invalidated when the [[Environment]] is discarded. */
+    private Assumption environmentUnchangedAssumption;
 
     /**
      * Auxiliary field used during Instantiate and Evaluate only. If [[Status]] is "instantiating"
@@ -172,6 +176,19 @@ public final class JSModuleRecord extends ScriptOrModule {
         this.environment = environment;
     }
 
+    /**
+     * Assumption that the current [[Environment]] of the (instantiated) module stays its
+     * environment, i.e., that the module is not reset to "uninstantiated" after a failed
+     * instantiation. Allows caching reads of the module's bindings.
+     */
+    public Assumption getEnvironmentUnchangedAssumption() {
+        assert environment != null;
+        if (environmentUnchangedAssumption == null) {
+            environmentUnchangedAssumption = Truffle.getRuntime().createAssumption("Module environment unchanged");
+        }
+        return environmentUnchangedAssumption;
+    }
+
     public int getDFSIndex() {
         assert dfsIndex >= 0;
         return dfsIndex;
@@ -223,6 +240,10 @@ public final class JSModuleRecord extends ScriptOrModule {
     public void setUninstantiated() {
         setStatus(Status.Uninstantiated);
         this.environment = null;
+        if (environmentUnchangedAssumption != null) {
+            environmentUnchangedAssumption.invalidate();
+            environmentUnchangedAssumption = null;
+        }
         this.dfsIndex = -1;
         this.dfsAncestorIndex = -1;
     }
@@ -71,6 +71,7 @@ import com.oracle.truffle.js.runtime.builtins.JSObjectFactory;
 import com.oracle.truffle.js.runtime.builtins.JSObjectPrototype;
 import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
+import com.oracle.truffle.js.runtime.util.JSAllocationProfiler;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 
 /**
@@ -125,6 +126,7 @@ public final class JSObject {
         if (reporter != null) {
             reporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
         }
+        profileAllocation(context, object);
         return object;
     }
 
@@ -137,9 +139,17 @@ public final class JSObject {
         if (reporter != null) {
             reporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
         }
+        profileAllocation(context, object);
         return object;
     }
 
+    private static void profileAllocation(JSContext context, DynamicObject object) {
+        JSAllocationProfiler profiler = context.getAllocationProfiler();
+        if (profiler != null) {
+            profiler.onAllocation(object);
+        }
+    }
+
     @TruffleBoundary
     private static DynamicObject newInstanceBoundary(Shape shape) {
         return shape.newInstance();
@@ -158,6 +168,7 @@ public final class JSObject {
         if (reporter != null) {
             reporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
         }
+        profileAllocation(context, object);
         return object;
     }
 
@@ -170,6 +181,7 @@ public final class JSObject {
         if (reporter != null) {
             reporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
         }
+        profileAllocation(context, object);
         return object;
     }
 
@@ -182,6 +194,7 @@ public final class JSObject {
         if (reporter != null) {
             reporter.onReturnValue(object, 0, AllocationReporter.SIZE_UNKNOWN);
         }
+        profileAllocation(context, object);
         return object;
     }
 
@@ -402,7 +402,12 @@ public final class JSObjectUtil {
                     return;
                 }
                 JSFunctionData functionData = builtin.createFunctionData(context);
-                putDataProperty(context, thisObj, builtin.getKey(), JSFunction.create(realm, functionData), builtin.getAttributeFlags());
+                if (context.getContextOptions().isLazyBuiltins()) {
+                    assert checkForExistingProperty(thisObj, builtin.getKey());
+                    thisObj.define(builtin.getKey(), new JSFunction.LazyBuiltinFunctionProxyProperty(realm, functionData), builtin.getAttributeFlags() | JSProperty.PROXY);
+                } else {
+                    putDataProperty(context, thisObj, builtin.getKey(), JSFunction.create(realm, functionData), builtin.getAttributeFlags());
+                }
             }
         });
     }
@@ -196,6 +196,10 @@ public class JSProperty {
         return (property.getFlags() & ACCESSOR) != 0;
     }
 
+    public static boolean isAccessor(int flags) {
+        return (flags & ACCESSOR) != 0;
+    }
+
     public static boolean isData(Property property) {
         return (property.getFlags() & ACCESSOR) == 0;
     }
@@ -62,9 +62,11 @@ import com.oracle.truffle.js.runtime.util.UnmodifiableArrayList;
 public final class JSShapeData {
     private static final Property[] EMPTY_PROPERTY_ARRAY = new Property[0];
     private static final String[] EMPTY_STRING_ARRAY = new String[0];
+    private static final UnmodifiableArrayList<String> EMPTY_STRING_LIST = new UnmodifiableArrayList<>(EMPTY_STRING_ARRAY);
 
     private Property[] propertyArray;
     private String[] enumerablePropertyNames;
+    private UnmodifiableArrayList<String> enumerablePropertyNameList;
 
     private JSShapeData() {
     }
@@ -134,12 +136,6 @@ public final class JSShapeData {
         return asUnmodifiableList(shape.getPropertyCount() == 0 ? EMPTY_PROPERTY_ARRAY : getPropertiesArray(shape));
     }
 
-    @TruffleBoundary
-    private static String[] getEnumerablePropertyNamesArray(Shape shape) {
-        assert shape.getPropertyCount() != 0;
-        return getEnumerablePropertyNamesArray(getShapeData(shape), shape);
-    }
-
     private static String[] getEnumerablePropertyNamesArray(JSShapeData shapeData, Shape shape) {
         String[] enumeratePropertyNames = shapeData.enumerablePropertyNames;
         if (enumeratePropertyNames == null) {
@@ -149,8 +145,24 @@ public final class JSShapeData {
         return enumeratePropertyNames;
     }
 
+    /**
+     * Returns the enumeration cache of the shape, i.e. the ordered enumerable own string keys. The
+     * list is immutable and shared by all objects of this shape.
+     */
+    @TruffleBoundary
+    private static UnmodifiableArrayList<String> getEnumerablePropertyNameList(Shape shape) {
+        assert shape.getPropertyCount() != 0;
+        JSShapeData shapeData = getShapeData(shape);
+        UnmodifiableArrayList<String> enumerablePropertyNameList = shapeData.enumerablePropertyNameList;
+        if (enumerablePropertyNameList == null) {
+            enumerablePropertyNameList = asUnmodifiableList(getEnumerablePropertyNamesArray(shapeData, shape));
+            shapeData.enumerablePropertyNameList = enumerablePropertyNameList;
+        }
+        return enumerablePropertyNameList;
+    }
+
     static UnmodifiableArrayList<String> getEnumerablePropertyNames(Shape shape) {
-        return asUnmodifiableList(shape.getPropertyCount() == 0 ? EMPTY_STRING_ARRAY : getEnumerablePropertyNamesArray(shape));
+        return shape.getPropertyCount() == 0 ? EMPTY_STRING_LIST : getEnumerablePropertyNameList(shape);
     }
 
     @TruffleBoundary
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single background thread that writes the output handed over by {@link AsyncOutputWriter}s to the
+ * underlying streams. Writers pass completed chunks through a bounded queue, i.e., producers block
+ * when the writer thread cannot keep up. The thread is started on demand and terminates when there
+ * are no registered writers and no pending output.
+ */
+public final class AsyncOutputDispatcher {
+
+    private final BlockingQueue<Chunk> queue;
+    private final long flushIntervalMillis;
+    private final Set<AsyncOutputWriter> writers = ConcurrentHashMap.newKeySet();
+    private Thread thread;
+
+    public AsyncOutputDispatcher(int queueSize, long flushIntervalMillis) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    void register(AsyncOutputWriter writer) {
+        writers.add(writer);
+        synchronized (this) {
+            ensureRunning();
+        }
+    }
+
+    void unregister(AsyncOutputWriter writer) {
+        writers.remove(writer);
+    }
+
+    /**
+     * Hands over a chunk of output, blocking while the queue is full.
+     */
+    void submit(OutputStream out, byte[] bytes) {
+        putUninterruptibly(new Chunk(out, bytes, null));
+        synchronized (this) {
+            // a writer closed before may have let the thread terminate
+            ensureRunning();
+        }
+    }
+
+    /**
+     * Hands over a chunk of output if the queue has free capacity.
+     */
+    boolean offer(OutputStream out, byte[] bytes) {
+        return queue.offer(new Chunk(out, bytes, null));
+    }
+
+    /**
+     * Waits until all output submitted so far has been written and flushed.
+     */
+    void awaitDrained() {
+        CountDownLatch latch = new CountDownLatch(1);
+        putUninterruptibly(new Chunk(null, null, latch));
+        synchronized (this) {
+            ensureRunning();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putUninterruptibly(Chunk chunk) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(chunk);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureRunning() {
+        assert Thread.holdsLock(this);
+        if (thread == null) {
+            thread = new Thread(this::run, "graaljs-async-output");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void run() {
+        Map<OutputStream, Boolean> dirty = new IdentityHashMap<>();
+        long lastIdleHandOff = System.currentTimeMillis();
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                chunk = null;
+            }
+            if (chunk != null) {
+                if (chunk.latch != null) {
+                    flushAll(dirty);
+                    chunk.latch.countDown();
+                } else {
+                    write(chunk);
+                    dirty.put(chunk.out, Boolean.TRUE);
+                }
+            }
+            if (queue.isEmpty()) {
+                flushAll(dirty);
+            }
+            long now = System.currentTimeMillis();
+            if (chunk == null || now - lastIdleHandOff >= flushIntervalMillis) {
+                lastIdleHandOff = now;
+                for (AsyncOutputWriter writer : writers) {
+                    writer.handOffIdle();
+                }
+            }
+            if (writers.isEmpty() && queue.isEmpty()) {
+                synchronized (this) {
+                    if (writers.isEmpty() && queue.isEmpty()) {
+                        flushAll(dirty);
+                        thread = null;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void write(Chunk chunk) {
+        try {
+            chunk.out.write(chunk.bytes);
+        } catch (IOException e) {
+            // the output is lost, just like with a PrintWriter
+        }
+    }
+
+    private static void flushAll(Map<OutputStream, Boolean> dirty) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<OutputStream> streams = new ArrayList<>(dirty.keySet());
+        dirty.clear();
+        for (OutputStream out : streams) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                // ignore, see write
+            }
+        }
+    }
+
+    private static final class Chunk {
+        final OutputStream out;
+        final byte[] bytes;
+        /** Non-null for barriers used by {@link AsyncOutputDispatcher#awaitDrained()}. */
+        final CountDownLatch latch;
+
+        Chunk(OutputStream out, byte[] bytes, CountDownLatch latch) {
+            this.out = out;
+            this.bytes = bytes;
+            this.latch = latch;
+        }
+    }
+}
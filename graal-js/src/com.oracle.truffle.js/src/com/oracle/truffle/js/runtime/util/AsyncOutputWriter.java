@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writer that formats into a private buffer and hands completed lines to an
+ * {@link AsyncOutputDispatcher} instead of writing to the underlying stream directly. Output is
+ * handed over when the buffer exceeds its size limit, on {@link #flush()} if flush-on-newline is
+ * enabled, once the flush interval has elapsed, and on {@link #close()}, which also waits until
+ * everything has been written.
+ *
+ * Every realm has its own writer, so the buffer lock is only contended by the dispatcher thread.
+ * Output written after {@link #close()} is handed over immediately.
+ */
+public final class AsyncOutputWriter extends Writer {
+
+    private final AsyncOutputDispatcher dispatcher;
+    private final OutputStream out;
+    private final Charset charset;
+    private final boolean flushOnNewline;
+    private final int bufferSize;
+    private final long flushIntervalMillis;
+
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private final StringBuilder buffer;
+    private long lastHandOff;
+    private boolean closed;
+
+    public AsyncOutputWriter(AsyncOutputDispatcher dispatcher, OutputStream out, boolean flushOnNewline, int bufferSize) {
+        this.dispatcher = dispatcher;
+        this.out = out;
+        this.charset = Charset.defaultCharset();
+        this.flushOnNewline = flushOnNewline;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.flushIntervalMillis = dispatcher.getFlushIntervalMillis();
+        this.buffer = new StringBuilder(Math.min(this.bufferSize, 8192));
+        this.lastHandOff = System.currentTimeMillis();
+        dispatcher.register(this);
+    }
+
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        bufferLock.lock();
+        try {
+            buffer.append(cbuf, off, len);
+            if (closed || buffer.length() >= bufferSize) {
+                handOff(closed, true);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        bufferLock.lock();
+        try {
+            buffer.append(str, off, off + len);
+            if (closed || buffer.length() >= bufferSize) {
+                handOff(closed, true);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    @Override
+    public void write(int c) {
+        bufferLock.lock();
+        try {
+            buffer.append((char) c);
+            if (closed || buffer.length() >= bufferSize) {
+                handOff(closed, true);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Hands over the completed lines if flush-on-newline is enabled or the flush interval has
+     * elapsed. Does not wait for the output to be written.
+     */
+    @Override
+    public void flush() {
+        bufferLock.lock();
+        try {
+            if (flushOnNewline || System.currentTimeMillis() - lastHandOff >= flushIntervalMillis) {
+                handOff(false, true);
+            }
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    /**
+     * Hands over all buffered output and waits until it has been written to the stream.
+     */
+    @Override
+    public void close() {
+        bufferLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            handOff(true, true);
+        } finally {
+            bufferLock.unlock();
+        }
+        dispatcher.unregister(this);
+        dispatcher.awaitDrained();
+    }
+
+    /**
+     * Called by the dispatcher thread to hand over output that has been pending for longer than the
+     * flush interval. Never blocks.
+     */
+    void handOffIdle() {
+        if (bufferLock.tryLock()) {
+            try {
+                if (buffer.length() != 0 && System.currentTimeMillis() - lastHandOff >= flushIntervalMillis) {
+                    handOff(true, false);
+                }
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+    }
+
+    private void handOff(boolean all, boolean blocking) {
+        assert bufferLock.isHeldByCurrentThread();
+        int end = all ? buffer.length() : buffer.lastIndexOf("\n") + 1;
+        if (end == 0 && buffer.length() >= bufferSize) {
+            // a single line longer than the buffer
+            end = buffer.length();
+        }
+        if (end == 0) {
+            return;
+        }
+        byte[] bytes = buffer.substring(0, end).getBytes(charset);
+        if (blocking) {
+            dispatcher.submit(out, bytes);
+        } else if (!dispatcher.offer(out, bytes)) {
+            return;
+        }
+        buffer.delete(0, end);
+        lastHandOff = System.currentTimeMillis();
+    }
+}
@@ -62,6 +62,11 @@ public class ForInIterator {
     public Shape[] visitedShapes;
     public int visitedShapesSize;
     public boolean fastOwnKeys;
+    /**
+     * Iterating the shared enumeration cache of the object's shape; the prototype chain had no
+     * enumerable properties when the iteration started.
+     */
+    public boolean useEnumCache;
     public int protoDepth;
     public final boolean iterateValues;
 
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.polyglot.Context;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.frame.FrameInstanceVisitor;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.array.ScriptArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSArgumentsObject;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+
+/**
+ * Sampling allocation profiler for JavaScript objects, enabled with the
+ * {@link JSContextOptions#ALLOCATION_PROFILER js.allocation-profiler} option.
+ *
+ * Every n-th object allocated through {@code JSObject.create} (n being the
+ * {@link JSContextOptions#ALLOCATION_PROFILER_SAMPLE_INTERVAL sample interval}) is recorded
+ * together with the JavaScript stack at the time of the allocation. Sampled objects are held
+ * weakly; a {@linkplain #report() report} groups the surviving ones by their current {@link Shape}
+ * and estimates instance counts and retained sizes (including array backing stores, by
+ * {@link ScriptArray} strategy) by scaling with the sample interval.
+ */
+public final class JSAllocationProfiler {
+
+    private static final int MAX_STACK_DEPTH = 4;
+    private static final int MAX_SHAPE_KEYS = 8;
+    private static final int MIN_COMPACT_THRESHOLD = 1024;
+
+    private static final long OBJECT_HEADER_SIZE = 16;
+    private static final long ARRAY_HEADER_SIZE = 16;
+    private static final long REFERENCE_SIZE = 8;
+
+    private final int sampleInterval;
+    /** Allocations left until the next sample. Updated without synchronization. */
+    private int countdown;
+
+    private final List<Sample> samples = new ArrayList<>();
+    private final Map<String, long[]> sampledSites = new HashMap<>();
+    private int compactThreshold = MIN_COMPACT_THRESHOLD;
+
+    public JSAllocationProfiler(int sampleInterval) {
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.countdown = this.sampleInterval;
+    }
+
+    private static final class Sample {
+        final WeakReference<DynamicObject> object;
+        final String site;
+
+        Sample(DynamicObject object, String site) {
+            this.object = new WeakReference<>(object);
+            this.site = site;
+        }
+    }
+
+    /**
+     * Live objects of one shape, as estimated from the surviving samples.
+     */
+    public static final class ShapeEntry {
+        private final String shape;
+        private final String arrayStrategy;
+        private long instances;
+        private long estimatedBytes;
+        private final Map<String, long[]> sites = new HashMap<>();
+
+        ShapeEntry(String shape, String arrayStrategy) {
+            this.shape = shape;
+            this.arrayStrategy = arrayStrategy;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        /**
+         * Name of the {@link ScriptArray} strategy of the sampled objects, or {@code null}.
+         */
+        public String getArrayStrategy() {
+            return arrayStrategy;
+        }
+
+        public long getInstances() {
+            return instances;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        /**
+         * The allocation site with the most surviving samples of this shape.
+         */
+        public String getTopSite() {
+            String top = null;
+            long topCount = 0;
+            for (Map.Entry<String, long[]> entry : sites.entrySet()) {
+                if (entry.getValue()[0] > topCount) {
+                    top = entry.getKey();
+                    topCount = entry.getValue()[0];
+                }
+            }
+            return top;
+        }
+    }
+
+    /**
+     * Allocations attributed to one allocation site (estimated from the samples).
+     */
+    public static final class SiteEntry {
+        private final String site;
+        private final long allocations;
+
+        SiteEntry(String site, long allocations) {
+            this.site = site;
+            this.allocations = allocations;
+        }
+
+        public String getSite() {
+            return site;
+        }
+
+        public long getAllocations() {
+            return allocations;
+        }
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Called for every allocated object.
+     */
+    public void onAllocation(DynamicObject object) {
+        if (--countdown <= 0) {
+            countdown = sampleInterval;
+            sample(object);
+        }
+    }
+
+    @TruffleBoundary
+    private void sample(DynamicObject object) {
+        String site = captureSite();
+        synchronized (this) {
+            samples.add(new Sample(object, site));
+            sampledSites.computeIfAbsent(site, k -> new long[1])[0]++;
+            if (samples.size() >= compactThreshold) {
+                samples.removeIf(s -> s.object.get() == null);
+                compactThreshold = Math.max(MIN_COMPACT_THRESHOLD, samples.size() * 2);
+            }
+        }
+    }
+
+    private static String captureSite() {
+        StringBuilder sb = new StringBuilder();
+        Truffle.getRuntime().iterateFrames(new SiteVisitor(sb, NodeUtil.getCurrentEncapsulatingNode()));
+        return sb.length() == 0 ? "<unknown>" : sb.toString();
+    }
+
+    /**
+     * Makes {@code node} the allocation site of the objects allocated until {@link #exitSite} is
+     * called. Allocating nodes call this only while the profiler is enabled.
+     *
+     * @return the previous site, to be passed to {@link #exitSite}
+     */
+    @TruffleBoundary
+    public static Node enterSite(Node node) {
+        return NodeUtil.pushEncapsulatingNode(node);
+    }
+
+    @TruffleBoundary
+    public static void exitSite(Node previous) {
+        NodeUtil.popEncapsulatingNode(previous);
+    }
+
+    private static final class SiteVisitor implements FrameInstanceVisitor<Object> {
+        private final StringBuilder sb;
+        private final Node encapsulatingNode;
+        private int depth;
+        private boolean first = true;
+
+        SiteVisitor(StringBuilder sb, Node encapsulatingNode) {
+            this.sb = sb;
+            this.encapsulatingNode = encapsulatingNode;
+        }
+
+        @Override
+        public Object visitFrame(FrameInstance frameInstance) {
+            SourceSection section = null;
+            String name = null;
+            if (first) {
+                // the allocating function itself: no call node, use the location of the
+                // allocating node if it is known, else the location of the function
+                first = false;
+                if (frameInstance.getCallTarget() instanceof RootCallTarget) {
+                    RootNode root = ((RootCallTarget) frameInstance.getCallTarget()).getRootNode();
+                    if (encapsulatingNode != null && encapsulatingNode.getRootNode() == root) {
+                        section = encapsulatingNode.getEncapsulatingSourceSection();
+                    }
+                    if (section == null) {
+                        section = root.getSourceSection();
+                    }
+                    name = root.getName();
+                }
+            } else {
+                Node callNode = frameInstance.getCallNode();
+                if (callNode != null) {
+                    section = callNode.getEncapsulatingSourceSection();
+                    name = callNode.getRootNode().getName();
+                }
+            }
+            if (section == null || !section.isAvailable() || section.getSource().isInternal()) {
+                return null;
+            }
+            if (depth > 0) {
+                sb.append(" <- ");
+            }
+            sb.append(name == null || name.isEmpty() ? "<anonymous>" : name);
+            sb.append(" (").append(section.getSource().getName()).append(':').append(section.getStartLine()).append(')');
+            return ++depth >= MAX_STACK_DEPTH ? this : null;
+        }
+    }
+
+    /**
+     * Returns the estimated live objects by shape, largest first.
+     */
+    @TruffleBoundary
+    public List<ShapeEntry> getShapeEntries() {
+        Map<Shape, ShapeEntry> byShape = new IdentityHashMap<>();
+        synchronized (this) {
+            samples.removeIf(s -> s.object.get() == null);
+            for (Sample sample : samples) {
+                DynamicObject object = sample.object.get();
+                if (object == null) {
+                    continue;
+                }
+                Shape shape = object.getShape();
+                ShapeEntry entry = byShape.get(shape);
+                if (entry == null) {
+                    entry = new ShapeEntry(describeShape(shape), arrayStrategy(object));
+                    byShape.put(shape, entry);
+                }
+                entry.instances += sampleInterval;
+                entry.estimatedBytes += estimateSize(object) * sampleInterval;
+                entry.sites.computeIfAbsent(sample.site, k -> new long[1])[0]++;
+            }
+        }
+        List<ShapeEntry> entries = new ArrayList<>(byShape.values());
+        entries.sort(Comparator.comparingLong(ShapeEntry::getEstimatedBytes).reversed());
+        return entries;
+    }
+
+    /**
+     * Returns the estimated number of allocations per allocation site, largest first.
+     */
+    @TruffleBoundary
+    public List<SiteEntry> getSiteEntries() {
+        List<SiteEntry> entries = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, long[]> entry : sampledSites.entrySet()) {
+                entries.add(new SiteEntry(entry.getKey(), entry.getValue()[0] * sampleInterval));
+            }
+        }
+        entries.sort(Comparator.comparingLong(SiteEntry::getAllocations).reversed());
+        return entries;
+    }
+
+    /**
+     * Returns a human-readable report of the live objects by shape and of the allocation sites.
+     */
+    @TruffleBoundary
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Live objects by shape (estimated, sample interval ").append(sampleInterval).append("):\n");
+        for (ShapeEntry entry : getShapeEntries()) {
+            sb.append(String.format("%12d bytes %10d instances  %s", entry.getEstimatedBytes(), entry.getInstances(), entry.getShape()));
+            if (entry.getArrayStrategy() != null) {
+                sb.append(" [").append(entry.getArrayStrategy()).append(']');
+            }
+            sb.append("\n             allocated at ").append(entry.getTopSite()).append('\n');
+        }
+        sb.append("Allocation sites (estimated):\n");
+        for (SiteEntry entry : getSiteEntries()) {
+            sb.append(String.format("%12d allocations  %s%n", entry.getAllocations(), entry.getSite()));
+        }
+        return sb.toString();
+    }
+
+    @TruffleBoundary
+    public synchronized void reset() {
+        samples.clear();
+        sampledSites.clear();
+        compactThreshold = MIN_COMPACT_THRESHOLD;
+    }
+
+    private static String describeShape(Shape shape) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(JSShape.getJSClass(shape).getClass().getSimpleName()).append('{');
+        int count = 0;
+        for (Object key : shape.getKeyList()) {
+            if (count > 0) {
+                sb.append(',');
+            }
+            if (count++ == MAX_SHAPE_KEYS) {
+                sb.append("...");
+                break;
+            }
+            sb.append(key);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String arrayStrategy(DynamicObject object) {
+        if (JSArray.isJSArray(object) || JSArgumentsObject.isJSArgumentsObject(object)) {
+            return JSAbstractArray.arrayGetArrayType(object).getClass().getSimpleName();
+        }
+        return null;
+    }
+
+    /**
+     * Estimates the shallow size of the object plus the size of its array backing store or heap
+     * buffer, which are not shared with other objects.
+     */
+    private static long estimateSize(DynamicObject object) {
+        long size = OBJECT_HEADER_SIZE + REFERENCE_SIZE * object.getShape().getPropertyCount();
+        if (JSArray.isJSArray(object) || JSArgumentsObject.isJSArgumentsObject(object)) {
+            size += backingStoreSize(JSAbstractArray.arrayGetArray(object));
+        } else if (JSArrayBuffer.isJSHeapArrayBuffer(object)) {
+            size += ARRAY_HEADER_SIZE + JSAbstractBuffer.getByteArray(object).length;
+        }
+        return size;
+    }
+
+    private static long backingStoreSize(Object array) {
+        if (array instanceof int[]) {
+            return ARRAY_HEADER_SIZE + 4L * ((int[]) array).length;
+        } else if (array instanceof double[]) {
+            return ARRAY_HEADER_SIZE + 8L * ((double[]) array).length;
+        } else if (array instanceof byte[]) {
+            return ARRAY_HEADER_SIZE + ((byte[]) array).length;
+        } else if (array instanceof Object[]) {
+            return ARRAY_HEADER_SIZE + REFERENCE_SIZE * ((Object[]) array).length;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the allocation profiler of the JavaScript context of a polyglot context, or
+     * {@code null} if the {@link JSContextOptions#ALLOCATION_PROFILER js.allocation-profiler}
+     * option is not enabled.
+     */
+    public static JSAllocationProfiler get(Context context) {
+        return JavaScriptLanguage.getJSContext(context).getAllocationProfiler();
+    }
+}
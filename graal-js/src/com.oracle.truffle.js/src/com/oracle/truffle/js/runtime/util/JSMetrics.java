@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.graalvm.polyglot.Context;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.JSTruffleOptions;
+
+/**
+ * Engine metrics collected when the {@link JSContextOptions#METRICS js.metrics} option is enabled.
+ * Unlike {@link DebugCounter}, the counters are per {@link com.oracle.truffle.js.runtime.JSContext
+ * JSContext}, can be enabled without rebuilding, and can be read while the engine is running, either
+ * through {@link #get(Context)} or through JMX (see {@link JSMetricsMXBean}).
+ *
+ * Counters are only incremented on slow paths (node rewrites, shape and array strategy
+ * transitions, compilation of regular expressions, parsing) or once per batch (promise jobs), so
+ * the cost of enabling them is a field read and a {@link LongAdder} update behind a boundary.
+ */
+public final class JSMetrics implements JSMetricsMXBean {
+
+    public static final String OBJECT_NAME_PREFIX = "com.oracle.truffle.js:type=Metrics,id=";
+
+    public enum Counter {
+        /** Property access inline caches that became polymorphic. */
+        POLYMORPHIC_PROPERTY_CACHES("polymorphicPropertyCaches"),
+        /** Property access inline caches that fell back to the generic (megamorphic) case. */
+        MEGAMORPHIC_PROPERTY_CACHES("megamorphicPropertyCaches"),
+        /** Objects transitioned to dictionary mode. */
+        DICTIONARY_OBJECT_TRANSITIONS("dictionaryObjectTransitions"),
+        /** Dictionary mode objects transitioned back to ordinary objects. */
+        ORDINARY_OBJECT_TRANSITIONS("ordinaryObjectTransitions"),
+        /** Array storage strategy transitions (e.g. int to double, contiguous to holes). */
+        ARRAY_STRATEGY_TRANSITIONS("arrayStrategyTransitions"),
+        /** Regular expressions compiled. */
+        REGEX_COMPILES("regexCompiles"),
+        /** Scripts and modules parsed. */
+        SOURCES_PARSED("sourcesParsed"),
+        /** Time spent parsing scripts and modules, in nanoseconds. */
+        PARSE_TIME_NANOS("parseTimeNanos"),
+        /** Time spent translating parsed scripts and modules into Truffle ASTs, in nanoseconds. */
+        TRANSLATE_TIME_NANOS("translateTimeNanos"),
+        /** Promise jobs processed. */
+        PROMISE_JOBS("promiseJobs");
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final AtomicLong nextMBeanId = new AtomicLong();
+
+    private final LongAdder[] counters;
+    /** Name of the registered MBean, if any, and the number of realms using it. */
+    private ObjectName mbeanName;
+    private int mbeanUsers;
+
+    public JSMetrics() {
+        this.counters = new LongAdder[COUNTERS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    @TruffleBoundary
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    @TruffleBoundary
+    public void add(Counter counter, long delta) {
+        counters[counter.ordinal()].add(delta);
+    }
+
+    @TruffleBoundary
+    public long get(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    @TruffleBoundary
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (Counter counter : COUNTERS) {
+            snapshot.put(counter.getKey(), counters[counter.ordinal()].sum());
+        }
+        return snapshot;
+    }
+
+    @TruffleBoundary
+    @Override
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Returns the metrics of the JavaScript context of a polyglot context, or {@code null} if the
+     * {@link JSContextOptions#METRICS js.metrics} option is not enabled.
+     */
+    public static JSMetrics get(Context context) {
+        return JavaScriptLanguage.getJSContext(context).getMetrics();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, unless they are already registered.
+     * The metrics belong to a JSContext, which may be shared by several realms and polyglot
+     * contexts, so registrations are counted and the MBean stays registered until the last user
+     * {@linkplain #releaseMBean() releases} it.
+     */
+    @TruffleBoundary
+    public synchronized void acquireMBean() {
+        if (mbeanUsers++ == 0) {
+            mbeanName = registerMBean();
+        }
+    }
+
+    /**
+     * Releases a registration made by {@link #acquireMBean()} and unregisters the MBean when it was
+     * the last one.
+     */
+    @TruffleBoundary
+    public synchronized void releaseMBean() {
+        assert mbeanUsers > 0;
+        if (--mbeanUsers == 0 && mbeanName != null) {
+            unregisterMBean(mbeanName);
+            mbeanName = null;
+        }
+    }
+
+    private ObjectName registerMBean() {
+        if (JSTruffleOptions.SubstrateVM) {
+            return null;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + nextMBeanId.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            return name;
+        } catch (JMException | SecurityException e) {
+            // metrics remain available through the host API
+            return null;
+        }
+    }
+
+    private static void unregisterMBean(ObjectName name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException | SecurityException e) {
+            // already unregistered
+        }
+    }
+}
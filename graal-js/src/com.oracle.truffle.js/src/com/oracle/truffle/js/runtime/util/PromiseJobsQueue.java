@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.JSRealm;
+
+/**
+ * FIFO queue of promise jobs, stored as flat (realm, job, argument) tuples in a ring buffer. A job
+ * is either a job function or a {@code PromiseReactionRecord} to be run with the argument, so that
+ * no job function has to be allocated for a promise reaction. Prepared for use in compiled code:
+ * only growing the buffer is behind a boundary.
+ */
+public final class PromiseJobsQueue {
+
+    private static final int TUPLE_SIZE = 3;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Length is a power of two times {@link #TUPLE_SIZE}. */
+    private Object[] buffer;
+    /** Index of the first tuple. */
+    private int head;
+    /** Number of tuples. */
+    private int size;
+
+    public PromiseJobsQueue() {
+        this.buffer = new Object[INITIAL_CAPACITY * TUPLE_SIZE];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void enqueue(JSRealm realm, Object job, Object argument) {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, size == capacity())) {
+            grow();
+        }
+        int offset = ((head + size) & (capacity() - 1)) * TUPLE_SIZE;
+        buffer[offset] = realm;
+        buffer[offset + 1] = job;
+        buffer[offset + 2] = argument;
+        size++;
+    }
+
+    public JSRealm headRealm() {
+        assert size > 0;
+        return (JSRealm) buffer[head * TUPLE_SIZE];
+    }
+
+    public Object headJob() {
+        assert size > 0;
+        return buffer[head * TUPLE_SIZE + 1];
+    }
+
+    public Object headArgument() {
+        assert size > 0;
+        return buffer[head * TUPLE_SIZE + 2];
+    }
+
+    /**
+     * Removes the first tuple, clearing its slots.
+     */
+    public void removeHead() {
+        assert size > 0;
+        int offset = head * TUPLE_SIZE;
+        buffer[offset] = null;
+        buffer[offset + 1] = null;
+        buffer[offset + 2] = null;
+        head = (head + 1) & (capacity() - 1);
+        size--;
+    }
+
+    public void clear() {
+        while (size > 0) {
+            removeHead();
+        }
+        head = 0;
+    }
+
+    private int capacity() {
+        return buffer.length / TUPLE_SIZE;
+    }
+
+    @TruffleBoundary
+    private void grow() {
+        int capacity = capacity();
+        Object[] newBuffer = new Object[buffer.length * 2];
+        // unwrap the tuples, starting at head
+        int firstPart = (capacity - head) * TUPLE_SIZE;
+        System.arraycopy(buffer, head * TUPLE_SIZE, newBuffer, 0, firstPart);
+        System.arraycopy(buffer, 0, newBuffer, firstPart, head * TUPLE_SIZE);
+        buffer = newBuffer;
+        head = 0;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.builtins.JSFunction.LazyBuiltinFunctionProxyProperty;
+import com.oracle.truffle.js.runtime.builtins.JSProxy;
+import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.objects.PropertyProxy;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Snapshot of the global object and the built-in objects of a realm, used by the script engine to
+ * reuse a context for independent evaluations.
+ *
+ * The snapshot records the shape and the raw property values of every object reachable from the
+ * global object (and of the intrinsics that are only reachable through objects created by
+ * built-ins). Raw values are read without invoking getters or property proxies, so lazily created
+ * globals and builtin functions are not materialized. {@link #restore()} resets the properties of
+ * the global object and the lazily created builtin functions; changes to any other built-in object
+ * are only detected, and the realm is reported as not restorable.
+ *
+ * The RegExp legacy static properties ({@code RegExp.$1}, {@code RegExp.lastMatch}, ...) are reset
+ * as well. The {@code Symbol.for} registry is not: it belongs to the {@code JSContext}, which is
+ * shared by all contexts of an engine.
+ */
+public final class RealmStateSnapshot {
+
+    private final JSRealm realm;
+    private final ObjectSnapshot global;
+    private final DynamicObject globalPrototype;
+    private final ObjectSnapshot[] builtins;
+
+    private RealmStateSnapshot(JSRealm realm, ObjectSnapshot global, ObjectSnapshot[] builtins) {
+        this.realm = realm;
+        this.global = global;
+        this.globalPrototype = JSObject.getPrototype(global.object);
+        this.builtins = builtins;
+    }
+
+    @TruffleBoundary
+    public static RealmStateSnapshot create(JSRealm realm) {
+        DynamicObject globalObject = realm.getGlobalObject();
+        Set<DynamicObject> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<DynamicObject> pending = new ArrayDeque<>();
+        seen.add(globalObject);
+        for (DynamicObject intrinsic : new DynamicObject[]{realm.getIteratorPrototype(), realm.getAsyncIteratorPrototype(), realm.getAsyncFromSyncIteratorPrototype(),
+                        realm.getArrayIteratorPrototype(), realm.getSetIteratorPrototype(), realm.getMapIteratorPrototype(), realm.getStringIteratorPrototype(),
+                        realm.getRegExpStringIteratorPrototype(), realm.getGeneratorFunctionPrototype(), realm.getGeneratorObjectPrototype(), realm.getAsyncFunctionPrototype(),
+                        realm.getAsyncGeneratorFunctionPrototype(), realm.getAsyncGeneratorObjectPrototype()}) {
+            if (intrinsic != null && seen.add(intrinsic)) {
+                pending.add(intrinsic);
+            }
+        }
+        ObjectSnapshot globalSnapshot = new ObjectSnapshot(globalObject);
+        globalSnapshot.addReferences(seen, pending);
+        List<ObjectSnapshot> builtinSnapshots = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            ObjectSnapshot snapshot = new ObjectSnapshot(pending.poll());
+            snapshot.addReferences(seen, pending);
+            builtinSnapshots.add(snapshot);
+        }
+        return new RealmStateSnapshot(realm, globalSnapshot, builtinSnapshots.toArray(new ObjectSnapshot[builtinSnapshots.size()]));
+    }
+
+    /**
+     * Restores the state of the snapshot, or returns false if that is not possible, e.g. because
+     * a built-in object other than the global object has been modified.
+     */
+    @TruffleBoundary
+    public boolean restore() {
+        for (ObjectSnapshot builtin : builtins) {
+            if (!builtin.isUnchanged()) {
+                return false;
+            }
+        }
+        if (!global.isUnchanged() && !restoreGlobalObject()) {
+            return false;
+        }
+        global.restoreLazyBuiltins();
+        for (ObjectSnapshot builtin : builtins) {
+            builtin.restoreLazyBuiltins();
+        }
+        realm.resetStaticRegexResult();
+        return true;
+    }
+
+    private boolean restoreGlobalObject() {
+        DynamicObject globalObject = global.object;
+        if (!JSObject.isExtensible(globalObject)) {
+            return false;
+        }
+        if (JSObject.getPrototype(globalObject) != globalPrototype && !JSObject.setPrototype(globalObject, globalPrototype)) {
+            return false;
+        }
+        for (Object key : JSObject.ownPropertyKeys(globalObject)) {
+            if (!global.indexOfKey.containsKey(key) && !JSObject.delete(globalObject, key)) {
+                // global var and function declarations cannot be deleted
+                if (!JSObject.defineOwnProperty(globalObject, key, PropertyDescriptor.createData(Undefined.instance))) {
+                    return false;
+                }
+            }
+        }
+        for (int i = 0; i < global.properties.length; i++) {
+            Property original = global.properties[i];
+            Object value = global.values[i];
+            if (original.isHidden()) {
+                continue;
+            }
+            Object key = original.getKey();
+            Property current = globalObject.getShape().getProperty(key);
+            if (current != null && current.getFlags() == original.getFlags() && isSame(current.get(globalObject, false), value)) {
+                continue;
+            }
+            if (JSProperty.isProxy(original)) {
+                // e.g. a lazily created global that has been accessed; the proxy creates it anew
+                if (current != null && !JSObject.delete(globalObject, key)) {
+                    return false;
+                }
+                JSObjectUtil.defineProxyProperty(globalObject, key, (PropertyProxy) value, original.getFlags() & JSAttributes.ATTRIBUTES_MASK);
+            } else {
+                PropertyDescriptor descriptor;
+                if (JSProperty.isAccessor(original)) {
+                    Accessor accessor = (Accessor) value;
+                    descriptor = PropertyDescriptor.createAccessor(accessor.getGetter(), accessor.getSetter(), original.getFlags());
+                } else {
+                    descriptor = PropertyDescriptor.createData(value, original.getFlags());
+                }
+                if (!JSObject.defineOwnProperty(globalObject, key, descriptor)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSame(Object a, Object b) {
+        return a == b || (!(a instanceof DynamicObject) && Objects.equals(a, b));
+    }
+
+    private static final class ObjectSnapshot {
+        final DynamicObject object;
+        final Shape shape;
+        /** All properties of the shape, including hidden ones, with their raw values. */
+        final Property[] properties;
+        final Object[] values;
+        /** Cached values of the lazily created builtin functions among {@link #values}. */
+        final Object[] lazyBuiltinValues;
+        final Map<Object, Integer> indexOfKey;
+        final int visiblePropertyCount;
+
+        ObjectSnapshot(DynamicObject object) {
+            this.object = object;
+            this.shape = object.getShape();
+            List<Property> propertyList = shape.getPropertyListInternal(true);
+            this.properties = propertyList.toArray(new Property[propertyList.size()]);
+            this.values = new Object[properties.length];
+            this.lazyBuiltinValues = new Object[properties.length];
+            this.indexOfKey = new HashMap<>();
+            int visible = 0;
+            for (int i = 0; i < properties.length; i++) {
+                values[i] = properties[i].get(object, false);
+                if (values[i] instanceof LazyBuiltinFunctionProxyProperty) {
+                    lazyBuiltinValues[i] = ((LazyBuiltinFunctionProxyProperty) values[i]).getCachedValue();
+                }
+                indexOfKey.put(properties[i].getKey(), i);
+                if (!properties[i].isHidden()) {
+                    visible++;
+                }
+            }
+            this.visiblePropertyCount = visible;
+        }
+
+        void addReferences(Set<DynamicObject> seen, Deque<DynamicObject> pending) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Accessor) {
+                    addReference(((Accessor) values[i]).getGetter(), seen, pending);
+                    addReference(((Accessor) values[i]).getSetter(), seen, pending);
+                } else {
+                    addReference(lazyBuiltinValues[i] != null ? lazyBuiltinValues[i] : values[i], seen, pending);
+                }
+            }
+        }
+
+        private static void addReference(Object value, Set<DynamicObject> seen, Deque<DynamicObject> pending) {
+            if (JSObject.isJSObject(value) && !JSProxy.isProxy(value) && seen.add((DynamicObject) value)) {
+                pending.add((DynamicObject) value);
+            }
+        }
+
+        /**
+         * Whether the properties of the object, its prototype and its extensibility are unchanged.
+         * Hidden properties added since, e.g. for prototype data, are ignored.
+         */
+        boolean isUnchanged() {
+            Shape current = object.getShape();
+            if (current == shape) {
+                for (int i = 0; i < properties.length; i++) {
+                    if (!isSame(properties[i].get(object, false), values[i])) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (JSShape.isExtensible(current) != JSShape.isExtensible(shape) || current.getPropertyList().size() != visiblePropertyCount) {
+                return false;
+            }
+            for (int i = 0; i < properties.length; i++) {
+                Property property = current.getProperty(properties[i].getKey());
+                if (property == null || property.getFlags() != properties[i].getFlags() || !isSame(property.get(object, false), values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void restoreLazyBuiltins() {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof LazyBuiltinFunctionProxyProperty) {
+                    // the function is created anew on the next access
+                    ((LazyBuiltinFunctionProxyProperty) values[i]).set(object, lazyBuiltinValues[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.JSParserOptions;
+
+/**
+ * A file holding pre-parsed binary snapshots of several scripts, used with the
+ * {@link JSContextOptions#SNAPSHOT_BUNDLE js.snapshot-bundle} option to skip parsing and
+ * translation of known scripts at startup.
+ *
+ * Entries are keyed by source name and the {@linkplain #parserOptionsKey parser options} the
+ * snapshot was recorded with, and validated against the length and SHA-256 digest of the source
+ * code, so a stale bundle never replaces a modified script. The file is memory mapped if the file
+ * system allows it; the snapshots are decoded directly from the mapping.
+ *
+ * <pre>
+ * bundle := MAGIC VERSION count:int entry* snapshot*
+ * entry  := nameLength:int name:utf8 parserOptions:int sourceLength:int digest:byte[32] offset:int length:int
+ * </pre>
+ */
+public final class SnapshotBundle {
+
+    public static final int MAGIC = 0x444e4253;
+    private static final int VERSION = 2;
+    private static final int DIGEST_LENGTH = 32;
+
+    private final Entry[] entries;
+    private final ByteBuffer buffer;
+
+    private SnapshotBundle(Entry[] entries, ByteBuffer buffer) {
+        this.entries = entries;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps the bundle file into memory, or reads it if the file system does not support mapping,
+     * and reads its index.
+     *
+     * @throws IOException if the file cannot be read or is not a valid bundle
+     */
+    public static SnapshotBundle open(TruffleFile file) throws IOException {
+        ByteBuffer buffer;
+        try (SeekableByteChannel channel = file.newByteChannel(Collections.singleton(StandardOpenOption.READ))) {
+            if (channel instanceof FileChannel) {
+                buffer = ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } else {
+                buffer = ByteBuffer.wrap(file.readAllBytes());
+            }
+        }
+        return read(buffer);
+    }
+
+    /**
+     * Encodes the parser options that influence the recorded snapshot.
+     */
+    public static int parserOptionsKey(JSParserOptions options) {
+        int key = options.getEcmaScriptVersion() << 16;
+        key |= options.isStrict() ? 1 : 0;
+        key |= options.isScripting() ? 1 << 1 : 0;
+        key |= options.isShebang() ? 1 << 2 : 0;
+        key |= options.isSyntaxExtensions() ? 1 << 3 : 0;
+        key |= options.isConstAsVar() ? 1 << 4 : 0;
+        key |= options.isFunctionStatementError() ? 1 << 5 : 0;
+        key |= options.isEmptyStatements() ? 1 << 6 : 0;
+        key |= options.isAnnexB() ? 1 << 7 : 0;
+        key |= options.isAllowBigInt() ? 1 << 8 : 0;
+        key |= options.isClassFields() ? 1 << 9 : 0;
+        return key;
+    }
+
+    /**
+     * Reads a bundle from a buffer, e.g. one that has been produced by a {@link Writer}.
+     *
+     * @throws IOException if the buffer does not contain a valid bundle
+     */
+    public static SnapshotBundle read(ByteBuffer bytes) throws IOException {
+        ByteBuffer buffer = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a snapshot bundle");
+            }
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IOException("Corrupt snapshot bundle");
+            }
+            Entry[] entries = new Entry[count];
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                int parserOptions = buffer.getInt();
+                int sourceLength = buffer.getInt();
+                byte[] digest = new byte[DIGEST_LENGTH];
+                buffer.get(digest);
+                int offset = buffer.getInt();
+                int length = buffer.getInt();
+                if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+                    throw new IOException("Corrupt snapshot bundle");
+                }
+                entries[i] = new Entry(new String(name, StandardCharsets.UTF_8), parserOptions, sourceLength, digest, offset, length);
+            }
+            buffer.clear();
+            return new SnapshotBundle(entries, buffer);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, NegativeArraySizeException
+            throw new IOException("Corrupt snapshot bundle", e);
+        }
+    }
+
+    /**
+     * Returns the snapshot recorded for the given source with the given parser options, or
+     * {@code null} if the bundle contains no such entry or the source has changed since the bundle
+     * was built.
+     */
+    @TruffleBoundary
+    public ByteBuffer find(Source source, JSParserOptions parserOptions) {
+        String name = source.getName();
+        int parserOptionsKey = parserOptionsKey(parserOptions);
+        CharSequence code = null;
+        byte[] digest = null;
+        for (Entry entry : entries) {
+            if (!entry.name.equals(name) || entry.parserOptions != parserOptionsKey) {
+                continue;
+            }
+            if (code == null) {
+                code = source.getCharacters();
+            }
+            if (entry.sourceLength != code.length()) {
+                continue;
+            }
+            if (digest == null) {
+                digest = digest(code);
+            }
+            if (Arrays.equals(entry.digest, digest)) {
+                ByteBuffer snapshot = buffer.duplicate();
+                snapshot.position(entry.offset);
+                snapshot.limit(entry.offset + entry.length);
+                return snapshot.slice();
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    static byte[] digest(CharSequence code) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(code.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final int parserOptions;
+        final int sourceLength;
+        final byte[] digest;
+        final int offset;
+        final int length;
+
+        Entry(String name, int parserOptions, int sourceLength, byte[] digest, int offset, int length) {
+            this.name = name;
+            this.parserOptions = parserOptions;
+            this.sourceLength = sourceLength;
+            this.digest = digest;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Collects binary snapshots and writes them out as a bundle.
+     */
+    public static final class Writer {
+        private final List<String> names = new ArrayList<>();
+        private final List<Integer> parserOptions = new ArrayList<>();
+        private final List<CharSequence> sources = new ArrayList<>();
+        private final List<byte[]> snapshots = new ArrayList<>();
+
+        public void add(String name, JSParserOptions options, CharSequence code, byte[] snapshot) {
+            names.add(name);
+            parserOptions.add(parserOptionsKey(options));
+            sources.add(code);
+            snapshots.add(snapshot);
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            int count = names.size();
+            byte[][] encodedNames = new byte[count][];
+            int indexSize = 3 * Integer.BYTES;
+            for (int i = 0; i < count; i++) {
+                encodedNames[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+                indexSize += Integer.BYTES + encodedNames[i].length + 2 * Integer.BYTES + DIGEST_LENGTH + 2 * Integer.BYTES;
+            }
+
+            ByteBuffer index = ByteBuffer.allocate(indexSize).order(ByteOrder.LITTLE_ENDIAN);
+            index.putInt(MAGIC);
+            index.putInt(VERSION);
+            index.putInt(count);
+            int offset = indexSize;
+            for (int i = 0; i < count; i++) {
+                index.putInt(encodedNames[i].length);
+                index.put(encodedNames[i]);
+                index.putInt(parserOptions.get(i));
+                index.putInt(sources.get(i).length());
+                index.put(digest(sources.get(i)));
+                index.putInt(offset);
+                index.putInt(snapshots.get(i).length);
+                offset += snapshots.get(i).length;
+            }
+            assert !index.hasRemaining();
+
+            out.write(index.array());
+            for (byte[] snapshot : snapshots) {
+                out.write(snapshot);
+            }
+        }
+
+        public byte[] toByteArray() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                writeTo(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
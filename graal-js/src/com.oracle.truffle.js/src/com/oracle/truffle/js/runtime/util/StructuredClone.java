@@ -0,0 +1,603 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.BigInt;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSErrorType;
+import com.oracle.truffle.js.runtime.JSException;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.RegexCompilerInterface;
+import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractArray;
+import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSBigInt;
+import com.oracle.truffle.js.runtime.builtins.JSBoolean;
+import com.oracle.truffle.js.runtime.builtins.JSDataView;
+import com.oracle.truffle.js.runtime.builtins.JSDate;
+import com.oracle.truffle.js.runtime.builtins.JSError;
+import com.oracle.truffle.js.runtime.builtins.JSMap;
+import com.oracle.truffle.js.runtime.builtins.JSNumber;
+import com.oracle.truffle.js.runtime.builtins.JSRegExp;
+import com.oracle.truffle.js.runtime.builtins.JSSet;
+import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSString;
+import com.oracle.truffle.js.runtime.builtins.JSUserObject;
+import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Structured clone of JavaScript values (HTML {@code StructuredSerializeWithTransfer} and
+ * {@code StructuredDeserializeWithTransfer}).
+ *
+ * Unlike the V8-compatible serializer used by Node.js, values are not encoded into a byte buffer.
+ * Serialization produces a realm-independent graph of immutable records ({@link Serialized}) that
+ * can be handed to another thread and materialized in any realm of the same engine. Primitive
+ * values and strings are shared, transferred {@code ArrayBuffer}s hand over their backing store
+ * without copying, {@code SharedArrayBuffer}s share their memory and host objects are passed by
+ * reference.
+ */
+public final class StructuredClone {
+
+    private StructuredClone() {
+    }
+
+    /**
+     * Clones {@code value} within the current realm.
+     */
+    @TruffleBoundary
+    public static Object clone(JSRealm realm, Object value, List<Object> transferList) {
+        return serialize(realm, value, transferList).deserialize(realm);
+    }
+
+    /**
+     * Copies the value graph of {@code value} from the current realm into {@code targetRealm}. The
+     * target realm may belong to a different context on the same engine; its context is entered
+     * while the copy is materialized.
+     */
+    @TruffleBoundary
+    public static Object cloneToRealm(JSRealm sourceRealm, Object value, List<Object> transferList, JSRealm targetRealm) {
+        Serialized serialized = serialize(sourceRealm, value, transferList);
+        if (targetRealm == sourceRealm) {
+            return serialized.deserialize(targetRealm);
+        }
+        TruffleContext targetContext = targetRealm.getTruffleContext();
+        Object prev = targetContext.enter();
+        try {
+            return serialized.deserialize(targetRealm);
+        } finally {
+            targetContext.leave(prev);
+        }
+    }
+
+    /**
+     * Serializes {@code value} in the current realm. The {@code ArrayBuffer}s in
+     * {@code transferList} are detached once serialization has completed successfully.
+     */
+    @TruffleBoundary
+    public static Serialized serialize(JSRealm realm, Object value, List<Object> transferList) {
+        Serializer serializer = new Serializer(realm.getEnv());
+        List<DynamicObject> transferred = serializer.registerTransferList(transferList);
+        Object root = serializer.write(value);
+        for (DynamicObject arrayBuffer : transferred) {
+            JSArrayBuffer.detachArrayBuffer(arrayBuffer);
+        }
+        return new Serialized(root, !transferred.isEmpty());
+    }
+
+    /**
+     * Realm-independent result of a structured serialization.
+     */
+    public static final class Serialized {
+        private final Object root;
+        private final boolean hasTransfers;
+        private final AtomicBoolean consumed = new AtomicBoolean();
+
+        Serialized(Object root, boolean hasTransfers) {
+            this.root = root;
+            this.hasTransfers = hasTransfers;
+        }
+
+        /**
+         * Materializes the serialized value graph in {@code realm}, which must be the current realm.
+         * Values with transferred buffers can be deserialized only once.
+         */
+        @TruffleBoundary
+        public Object deserialize(JSRealm realm) {
+            if (hasTransfers && !consumed.compareAndSet(false, true)) {
+                throw Errors.createTypeError("Transferred data has already been deserialized");
+            }
+            return new Deserializer(realm).read(root);
+        }
+    }
+
+    private static JSException cannotClone(Object value) {
+        return Errors.createTypeError(JSRuntime.safeToString(value) + " could not be cloned.");
+    }
+
+    private abstract static class Record {
+    }
+
+    private static final class HostObjectRecord extends Record {
+        final Object hostObject;
+
+        HostObjectRecord(Object hostObject) {
+            this.hostObject = hostObject;
+        }
+    }
+
+    private static final class PrimitiveWrapperRecord extends Record {
+        final Object primitive;
+
+        PrimitiveWrapperRecord(Object primitive) {
+            this.primitive = primitive;
+        }
+    }
+
+    private static final class DateRecord extends Record {
+        final double timeMillis;
+
+        DateRecord(double timeMillis) {
+            this.timeMillis = timeMillis;
+        }
+    }
+
+    private static final class RegExpRecord extends Record {
+        final String pattern;
+        final String flags;
+
+        RegExpRecord(String pattern, String flags) {
+            this.pattern = pattern;
+            this.flags = flags;
+        }
+    }
+
+    private static final class ErrorRecord extends Record {
+        final JSErrorType errorType;
+        final Object message;
+
+        ErrorRecord(JSErrorType errorType, Object message) {
+            this.errorType = errorType;
+            this.message = message;
+        }
+    }
+
+    private static final class ArrayBufferRecord extends Record {
+        /** Either a {@code byte[]} (heap buffer) or a {@link ByteBuffer} (direct buffer). */
+        final Object data;
+
+        ArrayBufferRecord(Object data) {
+            this.data = data;
+        }
+    }
+
+    private static final class SharedArrayBufferRecord extends Record {
+        final ByteBuffer data;
+        final JSAgentWaiterList waiterList;
+
+        SharedArrayBufferRecord(ByteBuffer data, JSAgentWaiterList waiterList) {
+            this.data = data;
+            this.waiterList = waiterList;
+        }
+    }
+
+    private static final class ArrayBufferViewRecord extends Record {
+        /** Typed array factory or {@code null} for {@code DataView}. */
+        final TypedArrayFactory factory;
+        final Record buffer;
+        final int offset;
+        final int length;
+
+        ArrayBufferViewRecord(TypedArrayFactory factory, Record buffer, int offset, int length) {
+            this.factory = factory;
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static final class MapRecord extends Record {
+        final boolean isSet;
+        Object[] entries;
+
+        MapRecord(boolean isSet) {
+            this.isSet = isSet;
+        }
+    }
+
+    private static class ObjectRecord extends Record {
+        String[] keys;
+        Object[] values;
+    }
+
+    private static final class ArrayRecord extends ObjectRecord {
+        final long length;
+        /** Elements of a dense array, {@code null} for sparse arrays. */
+        Object[] elements;
+
+        ArrayRecord(long length) {
+            this.length = length;
+        }
+    }
+
+    private static final class Serializer {
+        private final Env env;
+        private final Map<Object, Record> memory = new IdentityHashMap<>();
+
+        Serializer(Env env) {
+            this.env = env;
+        }
+
+        List<DynamicObject> registerTransferList(List<Object> transferList) {
+            if (transferList == null || transferList.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<DynamicObject> transferred = new ArrayList<>(transferList.size());
+            for (Object transferable : transferList) {
+                if (!JSArrayBuffer.isJSHeapArrayBuffer(transferable) && !JSArrayBuffer.isJSDirectArrayBuffer(transferable)) {
+                    throw Errors.createTypeError("Only ArrayBuffers can be transferred");
+                }
+                DynamicObject arrayBuffer = (DynamicObject) transferable;
+                if (memory.containsKey(arrayBuffer)) {
+                    throw Errors.createTypeError("ArrayBuffer occurs more than once in the transfer list");
+                }
+                if (JSArrayBuffer.isDetachedBuffer(arrayBuffer)) {
+                    throw Errors.createTypeErrorDetachedBuffer();
+                }
+                Object data = JSArrayBuffer.isJSDirectArrayBuffer(arrayBuffer) ? JSArrayBuffer.getDirectByteBuffer(arrayBuffer) : JSArrayBuffer.getByteArray(arrayBuffer);
+                memory.put(arrayBuffer, new ArrayBufferRecord(data));
+                transferred.add(arrayBuffer);
+            }
+            return transferred;
+        }
+
+        Object write(Object value) {
+            if (value == Undefined.instance || value == Null.instance || value instanceof Boolean || value instanceof String || JSRuntime.isNumber(value) || value instanceof BigInt) {
+                return value;
+            } else if (JSRuntime.isString(value)) {
+                return value.toString();
+            } else if (JSObject.isJSObject(value)) {
+                DynamicObject object = (DynamicObject) value;
+                Record record = memory.get(object);
+                if (record == null) {
+                    record = writeObject(object);
+                }
+                return record;
+            } else if (env.isHostObject(value)) {
+                Record record = memory.get(value);
+                if (record == null) {
+                    record = new HostObjectRecord(env.asHostObject(value));
+                    memory.put(value, record);
+                }
+                return record;
+            }
+            throw cannotClone(value);
+        }
+
+        private Record writeObject(DynamicObject object) {
+            Record record;
+            if (JSBoolean.isJSBoolean(object)) {
+                record = new PrimitiveWrapperRecord(JSBoolean.valueOf(object));
+            } else if (JSNumber.isJSNumber(object)) {
+                record = new PrimitiveWrapperRecord(JSNumber.valueOf(object));
+            } else if (JSBigInt.isJSBigInt(object)) {
+                record = new PrimitiveWrapperRecord(JSBigInt.valueOf(object));
+            } else if (JSString.isJSString(object)) {
+                record = new PrimitiveWrapperRecord(JSString.getString(object));
+            } else if (JSDate.isJSDate(object)) {
+                record = new DateRecord(JSDate.getTimeMillisField(object));
+            } else if (JSRegExp.isJSRegExp(object)) {
+                Object compiledRegex = JSRegExp.getCompiledRegex(object);
+                String pattern = TRegexUtil.InteropReadStringMemberNode.getUncached().execute(compiledRegex, TRegexUtil.Props.CompiledRegex.PATTERN);
+                Object flags = TRegexUtil.InteropReadMemberNode.getUncached().execute(compiledRegex, TRegexUtil.Props.CompiledRegex.FLAGS);
+                record = new RegExpRecord(pattern, TRegexUtil.InteropReadStringMemberNode.getUncached().execute(flags, TRegexUtil.Props.Flags.SOURCE));
+            } else if (JSArrayBuffer.isJSHeapArrayBuffer(object)) {
+                byte[] bytes = JSArrayBuffer.getByteArray(object);
+                if (bytes == null) {
+                    throw Errors.createTypeErrorDetachedBuffer();
+                }
+                record = new ArrayBufferRecord(Arrays.copyOf(bytes, bytes.length));
+            } else if (JSArrayBuffer.isJSDirectArrayBuffer(object)) {
+                ByteBuffer source = JSArrayBuffer.getDirectByteBuffer(object);
+                if (source == null) {
+                    throw Errors.createTypeErrorDetachedBuffer();
+                }
+                ByteBuffer copy = DirectByteBufferHelper.allocateDirect(source.capacity());
+                copy.put(source.duplicate());
+                record = new ArrayBufferRecord(copy);
+            } else if (JSSharedArrayBuffer.isJSSharedArrayBuffer(object)) {
+                record = new SharedArrayBufferRecord(JSSharedArrayBuffer.getDirectByteBuffer(object), JSSharedArrayBuffer.getWaiterList(object));
+            } else if (JSArrayBufferView.isJSArrayBufferView(object)) {
+                if (JSArrayBufferView.hasDetachedBuffer(object)) {
+                    throw Errors.createTypeErrorDetachedBuffer();
+                }
+                TypedArray arrayType = JSArrayBufferView.typedArrayGetArrayType(object);
+                Record buffer = (Record) write(JSArrayBufferView.getArrayBuffer(object));
+                record = new ArrayBufferViewRecord(arrayType.getFactory(), buffer, JSArrayBufferView.typedArrayGetOffset(object), arrayType.lengthInt(object));
+            } else if (JSDataView.isJSDataView(object)) {
+                Record buffer = (Record) write(JSDataView.getArrayBuffer(object));
+                record = new ArrayBufferViewRecord(null, buffer, JSDataView.typedArrayGetOffset(object), JSDataView.typedArrayGetLength(object));
+            } else if (JSError.isJSError(object)) {
+                record = writeError(object);
+            } else if (JSMap.isJSMap(object) || JSSet.isJSSet(object)) {
+                return writeMap(object);
+            } else if (JSArray.isJSArray(object)) {
+                return writeArray(object);
+            } else if (JSUserObject.isJSUserObject(object)) {
+                ObjectRecord objectRecord = new ObjectRecord();
+                memory.put(object, objectRecord);
+                writeProperties(object, objectRecord, JSObject.enumerableOwnNames(object));
+                return objectRecord;
+            } else {
+                throw cannotClone(object);
+            }
+            memory.put(object, record);
+            return record;
+        }
+
+        private static Record writeError(DynamicObject error) {
+            Object name = JSObject.get(error, JSError.NAME);
+            JSErrorType errorType = JSErrorType.Error;
+            if (name instanceof String) {
+                for (JSErrorType type : JSErrorType.errorTypes()) {
+                    if (type.name().equals(name)) {
+                        errorType = type;
+                        break;
+                    }
+                }
+            }
+            PropertyDescriptor messageDesc = JSObject.getOwnProperty(error, JSError.MESSAGE);
+            Object message = Undefined.instance;
+            if (messageDesc != null && messageDesc.isDataDescriptor()) {
+                message = JSRuntime.toString(messageDesc.getValue());
+            }
+            return new ErrorRecord(errorType, message);
+        }
+
+        private Record writeMap(DynamicObject object) {
+            boolean isSet = JSSet.isJSSet(object);
+            MapRecord record = new MapRecord(isSet);
+            memory.put(object, record);
+            JSHashMap map = isSet ? JSSet.getInternalSet(object) : JSMap.getInternalMap(object);
+            // Copy the entries first: serializing a value may run user code that mutates the map.
+            List<Object> copied = new ArrayList<>();
+            JSHashMap.Cursor cursor = map.getEntries();
+            while (cursor.advance()) {
+                copied.add(cursor.getKey());
+                if (!isSet) {
+                    copied.add(cursor.getValue());
+                }
+            }
+            Object[] entries = new Object[copied.size()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = write(copied.get(i));
+            }
+            record.entries = entries;
+            return record;
+        }
+
+        private Record writeArray(DynamicObject array) {
+            long length = JSAbstractArray.arrayGetLength(array);
+            ArrayRecord record = new ArrayRecord(length);
+            memory.put(array, record);
+            List<String> names = JSObject.enumerableOwnNames(array);
+            boolean dense = length <= Integer.MAX_VALUE && names.size() >= length;
+            for (int i = 0; dense && i < length; i++) {
+                if (!Integer.toString(i).equals(names.get(i))) {
+                    dense = false;
+                }
+            }
+            if (dense) {
+                Object[] elements = new Object[(int) length];
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = write(JSObject.get(array, i));
+                }
+                record.elements = elements;
+                names = names.subList((int) length, names.size());
+            }
+            writeProperties(array, record, names);
+            return record;
+        }
+
+        private void writeProperties(DynamicObject object, ObjectRecord record, List<String> names) {
+            String[] keys = names.toArray(new String[names.size()]);
+            Object[] values = new Object[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = write(JSObject.get(object, keys[i]));
+            }
+            record.keys = keys;
+            record.values = values;
+        }
+    }
+
+    private static final class Deserializer {
+        private final JSRealm realm;
+        private final JSContext context;
+        private final Map<Record, Object> memory = new IdentityHashMap<>();
+
+        Deserializer(JSRealm realm) {
+            this.realm = realm;
+            this.context = realm.getContext();
+        }
+
+        Object read(Object value) {
+            if (!(value instanceof Record)) {
+                return value;
+            }
+            Record record = (Record) value;
+            Object object = memory.get(record);
+            if (object == null) {
+                object = readRecord(record);
+            }
+            return object;
+        }
+
+        private Object readRecord(Record record) {
+            Object result;
+            if (record instanceof ArrayRecord) {
+                return readArray((ArrayRecord) record);
+            } else if (record instanceof ObjectRecord) {
+                DynamicObject object = JSUserObject.create(context, realm);
+                memory.put(record, object);
+                readProperties(object, (ObjectRecord) record);
+                return object;
+            } else if (record instanceof MapRecord) {
+                return readMap((MapRecord) record);
+            } else if (record instanceof HostObjectRecord) {
+                result = realm.getEnv().asGuestValue(((HostObjectRecord) record).hostObject);
+            } else if (record instanceof PrimitiveWrapperRecord) {
+                result = readPrimitiveWrapper(((PrimitiveWrapperRecord) record).primitive);
+            } else if (record instanceof DateRecord) {
+                result = JSDate.create(context, ((DateRecord) record).timeMillis);
+            } else if (record instanceof RegExpRecord) {
+                RegExpRecord regExp = (RegExpRecord) record;
+                Object compiledRegex = RegexCompilerInterface.compile(regExp.pattern, regExp.flags, context, TRegexUtil.CompileRegexNode.getUncached());
+                result = JSRegExp.create(context, compiledRegex);
+            } else if (record instanceof ErrorRecord) {
+                ErrorRecord error = (ErrorRecord) record;
+                result = JSError.create(error.errorType, realm, error.message);
+            } else if (record instanceof ArrayBufferRecord) {
+                Object data = ((ArrayBufferRecord) record).data;
+                if (data instanceof ByteBuffer) {
+                    result = JSArrayBuffer.createDirectArrayBuffer(context, (ByteBuffer) data);
+                } else {
+                    result = JSArrayBuffer.createArrayBuffer(context, (byte[]) data);
+                }
+            } else if (record instanceof SharedArrayBufferRecord) {
+                SharedArrayBufferRecord shared = (SharedArrayBufferRecord) record;
+                DynamicObject sharedArrayBuffer = JSSharedArrayBuffer.createSharedArrayBuffer(context, shared.data);
+                JSSharedArrayBuffer.setWaiterList(sharedArrayBuffer, shared.waiterList);
+                result = sharedArrayBuffer;
+            } else if (record instanceof ArrayBufferViewRecord) {
+                result = readArrayBufferView((ArrayBufferViewRecord) record);
+            } else {
+                throw Errors.shouldNotReachHere();
+            }
+            memory.put(record, result);
+            return result;
+        }
+
+        private Object readPrimitiveWrapper(Object primitive) {
+            if (primitive instanceof Boolean) {
+                return JSBoolean.create(context, (Boolean) primitive);
+            } else if (primitive instanceof BigInt) {
+                return JSBigInt.create(context, (BigInt) primitive);
+            } else if (primitive instanceof String) {
+                return JSString.create(context, (String) primitive);
+            } else {
+                return JSNumber.create(context, (Number) primitive);
+            }
+        }
+
+        private DynamicObject readArrayBufferView(ArrayBufferViewRecord record) {
+            DynamicObject arrayBuffer = (DynamicObject) read(record.buffer);
+            if (record.factory == null) {
+                return JSDataView.createDataView(context, arrayBuffer, record.offset, record.length);
+            }
+            boolean direct = JSArrayBuffer.isJSDirectOrSharedArrayBuffer(arrayBuffer);
+            TypedArray arrayType = record.factory.createArrayType(direct, record.offset != 0);
+            return JSArrayBufferView.createArrayBufferView(context, arrayBuffer, arrayType, record.offset, record.length);
+        }
+
+        private DynamicObject readMap(MapRecord record) {
+            DynamicObject object = record.isSet ? JSSet.create(context) : JSMap.create(context);
+            memory.put(record, object);
+            JSHashMap map = record.isSet ? JSSet.getInternalSet(object) : JSMap.getInternalMap(object);
+            Object[] entries = record.entries;
+            if (record.isSet) {
+                for (Object entry : entries) {
+                    map.put(read(entry), JSSet.PRESENT);
+                }
+            } else {
+                for (int i = 0; i < entries.length; i += 2) {
+                    map.put(read(entries[i]), read(entries[i + 1]));
+                }
+            }
+            return object;
+        }
+
+        private DynamicObject readArray(ArrayRecord record) {
+            DynamicObject array;
+            if (record.elements != null) {
+                Object[] elements = new Object[record.elements.length];
+                array = JSArray.createConstantObjectArray(context, elements);
+                memory.put(record, array);
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = read(record.elements[i]);
+                }
+            } else {
+                array = JSArray.createSparseArray(context, record.length);
+                memory.put(record, array);
+            }
+            readProperties(array, record);
+            return array;
+        }
+
+        private void readProperties(DynamicObject object, ObjectRecord record) {
+            String[] keys = record.keys;
+            Object[] values = record.values;
+            for (int i = 0; i < keys.length; i++) {
+                JSObject.defineOwnProperty(object, keys[i], PropertyDescriptor.createDataDefault(read(values[i])));
+            }
+        }
+    }
+}
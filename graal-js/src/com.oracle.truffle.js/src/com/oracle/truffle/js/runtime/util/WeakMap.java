@@ -40,11 +40,11 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.HiddenKey;
@@ -55,12 +55,21 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 
 /**
- * JavaScript WeakMap.
+ * JavaScript WeakMap (and WeakSet).
+ *
+ * The entries are stored on the key objects, in an {@link InvertedWeakMap} under a hidden
+ * property, so that a value is only reachable while its key is (ephemeron semantics) even if the
+ * value references the key. The inverted map of a key holds the entries of all weak collections
+ * the key is in, each identified by a weak reference shared by all entries of the same collection.
  */
 public class WeakMap implements Map<DynamicObject, Object> {
     private static final HiddenKey INVERTED_WEAK_MAP_KEY = new HiddenKey("InvertedWeakMap");
 
+    /** Identifies the entries of this map; cleared once the map is no longer reachable. */
+    private final WeakReference<WeakMap> reference;
+
     public WeakMap() {
+        this.reference = new WeakReference<>(this);
     }
 
     public static PropertyGetNode createInvertedKeyMapGetNode(JSContext context) {
@@ -78,21 +87,20 @@ public class WeakMap implements Map<DynamicObject, Object> {
         return (DynamicObject) key;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<WeakMap, Object> getInvertedMap(DynamicObject k, boolean put) {
+    private static InvertedWeakMap getInvertedMap(DynamicObject k, boolean put) {
         if (k.containsKey(INVERTED_WEAK_MAP_KEY)) {
-            return (WeakHashMap<WeakMap, Object>) k.get(INVERTED_WEAK_MAP_KEY);
+            return (InvertedWeakMap) k.get(INVERTED_WEAK_MAP_KEY);
         } else {
             if (put) {
                 return putInvertedMap(k);
             } else {
-                return Collections.emptyMap();
+                return null;
             }
         }
     }
 
-    private static WeakHashMap<WeakMap, Object> putInvertedMap(DynamicObject k) {
-        WeakHashMap<WeakMap, Object> invertedMap = new WeakHashMap<>();
+    private static InvertedWeakMap putInvertedMap(DynamicObject k) {
+        InvertedWeakMap invertedMap = new InvertedWeakMap();
         boolean wasNotExtensible = !JSShape.isExtensible(k.getShape());
         k.define(INVERTED_WEAK_MAP_KEY, invertedMap);
         if (wasNotExtensible && JSObject.isExtensible(k)) {
@@ -107,13 +115,15 @@ public class WeakMap implements Map<DynamicObject, Object> {
     @Override
     public boolean containsKey(Object key) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, false).containsKey(this);
+        InvertedWeakMap invertedMap = getInvertedMap(k, false);
+        return invertedMap != null && invertedMap.containsKey(this);
     }
 
     @Override
     public Object get(Object key) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, false).get(this);
+        InvertedWeakMap invertedMap = getInvertedMap(k, false);
+        return invertedMap == null ? null : invertedMap.get(this);
     }
 
     @Override
@@ -125,7 +135,8 @@ public class WeakMap implements Map<DynamicObject, Object> {
     @Override
     public Object remove(Object key) {
         DynamicObject k = checkKey(key);
-        return getInvertedMap(k, false).remove(this);
+        InvertedWeakMap invertedMap = getInvertedMap(k, false);
+        return invertedMap == null ? null : invertedMap.remove(this);
     }
 
     @Override
@@ -171,4 +182,91 @@ public class WeakMap implements Map<DynamicObject, Object> {
     private static UnsupportedOperationException unsupported() {
         return new UnsupportedOperationException("Not supported by WeakMap");
     }
+
+    /**
+     * The entries of one key object in all weak collections that contain it, as a flat array of
+     * (collection reference, value) pairs. Most keys are in very few collections, so the entries
+     * are searched linearly. Entries of collections that have been garbage collected are expunged
+     * whenever a lookup passes them, so every get, put, and remove cleans up the entries it sees.
+     */
+    public static final class InvertedWeakMap {
+        private static final int INITIAL_CAPACITY = 2;
+
+        private Object[] table;
+        private int size;
+
+        public InvertedWeakMap() {
+            this.table = new Object[INITIAL_CAPACITY * 2];
+        }
+
+        /**
+         * Returns the index of the entry of the given collection, or -1. Expunges the entries of
+         * garbage collected collections on the way.
+         */
+        private int indexOf(WeakMap map) {
+            WeakReference<WeakMap> ref = map.reference;
+            int i = 0;
+            while (i < size * 2) {
+                Object entryRef = table[i];
+                if (entryRef == ref) {
+                    return i;
+                } else if (((WeakReference<?>) entryRef).get() == null) {
+                    // moves the last entry to i, which is checked next
+                    removeAt(i);
+                } else {
+                    i += 2;
+                }
+            }
+            return -1;
+        }
+
+        public Object get(WeakMap map) {
+            int index = indexOf(map);
+            return index < 0 ? null : table[index + 1];
+        }
+
+        public boolean containsKey(WeakMap map) {
+            return indexOf(map) >= 0;
+        }
+
+        public Object put(WeakMap map, Object value) {
+            assert value != null;
+            int index = indexOf(map);
+            if (index >= 0) {
+                Object oldValue = table[index + 1];
+                table[index + 1] = value;
+                return oldValue;
+            }
+            if (size * 2 == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[size * 2] = map.reference;
+            table[size * 2 + 1] = value;
+            size++;
+            return null;
+        }
+
+        public Object remove(WeakMap map) {
+            int index = indexOf(map);
+            if (index < 0) {
+                return null;
+            }
+            Object oldValue = table[index + 1];
+            removeAt(index);
+            return oldValue;
+        }
+
+        private void removeAt(int index) {
+            int last = (size - 1) * 2;
+            table[index] = table[last];
+            table[index + 1] = table[last + 1];
+            table[last] = null;
+            table[last + 1] = null;
+            size--;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+'use strict';
+
+// Encoding and decoding of HTTP-like messages (ASCII request lines and
+// headers, optionally followed by a non-ASCII JSON body) in a Buffer
+const common = require('../common.js');
+
+const bench = common.createBenchmark(main, {
+  body: ['none', 'ascii', 'utf8'],
+  headers: [4, 16],
+  n: [1e5]
+});
+
+function main({ body, headers, n }) {
+  var message = 'POST /api/v1/items?page=2 HTTP/1.1\r\n';
+  for (var h = 0; h < headers; h++)
+    message += `X-Header-${h}: value-${h}-abcdefghijklmnopqrstuvwxyz\r\n`;
+  message += '\r\n';
+  if (body === 'ascii')
+    message += JSON.stringify({ name: 'widget', tags: ['a', 'b', 'c'] });
+  else if (body === 'utf8')
+    message += JSON.stringify({ name: 'grüße', tags: ['中', '😀'] });
+
+  const buf = Buffer.alloc(Buffer.byteLength(message) + 16);
+  var length = 0;
+  var lines = 0;
+
+  bench.start();
+  for (var i = 0; i < n; i++) {
+    length = buf.write(message, 0, 'utf8');
+    var start = 0;
+    var end;
+    while ((end = buf.indexOf(10, start)) !== -1 && end < length) {
+      lines += buf.toString('utf8', start, end).length > 0 ? 1 : 0;
+      start = end + 1;
+    }
+    buf.toString('utf8', start, length);
+  }
+  bench.end(n);
+  if (lines === 0)
+    throw new Error('no lines decoded');
+}
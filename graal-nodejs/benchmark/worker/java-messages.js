@@ -0,0 +1,56 @@
+'use strict';
+
+// Throughput of worker messages that carry Java host objects (GraalVM with
+// Java interop only). Each message holds `refs` Java references, which are
+// passed through the per-port reference queue in both directions.
+const common = require('../common.js');
+const path = require('path');
+const bench = common.createBenchmark(main, {
+  payload: ['java', 'plain'],
+  refs: [1, 10],
+  sendsPerBroadcast: [1, 10],
+  n: [1e5]
+});
+
+const workerPath = path.resolve(__dirname, '..', 'fixtures', 'echo.worker.js');
+
+function main({ payload, refs, sendsPerBroadcast, n }) {
+  const { Worker } = require('worker_threads');
+
+  var create;
+  if (payload === 'java') {
+    if (typeof Java !== 'object')
+      throw new Error('Java interop is not available');
+    const AtomicInteger = Java.type('java.util.concurrent.atomic.AtomicInteger');
+    create = (i) => new AtomicInteger(i);
+  } else {
+    create = (i) => ({ value: i });
+  }
+  const message = [];
+  for (var i = 0; i < refs; i++)
+    message.push(create(i));
+
+  var broadcasts = 0;
+  var msgCount = 0;
+  const worker = new Worker(workerPath);
+  worker.on('online', () => {
+    bench.start();
+    broadcast();
+  });
+  worker.on('message', () => {
+    if (++msgCount === sendsPerBroadcast) {
+      msgCount = 0;
+      broadcast();
+    }
+  });
+
+  function broadcast() {
+    if (broadcasts++ === n) {
+      bench.end(n * sendsPerBroadcast);
+      worker.unref();
+      return;
+    }
+    for (var i = 0; i < sendsPerBroadcast; i++)
+      worker.postMessage(message);
+  }
+}
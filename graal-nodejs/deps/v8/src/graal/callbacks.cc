@@ -75,6 +75,7 @@
 
 static const JNINativeMethod callbacks[] = {
     CALLBACK("executeFunction", "(I[Ljava/lang/Object;ZZLjava/lang/Object;)Ljava/lang/Object;", &GraalExecuteFunction),
+    CALLBACK("executeFunctionBatched", "(I[Ljava/lang/Object;ZZLjava/lang/Object;Ljava/nio/ByteBuffer;)Ljava/lang/Object;", &GraalExecuteFunctionBatched),
     CALLBACK("executeFunction0", "(ILjava/lang/Object;ILjava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", &GraalExecuteFunction0),
     CALLBACK("executeFunction1", "(ILjava/lang/Object;ILjava/lang/Object;Ljava/lang/Object;ILjava/lang/Object;)Ljava/lang/Object;", &GraalExecuteFunction1),
     CALLBACK("executeFunction2", "(ILjava/lang/Object;ILjava/lang/Object;Ljava/lang/Object;ILjava/lang/Object;ILjava/lang/Object;)Ljava/lang/Object;", &GraalExecuteFunction2),
@@ -193,6 +194,44 @@ jobject GraalExecuteFunction(JNIEnv* env, jclass nativeAccess, jint id, jobjectA
     return GraalExecuteFunction(env, isolate, id, callbackArgs, java_context);
 }
 
+// Arguments (and their types) are passed in one array, the types and
+// the payloads of numbers and array buffer views are in the shared buffer
+// (see GraalJSAccess.encodeArgumentTypes for the layout)
+jobject GraalExecuteFunctionBatched(JNIEnv* env, jclass nativeAccess, jint id, jobjectArray arguments, jboolean is_new, jboolean is_new_target, jobject java_context, jobject new_shared_buffer) {
+    GraalIsolate* isolate = CurrentIsolateChecked();
+    if (new_shared_buffer != NULL) {
+        isolate->SetSharedBuffer(env->GetDirectBufferAddress(new_shared_buffer));
+    }
+    isolate->ResetSharedBuffer();
+    int length = isolate->ReadInt32FromSharedBuffer(); // first is "this", second is "callee"
+    const int8_t* types = isolate->ReadBytesFromSharedBuffer(length);
+    isolate->AlignSharedBuffer(sizeof(double));
+    int offset = is_new_target ? 3 : 2;
+    int argc = length - offset;
+    std::vector<GraalValue*> values(argc + 1);
+    v8::HandleScope scope(reinterpret_cast<v8::Isolate*> (isolate));
+    // payloads are stored in the order of the arguments array => "this" and new target first
+    jobject java_this = env->GetObjectArrayElement(arguments, 0);
+    GraalValue* graal_this = GraalValue::FromJavaObject(isolate, java_this, types[0], true);
+    GraalValue* graal_new_target;
+    if (is_new_target) {
+        jobject java_new_target = env->GetObjectArrayElement(arguments, 2);
+        graal_new_target = GraalValue::FromJavaObject(isolate, java_new_target, types[2], true);
+    } else if (is_new) {
+        graal_new_target = graal_this;
+    } else {
+        graal_new_target = isolate->GetUndefined();
+    }
+    for (int i = 0; i < argc; i++) {
+        jobject java_value = env->GetObjectArrayElement(arguments, i + offset);
+        GraalValue* graal_value = GraalValue::FromJavaObject(isolate, java_value, types[i + offset], true);
+        values[argc - 1 - i] = graal_value;
+    }
+    GraalValue* graal_data = isolate->GetFunctionTemplateData(id);
+    GraalFunctionCallbackArguments callbackArgs(isolate, graal_this, graal_new_target, graal_data, values.data(), argc, is_new, true);
+    return GraalExecuteFunction(env, isolate, id, callbackArgs, java_context);
+}
+
 GraalValue* AllocateNewTarget(GraalIsolate* isolate, jobject new_target, void* placement) {
     if (new_target == NULL) {
         return new(placement) GraalMissingPrimitive(isolate, isolate->GetUndefined()->GetJavaObject(), true);
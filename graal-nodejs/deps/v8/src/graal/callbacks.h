@@ -49,6 +49,8 @@ bool RegisterCallbacks(JNIEnv* env, jclass callback_class);
 
 jobject GraalExecuteFunction(JNIEnv* env, jclass nativeAccess, jint id, jobjectArray arguments, jboolean is_new, jboolean is_new_target, jobject context);
 
+jobject GraalExecuteFunctionBatched(JNIEnv* env, jclass nativeAccess, jint id, jobjectArray arguments, jboolean is_new, jboolean is_new_target, jobject context, jobject new_shared_buffer);
+
 jobject GraalExecuteFunction0(JNIEnv* env, jclass nativeAccess, jint id,
         jobject this_object, jint this_type, jobject new_target,
         jobject java_context);
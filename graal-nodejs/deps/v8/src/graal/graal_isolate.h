@@ -562,6 +562,20 @@ public:
         shared_buffer_pos_ = 0;
     }
 
+    inline void SetSharedBuffer(void* shared_buffer) {
+        shared_buffer_ = shared_buffer;
+    }
+
+    inline const int8_t* ReadBytesFromSharedBuffer(int count) {
+        const int8_t* result = (const int8_t*) ((char*) shared_buffer_ + shared_buffer_pos_);
+        shared_buffer_pos_ += count;
+        return result;
+    }
+
+    inline void AlignSharedBuffer(int alignment) {
+        shared_buffer_pos_ = (shared_buffer_pos_ + alignment - 1) & ~(alignment - 1);
+    }
+
     inline bool StackOverflowCheckEnabled() {
         return stack_check_enabled_;
     }
@@ -104,6 +104,7 @@ public class JSFunctionCallsInstrumenter {
                     case "executeFunction5":
                     case "executeFunction6":
                     case "executeFunction":
+                    case "executeFunctionBatched":
                         return true;
                 }
             }
@@ -128,6 +129,7 @@ public class JSFunctionCallsInstrumenter {
                     mv.visitVarInsn(Opcodes.ALOAD, 3); // The 3rd argument is the JSFunction object
                     break;
                 case "executeFunction":
+                case "executeFunctionBatched":
                     mv.visitVarInsn(Opcodes.ALOAD, 1); // The 1st argument is Object[] arguments
                     break;
             }
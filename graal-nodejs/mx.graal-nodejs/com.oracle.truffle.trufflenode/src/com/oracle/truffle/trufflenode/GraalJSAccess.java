@@ -225,7 +225,6 @@ import com.oracle.truffle.trufflenode.serialization.Deserializer;
 import com.oracle.truffle.trufflenode.serialization.Serializer;
 import com.oracle.truffle.trufflenode.threading.JavaMessagePortData;
 import com.oracle.truffle.trufflenode.threading.SharedMemMessagingBindings;
-import com.oracle.truffle.trufflenode.threading.SharedMemMessagingManager;
 
 /**
  * Entry point for any access to the JavaScript engine from the native code.
@@ -236,6 +235,7 @@ public final class GraalJSAccess {
     private static final boolean VERBOSE = Boolean.getBoolean("truffle.node.js.verbose");
     private static final boolean USE_NIO_BUFFER = !"false".equals(System.getProperty("node.buffer.nio"));
     private static final boolean USE_SNAPSHOTS = !"false".equalsIgnoreCase(System.getProperty("truffle.node.js.snapshots"));
+    public static final boolean USE_BATCHED_CALLS = !"false".equalsIgnoreCase(System.getProperty("truffle.node.js.batchedCalls"));
 
     private static final HiddenKey PRIVATE_VALUES_KEY = new HiddenKey("PrivateValues");
     private static final HiddenKey FUNCTION_TEMPLATE_DATA_KEY = new HiddenKey("FunctionTemplateData");
@@ -269,9 +269,10 @@ public final class GraalJSAccess {
      * Direct {@code ByteBuffer} shared with the native code and used to pass additional data from
      * Java. Use it with care: reset the buffer before you use it, make sure that you read the same
      * data in the same order as you write them and perform the reading as soon as possible (as the
-     * buffer may be used by any subsequent transition from Java to C).
+     * buffer may be used by any subsequent transition from Java to C). The buffer grows when the
+     * arguments of a call do not fit into it, see {@link #encodeArgumentTypes}.
      */
-    private final ByteBuffer sharedBuffer = ByteBuffer.allocateDirect(128).order(ByteOrder.nativeOrder());
+    private ByteBuffer sharedBuffer = ByteBuffer.allocateDirect(128).order(ByteOrder.nativeOrder());
 
     /**
      * Caching file content, as used by e.g. the require function. While Node.js currently caches
@@ -374,6 +375,37 @@ public final class GraalJSAccess {
         return sharedBuffer;
     }
 
+    /**
+     * Writes the types of all the given arguments into the shared buffer so that the native side
+     * can convert them without calling back to Java for each of them. The layout is: the number of
+     * arguments (int32), one type per argument (int8), padding to 8 bytes and the payloads of
+     * numbers (double) and array buffer views (int32 length and offset) in the order of the
+     * arguments. The callee (the second argument) is not used by the native side and is skipped.
+     *
+     * @return the shared buffer if it had to be reallocated (the native side must start using its
+     *         address), {@code null} otherwise
+     */
+    @TruffleBoundary
+    public ByteBuffer encodeArgumentTypes(Object[] arguments) {
+        int count = arguments.length;
+        int payloadStart = (Integer.BYTES + count + Double.BYTES - 1) & ~(Double.BYTES - 1);
+        // each payload takes 8 bytes at most
+        int requiredCapacity = payloadStart + count * Double.BYTES;
+        ByteBuffer reallocated = null;
+        if (requiredCapacity > sharedBuffer.capacity()) {
+            sharedBuffer = ByteBuffer.allocateDirect(Math.max(requiredCapacity, 2 * sharedBuffer.capacity())).order(ByteOrder.nativeOrder());
+            reallocated = sharedBuffer;
+        }
+        resetSharedBuffer();
+        sharedBuffer.putInt(count);
+        asBaseBuffer(sharedBuffer).position(payloadStart);
+        for (int i = 0; i < count; i++) {
+            int type = (i == 1) ? 0 : valueType(arguments[i], true);
+            sharedBuffer.put(Integer.BYTES + i, (byte) type);
+        }
+        return reallocated;
+    }
+
     public int valueType(Object value) {
         return valueType(value, false);
     }
@@ -3428,11 +3460,10 @@ public final class GraalJSAccess {
         currentMessagePortData = null;
     }
 
-    public void setCurrentMessagePortData(DynamicObject nativeMessagePortData) {
-        assert nativeMessagePortData != null;
+    public void setCurrentMessagePortData(JavaMessagePortData messagePortData) {
+        assert messagePortData != null;
         assert currentMessagePortData == null;
-        currentMessagePortData = SharedMemMessagingManager.getJavaMessagePortDataFor(nativeMessagePortData);
-        assert currentMessagePortData != null;
+        currentMessagePortData = messagePortData;
         currentMessagePortData.encodingBegin();
     }
 
@@ -53,6 +53,8 @@ public final class NativeAccess {
 
     public static native Object executeFunction(int id, Object[] arguments, boolean isNew, boolean isNewTarget, Object context);
 
+    public static native Object executeFunctionBatched(int id, Object[] arguments, boolean isNew, boolean isNewTarget, Object context, ByteBuffer newSharedBuffer);
+
     public static native Object executeFunction0(
                     int id,
                     Object thisObject, int thisType, Object newTarget,
@@ -40,11 +40,7 @@
  */
 package com.oracle.truffle.trufflenode.buffer;
 
-import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
-
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.Charset;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -62,8 +58,6 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 
 public abstract class NIOBufferAccessNode extends JSBuiltinNode {
 
-    protected static final Charset utf8 = Charset.forName("UTF-8");
-
     @Child protected ArrayBufferViewGetByteLengthNode getLenNode;
 
     public NIOBufferAccessNode(JSContext context, JSBuiltin builtin) {
@@ -96,10 +90,6 @@ public abstract class NIOBufferAccessNode extends JSBuiltinNode {
         return getLenNode.executeInt(target);
     }
 
-    protected static ByteBuffer sliceBuffer(ByteBuffer rawBuffer, int byteOffset) {
-        return ((ByteBuffer) asBaseBuffer(rawBuffer.duplicate()).position(byteOffset)).slice().order(ByteOrder.nativeOrder());
-    }
-
     @TruffleBoundary
     protected void outOfBoundsFail() {
         JSException exception = Errors.createRangeError("out of range index");
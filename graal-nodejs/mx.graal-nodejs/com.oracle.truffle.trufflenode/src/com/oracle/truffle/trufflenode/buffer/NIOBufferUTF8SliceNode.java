@@ -43,10 +43,8 @@ package com.oracle.truffle.trufflenode.buffer;
 import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
 
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -62,6 +60,7 @@ import com.oracle.truffle.trufflenode.GraalJSAccess;
 public abstract class NIOBufferUTF8SliceNode extends NIOBufferAccessNode {
 
     private static final int V8MaxStringLength = (1 << 30) - 1 - 24;
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
 
     protected final BranchProfile nativePath = BranchProfile.create();
     protected final BranchProfile errorBranch = BranchProfile.create();
@@ -134,18 +133,103 @@ public abstract class NIOBufferUTF8SliceNode extends NIOBufferAccessNode {
             errorBranch.enter();
             outOfBoundsFail();
         }
-        ByteBuffer data = sliceBuffer(rawBuffer, byteOffset);
-        asBaseBuffer(data).position(start).limit(end);
-        return doDecode(data);
+        // read the bytes in place, without slicing the underlying buffer
+        return doDecode(rawBuffer, byteOffset + start, byteOffset + end);
     }
 
     @TruffleBoundary
-    private static Object doDecode(ByteBuffer data) throws CharacterCodingException {
-        CharsetDecoder decoder = utf8.newDecoder();
-        decoder.onMalformedInput(CodingErrorAction.REPORT);
-        decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-        CharBuffer decoded = decoder.decode(data);
-        return decoded.toString();
+    private static Object doDecode(ByteBuffer data, int start, int end) throws CharacterCodingException {
+        int asciiEnd = skipAscii(data, start, end);
+        if (asciiEnd == end) {
+            // Latin-1 decoding of ASCII bytes is a plain copy
+            byte[] bytes = new byte[end - start];
+            ByteBuffer source = data.duplicate();
+            asBaseBuffer(source).position(start);
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        return decodeUTF8(data, start, asciiEnd, end);
+    }
+
+    /**
+     * Returns the index of the first non-ASCII byte in the given range (or {@code end}). Checks
+     * eight bytes at a time.
+     */
+    private static int skipAscii(ByteBuffer data, int start, int end) {
+        int i = start;
+        while (i + Long.BYTES <= end && (data.getLong(i) & NON_ASCII_MASK) == 0) {
+            i += Long.BYTES;
+        }
+        while (i < end && data.get(i) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Decodes well-formed UTF-8. Malformed input (including overlong encodings and encoded
+     * surrogates) is reported by {@link CharacterCodingException}, like the JDK decoder with
+     * {@code CodingErrorAction.REPORT}, so that the native implementation can produce the
+     * replacement characters.
+     */
+    private static String decodeUTF8(ByteBuffer data, int start, int asciiEnd, int end) throws CharacterCodingException {
+        char[] chars = new char[end - start];
+        int n = 0;
+        for (int i = start; i < asciiEnd; i++) {
+            chars[n++] = (char) data.get(i);
+        }
+        int i = asciiEnd;
+        while (i < end) {
+            int b1 = data.get(i) & 0xFF;
+            if (b1 < 0x80) {
+                int asciiRunEnd = skipAscii(data, i, end);
+                while (i < asciiRunEnd) {
+                    chars[n++] = (char) data.get(i++);
+                }
+            } else if (b1 >= 0xC2 && b1 <= 0xDF) {
+                if (i + 1 >= end) {
+                    throw new CharacterCodingException();
+                }
+                int b2 = data.get(i + 1) & 0xFF;
+                if (!isContinuation(b2)) {
+                    throw new CharacterCodingException();
+                }
+                chars[n++] = (char) (((b1 & 0x1F) << 6) | (b2 & 0x3F));
+                i += 2;
+            } else if (b1 >= 0xE0 && b1 <= 0xEF) {
+                if (i + 2 >= end) {
+                    throw new CharacterCodingException();
+                }
+                int b2 = data.get(i + 1) & 0xFF;
+                int b3 = data.get(i + 2) & 0xFF;
+                if (!isContinuation(b2) || !isContinuation(b3) || (b1 == 0xE0 && b2 < 0xA0) || (b1 == 0xED && b2 > 0x9F)) {
+                    throw new CharacterCodingException();
+                }
+                chars[n++] = (char) (((b1 & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+                i += 3;
+            } else if (b1 >= 0xF0 && b1 <= 0xF4) {
+                if (i + 3 >= end) {
+                    throw new CharacterCodingException();
+                }
+                int b2 = data.get(i + 1) & 0xFF;
+                int b3 = data.get(i + 2) & 0xFF;
+                int b4 = data.get(i + 3) & 0xFF;
+                if (!isContinuation(b2) || !isContinuation(b3) || !isContinuation(b4) || (b1 == 0xF0 && b2 < 0x90) || (b1 == 0xF4 && b2 > 0x8F)) {
+                    throw new CharacterCodingException();
+                }
+                int codePoint = ((b1 & 0x07) << 18) | ((b2 & 0x3F) << 12) | ((b3 & 0x3F) << 6) | (b4 & 0x3F);
+                chars[n++] = Character.highSurrogate(codePoint);
+                chars[n++] = Character.lowSurrogate(codePoint);
+                i += 4;
+            } else {
+                throw new CharacterCodingException();
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
     }
 
     private static boolean oobCheck(int start, int end) {
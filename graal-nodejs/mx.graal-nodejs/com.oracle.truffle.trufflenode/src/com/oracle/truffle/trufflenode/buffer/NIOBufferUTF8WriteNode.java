@@ -40,14 +40,8 @@
  */
 package com.oracle.truffle.trufflenode.buffer;
 
-import static com.oracle.truffle.js.runtime.util.BufferUtil.asBaseBuffer;
-
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.CharsetEncoder;
-import java.nio.charset.CoderResult;
-import java.nio.charset.CodingErrorAction;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -90,7 +84,7 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     @Specialization(guards = {"accept(target)", "isUndefined(bytes)"})
     public Object writeDefaultOffset(DynamicObject target, String str, int destOffset, Object bytes) {
         try {
-            return doWrite(target, str, destOffset, getBytes(str).length);
+            return doWrite(target, str, destOffset, utf8Length(str));
         } catch (CharacterCodingException e) {
             return doNativeFallback(target, str, destOffset, bytes);
         }
@@ -99,7 +93,7 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
     @Specialization(guards = {"accept(target)", "isUndefined(destOffset)", "isUndefined(bytes)"})
     public Object writeDefaultValues(DynamicObject target, String str, Object destOffset, Object bytes) {
         try {
-            return doWrite(target, str, 0, getBytes(str).length);
+            return doWrite(target, str, 0, utf8Length(str));
         } catch (CharacterCodingException e) {
             return doNativeFallback(target, str, destOffset, bytes);
         }
@@ -141,40 +135,90 @@ public abstract class NIOBufferUTF8WriteNode extends NIOBufferAccessNode {
             outOfBoundsFail();
         }
         ByteBuffer rawBuffer = getDirectByteBuffer(arrayBuffer);
-        ByteBuffer buffer = sliceBuffer(rawBuffer, bufferOffset);
-        asBaseBuffer(buffer).position(destOffset);
-        asBaseBuffer(buffer).limit(Math.min(bufferLen, destOffset + bytes));
-
-        CoderResult res = doEncode(str, buffer);
-        if (cannotEncode(res)) {
-            errorBranch.enter();
-            throw new CharacterCodingException();
-        }
-        return buffer.position() - destOffset;
+        int start = bufferOffset + destOffset;
+        int limit = bufferOffset + Math.min(bufferLen, destOffset + bytes);
+        return doEncode(str, rawBuffer, start, limit);
     }
 
+    /**
+     * Encodes as many whole characters as fit into {@code [start, limit)} of the buffer and returns
+     * the number of written bytes. Unpaired surrogates are reported by
+     * {@link CharacterCodingException} (like the JDK encoder with {@code CodingErrorAction.REPORT})
+     * so that the native implementation can handle them.
+     */
     @TruffleBoundary
-    private static CoderResult doEncode(String str, ByteBuffer buffer) {
-        CharsetEncoder encoder = utf8.newEncoder();
-        encoder.onMalformedInput(CodingErrorAction.REPORT);
-        encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-        CharBuffer cb = CharBuffer.wrap(str);
-        CoderResult res = encoder.encode(cb, buffer, true);
-
-        if (res.isUnderflow()) {
-            encoder.encode(cb, buffer, true);
-            res = encoder.flush(buffer);
+    private static int doEncode(String str, ByteBuffer buffer, int start, int limit) throws CharacterCodingException {
+        int length = str.length();
+        int pos = start;
+        int i = 0;
+        // ASCII prefix
+        while (i < length && pos < limit) {
+            char c = str.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buffer.put(pos++, (byte) c);
+            i++;
         }
-        return res;
+        for (; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                if (pos >= limit) {
+                    break;
+                }
+                buffer.put(pos++, (byte) c);
+            } else if (c < 0x800) {
+                if (limit - pos < 2) {
+                    break;
+                }
+                buffer.put(pos++, (byte) (0xC0 | (c >> 6)));
+                buffer.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (!Character.isHighSurrogate(c) || i + 1 >= length || !Character.isLowSurrogate(str.charAt(i + 1))) {
+                    throw new CharacterCodingException();
+                }
+                if (limit - pos < 4) {
+                    break;
+                }
+                int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                buffer.put(pos++, (byte) (0xF0 | (codePoint >> 18)));
+                buffer.put(pos++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put(pos++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put(pos++, (byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                if (limit - pos < 3) {
+                    break;
+                }
+                buffer.put(pos++, (byte) (0xE0 | (c >> 12)));
+                buffer.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put(pos++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return pos - start;
     }
 
+    /**
+     * Length of the UTF-8 encoding of the string, as returned by {@code String.getBytes()} (i.e.
+     * unpaired surrogates count as one byte), without encoding it.
+     */
     @TruffleBoundary
-    private static byte[] getBytes(String str) {
-        return str.getBytes(utf8);
-    }
-
-    private static boolean cannotEncode(CoderResult res) {
-        return res.isMalformed() || res.isUnmappable() || res.isError();
+    private static int utf8Length(String str) {
+        int length = str.length();
+        int result = length;
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                continue;
+            } else if (c < 0x800) {
+                result += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                result += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                result += 2;
+            }
+        }
+        return result;
     }
 
 }
@@ -40,6 +40,8 @@
  */
 package com.oracle.truffle.trufflenode.node;
 
+import java.nio.ByteBuffer;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags;
@@ -270,6 +272,10 @@ public class ExecuteNativeFunctionNode extends JavaScriptNode {
 
     @CompilerDirectives.TruffleBoundary
     private Object executeFunction(Object[] arguments, JSRealm realm) {
+        if (GraalJSAccess.USE_BATCHED_CALLS) {
+            ByteBuffer newSharedBuffer = graalAccess.encodeArgumentTypes(arguments);
+            return NativeAccess.executeFunctionBatched(templateID, arguments, isNew, isNewTarget, realm, newSharedBuffer);
+        }
         return NativeAccess.executeFunction(templateID, arguments, isNew, isNewTarget, realm);
     }
 
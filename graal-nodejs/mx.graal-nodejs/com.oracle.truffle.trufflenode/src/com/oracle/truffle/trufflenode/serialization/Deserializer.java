@@ -97,8 +97,10 @@ public class Deserializer {
     private Map<Integer, Object> objectMap = new HashMap<>();
     /** Maps transfer ID to the transferred object. */
     private Map<Integer, DynamicObject> transferMap = new HashMap<>();
-    /** Cache for the last VM-level communication channel. */
-    private JavaMessagePortData messagePortCache = null;
+    /** Java references of the message, removed from the queue of the sending port. */
+    private Object[] javaRefs = null;
+    /** Index of the next reference in {@link #javaRefs}. */
+    private int javaRefsIndex;
 
     public Deserializer(long delegate, ByteBuffer buffer) {
         this.delegate = delegate;
@@ -486,11 +488,16 @@ public class Deserializer {
     }
 
     public Object readSharedJavaObject(JSContext context) {
+        int slot = readVarInt();
         long messagePortPointer = readVarLong();
-        if (messagePortCache == null || messagePortCache.getMessagePortDataPointer() != messagePortPointer) {
-            messagePortCache = SharedMemMessagingManager.getMessagePortDataFor(messagePortPointer);
+        if (javaRefs == null) {
+            // all Java references of a message are published (and removed) together
+            JavaMessagePortData messagePort = SharedMemMessagingManager.getMessagePortDataAt(slot, messagePortPointer);
+            javaRefs = messagePort.removeMessageRefs();
+            javaRefsIndex = 0;
         }
-        Object element = messagePortCache.removeJavaRef();
+        assert javaRefs != null && javaRefsIndex < javaRefs.length;
+        Object element = javaRefs[javaRefsIndex++];
         assert element != null;
         return context.getRealm().getEnv().asGuestValue(element);
     }
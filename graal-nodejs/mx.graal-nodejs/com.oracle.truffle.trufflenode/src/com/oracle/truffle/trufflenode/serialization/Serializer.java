@@ -103,6 +103,9 @@ public class Serializer {
     private final Env env;
     private final GraalJSAccess access;
 
+    /** Message port whose queue receives the Java references encoded by this serializer. */
+    private JavaMessagePortData javaRefsMessagePort;
+
     public Serializer(JSContext mainJSContext, GraalJSAccess access, long delegate) {
         this.delegate = delegate;
         this.env = mainJSContext.getRealm().getEnv();
@@ -171,9 +174,11 @@ public class Serializer {
         } else if (env.isHostObject(value) && access.getCurrentMessagePortData() != null) {
             JavaMessagePortData messagePort = access.getCurrentMessagePortData();
             writeTag(SerializationTag.SHARED_JAVA_OBJECT);
+            writeVarInt(messagePort.getSlot());
             writeVarInt(messagePort.getMessagePortDataPointer());
             assignId(value);
             messagePort.enqueueJavaRef(env.asHostObject(value));
+            javaRefsMessagePort = messagePort;
         } else {
             writeObject(value);
         }
@@ -530,6 +535,11 @@ public class Serializer {
     public void release(ByteBuffer targetBuffer) {
         buffer.flip();
         targetBuffer.put(buffer);
+        if (javaRefsMessagePort != null) {
+            // the message is complete, make its Java references available to the receiver
+            javaRefsMessagePort.messageEncoded();
+            javaRefsMessagePort = null;
+        }
     }
 
     private void assignId(Object object) {
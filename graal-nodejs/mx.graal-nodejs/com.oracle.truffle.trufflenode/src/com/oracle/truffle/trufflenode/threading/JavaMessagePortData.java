@@ -40,34 +40,79 @@
  */
 package com.oracle.truffle.trufflenode.threading;
 
-import java.util.Deque;
-import java.util.concurrent.ConcurrentLinkedDeque;
-
-import com.oracle.truffle.api.object.DynamicObject;
-import com.oracle.truffle.trufflenode.JSExternalObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Java-space counterpart of a node::MessagePortData object. The Java references of each message
+ * posted from the port are published as one batch to a lock-free queue (multiple producers, as a
+ * port may be transferred to another thread, and a single consumer: the thread owning the entangled
+ * port) that the receiving side drains in message order.
+ */
 public class JavaMessagePortData {
 
     private final long nativePointer;
-    private final Deque<Object> queue;
+    private final int slot;
+    private volatile boolean disposed;
+
+    /** Last published (or stub) batch, producers append after it. */
+    private final AtomicReference<Batch> tail;
+    /** Last consumed (or stub) batch, accessed by the consumer only. */
+    private Batch head;
+
+    /** References encoded in the message that is being serialized (producer side only). */
+    private final List<Object> pendingRefs = new ArrayList<>();
+    private Batch lastPublished;
     private int encodedRefs;
 
-    public JavaMessagePortData(DynamicObject external) {
-        assert JSExternalObject.isJSExternalObject(external);
-        this.encodedRefs = 0;
-        this.queue = new ConcurrentLinkedDeque<>();
-        this.nativePointer = JSExternalObject.getPointer(external);
+    private static final class Batch {
+        private Object[] refs;
+        private volatile Batch next;
+        private volatile boolean discarded;
+
+        Batch(Object[] refs) {
+            this.refs = refs;
+        }
+    }
+
+    JavaMessagePortData(long nativePointer, int slot) {
+        this.nativePointer = nativePointer;
+        this.slot = slot;
+        Batch stub = new Batch(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
     }
 
     public long getMessagePortDataPointer() {
         return nativePointer;
     }
 
+    /**
+     * Index of this object in the registry of {@link SharedMemMessagingManager}.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    void dispose() {
+        disposed = true;
+    }
+
     public void encodingBegin() {
+        pendingRefs.clear();
+        lastPublished = null;
         encodedRefs = 0;
     }
 
     public void encodingEnd() {
+        // references of a message whose serialization failed are never published
+        pendingRefs.clear();
+        lastPublished = null;
         encodedRefs = 0;
     }
 
@@ -76,19 +121,56 @@ public class JavaMessagePortData {
     }
 
     public void enqueueJavaRef(Object hostObject) {
-        queue.add(hostObject);
+        pendingRefs.add(hostObject);
         encodedRefs++;
     }
 
+    /**
+     * Publishes the references of the serialized message. Called when the serializer releases the
+     * message buffer, i.e., before the message is added to the queue of the entangled port.
+     */
+    public void messageEncoded() {
+        if (pendingRefs.isEmpty()) {
+            return;
+        }
+        Batch batch = new Batch(pendingRefs.toArray());
+        pendingRefs.clear();
+        Batch previous = tail.getAndSet(batch);
+        previous.next = batch;
+        lastPublished = batch;
+    }
+
+    /**
+     * Discards the references of the last message, which was not delivered.
+     */
     public void disposeLastMessageRefs() {
-        for (int i = 0; i < encodedRefs; i++) {
-            queue.removeLast();
+        if (lastPublished != null) {
+            // the message was not enqueued, so the consumer never reads this batch
+            lastPublished.discarded = true;
+            lastPublished.refs = null;
+            lastPublished = null;
         }
+        pendingRefs.clear();
         encodedRefs = 0;
     }
 
-    public Object removeJavaRef() {
-        return queue.removeFirst();
+    /**
+     * Removes the references of the next message from the queue (consumer side).
+     */
+    public Object[] removeMessageRefs() {
+        Batch next = head.next;
+        while (next != null && next.discarded) {
+            head = next;
+            next = next.next;
+        }
+        if (next == null) {
+            return null;
+        }
+        head = next;
+        Object[] refs = next.refs;
+        // the batch becomes the new stub, do not keep the references alive
+        next.refs = null;
+        return refs;
     }
 
 }
@@ -73,10 +73,13 @@ public final class SharedMemMessagingBindings extends JSBuiltinObject {
 
     private static final HiddenKey API = new HiddenKey("api");
     private static final Property API_PROPERTY;
+    private static final HiddenKey MESSAGE_PORT_DATA = new HiddenKey("messagePortData");
+    private static final Property MESSAGE_PORT_DATA_PROPERTY;
 
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
         API_PROPERTY = JSObjectUtil.makeHiddenProperty(API, allocator.locationForType(Object.class));
+        MESSAGE_PORT_DATA_PROPERTY = JSObjectUtil.makeHiddenProperty(MESSAGE_PORT_DATA, allocator.locationForType(Object.class));
     }
 
     public static void setApiField(DynamicObject obj, Object api) {
@@ -87,12 +90,25 @@ public final class SharedMemMessagingBindings extends JSBuiltinObject {
         return API_PROPERTY.get(obj, isInstance(obj, INSTANCE));
     }
 
+    /**
+     * The MessagePortData of the port (there is one bindings object per MessagePort) that was used
+     * last, so that the registry is consulted only when the port sends its first message.
+     */
+    public static void setMessagePortDataField(DynamicObject obj, JavaMessagePortData data) {
+        MESSAGE_PORT_DATA_PROPERTY.setSafe(obj, data, null);
+    }
+
+    public static JavaMessagePortData getMessagePortDataField(DynamicObject obj) {
+        Object data = MESSAGE_PORT_DATA_PROPERTY.get(obj, isInstance(obj, INSTANCE));
+        return (data instanceof JavaMessagePortData) ? (JavaMessagePortData) data : null;
+    }
+
     private SharedMemMessagingBindings() {
     }
 
     @TruffleBoundary
     private static DynamicObject create(JSContext context, GraalJSAccess graalJSAccess) {
-        DynamicObject obj = context.createEmptyShape().addProperty(API_PROPERTY).newInstance();
+        DynamicObject obj = context.createEmptyShape().addProperty(API_PROPERTY).addProperty(MESSAGE_PORT_DATA_PROPERTY).newInstance();
         JSObjectUtil.putFunctionsFromContainer(context.getRealm(), obj, BUILTINS);
         setApiField(obj, graalJSAccess);
         return obj;
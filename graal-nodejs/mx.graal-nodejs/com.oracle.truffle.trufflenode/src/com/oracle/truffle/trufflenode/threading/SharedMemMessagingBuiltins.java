@@ -109,7 +109,13 @@ public class SharedMemMessagingBuiltins extends JSBuiltinsContainer.SwitchEnum<S
         public Object enter(DynamicObject self, DynamicObject nativeMessagePortData) {
             assert JSExternalObject.isJSExternalObject(nativeMessagePortData);
             GraalJSAccess access = (GraalJSAccess) SharedMemMessagingBindings.getApiField(self);
-            access.setCurrentMessagePortData(nativeMessagePortData);
+            long pointer = JSExternalObject.getPointer(nativeMessagePortData);
+            JavaMessagePortData data = SharedMemMessagingBindings.getMessagePortDataField(self);
+            if (data == null || data.getMessagePortDataPointer() != pointer || data.isDisposed()) {
+                data = SharedMemMessagingManager.getJavaMessagePortDataFor(nativeMessagePortData);
+                SharedMemMessagingBindings.setMessagePortDataField(self, data);
+            }
+            access.setCurrentMessagePortData(data);
             return self;
         }
     }
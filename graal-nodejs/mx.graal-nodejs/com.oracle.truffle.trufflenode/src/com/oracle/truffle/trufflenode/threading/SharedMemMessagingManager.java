@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.trufflenode.threading;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -49,22 +50,44 @@ import com.oracle.truffle.trufflenode.JSExternalObject;
 
 /**
  * Registry of active node::MessagePortData objects that have exchanged Java object references
- * during message encoding using Node's workers.
+ * during message encoding using Node's workers. Each of them occupies a slot that is encoded in the
+ * messages, so that the receiving side finds the queue of references with a plain array read.
  */
 public class SharedMemMessagingManager {
 
+    private static final int INITIAL_SLOTS = 16;
+
     /**
      * Active MessagePortData objects allocated by node Workers that have exchanged Java objects in
-     * messages. Map from their native pointer address to their Java-space representation.
+     * messages. Map from their native pointer address to their Java-space representation. Only
+     * used when a port sends its first message (and when it is disposed).
      */
     private static final Map<Long, JavaMessagePortData> activeMessagePortRefs = new ConcurrentHashMap<>();
 
+    /**
+     * Active MessagePortData objects indexed by their slot. Copied on write (registration and
+     * disposal are rare), read without locking.
+     */
+    private static volatile JavaMessagePortData[] slots = new JavaMessagePortData[INITIAL_SLOTS];
+
     @TruffleBoundary
     public static JavaMessagePortData getMessagePortDataFor(long nativePointer) {
         assert activeMessagePortRefs.containsKey(nativePointer);
         return activeMessagePortRefs.get(nativePointer);
     }
 
+    /**
+     * Returns the MessagePortData in the given slot, validated against its native pointer.
+     */
+    public static JavaMessagePortData getMessagePortDataAt(int slot, long nativePointer) {
+        JavaMessagePortData[] current = slots;
+        JavaMessagePortData data = (slot < current.length) ? current[slot] : null;
+        if (data == null || data.getMessagePortDataPointer() != nativePointer) {
+            return getMessagePortDataFor(nativePointer);
+        }
+        return data;
+    }
+
     @TruffleBoundary
     public static JavaMessagePortData getJavaMessagePortDataFor(DynamicObject nativeMessagePortData) {
         assert JSExternalObject.isJSExternalObject(nativeMessagePortData);
@@ -72,16 +95,43 @@ public class SharedMemMessagingManager {
 
         JavaMessagePortData data = activeMessagePortRefs.get(pointer);
         if (data == null) {
-            data = new JavaMessagePortData(nativeMessagePortData);
-            activeMessagePortRefs.put(pointer, data);
+            data = register(pointer);
         }
         return data;
     }
 
+    private static synchronized JavaMessagePortData register(long pointer) {
+        JavaMessagePortData data = activeMessagePortRefs.get(pointer);
+        if (data != null) {
+            return data;
+        }
+        JavaMessagePortData[] current = slots;
+        int slot = 0;
+        while (slot < current.length && current[slot] != null) {
+            slot++;
+        }
+        JavaMessagePortData[] updated = Arrays.copyOf(current, slot < current.length ? current.length : current.length * 2);
+        data = new JavaMessagePortData(pointer, slot);
+        updated[slot] = data;
+        slots = updated;
+        activeMessagePortRefs.put(pointer, data);
+        return data;
+    }
+
     @TruffleBoundary
     public static void disposeReferences(DynamicObject nativeMessagePortData) {
         assert JSExternalObject.isJSExternalObject(nativeMessagePortData);
         long pointer = JSExternalObject.getPointer(nativeMessagePortData);
-        activeMessagePortRefs.remove(pointer);
+        unregister(pointer);
+    }
+
+    private static synchronized void unregister(long pointer) {
+        JavaMessagePortData data = activeMessagePortRefs.remove(pointer);
+        if (data != null) {
+            data.dispose();
+            JavaMessagePortData[] updated = slots.clone();
+            updated[data.getSlot()] = null;
+            slots = updated;
+        }
     }
 }
@@ -72,4 +72,24 @@ EXPORT_TO_JS(Identity) {
     args.GetReturnValue().Set(args[0]);
 }
 
+// returns the arguments, with array buffer views replaced by [ByteOffset, ByteLength]
+
+EXPORT_TO_JS(DescribeArguments) {
+    Isolate* isolate = args.GetIsolate();
+    Local<Context> context = isolate->GetCurrentContext();
+    Local<Array> result = Array::New(isolate, args.Length());
+    for (int i = 0; i < args.Length(); i++) {
+        Local<Value> value = args[i];
+        if (value->IsArrayBufferView()) {
+            Local<ArrayBufferView> view = value.As<ArrayBufferView>();
+            Local<Array> offsetAndLength = Array::New(isolate, 2);
+            offsetAndLength->Set(context, 0, Integer::New(isolate, (int32_t) view->ByteOffset()));
+            offsetAndLength->Set(context, 1, Integer::New(isolate, (int32_t) view->ByteLength()));
+            value = offsetAndLength;
+        }
+        result->Set(context, i, value);
+    }
+    args.GetReturnValue().Set(result);
+}
+
 #undef SUITE
@@ -105,4 +105,27 @@ describe('Arguments', function () {
             });
         });
     });
+    describe('more than six arguments', function () {
+        it('should be passed with numbers and array buffer views', function() {
+            var buffer = new ArrayBuffer(64);
+            var values = [1, -0.5, NaN, Math.pow(2, 40), 'string', true, null, undefined,
+                new Uint8Array(buffer, 8, 16), new Float64Array(buffer, 16, 2), new DataView(buffer, 4, 12), {a: 1}];
+            // more arguments than fit into the initial shared buffer, so that it is reallocated
+            for (var i = 0; i < 20; i++) {
+                values.push(i / 4, new Int32Array(buffer, 4 * (i % 8), 2));
+            }
+            var result = module.Arguments_DescribeArguments.apply(null, values);
+            assert.strictEqual(result.length, values.length);
+            values.forEach(function(value, index) {
+                if (ArrayBuffer.isView(value)) {
+                    assert.deepStrictEqual(result[index], [value.byteOffset, value.byteLength]);
+                } else {
+                    assert.strictEqual(result[index], value);
+                }
+            });
+            // calls with few arguments use the reallocated buffer as well
+            assert.strictEqual(module.Arguments_Identity(Math.PI), Math.PI);
+            assert.deepStrictEqual(module.Arguments_DescribeArguments(new Uint16Array(buffer, 2, 3)), [[2, 6]]);
+        });
+    });
 });
@@ -90,6 +90,18 @@ describe('Buffer.utf8Write', function() {
     it('should deal with utf8 inputs #2', function() {
         assert.strictEqual(Buffer.alloc(10).utf8Write('½½½'), 6);
     });
+    it('should write only whole characters', function() {
+        var buf = Buffer.alloc(10);
+        assert.strictEqual(buf.utf8Write('ab\u20AC\uD83D\uDE00', 0, 6), 5);
+        assert.strictEqual(buf.utf8Slice(0, 5), 'ab\u20AC');
+        assert.strictEqual(buf.utf8Write('ab\u20AC\uD83D\uDE00', 0, 9), 9);
+        assert.strictEqual(buf.utf8Slice(0, 9), 'ab\u20AC\uD83D\uDE00');
+    });
+    it('should replace unpaired surrogates', function() {
+        var buf = Buffer.alloc(10);
+        assert.strictEqual(buf.utf8Write('a\uD800b'), 5);
+        assert.strictEqual(buf.utf8Slice(0, 5), 'a\uFFFDb');
+    });
     it('length is zero', function() {
         assert.strictEqual(Buffer.alloc(0).utf8Write.length, 0);
     });
@@ -145,4 +157,19 @@ describe('Buffer.utf8Slice', function() {
     it('length is zero', function() {
         assert.strictEqual(Buffer.alloc(0).utf8Slice.length, 0);
     });
+    it('should decode ascii and multi-byte sequences', function() {
+        var text = 'GET /index.html HTTP/1.1\r\nHost: \u00E9\u4E2D\uD83D\uDE00 example\r\n';
+        var buf = Buffer.from(text, 'utf8');
+        assert.strictEqual(buf.utf8Slice(0, buf.length), text);
+        assert.strictEqual(buf.utf8Slice(4, 15), '/index.html');
+    });
+    it('should replace malformed sequences', function() {
+        assert.strictEqual(Buffer.from([0x61, 0xC0, 0xAF, 0x62]).utf8Slice(0, 4), 'a\uFFFD\uFFFDb');
+        assert.strictEqual(Buffer.from([0xED, 0xA0, 0x80]).utf8Slice(0, 3), '\uFFFD\uFFFD\uFFFD');
+        assert.strictEqual(Buffer.from([0x61, 0x62, 0xE2, 0x82]).utf8Slice(0, 4), 'ab\uFFFD');
+    });
+    it('should respect the byte offset of the view', function() {
+        var buf = Buffer.from('0123456789abcdef\u00E9', 'utf8').slice(10);
+        assert.strictEqual(buf.utf8Slice(0, buf.length), 'abcdef\u00E9');
+    });
 });
\ No newline at end of file
@@ -308,6 +308,50 @@ describe('Java interop messages', function() {
             });
         }
     });
+    it('many workers can exchange Java objects at a high rate', function(done) {
+        if (isMainThread) {
+            const A = Java.type('java.util.concurrent.atomic.AtomicInteger');
+            const workersNum = 4;
+            const messagesNum = 1000;
+            const total = new A(0);
+            var finished = 0;
+            for (var worker = 0; worker < workersNum; worker++) {
+                let w = new Worker(`
+                                const {
+                                    parentPort
+                                } = require('worker_threads');
+
+                                parentPort.on('message', (m) => {
+                                    m.total.incrementAndGet();
+                                    // send two Java objects back, and one message without them
+                                    parentPort.postMessage({ index: m.index, first: m.first, second: m.second });
+                                    parentPort.postMessage(m.index);
+                                });
+                `, {
+                    eval: true
+                });
+                let received = 0;
+                w.on('message', (m) => {
+                    if (typeof m === 'number') {
+                        return;
+                    }
+                    assert(m.first.get() === m.index);
+                    assert(m.second.get() === -m.index);
+                    if (++received === messagesNum) {
+                        w.terminate().then(() => {
+                            if (++finished === workersNum) {
+                                assert(total.get() === workersNum * messagesNum);
+                                done();
+                            }
+                        });
+                    }
+                });
+                for (var i = 0; i < messagesNum; i++) {
+                    w.postMessage({ index: i, first: new A(i), second: new A(-i), total: total });
+                }
+            }
+        }
+    });
     it('Java can schedule back to the main Node.js event loop using a (blocking) worker', function(done) {
         if (isMainThread) {
             const JavaAsyncClass = Java.type('com.oracle.truffle.js.test.threading.JavaAsyncTaskScheduler.Example');